@@ -0,0 +1,111 @@
+package com.precificapro.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Executa os benchmarks e grava o resultado em JSON (formato padrão do JMH).
+ *
+ * Uso: ./mvnw -Pbenchmark -DskipTests verify [-Dbenchmark.include=Pricing] [-Dbenchmark.baseline=arquivo.json]
+ *
+ * Argumentos: [filtro regex] [diretório de saída] [versão] [json de referência].
+ * Cada execução gera jmh-&lt;versão&gt;-&lt;data&gt;.json e atualiza latest.json. Com um arquivo de
+ * referência (por exemplo o latest.json da versão anterior), imprime a variação de cada
+ * benchmark e marca como regressão o que ficou mais de 10% mais lento.
+ */
+public final class BenchmarkRunner {
+
+    private static final double REGRESSION_THRESHOLD_PCT = 10.0;
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String include = arg(args, 0, ".*");
+        Path outputDir = Path.of(arg(args, 1, "target/jmh"));
+        String version = arg(args, 2, "dev");
+        String baseline = arg(args, 3, "");
+
+        Files.createDirectories(outputDir);
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path resultFile = outputDir.resolve("jmh-" + version + "-" + timestamp + ".json");
+
+        Options options = new OptionsBuilder()
+                .include(BenchmarkRunner.class.getPackageName() + ".*" + include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile.toString())
+                .build();
+        new Runner(options).run();
+
+        Files.copy(resultFile, outputDir.resolve("latest.json"), StandardCopyOption.REPLACE_EXISTING);
+        System.out.println("Resultados gravados em " + resultFile);
+
+        if (!baseline.isBlank()) {
+            compare(Path.of(baseline), resultFile);
+        }
+    }
+
+    /** Compara duas execuções pelo score principal (tempo médio: maior é pior). */
+    static void compare(Path baselineFile, Path currentFile) throws IOException {
+        Map<String, JsonNode> baseline = index(baselineFile);
+        Map<String, JsonNode> current = index(currentFile);
+
+        int regressions = 0;
+        System.out.println();
+        System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Referência", "Atual", "Variação");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            double now = entry.getValue().path("primaryMetric").path("score").asDouble();
+            String unit = entry.getValue().path("primaryMetric").path("scoreUnit").asText();
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s%n", entry.getKey(), "-", now, "novo");
+                continue;
+            }
+            double then = before.path("primaryMetric").path("score").asDouble();
+            double changePct = (then == 0) ? 0 : (now - then) * 100.0 / then;
+            boolean regression = changePct > REGRESSION_THRESHOLD_PCT;
+            if (regression) regressions++;
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%% %s%s%n",
+                    entry.getKey(), then, now, changePct, unit, regression ? "  <- REGRESSÃO" : "");
+        }
+        System.out.println();
+        System.out.println(regressions == 0
+                ? "Nenhuma regressão acima de " + REGRESSION_THRESHOLD_PCT + "%."
+                : regressions + " benchmark(s) mais de " + REGRESSION_THRESHOLD_PCT + "% mais lentos que a referência.");
+    }
+
+    /** Chave = nome do benchmark + parâmetros, para casar execuções de versões diferentes. */
+    private static Map<String, JsonNode> index(Path file) throws IOException {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+            Map<String, String> params = new TreeMap<>();
+            JsonNode paramsNode = run.path("params");
+            for (Iterator<Map.Entry<String, JsonNode>> it = paramsNode.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> param = it.next();
+                params.put(param.getKey(), param.getValue().asText());
+            }
+            String name = run.path("benchmark").asText().replace(BenchmarkRunner.class.getPackageName() + ".", "");
+            byKey.put(params.isEmpty() ? name : name + " " + params, run);
+        }
+        return byKey;
+    }
+
+    private static String arg(String[] args, int index, String defaultValue) {
+        return (args.length > index && !args[index].isBlank()) ? args[index] : defaultValue;
+    }
+}
@@ -0,0 +1,78 @@
+package com.precificapro.benchmark;
+
+import com.precificapro.domain.model.Customer;
+import com.precificapro.domain.model.Sale;
+import com.precificapro.domain.model.User;
+import com.precificapro.domain.repository.SaleRepository;
+import com.precificapro.domain.repository.SalesDailyRollupRepository;
+import com.precificapro.service.DashboardService;
+import com.precificapro.service.SalesRollupService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gráfico de vendas sobre históricos de 1k/10k/100k vendas. O serviço lê o rollup diário
+ * (uma linha por dia), então o tempo deve variar com {@code days} e não com {@code salesCount}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DashboardBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int salesCount;
+
+    @Param({"30", "365"})
+    private int days;
+
+    private User owner;
+    private DashboardService service;
+
+    @Setup
+    public void setup() {
+        SyntheticData.quietLogging();
+        Random random = new Random(SyntheticData.SEED);
+        owner = SyntheticData.owner();
+        Customer customer = SyntheticData.customer(owner);
+        List<Sale> sales = SyntheticData.sales(owner, customer, salesCount, 365, random);
+
+        // Equivalente ao que o banco devolve de sales_daily_rollup agrupado por dia
+        TreeMap<LocalDate, Object[]> rollup = new TreeMap<>();
+        for (Sale sale : sales) {
+            Object[] row = rollup.computeIfAbsent(SalesRollupService.saleDay(sale.getSaleDate()),
+                    day -> new Object[]{day, BigDecimal.ZERO, BigDecimal.ZERO});
+            row[1] = ((BigDecimal) row[1]).add(sale.getTotalAmount());
+            row[2] = ((BigDecimal) row[2]).add(sale.getTotalNetProfit());
+        }
+
+        service = new DashboardService(
+                RepositoryStubs.stub(SaleRepository.class, Map.of()),
+                RepositoryStubs.stub(SalesDailyRollupRepository.class, Map.of(
+                        "sumByDay", args -> List.copyOf(rollup.tailMap((LocalDate) args[1]).values()))));
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> getSalesChartData() {
+        return service.getSalesChartData(owner, days);
+    }
+}
@@ -0,0 +1,141 @@
+package com.precificapro.benchmark;
+
+import com.precificapro.config.TenantCacheGenerations;
+import com.precificapro.controller.dto.SimulationRequestDTO;
+import com.precificapro.controller.dto.SimulationResponseDTO;
+import com.precificapro.domain.model.FreightBatch;
+import com.precificapro.domain.model.PricingProfile;
+import com.precificapro.domain.model.Product;
+import com.precificapro.domain.model.User;
+import com.precificapro.domain.repository.CostItemRepository;
+import com.precificapro.domain.repository.FreightBatchRepository;
+import com.precificapro.domain.repository.PricingProfileRepository;
+import com.precificapro.domain.repository.ProductRepository;
+import com.precificapro.service.PricingSimulationService;
+import com.precificapro.service.pricing.BigDecimalPricingKernel;
+import com.precificapro.service.pricing.CostInputs;
+import com.precificapro.service.pricing.CostModelCache;
+import com.precificapro.service.pricing.FixedPointPricingKernel;
+import com.precificapro.service.pricing.PricingKernel;
+import com.precificapro.service.pricing.PricingKernelType;
+import com.precificapro.service.pricing.ProfileInputs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulação de preço: uma chamada de {@code simulate} por produto do catálogo
+ * e a matriz catálogo x perfis inteira pelo kernel selecionado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PricingBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int catalogSize;
+
+    @Param({"BIG_DECIMAL", "FIXED_POINT"})
+    private PricingKernelType kernelType;
+
+    private User owner;
+    private PricingSimulationService service;
+    private PricingKernel kernel;
+    private List<SimulationRequestDTO> requests;
+    private List<CostInputs> costs;
+    private List<ProfileInputs> profileInputs;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        SyntheticData.quietLogging();
+        Random random = new Random(SyntheticData.SEED);
+        owner = SyntheticData.owner();
+        List<Product> products = SyntheticData.products(owner, catalogSize, random);
+        List<PricingProfile> profiles = SyntheticData.profiles(owner);
+        BigDecimal fixedCosts = new BigDecimal("8500.00");
+
+        Map<UUID, Product> productsById = new HashMap<>();
+        Map<UUID, FreightBatch> freightByProduct = new HashMap<>();
+        for (Product product : products) {
+            productsById.put(product.getId(), product);
+            if (random.nextInt(4) > 0) {
+                freightByProduct.put(product.getId(), SyntheticData.freight(owner, product, random));
+            }
+        }
+
+        BigDecimalPricingKernel bigDecimalKernel = new BigDecimalPricingKernel();
+        FixedPointPricingKernel fixedPointKernel = new FixedPointPricingKernel(bigDecimalKernel);
+        kernel = (kernelType == PricingKernelType.FIXED_POINT) ? fixedPointKernel : bigDecimalKernel;
+
+        service = new PricingSimulationService();
+        ReflectionTestUtils.setField(service, "productRepository", RepositoryStubs.stub(ProductRepository.class, Map.of(
+                "findByIdAndOwner", args -> Optional.ofNullable(productsById.get((UUID) args[0])))));
+        CaffeineCacheManager costModelCacheManager = new CaffeineCacheManager();
+        // Modelo de custos montado na primeira chamada e servido do cache nas seguintes, como em produção
+        ReflectionTestUtils.setField(service, "costModelCache", new CostModelCache(
+                costModelCacheManager,
+                new TenantCacheGenerations(),
+                RepositoryStubs.stub(CostItemRepository.class, Map.of(
+                        "sumActiveAmountMonthlyByOwner", args -> fixedCosts)),
+                RepositoryStubs.stub(PricingProfileRepository.class, Map.of(
+                        "findByOwner", args -> profiles)),
+                RepositoryStubs.stub(FreightBatchRepository.class, Map.of(
+                        "findLatestPerProductByOwnerId", args -> List.copyOf(freightByProduct.values())))));
+        ReflectionTestUtils.setField(service, "bigDecimalKernel", bigDecimalKernel);
+        ReflectionTestUtils.setField(service, "fixedPointKernel", fixedPointKernel);
+        ReflectionTestUtils.setField(service, "kernelType", kernelType);
+
+        requests = new ArrayList<>(catalogSize);
+        costs = new ArrayList<>(catalogSize);
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            PricingProfile profile = profiles.get(i % profiles.size());
+            requests.add(new SimulationRequestDTO(product.getId(), profile.getId(), null));
+            FreightBatch freight = freightByProduct.get(product.getId());
+            BigDecimal freightCostUnit = (freight == null) ? BigDecimal.ZERO
+                    : BigDecimalPricingKernel.safeDivide(freight.getFreightTotal(),
+                    BigDecimal.valueOf(freight.getBatchSize()), BigDecimalPricingKernel.MC);
+            costs.add(CostInputs.of(product, null, freightCostUnit));
+        }
+        profileInputs = new ArrayList<>();
+        profiles.forEach(p -> profileInputs.add(ProfileInputs.of(p, null, fixedCosts)));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public SimulationResponseDTO simulate() {
+        SimulationRequestDTO request = requests.get(cursor);
+        cursor = (cursor + 1) % requests.size();
+        return service.simulate(request, owner);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void catalogMatrix(Blackhole blackhole) {
+        kernel.calculateMatrix(costs, profileInputs, (i, j, result) -> blackhole.consume(result));
+    }
+}
@@ -0,0 +1,59 @@
+package com.precificapro.benchmark;
+
+import com.precificapro.domain.enums.RoundingRule;
+import com.precificapro.service.pricing.BigDecimalPricingKernel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de applyRounding por preço, com preços no formato que sai da divisão com MathContext(10).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RoundingBenchmark {
+
+    private static final int PRICES = 1024;
+
+    @Param({"NONE", "UP_TO_0_50", "UP_TO_0_90", "UP_TO_0_99"})
+    private RoundingRule rule;
+
+    private BigDecimal[] prices;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(SyntheticData.SEED);
+        MathContext mc = new MathContext(10);
+        prices = new BigDecimal[PRICES];
+        for (int i = 0; i < PRICES; i++) {
+            prices[i] = SyntheticData.money(random, 100, 1_000_000).divide(new BigDecimal("0.7301"), mc);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PRICES)
+    public void applyRounding(Blackhole blackhole) {
+        for (BigDecimal price : prices) {
+            blackhole.consume(BigDecimalPricingKernel.applyRounding(price, rule));
+        }
+    }
+}
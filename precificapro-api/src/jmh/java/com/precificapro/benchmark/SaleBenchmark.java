@@ -0,0 +1,164 @@
+package com.precificapro.benchmark;
+
+import com.precificapro.config.TenantCacheGenerations;
+import com.precificapro.controller.dto.SaleCreateDTO;
+import com.precificapro.domain.model.Customer;
+import com.precificapro.domain.model.FreightBatch;
+import com.precificapro.domain.model.Inventory;
+import com.precificapro.domain.model.Product;
+import com.precificapro.domain.model.Sale;
+import com.precificapro.domain.model.User;
+import com.precificapro.domain.repository.CostItemRepository;
+import com.precificapro.domain.repository.CustomerRepository;
+import com.precificapro.domain.repository.FreightBatchRepository;
+import com.precificapro.domain.repository.InventoryRepository;
+import com.precificapro.domain.repository.PricingProfileRepository;
+import com.precificapro.domain.repository.ProductRepository;
+import com.precificapro.domain.repository.SaleRepository;
+import com.precificapro.domain.repository.SalesDailyRollupRepository;
+import com.precificapro.domain.repository.StockMovementRepository;
+import com.precificapro.domain.repository.StockReservationRepository;
+import com.precificapro.service.InventoryService;
+import com.precificapro.service.SaleService;
+import com.precificapro.service.SalesRollupService;
+import com.precificapro.service.pricing.CostModelCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * recordSale com repositórios em memória: mede o snapshot de custo (frete rateado + custos
+ * diretos), o agrupamento por produto e a baixa de estoque, sem o custo do banco.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SaleBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int catalogSize;
+
+    @Param({"1", "10"})
+    private int itemsPerSale;
+
+    private User owner;
+    private SaleService service;
+    private List<SaleCreateDTO> sales;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        SyntheticData.quietLogging();
+        Random random = new Random(SyntheticData.SEED);
+        owner = SyntheticData.owner();
+        Customer customer = SyntheticData.customer(owner);
+        List<Product> products = SyntheticData.products(owner, catalogSize, random);
+
+        Map<UUID, Product> productsById = new HashMap<>();
+        Map<UUID, Inventory> inventoryByProduct = new HashMap<>();
+        Map<UUID, FreightBatch> freightByProduct = new HashMap<>();
+        for (Product product : products) {
+            productsById.put(product.getId(), product);
+            inventoryByProduct.put(product.getId(), SyntheticData.inventory(product));
+            if (random.nextInt(4) > 0) {
+                freightByProduct.put(product.getId(), SyntheticData.freight(owner, product, random));
+            }
+        }
+
+        ProductRepository productRepository = RepositoryStubs.stub(ProductRepository.class, Map.of(
+                "findByOwnerAndIdIn", args -> ((Collection<?>) args[1]).stream()
+                        .map(productsById::get)
+                        .filter(Objects::nonNull)
+                        .toList()));
+        // Equivalente em memória do UPDATE condicional (decrementa só quem tem estoque)
+        InventoryRepository inventoryRepository = RepositoryStubs.stub(InventoryRepository.class, Map.of(
+                "decrementAvailable", args -> {
+                    UUID[] productIds = (UUID[]) args[0];
+                    Integer[] quantities = (Integer[]) args[1];
+                    List<Object[]> decremented = new ArrayList<>(productIds.length);
+                    for (int i = 0; i < productIds.length; i++) {
+                        Inventory inventory = inventoryByProduct.get(productIds[i]);
+                        if (inventory != null && inventory.getCurrentStock() >= quantities[i]) {
+                            inventory.setCurrentStock(inventory.getCurrentStock() - quantities[i]);
+                            decremented.add(new Object[]{productIds[i], inventory.getProduct().getName(),
+                                    inventory.getCurrentStock(), inventory.getMinStock(), quantities[i], 0});
+                        }
+                    }
+                    return decremented;
+                }));
+        StockMovementRepository stockMovementRepository = RepositoryStubs.stub(StockMovementRepository.class, Map.of());
+
+        service = new SaleService();
+        ReflectionTestUtils.setField(service, "productRepository", productRepository);
+        ReflectionTestUtils.setField(service, "customerRepository", RepositoryStubs.stub(CustomerRepository.class, Map.of(
+                "findByOwnerAndPhoneNumber", args -> Optional.of(customer))));
+        CaffeineCacheManager costModelCacheManager = new CaffeineCacheManager();
+        ReflectionTestUtils.setField(service, "costModelCache", new CostModelCache(
+                costModelCacheManager,
+                new TenantCacheGenerations(),
+                RepositoryStubs.stub(CostItemRepository.class, Map.of(
+                        "sumActiveAmountMonthlyByOwner", args -> BigDecimal.ZERO)),
+                RepositoryStubs.stub(PricingProfileRepository.class, Map.of(
+                        "findByOwner", args -> List.of())),
+                RepositoryStubs.stub(FreightBatchRepository.class, Map.of(
+                        "findLatestPerProductByOwnerId", args -> List.copyOf(freightByProduct.values())))));
+        ReflectionTestUtils.setField(service, "saleRepository", RepositoryStubs.stub(SaleRepository.class, Map.of(
+                "save", args -> {
+                    Sale sale = (Sale) args[0];
+                    sale.setId(UUID.randomUUID());
+                    return sale;
+                })));
+        ReflectionTestUtils.setField(service, "inventoryService",
+                new InventoryService(inventoryRepository, stockMovementRepository, productRepository,
+                        new TenantCacheGenerations(), event -> { },
+                        RepositoryStubs.stub(StockReservationRepository.class, Map.of())));
+        ReflectionTestUtils.setField(service, "salesRollupService", new SalesRollupService(
+                RepositoryStubs.stub(SalesDailyRollupRepository.class, Map.of(
+                        "lockOwnerForIncrement", args -> 1,
+                        "increment", args -> null)), null));
+
+        // 1024 vendas pré-montadas, percorridas em ciclo
+        sales = new ArrayList<>(1024);
+        for (int s = 0; s < 1024; s++) {
+            List<SaleCreateDTO.SaleItemCreateDTO> items = new ArrayList<>(itemsPerSale);
+            for (int i = 0; i < itemsPerSale; i++) {
+                Product product = products.get(random.nextInt(products.size()));
+                BigDecimal unitPrice = product.getDefaultPurchaseCost().multiply(new BigDecimal("1.8"));
+                items.add(new SaleCreateDTO.SaleItemCreateDTO(product.getId(), 1 + random.nextInt(3), unitPrice));
+            }
+            sales.add(new SaleCreateDTO(customer.getPhoneNumber(), items, List.of()));
+        }
+    }
+
+    @Benchmark
+    public Sale recordSale() {
+        SaleCreateDTO dto = sales.get(cursor);
+        cursor = (cursor + 1) & 1023;
+        return service.recordSale(dto, owner);
+    }
+}
@@ -0,0 +1,142 @@
+package com.precificapro.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.precificapro.domain.enums.PricingMethod;
+import com.precificapro.domain.enums.RoundingRule;
+import com.precificapro.domain.model.Customer;
+import com.precificapro.domain.model.FreightBatch;
+import com.precificapro.domain.model.Inventory;
+import com.precificapro.domain.model.PricingProfile;
+import com.precificapro.domain.model.Product;
+import com.precificapro.domain.model.Sale;
+import com.precificapro.domain.model.User;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Catálogos e históricos sintéticos com semente fixa, para que duas execuções
+ * (ou duas versões) meçam exatamente os mesmos dados.
+ */
+final class SyntheticData {
+
+    static final long SEED = 20240601L;
+
+    private SyntheticData() {
+    }
+
+    /** Os serviços registram log.info por operação; nos benchmarks isso só mede o console. */
+    static void quietLogging() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+
+    static User owner() {
+        return User.builder()
+                .id(UUID.nameUUIDFromBytes("benchmark-owner".getBytes()))
+                .name("Benchmark")
+                .email("benchmark@precificapro.local")
+                .build();
+    }
+
+    static List<Product> products(User owner, int count, Random random) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(Product.builder()
+                    .id(new UUID(SEED, i))
+                    .owner(owner)
+                    .name("Produto " + i)
+                    .sku("SKU-" + i)
+                    .defaultPurchaseCost(money(random, 5, 50_000))
+                    .defaultPackagingCost(money(random, 0, 500))
+                    .defaultOtherVariableCost(money(random, 0, 300))
+                    .build());
+        }
+        return products;
+    }
+
+    static FreightBatch freight(User owner, Product product, Random random) {
+        return FreightBatch.builder()
+                .id(UUID.randomUUID())
+                .owner(owner)
+                .product(product)
+                .batchSize(1 + random.nextInt(200))
+                .freightTotal(money(random, 1_000, 80_000))
+                .createdAt(OffsetDateTime.now())
+                .build();
+    }
+
+    static Inventory inventory(Product product) {
+        return Inventory.builder()
+                .id(UUID.randomUUID())
+                .product(product)
+                .owner(product.getOwner())
+                .currentStock(Integer.MAX_VALUE / 2)
+                .reservedStock(0)
+                .availableStock(Integer.MAX_VALUE / 2)
+                .minStock(0)
+                .build();
+    }
+
+    static List<PricingProfile> profiles(User owner) {
+        List<PricingProfile> profiles = new ArrayList<>();
+        int i = 0;
+        for (PricingMethod method : PricingMethod.values()) {
+            for (RoundingRule rule : RoundingRule.values()) {
+                profiles.add(PricingProfile.builder()
+                        .id(new UUID(SEED + 1, i++))
+                        .owner(owner)
+                        .name(method + " " + rule)
+                        .method(method)
+                        .markup(new BigDecimal("0.8000"))
+                        .marginOnPrice(new BigDecimal("0.2500"))
+                        .machineFeePct(new BigDecimal("0.0399"))
+                        .marketplaceFeePct(new BigDecimal("0.1600"))
+                        .otherFeesPct(new BigDecimal("0.0100"))
+                        .monthlySalesTarget(300)
+                        .roundingRule(rule)
+                        .build());
+            }
+        }
+        return profiles;
+    }
+
+    static Customer customer(User owner) {
+        return Customer.builder()
+                .id(UUID.randomUUID())
+                .owner(owner)
+                .name("Cliente benchmark")
+                .phoneNumber("11999990000")
+                .build();
+    }
+
+    /** Vendas espalhadas pelos últimos {@code days} dias, mais recentes primeiro. */
+    static List<Sale> sales(User owner, Customer customer, int count, int days, Random random) {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<Sale> sales = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BigDecimal amount = money(random, 1_000, 500_000);
+            sales.add(Sale.builder()
+                    .id(new UUID(SEED + 2, i))
+                    .owner(owner)
+                    .customer(customer)
+                    .saleDate(now.minusMinutes((long) i * days * 24 * 60 / Math.max(count, 1)))
+                    .totalAmount(amount)
+                    .totalNetProfit(amount.multiply(new BigDecimal("0.23")).setScale(2, RoundingMode.HALF_UP))
+                    .items(List.of())
+                    .build());
+        }
+        return sales;
+    }
+
+    /** Valor em reais entre minCents e maxCents, com 2 casas. */
+    static BigDecimal money(Random random, long minCents, long maxCents) {
+        return BigDecimal.valueOf(minCents + (long) (random.nextDouble() * (maxCents - minCents)), 2);
+    }
+}
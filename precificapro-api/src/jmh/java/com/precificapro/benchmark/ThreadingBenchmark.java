@@ -0,0 +1,71 @@
+package com.precificapro.benchmark;
+
+import com.precificapro.benchmark.ThreadingLoad.ThreadMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rajadas de requisições HTTP contra o Tomcat embutido (ver {@link ThreadingLoad}) com threads
+ * de plataforma (padrão, 200 threads) e com threads virtuais (spring.threads.virtual.enabled).
+ *
+ * Parte das requisições faz uma chamada externa bloqueante (150 ms ou 1 s) pelo notificador
+ * de webhook; as demais só passam pelo Tomcat e pelo DispatcherServlet. O score é o tempo médio
+ * por requisição dentro de uma rajada; vazão = 1 / score.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+public class ThreadingBenchmark {
+
+    private static final int REQUESTS = 2_000;
+    private static final int CONCURRENCY = 1_000;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    private ThreadMode mode;
+
+    // % das requisições que fazem chamada externa: 0 = só o servidor, 20 = carga mista,
+    // 100 = todas esperando I/O
+    @Param({"0", "20", "100"})
+    private int externalCallPct;
+
+    @Param({"150", "1000"})
+    private long externalCallMillis;
+
+    private ThreadingLoad load;
+    private boolean[] externalCalls;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SyntheticData.quietLogging();
+        load = new ThreadingLoad(mode, externalCallMillis);
+        externalCalls = ThreadingLoad.externalCalls(REQUESTS, externalCallPct);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        load.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public long[] mixedBurst() throws InterruptedException {
+        return load.burst(externalCalls, CONCURRENCY);
+    }
+}
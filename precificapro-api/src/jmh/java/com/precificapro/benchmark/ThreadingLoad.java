@@ -0,0 +1,231 @@
+package com.precificapro.benchmark;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.precificapro.controller.dto.StockAlertDTO;
+import com.precificapro.domain.enums.StockStatus;
+import com.precificapro.service.stockalert.WebhookStockAlertNotifier;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.boot.autoconfigure.web.embedded.TomcatVirtualThreadsWebServerFactoryCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servidor de carga do {@link ThreadingBenchmark}: Tomcat embutido montado pela mesma factory
+ * do Spring Boot, com o DispatcherServlet na frente de um controller que faz I/O bloqueante
+ * de verdade pelo {@link WebhookStockAlertNotifier} (HttpClient.send) contra um serviço
+ * externo local com latência fixa.
+ *
+ * PLATFORM é o Tomcat padrão (200 threads, server.tomcat.threads.max); VIRTUAL aplica o
+ * mesmo customizer que o Boot registra com spring.threads.virtual.enabled=true. Os clientes
+ * disparam {@code concurrency} requisições HTTP simultâneas por loopback.
+ *
+ * Também roda sem JMH, para uma medição rápida de vazão e latência:
+ * {@code java -cp ... com.precificapro.benchmark.ThreadingLoad [requisições] [concorrência] [latência ms]}
+ */
+final class ThreadingLoad implements AutoCloseable {
+
+    enum ThreadMode { PLATFORM, VIRTUAL }
+
+    private final ExecutorService externalThreads = Executors.newCachedThreadPool();
+    private final HttpServer externalService;
+    private final AnnotationConfigWebApplicationContext context;
+    private final WebServer server;
+    private final HttpClient client;
+    private final URI fastUri;
+    private final URI slowUri;
+
+    ThreadingLoad(ThreadMode mode, long externalCallMillis) {
+        externalService = startExternalService(externalThreads, externalCallMillis);
+
+        WebhookStockAlertNotifier notifier = new WebhookStockAlertNotifier(
+                JsonMapper.builder().findAndAddModules().build(),
+                "http://127.0.0.1:" + externalService.getAddress().getPort() + "/alerts", 5_000);
+        context = new AnnotationConfigWebApplicationContext();
+        context.register(LoadConfig.class);
+        context.addBeanFactoryPostProcessor(beanFactory ->
+                beanFactory.registerSingleton("alertController", new AlertController(notifier)));
+
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        if (mode == ThreadMode.VIRTUAL) {
+            new TomcatVirtualThreadsWebServerFactoryCustomizer().customize(factory);
+        }
+        server = factory.getWebServer(servletContext -> {
+            context.setServletContext(servletContext);
+            servletContext.addServlet("dispatcher", new DispatcherServlet(context)).addMapping("/");
+        });
+        server.start();
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        String base = "http://127.0.0.1:" + server.getPort() + "/stock/alerts";
+        fastUri = URI.create(base + "?external=false");
+        slowUri = URI.create(base + "?external=true");
+    }
+
+    /**
+     * Envia {@code externalCalls.length} requisições com no máximo {@code concurrency} em voo.
+     *
+     * @return latência de cada requisição, em nanos
+     */
+    long[] burst(boolean[] externalCalls, int concurrency) throws InterruptedException {
+        long[] latencies = new long[externalCalls.length];
+        Semaphore inFlight = new Semaphore(concurrency);
+        // Clientes em threads de plataforma: threads virtuais aqui dividiriam os carriers com
+        // o Tomcat no modo VIRTUAL e só nele, distorcendo a comparação
+        try (ExecutorService clients = Executors.newThreadPerTaskExecutor(Thread.ofPlatform().factory())) {
+            for (int i = 0; i < externalCalls.length; i++) {
+                inFlight.acquire();
+                int request = i;
+                clients.execute(() -> {
+                    try {
+                        latencies[request] = call(externalCalls[request] ? slowUri : fastUri);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        return latencies;
+    }
+
+    private long call(URI uri) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri)
+                    .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 204) {
+                throw new IllegalStateException("Status " + response.statusCode());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        return System.nanoTime() - start;
+    }
+
+    static boolean[] externalCalls(int requests, int externalCallPct) {
+        Random random = new Random(SyntheticData.SEED);
+        boolean[] calls = new boolean[requests];
+        for (int i = 0; i < requests; i++) {
+            calls[i] = random.nextInt(100) < externalCallPct;
+        }
+        return calls;
+    }
+
+    @Override
+    public void close() {
+        server.stop();
+        server.destroy();
+        context.close();
+        externalService.stop(0);
+        externalThreads.shutdownNow();
+    }
+
+    /** Serviço externo lento (webhook, Cloudinary, Google Drive): responde 204 depois da latência. */
+    private static HttpServer startExternalService(ExecutorService threads, long latencyMillis) {
+        try {
+            HttpServer external = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+            external.setExecutor(threads);
+            external.createContext("/alerts", exchange -> {
+                try (exchange) {
+                    exchange.getRequestBody().readAllBytes();
+                    Thread.sleep(latencyMillis);
+                    exchange.sendResponseHeaders(204, -1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            external.start();
+            return external;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Configuration
+    @EnableWebMvc
+    static class LoadConfig {
+    }
+
+    @RestController
+    static class AlertController {
+
+        private final WebhookStockAlertNotifier notifier;
+        private final UUID ownerId = SyntheticData.owner().getId();
+        private final List<StockAlertDTO> alerts = List.of(StockAlertDTO.builder()
+                .id(new UUID(SyntheticData.SEED, 1))
+                .productId(new UUID(SyntheticData.SEED, 2))
+                .productName("Produto 1")
+                .level(StockStatus.LOW_STOCK)
+                .levelDescription(StockStatus.LOW_STOCK.getDescription())
+                .previousLevel(StockStatus.IN_STOCK)
+                .availableStock(3)
+                .minStock(5)
+                .createdAt(OffsetDateTime.now())
+                .build());
+
+        AlertController(WebhookStockAlertNotifier notifier) {
+            this.notifier = notifier;
+        }
+
+        @PostMapping("/stock/alerts")
+        ResponseEntity<Void> notify(@RequestParam("external") boolean external) throws IOException, InterruptedException {
+            if (external) {
+                notifier.deliver(ownerId, alerts);
+            }
+            return ResponseEntity.noContent().build();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        SyntheticData.quietLogging();
+        int requests = (args.length > 0) ? Integer.parseInt(args[0]) : 5_000;
+        int concurrency = (args.length > 1) ? Integer.parseInt(args[1]) : 1_000;
+        long externalCallMillis = (args.length > 2) ? Long.parseLong(args[2]) : 150;
+        System.out.printf("%-8s %5s %9s %9s %9s%n", "modo", "ext%", "req/s", "p50 ms", "p99 ms");
+        for (int externalCallPct : new int[]{0, 20, 100}) {
+            boolean[] calls = externalCalls(requests, externalCallPct);
+            for (ThreadMode mode : ThreadMode.values()) {
+                try (ThreadingLoad load = new ThreadingLoad(mode, externalCallMillis)) {
+                    load.burst(calls, concurrency); // aquecimento
+                    load.burst(calls, concurrency);
+                    long start = System.nanoTime();
+                    long[] latencies = load.burst(calls, concurrency);
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    Arrays.sort(latencies);
+                    System.out.printf("%-8s %5d %9.0f %9.1f %9.1f%n", mode, externalCallPct, requests / seconds,
+                            millis(latencies[latencies.length / 2]), millis(latencies[latencies.length * 99 / 100]));
+                }
+            }
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -1,30 +1,60 @@
 package com.precificapro.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
 
+/**
+ * Executores de @Async, com threads de plataforma ou virtuais conforme
+ * spring.threads.virtual.enabled (a mesma propriedade vale para o Tomcat e o @Scheduled).
+ *
+ * Regra para código que pode rodar em thread virtual: no Java 21, bloquear em I/O (JDBC, HTTP,
+ * arquivo) dentro de um synchronized prende a thread virtual à de plataforma (pinning) e
+ * ocupa o carrier enquanto espera. Isso inclui o loader de cache.get(key, loader) do
+ * Caffeine, que roda dentro de um synchronized do ConcurrentHashMap. Seções críticas com I/O
+ * usam ReentrantLock, e carregamentos com I/O ficam fora do loader; synchronized só para
+ * trabalho em memória.
+ */
 @Configuration
 @EnableAsync
 public class AsyncConfig {
     
     /**
-     * Executor customizado para métodos assíncronos (ex: AuditLogService).
+     * Executor customizado para métodos assíncronos (ex: backfill do SalesRollupService).
      * Evita criar threads ilimitadas e permite controle de recursos.
+     * A auditoria não passa mais por aqui: tem buffer e thread próprios (AuditLogWriter).
      */
     @Bean(name = "taskExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
     public Executor taskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(2);
         executor.setMaxPoolSize(5);
         executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("async-audit-");
+        executor.setThreadNamePrefix("async-");
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(20);
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Com spring.threads.virtual.enabled=true: uma thread virtual por tarefa, sem fila para
+     * encher. O limite de concorrência substitui o max-pool-size como proteção do banco.
+     */
+    @Bean(name = "taskExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualTaskExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("async-vt-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(50);
+        executor.setTaskTerminationTimeout(20_000);
+        return executor;
+    }
 }
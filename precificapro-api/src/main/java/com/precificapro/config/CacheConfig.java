@@ -1,38 +1,140 @@
 package com.precificapro.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.precificapro.security.JwtAuthenticationCache;
+import com.precificapro.security.JwtTokenProvider.VerifiedToken;
+import com.precificapro.service.AiService;
+import com.precificapro.service.InventoryService;
+import com.precificapro.service.pricing.CostModel;
+import com.precificapro.service.pricing.CostModelCache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Page;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Configuração de cache usando Caffeine para melhorar performance
  * Cache em memória com expiração automática
+ *
+ * Cada cache tem TTL, peso máximo e weigher próprios, ajustáveis por
+ * cache.&lt;nome&gt;.ttl e cache.&lt;nome&gt;.max-weight. Os caches com várias chaves por
+ * usuário são invalidados por owner via {@link TenantCacheGenerations}, o que permite
+ * TTLs longos sem servir dados antigos.
+ *
+ * O cache de tokens JWT verificados não usa TTL fixo: cada entrada expira quando o próprio
+ * token expira, limitado por cache.jwtTokens.ttl.
  */
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    /** Toda entrada pesa 1: max-weight equivale a número máximo de entradas. */
+    private static final Weigher<Object, Object> UNIT = (key, value) -> 1;
+
+    /** Páginas, listas e modelos de custos pesam pelo número de elementos que guardam. */
+    private static final Weigher<Object, Object> BY_ELEMENTS = (key, value) -> {
+        int elements;
+        if (value instanceof Page<?> page) {
+            elements = page.getNumberOfElements();
+        } else if (value instanceof Collection<?> collection) {
+            elements = collection.size();
+        } else if (value instanceof CostModel model) {
+            elements = model.freightUnitByProduct().size() + model.profiles().size();
+        } else {
+            elements = 0;
+        }
+        return 1 + elements;
+    };
+
+    private record CacheSpec(String name, Duration ttl, long maxWeight, Weigher<Object, Object> weigher) {}
+
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager(
-            "dashboardMetrics",    // Cache para métricas do dashboard
-            "products",            // Cache para lista de produtos
-            "categories",          // Cache para categorias
-            "customers",           // Cache para clientes
-            "inventoryItems",      // Cache para itens de inventário
-            "pricingProfiles"      // Cache para perfis de precificação
+    public CacheManager cacheManager(Environment env) {
+        List<CacheSpec> specs = List.of(
+            // Métricas dependem do relógio (vendas de hoje, do mês): TTL curto
+            spec(env, "dashboardMetrics", Duration.ofMinutes(5), 1_000, UNIT),
+            // Páginas de produtos: invalidadas por owner a cada escrita
+            spec(env, "products", Duration.ofMinutes(30), 100_000, BY_ELEMENTS),
+            spec(env, "categories", Duration.ofMinutes(30), 1_000, UNIT),
+            spec(env, "customers", Duration.ofMinutes(30), 1_000, UNIT),
+            spec(env, "inventoryItems", Duration.ofMinutes(10), 1_000, UNIT),
+            // Resumo do inventário: uma entrada por owner, invalidada a cada alteração de estoque
+            spec(env, InventoryService.SUMMARY_CACHE, Duration.ofMinutes(30), 10_000, UNIT),
+            spec(env, "pricingProfiles", Duration.ofMinutes(30), 1_000, UNIT),
+            // Modelo de custos por owner: invalidado a cada escrita (CostModelCache.evict),
+            // a expiração só cobre alterações feitas fora da aplicação
+            spec(env, CostModelCache.CACHE_NAME, Duration.ofMinutes(30), 200_000, BY_ELEMENTS),
+            // Respostas do assistente: a chave já muda quando as métricas mudam
+            spec(env, AiService.CACHE_NAME, Duration.ofHours(1), 2_000, UNIT),
+            // Usuário + roles do filtro JWT: TTL curto, invalidado no bloqueio/alteração de roles
+            spec(env, JwtAuthenticationCache.PRINCIPALS_CACHE, Duration.ofSeconds(60), 10_000, UNIT)
         );
-        
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-            .expireAfterWrite(5, TimeUnit.MINUTES)  // Cache expira após 5 minutos
-            .maximumSize(1000)                       // Máximo 1000 entradas por cache
-            .recordStats());                         // Habilita estatísticas de cache
-        
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheNames(List.of()); // só os caches declarados abaixo
+        for (CacheSpec spec : specs) {
+            cacheManager.registerCustomCache(spec.name(), Caffeine.newBuilder()
+                .expireAfterWrite(spec.ttl())
+                .maximumWeight(spec.maxWeight())
+                .weigher(spec.weigher())
+                .recordStats()                       // Habilita estatísticas de cache (actuator)
+                .build());
+        }
+
+        CacheSpec tokens = spec(env, JwtAuthenticationCache.TOKENS_CACHE, Duration.ofHours(1), 50_000, UNIT);
+        cacheManager.registerCustomCache(tokens.name(), Caffeine.newBuilder()
+            .expireAfter(untilTokenExpiry(tokens.ttl()))
+            .maximumSize(tokens.maxWeight())
+            .recordStats()
+            .build());
         return cacheManager;
     }
+
+    /** Entrada vive até a expiração do token, nunca além de {@code maxTtl}. */
+    private static Expiry<Object, Object> untilTokenExpiry(Duration maxTtl) {
+        long maxNanos = maxTtl.toNanos();
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(Object key, Object value, long currentTime) {
+                if (value instanceof VerifiedToken token && token.expiresAt() != null) {
+                    Duration remaining = Duration.between(Instant.now(), token.expiresAt());
+                    if (remaining.isNegative()) {
+                        return 0;
+                    }
+                    return Math.min(remaining.toNanos(), maxNanos);
+                }
+                return maxNanos;
+            }
+
+            @Override
+            public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+
+            @Override
+            public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    private static CacheSpec spec(Environment env, String name, Duration defaultTtl, long defaultMaxWeight,
+                                  Weigher<Object, Object> weigher) {
+        return new CacheSpec(
+            name,
+            env.getProperty("cache." + name + ".ttl", Duration.class, defaultTtl),
+            env.getProperty("cache." + name + ".max-weight", Long.class, defaultMaxWeight),
+            weigher
+        );
+    }
 }
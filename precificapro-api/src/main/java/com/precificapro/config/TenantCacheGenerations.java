@@ -0,0 +1,65 @@
+package com.precificapro.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Invalidação por owner para caches com várias chaves por usuário (páginas, filtros...).
+ *
+ * Cada par (cache, owner) tem um contador de geração que entra na chave:
+ * {@code @Cacheable(value = "products", key = "@tenantCache.key('products', #owner.id, #pageable.pageNumber)")}.
+ * {@link #invalidate(String, UUID)} incrementa o contador depois do commit, e todas as
+ * chaves antigas daquele owner deixam de ser encontradas de uma vez, sem precisar
+ * conhecê-las (o @CacheEvict por chave exata não consegue isso). As entradas órfãs não
+ * são procuradas no cache (seria uma varredura do cache inteiro, de todos os owners, a cada
+ * venda): ficam inalcançáveis e saem pelo limite de tamanho ou pelo TTL do CacheConfig.
+ */
+@Component("tenantCache")
+@Slf4j
+public class TenantCacheGenerations {
+
+    public record TenantCacheKey(UUID ownerId, long generation, List<Object> parts) {}
+
+    private record Scope(String cacheName, UUID ownerId) {}
+
+    private final Map<Scope, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public TenantCacheKey key(String cacheName, UUID ownerId, Object... parts) {
+        return new TenantCacheKey(ownerId, generation(cacheName, ownerId).get(), List.of(parts));
+    }
+
+    /**
+     * Descarta todas as entradas do owner no cache. Dentro de uma transação só vale depois
+     * do commit: antes disso uma leitura concorrente ainda veria (e guardaria) o estado antigo.
+     * Em rollback nada muda no banco, então o cache é mantido.
+     */
+    public void invalidate(String cacheName, UUID ownerId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(cacheName, ownerId);
+                }
+            });
+        } else {
+            bump(cacheName, ownerId);
+        }
+    }
+
+    private void bump(String cacheName, UUID ownerId) {
+        generation(cacheName, ownerId).incrementAndGet();
+        log.debug("Cache {} invalidado para o usuário {}", cacheName, ownerId);
+    }
+
+    private AtomicLong generation(String cacheName, UUID ownerId) {
+        return generations.computeIfAbsent(new Scope(cacheName, ownerId), s -> new AtomicLong());
+    }
+}
@@ -3,14 +3,18 @@ package com.precificapro.controller;
 import com.precificapro.domain.model.User;
 import com.precificapro.service.AiService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/ai")
@@ -19,14 +23,31 @@ public class AiController {
     @Autowired
     private AiService aiService;
 
+    @Value("${gemini.stream.timeout-ms:60000}")
+    private long streamTimeoutMs;
+
+    /**
+     * Resposta completa. Assíncrona: o thread do Tomcat é liberado enquanto o Gemini responde.
+     */
     @PostMapping("/ask")
-    public ResponseEntity<Map<String, String>> ask(
+    public CompletableFuture<ResponseEntity<Map<String, String>>> ask(
+            @RequestBody AiRequest request,
+            @AuthenticationPrincipal User owner
+    ) {
+        return aiService.askGemini(request.question(), owner)
+                .thenApply(answer -> ResponseEntity.ok(Map.of("answer", answer)));
+    }
+
+    /**
+     * Resposta em partes via Server-Sent Events (eventos "chunk", "done" e, em falha, "error").
+     */
+    @PostMapping(value = "/ask/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter askStream(
             @RequestBody AiRequest request,
             @AuthenticationPrincipal User owner
     ) {
-        String response = aiService.askGemini(request.question(), owner);
-        return ResponseEntity.ok(Map.of("answer", response));
+        return aiService.askGeminiStreaming(request.question(), owner, streamTimeoutMs);
     }
 
     record AiRequest(String question) {}
-}
\ No newline at end of file
+}
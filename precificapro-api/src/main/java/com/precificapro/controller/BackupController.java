@@ -2,23 +2,37 @@ package com.precificapro.controller;
 
 import com.precificapro.controller.dto.BackupDTO;
 import com.precificapro.controller.dto.BackupResponseDTO;
+import com.precificapro.controller.dto.RestoreRequestDTO;
 import com.precificapro.domain.model.BackupMetadata;
 import com.precificapro.domain.model.User;
+import com.precificapro.exception.BusinessException;
 import com.precificapro.mapper.BackupMapper;
 import com.precificapro.service.BackupService;
+import com.precificapro.service.tenant.TenantArchive;
+import com.precificapro.service.tenant.TenantExportService;
+import com.precificapro.service.tenant.TenantImportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/backups")
@@ -30,17 +44,19 @@ public class BackupController {
 
     private final BackupService backupService;
     private final BackupMapper backupMapper;
+    private final TenantExportService tenantExportService;
+    private final TenantImportService tenantImportService;
 
     @PostMapping("/create")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Criar backup manual", description = "Cria um backup manual do banco de dados e envia para o Google Drive")
+    @Operation(summary = "Criar backup manual", description = "Cria um backup manual do banco de dados e envia para o destino configurado (Google Drive ou diretório local)")
     public ResponseEntity<BackupResponseDTO> createBackup(@AuthenticationPrincipal User user) {
         try {
             if (!backupService.isBackupServiceEnabled()) {
                 return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
                         .body(BackupResponseDTO.builder()
                                 .success(false)
-                                .message("Serviço de backup não está configurado. Configure o Google Drive API.")
+                                .message("Serviço de backup não está configurado. Configure o Google Drive API ou backup.destination=local.")
                                 .build());
             }
 
@@ -81,9 +97,11 @@ public class BackupController {
 
     @PostMapping("/{backupId}/restore")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Restaurar backup", description = "Restaura o banco de dados a partir de um backup específico")
+    @Operation(summary = "Restaurar backup",
+            description = "Inicia em segundo plano o restore do banco inteiro ou só das tabelas informadas (opcionalmente de um owner). Acompanhe em GET /api/backups/{backupId}/restore")
     public ResponseEntity<BackupResponseDTO> restoreBackup(
             @PathVariable Long backupId,
+            @Valid @RequestBody(required = false) RestoreRequestDTO request,
             @AuthenticationPrincipal User user) {
         try {
             if (!backupService.isBackupServiceEnabled()) {
@@ -95,12 +113,16 @@ public class BackupController {
             }
 
             log.info("Restore backup {} requested by user: {}", backupId, user.getUsername());
-            backupService.restoreBackup(backupId);
+            BackupMetadata backup = (request == null)
+                    ? backupService.startRestore(backupId, null, null, null)
+                    : backupService.startRestore(backupId, request.tables(), request.ownerId(), request.jobs());
 
-            return ResponseEntity.ok(BackupResponseDTO.builder()
-                    .success(true)
-                    .message("Backup restaurado com sucesso")
-                    .build());
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(BackupResponseDTO.builder()
+                            .success(true)
+                            .message("Restore iniciado")
+                            .backup(backupMapper.toDTO(backup))
+                            .build());
 
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -109,6 +131,20 @@ public class BackupController {
                             .message("Backup não encontrado")
                             .build());
 
+        } catch (BusinessException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(BackupResponseDTO.builder()
+                            .success(false)
+                            .message(e.getMessage())
+                            .build());
+
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(BackupResponseDTO.builder()
+                            .success(false)
+                            .message(e.getMessage())
+                            .build());
+
         } catch (Exception e) {
             log.error("Error restoring backup: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -119,19 +155,32 @@ public class BackupController {
         }
     }
 
+    @GetMapping("/{backupId}/restore")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Status do restore", description = "Fase (QUEUED, DOWNLOADING, RESTORING, COMPLETED, FAILED) e percentual do restore de um backup")
+    public ResponseEntity<BackupDTO> getRestoreStatus(@PathVariable Long backupId) {
+        try {
+            return ResponseEntity.ok(backupMapper.toDTO(backupService.getBackup(backupId)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @GetMapping("/status")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Status do serviço de backup", description = "Verifica se o serviço de backup está configurado e funcionando")
     public ResponseEntity<Map<String, Object>> getBackupStatus() {
         try {
             boolean enabled = backupService.isBackupServiceEnabled();
-            List<String> driveBackups = enabled ? backupService.listGoogleDriveBackups() : List.of();
+            List<String> storedBackups = enabled ? backupService.listStoredBackups() : List.of();
 
+            // "googleDriveBackups" mantido por compatibilidade com o frontend: conta os arquivos no destino atual
             return ResponseEntity.ok(Map.of(
                     "enabled", enabled,
                     "message", enabled ? "Serviço de backup configurado e ativo" : "Serviço de backup não configurado",
-                    "googleDriveBackups", driveBackups.size(),
-                    "backupFiles", driveBackups
+                    "destination", backupService.destinationName(),
+                    "googleDriveBackups", storedBackups.size(),
+                    "backupFiles", storedBackups
             ));
 
         } catch (Exception e) {
@@ -174,4 +223,39 @@ public class BackupController {
                             .build());
         }
     }
+
+    @GetMapping(value = "/tenants/{ownerId}/export", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Exportar dados de um usuário",
+            description = "Gera em streaming um arquivo .ppta com produtos, categorias, custos, perfis, fretes, clientes, vendas e estoque do usuário")
+    public ResponseEntity<StreamingResponseBody> exportTenant(@PathVariable UUID ownerId,
+                                                              @AuthenticationPrincipal User user) {
+        tenantExportService.requireOwner(ownerId);
+        log.info("Tenant export of {} requested by user: {}", ownerId, user.getUsername());
+
+        String filename = "precificapro_tenant_" + ownerId + "_"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + TenantArchive.FILE_EXTENSION;
+        StreamingResponseBody body = out -> tenantExportService.export(ownerId, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(body);
+    }
+
+    @PostMapping(value = "/tenants/{ownerId}/import", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Importar dados de um usuário",
+            description = "Importa um arquivo .ppta (corpo da requisição) para o usuário informado, em uma única transação")
+    public ResponseEntity<Map<String, Object>> importTenant(@PathVariable UUID ownerId,
+                                                            HttpServletRequest request,
+                                                            @AuthenticationPrincipal User user) throws IOException {
+        log.info("Tenant import into {} requested by user: {}", ownerId, user.getUsername());
+        long start = System.currentTimeMillis();
+        Map<String, Long> rows = tenantImportService.importArchive(ownerId, request.getInputStream());
+        return ResponseEntity.ok(Map.of(
+                "success", true,
+                "rows", rows,
+                "elapsedMs", System.currentTimeMillis() - start
+        ));
+    }
 }
@@ -3,10 +3,12 @@ package com.precificapro.controller;
 import com.precificapro.controller.dto.DashboardMetricsDTO;
 import com.precificapro.domain.model.User;
 import com.precificapro.service.DashboardService;
+import com.precificapro.service.SalesRollupService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -21,6 +23,9 @@ public class DashboardController {
     @Autowired
     private DashboardService dashboardService;
 
+    @Autowired
+    private SalesRollupService salesRollupService;
+
     @GetMapping("/metrics")
     public ResponseEntity<DashboardMetricsDTO> getMetrics(@AuthenticationPrincipal User owner) {
         return ResponseEntity.ok(dashboardService.getMetrics(owner));
@@ -33,4 +38,15 @@ public class DashboardController {
     ) {
         return ResponseEntity.ok(dashboardService.getSalesChartData(owner, days));
     }
-}
\ No newline at end of file
+
+    /**
+     * Recalcula o rollup diário das vendas do usuário (usado pelos gráficos). Bloqueia só as
+     * vendas do próprio usuário enquanto roda; o limite por rota em security.rate-limit.routes
+     * impede que seja disparado em sequência.
+     */
+    @PostMapping("/chart/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildChartData(@AuthenticationPrincipal User owner) {
+        int rows = salesRollupService.rebuild(owner.getId(), SalesRollupService.FULL_REBUILD_FROM);
+        return ResponseEntity.ok(Map.of("rows", rows));
+    }
+}
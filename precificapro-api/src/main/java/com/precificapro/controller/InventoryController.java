@@ -3,16 +3,20 @@ package com.precificapro.controller;
 import com.precificapro.controller.dto.*;
 import com.precificapro.domain.model.User;
 import com.precificapro.service.InventoryService;
+import com.precificapro.service.stockalert.StockAlertService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,6 +27,7 @@ import java.util.UUID;
 public class InventoryController {
     
     private final InventoryService inventoryService;
+    private final StockAlertService stockAlertService;
     
     @GetMapping
     @Operation(summary = "Listar todo o inventário")
@@ -72,21 +77,30 @@ public class InventoryController {
     }
     
     @PostMapping("/product/{productId}/reserve")
-    @Operation(summary = "Reservar estoque")
-    public ResponseEntity<InventoryDTO> reserveStock(
+    @Operation(summary = "Reservar estoque por um prazo (ttlSeconds; padrão 15 minutos)")
+    public ResponseEntity<StockReservationDTO> reserveStock(
             @PathVariable UUID productId,
             @RequestParam Integer quantity,
+            @RequestParam(required = false) Long ttlSeconds,
             @AuthenticationPrincipal User owner) {
-        return ResponseEntity.ok(inventoryService.reserveStock(productId, quantity, owner));
+        Duration ttl = (ttlSeconds != null) ? Duration.ofSeconds(ttlSeconds) : null;
+        return ResponseEntity.ok(inventoryService.reserveStock(productId, quantity, ttl, owner));
     }
     
-    @PostMapping("/product/{productId}/release")
-    @Operation(summary = "Liberar estoque reservado")
-    public ResponseEntity<InventoryDTO> releaseStock(
+    @GetMapping("/product/{productId}/reservations")
+    @Operation(summary = "Reservas ativas de um produto")
+    public ResponseEntity<List<StockReservationDTO>> getReservations(
             @PathVariable UUID productId,
-            @RequestParam Integer quantity,
             @AuthenticationPrincipal User owner) {
-        return ResponseEntity.ok(inventoryService.releaseStock(productId, quantity, owner));
+        return ResponseEntity.ok(inventoryService.findActiveReservations(productId, owner));
+    }
+    
+    @PostMapping("/reservations/{reservationId}/release")
+    @Operation(summary = "Liberar uma reserva de estoque")
+    public ResponseEntity<StockReservationDTO> releaseReservation(
+            @PathVariable UUID reservationId,
+            @AuthenticationPrincipal User owner) {
+        return ResponseEntity.ok(inventoryService.releaseReservation(reservationId, owner));
     }
     
     @GetMapping("/product/{productId}/movements")
@@ -97,4 +111,18 @@ public class InventoryController {
             Pageable pageable) {
         return ResponseEntity.ok(inventoryService.getMovements(productId, owner, pageable));
     }
+    
+    @GetMapping("/alerts")
+    @Operation(summary = "Alertas de estoque recentes")
+    public ResponseEntity<List<StockAlertDTO>> getAlerts(
+            @AuthenticationPrincipal User owner) {
+        return ResponseEntity.ok(stockAlertService.findRecent(owner));
+    }
+    
+    @GetMapping(value = "/alerts/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Alertas de estoque em tempo real (SSE)")
+    public SseEmitter streamAlerts(
+            @AuthenticationPrincipal User owner) {
+        return stockAlertService.subscribe(owner);
+    }
 }
@@ -1,9 +1,12 @@
 package com.precificapro.controller;
 
 import com.precificapro.controller.dto.ProductCreateDTO;
+import com.precificapro.controller.dto.ProductPageDTO;
 import com.precificapro.controller.dto.ProductResponseDTO;
 import com.precificapro.controller.dto.ProductUpdateDTO;
+import com.precificapro.domain.enums.ProductSort;
 import com.precificapro.domain.model.User;
+import com.precificapro.domain.repository.ProductSearchRepository;
 import com.precificapro.service.ProductService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +19,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
 
@@ -63,6 +67,26 @@ public class ProductController {
         return ResponseEntity.ok(productService.findAllProductsByOwnerPaginated(owner, pageable));
     }
 
+    /**
+     * Busca paginada por cursor: {@code q} casa prefixo de nome/SKU (e nomes parecidos a
+     * partir de 3 letras), com filtros de categoria e custo de compra. Use o
+     * {@code nextCursor} da resposta, com os mesmos filtros, para a próxima página.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ProductPageDTO> searchProducts(
+            @AuthenticationPrincipal User owner,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) UUID categoryId,
+            @RequestParam(required = false) BigDecimal minCost,
+            @RequestParam(required = false) BigDecimal maxCost,
+            @RequestParam(defaultValue = "NAME") ProductSort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        ProductSearchRepository.Criteria criteria = new ProductSearchRepository.Criteria(q, categoryId, minCost, maxCost, sort);
+        return ResponseEntity.ok(productService.searchProducts(owner, criteria, cursor, limit));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ProductResponseDTO> updateProduct(
             @PathVariable UUID id,
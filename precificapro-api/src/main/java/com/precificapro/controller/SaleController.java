@@ -1,19 +1,31 @@
 package com.precificapro.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.precificapro.controller.dto.ProductRankingDTO;
 import com.precificapro.controller.dto.ProductSalesChartDTO;
 import com.precificapro.controller.dto.SaleCreateDTO;
+import com.precificapro.controller.dto.SaleImportEventDTO;
+import com.precificapro.controller.dto.SalePageDTO;
 import com.precificapro.controller.dto.SaleResponseDTO;
 import com.precificapro.domain.model.User;
 import com.precificapro.mapper.SaleMapper;
 import com.precificapro.service.SaleService;
+import com.precificapro.service.saleimport.SaleImportReader;
+import com.precificapro.service.saleimport.SaleImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -24,6 +36,8 @@ public class SaleController {
 
     @Autowired private SaleService saleService;
     @Autowired private SaleMapper saleMapper;
+    @Autowired private SaleImportService saleImportService;
+    @Autowired private ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<?> recordSale(@Valid @RequestBody SaleCreateDTO dto, @AuthenticationPrincipal User owner) {
@@ -38,7 +52,66 @@ public class SaleController {
                 .collect(Collectors.toList());
         return ResponseEntity.ok(sales);
     }
+
+    /**
+     * Listagem paginada por cursor. Use o {@code nextCursor} da resposta para a próxima página.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<SalePageDTO> getSalesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @AuthenticationPrincipal User owner
+    ) {
+        return ResponseEntity.ok(saleService.findPage(owner, cursor, limit));
+    }
+
+    /**
+     * Todas as vendas em NDJSON (uma venda por linha), escritas à medida que são lidas do banco.
+     * Selecionado com {@code Accept: application/x-ndjson}.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamSales(@AuthenticationPrincipal User owner) {
+        StreamingResponseBody body = out -> saleService.streamAll(owner, sale -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(sale));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
     
+    /**
+     * Importação em massa (CSV ou NDJSON no corpo da requisição, lido em streaming).
+     * A resposta é NDJSON: um evento "error" por venda rejeitada, "progress" a cada lote
+     * gravado e "summary" no final.
+     */
+    @PostMapping(value = "/import",
+            consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importSales(HttpServletRequest request, HttpServletResponse response,
+                            @AuthenticationPrincipal User owner) throws IOException {
+        try (SaleImportReader reader = SaleImportReader.of(request.getContentType(), request.getInputStream(), objectMapper)) {
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            OutputStream out = response.getOutputStream();
+            saleImportService.importSales(owner, reader, event -> writeEvent(out, event));
+        }
+    }
+
+    private void writeEvent(OutputStream out, SaleImportEventDTO event) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(event));
+            out.write('\n');
+            if (!"error".equals(event.type())) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @GetMapping("/product-ranking")
     public ResponseEntity<List<ProductRankingDTO>> getProductRanking(@AuthenticationPrincipal User owner) {
         return ResponseEntity.ok(saleService.getProductRanking(owner));
@@ -1,5 +1,7 @@
 package com.precificapro.controller;
 
+import com.precificapro.controller.dto.BatchSimulationRequestDTO;
+import com.precificapro.controller.dto.BatchSimulationResponseDTO;
 import com.precificapro.controller.dto.SimulationRequestDTO;
 import com.precificapro.controller.dto.SimulationResponseDTO;
 import com.precificapro.domain.model.User;
@@ -28,4 +30,12 @@ public class SimulationController {
         SimulationResponseDTO response = simulationService.simulate(request, owner);
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("/batch")
+    public ResponseEntity<BatchSimulationResponseDTO> calculateBatch(
+            @Valid @RequestBody BatchSimulationRequestDTO request,
+            @AuthenticationPrincipal User owner) {
+
+        return ResponseEntity.ok(simulationService.simulateBatch(request, owner));
+    }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.precificapro.controller.dto;
 
+import com.precificapro.domain.model.BackupMetadata.BackupFormat;
 import com.precificapro.domain.model.BackupMetadata.BackupStatus;
 import com.precificapro.domain.model.BackupMetadata.BackupType;
+import com.precificapro.domain.model.BackupMetadata.RestoreStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -18,10 +20,17 @@ public class BackupDTO {
     private String filename;
     private Long fileSize;
     private String fileSizeFormatted;
+    private String checksumSha256;
+    private BackupFormat format;
     private LocalDateTime createdAt;
     private BackupStatus status;
     private BackupType type;
     private String createdByUsername;
     private LocalDateTime restoredAt;
     private String errorMessage;
+    private RestoreStatus restoreStatus;
+    private Integer restoreProgress;
+    private LocalDateTime restoreStartedAt;
+    private String restoreTables;
+    private String restoreError;
 }
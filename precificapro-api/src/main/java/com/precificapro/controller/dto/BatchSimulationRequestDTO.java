@@ -0,0 +1,25 @@
+package com.precificapro.controller.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+import java.util.UUID;
+
+public record BatchSimulationRequestDTO(
+    @NotNull @Valid ProductFilterDTO products,
+    @NotEmpty List<UUID> profileIds,
+    SimulationRequestDTO.OverrideDTO override
+) {
+    public record ProductFilterDTO(
+        @NotNull Scope scope,
+        UUID categoryId,       // obrigatório quando scope = CATEGORY
+        List<UUID> productIds  // obrigatório quando scope = IDS
+    ) {}
+
+    public enum Scope {
+        ALL,      // Todo o catálogo do usuário
+        CATEGORY, // Apenas os produtos de uma categoria
+        IDS       // Lista explícita de produtos
+    }
+}
@@ -0,0 +1,20 @@
+package com.precificapro.controller.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BatchSimulationResponseDTO(
+    int productCount,
+    int profileCount,
+    int simulationCount,
+    List<ResultDTO> results
+) {
+    public record ResultDTO(
+        UUID productId,
+        String productName,
+        String productSku,
+        UUID profileId,
+        String profileName,
+        SimulationResponseDTO simulation
+    ) {}
+}
@@ -1,10 +1,23 @@
 package com.precificapro.controller.dto;
 
 import java.math.BigDecimal;
+import java.time.OffsetDateTime;
 
 public record DashboardMetricsDTO(
     BigDecimal totalRevenue,
     BigDecimal totalNetProfit,
     long productCount,
-    long customerCount
-) {}
\ No newline at end of file
+    long customerCount,
+    long saleCount,
+    PeriodMetricsDTO today,
+    PeriodMetricsDTO monthToDate,
+    PeriodMetricsDTO previousPeriod   // mês anterior até o mesmo dia/hora de hoje
+) {
+    public record PeriodMetricsDTO(
+        OffsetDateTime from,
+        OffsetDateTime to,
+        BigDecimal revenue,
+        BigDecimal netProfit,
+        long saleCount
+    ) {}
+}
@@ -2,6 +2,8 @@ package com.precificapro.controller.dto;
 
 import lombok.Builder;
 
+import java.math.BigDecimal;
+
 @Builder
 public record InventorySummaryDTO(
     long totalProducts,
@@ -9,5 +11,7 @@ public record InventorySummaryDTO(
     long lowStock,
     long outOfStock,
     double lowStockPercentage,
-    double outOfStockPercentage
+    double outOfStockPercentage,
+    BigDecimal totalStockValue,
+    long reservedUnits
 ) {}
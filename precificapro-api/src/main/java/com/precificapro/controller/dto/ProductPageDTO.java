@@ -0,0 +1,11 @@
+package com.precificapro.controller.dto;
+
+import java.util.List;
+
+/**
+ * Página da busca de produtos. {@code nextCursor} é nulo na última página.
+ */
+public record ProductPageDTO(
+        List<ProductResponseDTO> items,
+        String nextCursor
+) {}
@@ -0,0 +1,12 @@
+package com.precificapro.controller.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.util.List;
+import java.util.UUID;
+
+public record RestoreRequestDTO(
+    List<String> tables,           // vazio = banco inteiro; ex.: ["products", "sales"]
+    UUID ownerId,                  // só com tables: restaura apenas as linhas desse owner
+    @Min(1) @Max(16) Integer jobs  // conexões paralelas do pg_restore (padrão backup.restore.jobs)
+) {}
@@ -8,7 +8,9 @@ import java.util.UUID;
 
 public record SaleCreateDTO(
     @NotNull String customerPhoneNumber,
-    @NotEmpty List<SaleItemCreateDTO> items
+    @NotEmpty List<SaleItemCreateDTO> items,
+    // Reservas (POST /inventory/product/{id}/reserve) consumidas por esta venda; opcional
+    List<UUID> reservationIds
 ) {
     // Note que este record está aninhado, o que é permitido.
     public record SaleItemCreateDTO(
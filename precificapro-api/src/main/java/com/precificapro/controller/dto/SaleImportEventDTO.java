@@ -0,0 +1,30 @@
+package com.precificapro.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Linha da resposta NDJSON da importação de vendas:
+ * "error" para cada venda rejeitada, "progress" a cada lote gravado e "summary" no final.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SaleImportEventDTO(
+        String type,
+        Long line,
+        String saleRef,
+        String message,
+        Long processed,
+        Long imported,
+        Long failed
+) {
+    public static SaleImportEventDTO error(long line, String saleRef, String message) {
+        return new SaleImportEventDTO("error", line, saleRef, message, null, null, null);
+    }
+
+    public static SaleImportEventDTO progress(long processed, long imported, long failed) {
+        return new SaleImportEventDTO("progress", null, null, null, processed, imported, failed);
+    }
+
+    public static SaleImportEventDTO summary(long processed, long imported, long failed, String message) {
+        return new SaleImportEventDTO("summary", null, null, message, processed, imported, failed);
+    }
+}
@@ -0,0 +1,11 @@
+package com.precificapro.controller.dto;
+
+import java.util.List;
+
+/**
+ * Página da listagem de vendas. {@code nextCursor} é nulo na última página.
+ */
+public record SalePageDTO(
+        List<SaleResponseDTO> items,
+        String nextCursor
+) {}
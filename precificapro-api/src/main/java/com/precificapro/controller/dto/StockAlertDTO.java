@@ -0,0 +1,35 @@
+package com.precificapro.controller.dto;
+
+import com.precificapro.domain.enums.StockStatus;
+import com.precificapro.domain.model.StockAlert;
+import lombok.Builder;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Builder
+public record StockAlertDTO(
+    UUID id,
+    UUID productId,
+    String productName,
+    StockStatus level,
+    String levelDescription,
+    StockStatus previousLevel,
+    Integer availableStock,
+    Integer minStock,
+    OffsetDateTime createdAt
+) {
+    public static StockAlertDTO from(StockAlert alert) {
+        return StockAlertDTO.builder()
+                .id(alert.getId())
+                .productId(alert.getProductId())
+                .productName(alert.getProductName())
+                .level(alert.getLevel())
+                .levelDescription(alert.getLevel().getDescription())
+                .previousLevel(alert.getPreviousLevel())
+                .availableStock(alert.getAvailableStock())
+                .minStock(alert.getMinStock())
+                .createdAt(alert.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.precificapro.controller.dto;
+
+import com.precificapro.domain.enums.StockReservationStatus;
+import com.precificapro.domain.model.StockReservation;
+import lombok.Builder;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Builder
+public record StockReservationDTO(
+    UUID id,
+    UUID productId,
+    String productName,
+    Integer quantity,
+    StockReservationStatus status,
+    OffsetDateTime expiresAt,
+    OffsetDateTime createdAt,
+    OffsetDateTime resolvedAt
+) {
+    public static StockReservationDTO from(StockReservation reservation) {
+        return StockReservationDTO.builder()
+                .id(reservation.getId())
+                .productId(reservation.getProduct().getId())
+                .productName(reservation.getProduct().getName())
+                .quantity(reservation.getQuantity())
+                .status(reservation.getStatus())
+                .expiresAt(reservation.getExpiresAt())
+                .createdAt(reservation.getCreatedAt())
+                .resolvedAt(reservation.getResolvedAt())
+                .build();
+    }
+}
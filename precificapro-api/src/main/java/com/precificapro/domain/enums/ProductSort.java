@@ -0,0 +1,12 @@
+package com.precificapro.domain.enums;
+
+/**
+ * Ordenações da busca de produtos. Cada uma tem índice (owner_id, coluna, id) próprio,
+ * com direção fixa, para que a paginação por keyset percorra o índice.
+ */
+public enum ProductSort {
+    NAME,           // nome, A-Z
+    SKU,            // SKU, A-Z
+    NEWEST,         // mais recentes primeiro
+    PURCHASE_COST   // menor custo de compra primeiro
+}
@@ -0,0 +1,8 @@
+package com.precificapro.domain.enums;
+
+/** Situação de um alerta de estoque no outbox (stock_alerts). */
+public enum StockAlertStatus {
+    PENDING,
+    DELIVERED,
+    FAILED
+}
@@ -0,0 +1,9 @@
+package com.precificapro.domain.enums;
+
+/** Situação de uma reserva de estoque; só ACTIVE ainda segura unidades em inventory.reserved_stock. */
+public enum StockReservationStatus {
+    ACTIVE,
+    CONSUMED,
+    RELEASED,
+    EXPIRED
+}
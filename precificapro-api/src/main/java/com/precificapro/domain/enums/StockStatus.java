@@ -14,4 +14,16 @@ public enum StockStatus {
     public String getDescription() {
         return description;
     }
+    
+    /**
+     * Nível do estoque disponível (atual - reservado) frente ao mínimo: zerado, até o mínimo,
+     * acima dele. Mesma regra do trigger update_available_stock (V26) que grava
+     * inventory.stock_status, então alertas, /inventory/low-stock e o resumo concordam.
+     */
+    public static StockStatus of(int stock, int minStock) {
+        if (stock <= 0) {
+            return OUT_OF_STOCK;
+        }
+        return stock <= minStock ? LOW_STOCK : IN_STOCK;
+    }
 }
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.NotFound;
+import org.hibernate.annotations.NotFoundAction;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -24,12 +26,22 @@ public class BackupMetadata {
     @Column(nullable = false, unique = true)
     private String filename;
     
-    @Column(name = "s3_key", nullable = false)
+    // Chave do arquivo no destino (ID no Google Drive ou nome no diretório local);
+    // só é conhecida quando o upload termina
+    @Column(name = "s3_key")
     private String s3Key;
     
-    @Column(name = "file_size", nullable = false)
+    @Column(name = "file_size")
     private Long fileSize;
     
+    @Column(name = "checksum_sha256", length = 64)
+    private String checksumSha256;
+    
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private BackupFormat format = BackupFormat.PLAIN;
+    
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
@@ -40,7 +52,9 @@ public class BackupMetadata {
     @Column(name = "error_message", length = 1000)
     private String errorMessage;
     
-    @ManyToOne(fetch = FetchType.LAZY)
+    // Sem FK desde V20 (o restore recria users): usuário removido vira null
+    @ManyToOne(fetch = FetchType.EAGER)
+    @NotFound(action = NotFoundAction.IGNORE)
     @JoinColumn(name = "created_by_user_id")
     private User createdBy;
     
@@ -51,6 +65,24 @@ public class BackupMetadata {
     @Column(name = "restored_at")
     private LocalDateTime restoredAt;
     
+    @Column(name = "restore_status", length = 20)
+    @Enumerated(EnumType.STRING)
+    private RestoreStatus restoreStatus;
+    
+    // Percentual da fase atual (download ou restore)
+    @Column(name = "restore_progress")
+    private Integer restoreProgress;
+    
+    @Column(name = "restore_started_at")
+    private LocalDateTime restoreStartedAt;
+    
+    // Tabelas do restore seletivo; null = banco inteiro
+    @Column(name = "restore_tables", length = 500)
+    private String restoreTables;
+    
+    @Column(name = "restore_error", length = 1000)
+    private String restoreError;
+    
     public enum BackupStatus {
         IN_PROGRESS,
         COMPLETED,
@@ -63,6 +95,20 @@ public class BackupMetadata {
         MANUAL
     }
     
+    public enum BackupFormat {
+        PLAIN,       // SQL puro (.sql), restaurado com psql
+        PLAIN_GZIP,  // SQL puro comprimido com gzip (.sql.gz)
+        CUSTOM       // formato custom do pg_dump (-Fc, .dump), restaurado com pg_restore
+    }
+    
+    public enum RestoreStatus {
+        QUEUED,
+        DOWNLOADING,
+        RESTORING,
+        COMPLETED,
+        FAILED
+    }
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
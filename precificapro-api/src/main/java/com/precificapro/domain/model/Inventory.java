@@ -3,10 +3,14 @@ package com.precificapro.domain.model;
 import com.precificapro.domain.enums.StockStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
+// Só as colunas alteradas vão no UPDATE: um ajuste manual não regrava reserved_stock lido antes de
+// uma baixa, reserva ou expiração concorrente (essas são UPDATEs atômicos no banco)
 @Entity
+@DynamicUpdate
 @Table(name = "inventory")
 @Getter
 @Setter
@@ -25,6 +29,11 @@ public class Inventory {
     @JoinColumn(name = "product_id", nullable = false, unique = true)
     private Product product;
     
+    // Mesmo owner do produto, repetido aqui para as consultas por owner não precisarem de JOIN
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "owner_id", nullable = false)
+    private User owner;
+    
     @Column(name = "current_stock", nullable = false)
     @Builder.Default
     private Integer currentStock = 0;
@@ -0,0 +1,41 @@
+package com.precificapro.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * Totais de um produto em um dia. Escrito só por SQL (upsert incremental e rebuild);
+ * a entidade existe para leitura dos gráficos.
+ */
+@Entity
+@Table(name = "sales_daily_rollup")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class SalesDailyRollup {
+
+    @EmbeddedId
+    @EqualsAndHashCode.Include
+    private SalesDailyRollupId id;
+
+    @Column(nullable = false)
+    private long quantity;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    @Column(name = "net_profit", nullable = false, precision = 14, scale = 2)
+    private BigDecimal netProfit;
+
+    @Column(name = "sale_count", nullable = false)
+    private int saleCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+}
@@ -0,0 +1,77 @@
+package com.precificapro.domain.model;
+
+import com.precificapro.domain.enums.StockAlertStatus;
+import com.precificapro.domain.enums.StockStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Alerta de estoque no outbox: gravado na mesma transação da alteração de estoque e
+ * entregue depois pelo StockAlertDispatcher. Guarda um retrato do produto no momento do
+ * alerta, então não tem relacionamentos a carregar na entrega.
+ */
+@Entity
+@Table(name = "stock_alerts")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class StockAlert {
+
+    @Id
+    @EqualsAndHashCode.Include
+    private UUID id;
+
+    @Column(name = "owner_id", nullable = false)
+    private UUID ownerId;
+
+    @Column(name = "product_id", nullable = false)
+    private UUID productId;
+
+    @Column(name = "product_name")
+    private String productName;
+
+    // Nível novo (estoque disponível contra o mínimo) e o anterior
+    @Enumerated(EnumType.STRING)
+    @Column(name = "alert_type", nullable = false, length = 20)
+    private StockStatus level;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_level", nullable = false, length = 20)
+    private StockStatus previousLevel;
+
+    @Column(name = "available_stock", nullable = false)
+    private Integer availableStock;
+
+    @Column(name = "min_stock", nullable = false)
+    private Integer minStock;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StockAlertStatus status;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    // Notificadores que já entregaram, separados por vírgula
+    @Column(name = "delivered_to", nullable = false, length = 100)
+    private String deliveredTo;
+
+    // Reservado para entrega por um nó até este instante
+    @Column(name = "claimed_until")
+    private OffsetDateTime claimedUntil;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "delivered_at")
+    private OffsetDateTime deliveredAt;
+}
@@ -28,6 +28,11 @@ public class StockMovement {
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
     
+    // Owner do produto (não quem fez a movimentação, que é performedBy)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "owner_id", nullable = false)
+    private User owner;
+    
     @Column(nullable = false, length = 20)
     private String type; // IN ou OUT
     
@@ -2,12 +2,16 @@ package com.precificapro.domain.repository;
 
 import com.precificapro.domain.model.BackupMetadata;
 import com.precificapro.domain.model.BackupMetadata.BackupStatus;
+import com.precificapro.domain.model.BackupMetadata.RestoreStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Collection;
 import java.util.Optional;
 
 @Repository
@@ -24,4 +28,41 @@ public interface BackupMetadataRepository extends JpaRepository<BackupMetadata,
     
     @Query("SELECT b FROM BackupMetadata b ORDER BY b.createdAt DESC")
     List<BackupMetadata> findAllOrderByCreatedAtDesc();
+    
+    // Updates pontuais do restore: não sobrescrevem o resto da linha com uma entidade antiga
+    
+    /** Marca o restore como pedido só se nenhum outro estiver ativo. */
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE BackupMetadata b SET b.restoreStatus = :queued, b.restoreProgress = 0,
+                   b.restoreStartedAt = :now, b.restoreTables = :tables, b.restoreError = NULL
+            WHERE b.id = :id
+              AND NOT EXISTS (SELECT 1 FROM BackupMetadata o WHERE o.restoreStatus IN :active)
+            """)
+    int claimRestore(Long id, RestoreStatus queued, Collection<RestoreStatus> active, LocalDateTime now, String tables);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE BackupMetadata b SET b.restoreStatus = :status, b.restoreProgress = :progress WHERE b.id = :id")
+    int updateRestoreProgress(Long id, RestoreStatus status, Integer progress);
+    
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE BackupMetadata b SET b.restoreStatus = :status, b.restoreProgress = 100,
+                   b.status = :backupStatus, b.restoredAt = :now
+            WHERE b.id = :id
+            """)
+    int finishRestore(Long id, RestoreStatus status, BackupStatus backupStatus, LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE BackupMetadata b SET b.restoreStatus = :status, b.restoreError = :error WHERE b.id = :id")
+    int failRestore(Long id, RestoreStatus status, String error);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE BackupMetadata b SET b.restoreStatus = :failed, b.restoreError = :error WHERE b.restoreStatus IN :active")
+    int failActiveRestores(Collection<RestoreStatus> active, RestoreStatus failed, String error);
 }
@@ -3,8 +3,11 @@ package com.precificapro.domain.repository;
 import com.precificapro.domain.model.CostItem;
 import com.precificapro.domain.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,4 +18,8 @@ public interface CostItemRepository extends JpaRepository<CostItem, UUID> {
     List<CostItem> findByOwner(User owner);
     
     List<CostItem> findByOwnerAndActiveTrue(User owner);
+    
+    // Soma dos custos fixos ativos feita no banco (rateio da simulação)
+    @Query("SELECT COALESCE(SUM(c.amountMonthly), 0) FROM CostItem c WHERE c.owner = :owner AND c.active = true")
+    BigDecimal sumActiveAmountMonthlyByOwner(@Param("owner") User owner);
 }
\ No newline at end of file
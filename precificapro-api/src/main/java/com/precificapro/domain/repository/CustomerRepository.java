@@ -5,6 +5,7 @@ import com.precificapro.domain.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -12,6 +13,7 @@ import java.util.UUID;
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, UUID> {
     Optional<Customer> findByOwnerAndPhoneNumber(User owner, String phoneNumber);
+    List<Customer> findByOwnerAndPhoneNumberIn(User owner, Collection<String> phoneNumbers);
     Optional<Customer> findByIdAndOwner(UUID id, User owner);
     List<Customer> findByOwner(User owner);
     boolean existsByOwnerAndPhoneNumber(User owner, String phoneNumber);
@@ -4,6 +4,8 @@ import com.precificapro.domain.model.FreightBatch;
 import com.precificapro.domain.model.Product;
 import com.precificapro.domain.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -16,4 +18,14 @@ public interface FreightBatchRepository extends JpaRepository<FreightBatch, UUID
     List<FreightBatch> findByOwner(User owner);
     
     Optional<FreightBatch> findFirstByProductOrderByCreatedAtDesc(Product product);
-}
\ No newline at end of file
+    
+    /**
+     * Último lote de frete de cada produto do usuário, em uma única consulta
+     * (usado pela simulação em lote no lugar de uma busca por produto).
+     */
+    @Query(value = "SELECT DISTINCT ON (fb.product_id) fb.* FROM freight_batches fb " +
+                   "WHERE fb.owner_id = :ownerId " +
+                   "ORDER BY fb.product_id, fb.created_at DESC",
+           nativeQuery = true)
+    List<FreightBatch> findLatestPerProductByOwnerId(@Param("ownerId") UUID ownerId);
+}
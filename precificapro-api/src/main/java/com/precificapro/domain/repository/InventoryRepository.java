@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,19 +20,143 @@ public interface InventoryRepository extends JpaRepository<Inventory, UUID> {
     
     Optional<Inventory> findByProductId(UUID productId);
     
-    @Query("SELECT i FROM Inventory i WHERE i.product.owner.id = :ownerId")
+    // Filtros por i.owner.id usam a coluna owner_id do próprio inventário (índice owner_id, stock_status),
+    // sem JOIN com products; o produto vem no mesmo SELECT para o DTO não disparar uma consulta por linha
+    
+    @Query("SELECT i FROM Inventory i JOIN FETCH i.product WHERE i.owner.id = :ownerId")
     List<Inventory> findByOwnerId(@Param("ownerId") UUID ownerId);
     
-    @Query("SELECT i FROM Inventory i WHERE i.product.owner.id = :ownerId AND i.stockStatus = :status")
+    @Query("SELECT i FROM Inventory i JOIN FETCH i.product WHERE i.owner.id = :ownerId AND i.stockStatus = :status")
     List<Inventory> findByOwnerIdAndStatus(@Param("ownerId") UUID ownerId, @Param("status") StockStatus status);
     
-    @Query("SELECT i FROM Inventory i WHERE i.product.owner.id = :ownerId " +
+    @Query("SELECT i FROM Inventory i JOIN FETCH i.product WHERE i.owner.id = :ownerId " +
            "AND (i.stockStatus = 'LOW_STOCK' OR i.stockStatus = 'OUT_OF_STOCK')")
     List<Inventory> findLowStockByOwnerId(@Param("ownerId") UUID ownerId);
     
-    @Query("SELECT COUNT(i) FROM Inventory i WHERE i.product.owner.id = :ownerId AND i.stockStatus = 'OUT_OF_STOCK'")
+    // Contagens: index-only scan em (owner_id, stock_status)
+    @Query("SELECT COUNT(i) FROM Inventory i WHERE i.owner.id = :ownerId AND i.stockStatus = 'OUT_OF_STOCK'")
     long countOutOfStockByOwnerId(@Param("ownerId") UUID ownerId);
     
-    @Query("SELECT COUNT(i) FROM Inventory i WHERE i.product.owner.id = :ownerId AND i.stockStatus = 'LOW_STOCK'")
+    @Query("SELECT COUNT(i) FROM Inventory i WHERE i.owner.id = :ownerId AND i.stockStatus = 'LOW_STOCK'")
     long countLowStockByOwnerId(@Param("ownerId") UUID ownerId);
+
+    /**
+     * Resumo do inventário do owner em uma única consulta, sem carregar entidades:
+     * [0] status, [1] produtos, [2] valor em estoque a custo de compra, [3] unidades reservadas.
+     */
+    @Query("""
+            SELECT i.stockStatus, COUNT(i),
+                   COALESCE(SUM(i.currentStock * p.defaultPurchaseCost), 0),
+                   COALESCE(SUM(i.reservedStock), 0)
+            FROM Inventory i JOIN i.product p
+            WHERE i.owner.id = :ownerId
+            GROUP BY i.stockStatus
+            """)
+    List<Object[]> summarizeByStatus(@Param("ownerId") UUID ownerId);
+
+    @Query("SELECT i FROM Inventory i JOIN FETCH i.product WHERE i.product.id IN :productIds")
+    List<Inventory> findByProductIdIn(@Param("productIds") Collection<UUID> productIds);
+
+    /**
+     * Soma {@code quantity} às unidades reservadas se houver estoque disponível, no próprio
+     * UPDATE (duas reservas concorrentes não passam as duas por uma checagem feita antes).
+     * Retorna [available_stock, min_stock] depois da reserva, ou nada se não havia estoque.
+     */
+    @Query(value = """
+            UPDATE inventory
+            SET reserved_stock = reserved_stock + :quantity
+            WHERE product_id = :productId AND available_stock >= :quantity
+            RETURNING available_stock, min_stock
+            """, nativeQuery = true)
+    List<Object[]> reserveAvailable(@Param("productId") UUID productId, @Param("quantity") int quantity);
+
+    /**
+     * Soma {@code delta} (negativo na saída) ao estoque atual no próprio UPDATE, sem ler e
+     * regravar a linha: baixas de vendas concorrentes não são sobrescritas. Uma saída maior
+     * que o estoque atual não altera nada. Retorna [current_stock, available_stock] depois
+     * do ajuste, ou nada se o estoque não bastava (ou o produto não tem inventário).
+     */
+    @Query(value = """
+            UPDATE inventory
+            SET current_stock = current_stock + :delta
+            WHERE product_id = :productId AND current_stock + :delta >= 0
+            RETURNING current_stock, available_stock
+            """, nativeQuery = true)
+    List<Object[]> adjustCurrentStock(@Param("productId") UUID productId, @Param("delta") int delta);
+
+    /**
+     * Baixa atômica de vários produtos em um único comando: cada linha só é decrementada
+     * se available_stock >= quantidade (reavaliado após o lock, sem overselling), e a
+     * movimentação OUT é gravada no mesmo comando. As linhas são travadas em ordem de
+     * product_id para que vendas concorrentes com os mesmos produtos não entrem em deadlock.
+     *
+     * As reservas ativas informadas em {@code reservationIds} (do owner e de produtos da venda)
+     * são consumidas no mesmo comando: as unidades delas saem de reserved_stock e contam como
+     * disponíveis para esta venda. Reservas de outro owner, de outro produto, já encerradas ou
+     * vencidas (mesmo que a varredura ainda não as tenha expirado) são ignoradas; a venda ainda
+     * pode usar o estoque livre.
+     *
+     * Os arrays são paralelos e sem produtos repetidos. Retorna uma linha por produto baixado:
+     * [product_id, nome, available_stock depois da baixa, min_stock, quantidade, unidades de
+     * reserva consumidas]; os que faltarem não tinham estoque suficiente (ou não têm inventário).
+     */
+    @Query(value = """
+            WITH req AS (
+                SELECT r.product_id, r.qty
+                FROM unnest(CAST(:productIds AS uuid[]), CAST(:quantities AS int[])) AS r(product_id, qty)
+            ),
+            res AS (
+                SELECT s.id, s.product_id, s.quantity
+                FROM stock_reservations s
+                WHERE s.id = ANY(CAST(:reservationIds AS uuid[]))
+                  AND s.owner_id = :performedBy
+                  AND s.status = 'ACTIVE'
+                  AND s.expires_at > now()
+                  AND s.product_id IN (SELECT product_id FROM req)
+                ORDER BY s.id
+                FOR UPDATE OF s
+            ),
+            res_qty AS (
+                SELECT product_id, SUM(quantity) AS qty FROM res GROUP BY product_id
+            ),
+            locked AS (
+                SELECT i.id
+                FROM inventory i
+                JOIN req r ON r.product_id = i.product_id
+                ORDER BY i.product_id
+                FOR UPDATE OF i
+            ),
+            upd AS (
+                UPDATE inventory i
+                SET current_stock = i.current_stock - r.qty,
+                    reserved_stock = GREATEST(0, i.reserved_stock - COALESCE(q.qty, 0))
+                FROM req r
+                LEFT JOIN res_qty q ON q.product_id = r.product_id
+                WHERE i.id IN (SELECT l.id FROM locked l)
+                  AND i.product_id = r.product_id
+                  AND i.available_stock + COALESCE(q.qty, 0) >= r.qty
+                RETURNING i.id, i.product_id, i.owner_id, i.available_stock, i.min_stock, r.qty,
+                          COALESCE(q.qty, 0) AS reserved_qty
+            ),
+            consumed AS (
+                UPDATE stock_reservations s
+                SET status = 'CONSUMED', resolved_at = now()
+                FROM upd u
+                WHERE s.id IN (SELECT id FROM res) AND s.product_id = u.product_id
+            ),
+            movements AS (
+                INSERT INTO stock_movements (inventory_id, product_id, owner_id, type, quantity, reason, notes, performed_by)
+                SELECT u.id, u.product_id, u.owner_id, 'OUT', u.qty, :reason, :notes, :performedBy
+                FROM upd u
+            )
+            SELECT u.product_id, p.name, u.available_stock, u.min_stock, u.qty, u.reserved_qty
+            FROM upd u
+            JOIN products p ON p.id = u.product_id
+            """, nativeQuery = true)
+    List<Object[]> decrementAvailable(@Param("productIds") UUID[] productIds,
+                                      @Param("quantities") Integer[] quantities,
+                                      @Param("reservationIds") UUID[] reservationIds,
+                                      @Param("reason") String reason,
+                                      @Param("notes") String notes,
+                                      @Param("performedBy") UUID performedBy);
 }
@@ -5,6 +5,7 @@ import com.precificapro.domain.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -20,4 +21,7 @@ public interface PricingProfileRepository extends JpaRepository<PricingProfile,
     
  // Em PricingProfileRepository.java
     boolean existsByIdAndOwner(UUID id, User owner);
+    
+    // Busca vários perfis do usuário de uma vez (simulação em lote)
+    List<PricingProfile> findByOwnerAndIdIn(User owner, Collection<UUID> ids);
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.precificapro.domain.repository;
 
+import com.precificapro.controller.dto.ProductResponseDTO;
 import com.precificapro.domain.model.Product;
 import com.precificapro.domain.model.User;
 import org.springframework.data.domain.Page;
@@ -9,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -36,4 +38,29 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
     // Buscar produtos por categoria
     @Query("SELECT p FROM Product p WHERE p.owner = :owner AND p.category.id = :categoryId")
     List<Product> findByOwnerAndCategoryId(@Param("owner") User owner, @Param("categoryId") UUID categoryId);
+    
+    // Busca uma lista explícita de produtos do usuário em uma única consulta
+    List<Product> findByOwnerAndIdIn(User owner, Collection<UUID> ids);
+    
+    // Mesmo que o anterior, por SKU (importação de vendas)
+    List<Product> findByOwnerAndSkuIn(User owner, Collection<String> skus);
+
+    // === LISTAGEM (projeção direta no DTO, miniatura primária por join: 1 consulta, sem N+1) ===
+    // O trigger de product_images garante no máximo uma imagem primária por produto.
+
+    String LISTING_SELECT = "SELECT new com.precificapro.controller.dto.ProductResponseDTO(" +
+            "p.id, p.name, p.sku, p.defaultPurchaseCost, p.defaultPackagingCost, p.defaultOtherVariableCost, " +
+            "pi.thumbnailUrl, p.createdAt, p.updatedAt) " +
+            "FROM Product p LEFT JOIN ProductImage pi ON pi.product = p AND pi.isPrimary = true ";
+
+    @Query(LISTING_SELECT + "WHERE p.owner = :owner")
+    List<ProductResponseDTO> findListingByOwner(@Param("owner") User owner);
+
+    @Query(value = LISTING_SELECT + "WHERE p.owner = :owner",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE p.owner = :owner")
+    Page<ProductResponseDTO> findListingByOwner(@Param("owner") User owner, Pageable pageable);
+
+    @Query(LISTING_SELECT + "WHERE p.owner = :owner AND p.category.id = :categoryId")
+    List<ProductResponseDTO> findListingByOwnerAndCategoryId(@Param("owner") User owner,
+                                                             @Param("categoryId") UUID categoryId);
 }
\ No newline at end of file
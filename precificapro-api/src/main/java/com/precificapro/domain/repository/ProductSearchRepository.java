@@ -0,0 +1,105 @@
+package com.precificapro.domain.repository;
+
+import com.precificapro.controller.dto.ProductResponseDTO;
+import com.precificapro.domain.enums.ProductSort;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Busca de produtos com filtros opcionais e paginação por keyset. O SQL é montado só com
+ * os filtros informados (partes fixas, valores sempre como parâmetro), para que o
+ * planner use o índice de cada caso:
+ * - texto: ILIKE de prefixo em nome/SKU e, a partir de 3 caracteres, similaridade de
+ *   palavra (<%) no nome, ambos pelos índices trigram de V18;
+ * - ordenação + keyset: índices (owner_id, coluna, id), lidos na ordem e cortados no LIMIT.
+ */
+@Repository
+public class ProductSearchRepository {
+
+    public record Criteria(String query, UUID categoryId, BigDecimal minCost, BigDecimal maxCost, ProductSort sort) {}
+
+    /** Posição após a qual a página começa: valor da coluna de ordenação + id. */
+    public record After(Object value, UUID id) {}
+
+    private static final int MIN_TRIGRAM_QUERY_LENGTH = 3;
+
+    private static final String SELECT = """
+            SELECT p.id, p.name, p.sku, p.default_purchase_cost, p.default_packaging_cost,
+                   p.default_other_variable_cost, pi.thumbnail_url, p.created_at, p.updated_at
+            FROM products p
+            LEFT JOIN product_images pi ON pi.product_id = p.id AND pi.is_primary = TRUE
+            WHERE p.owner_id = :ownerId
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ProductSearchRepository(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    public List<ProductResponseDTO> search(UUID ownerId, Criteria criteria, After after, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        MapSqlParameterSource params = new MapSqlParameterSource("ownerId", ownerId).addValue("limit", limit);
+
+        if (criteria.categoryId() != null) {
+            sql.append(" AND p.category_id = :categoryId");
+            params.addValue("categoryId", criteria.categoryId());
+        }
+        if (criteria.minCost() != null) {
+            sql.append(" AND p.default_purchase_cost >= :minCost");
+            params.addValue("minCost", criteria.minCost());
+        }
+        if (criteria.maxCost() != null) {
+            sql.append(" AND p.default_purchase_cost <= :maxCost");
+            params.addValue("maxCost", criteria.maxCost());
+        }
+        String query = (criteria.query() == null) ? "" : criteria.query().trim();
+        if (!query.isEmpty()) {
+            sql.append(" AND (p.name ILIKE :prefix OR p.sku ILIKE :prefix");
+            params.addValue("prefix", escapeLike(query) + "%");
+            if (query.length() >= MIN_TRIGRAM_QUERY_LENGTH) {
+                sql.append(" OR :query <% p.name");
+                params.addValue("query", query);
+            }
+            sql.append(")");
+        }
+
+        String column = switch (criteria.sort()) {
+            case NAME -> "p.name";
+            case SKU -> "p.sku";
+            case NEWEST -> "p.created_at";
+            case PURCHASE_COST -> "p.default_purchase_cost";
+        };
+        boolean descending = criteria.sort() == ProductSort.NEWEST;
+        if (after != null) {
+            sql.append(" AND (").append(column).append(", p.id) ")
+               .append(descending ? "<" : ">").append(" (:afterValue, :afterId)");
+            params.addValue("afterValue", after.value()).addValue("afterId", after.id());
+        }
+        String direction = descending ? " DESC" : "";
+        sql.append(" ORDER BY ").append(column).append(direction).append(", p.id").append(direction)
+           .append(" LIMIT :limit");
+
+        return jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> new ProductResponseDTO(
+                rs.getObject(1, UUID.class),
+                rs.getString(2),
+                rs.getString(3),
+                rs.getBigDecimal(4),
+                rs.getBigDecimal(5),
+                rs.getBigDecimal(6),
+                rs.getString(7),
+                rs.getObject(8, OffsetDateTime.class),
+                rs.getObject(9, OffsetDateTime.class)));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -30,25 +30,4 @@ public interface SaleItemRepository extends JpaRepository<SaleItem, UUID> {
         ORDER BY SUM(si.quantity) DESC
     """)
     List<Object[]> findProductRankingByOwner(@Param("owner") User owner);
-    
-    @Query("""
-        SELECT 
-            CAST(s.saleDate AS LocalDate) as saleDate,
-            SUM(si.quantity) as totalQuantity,
-            SUM(si.quantity * si.unitPrice) as totalRevenue,
-            SUM(si.netProfit) as totalProfit,
-            COUNT(DISTINCT s.id) as salesCount
-        FROM SaleItem si
-        JOIN si.sale s
-        WHERE s.owner = :owner 
-        AND si.product.id = :productId
-        AND s.saleDate >= :startDate
-        GROUP BY CAST(s.saleDate AS LocalDate)
-        ORDER BY CAST(s.saleDate AS LocalDate) ASC
-    """)
-    List<Object[]> findProductSalesChart(
-        @Param("owner") User owner,
-        @Param("productId") UUID productId,
-        @Param("startDate") java.time.OffsetDateTime startDate
-    );
 }
\ No newline at end of file
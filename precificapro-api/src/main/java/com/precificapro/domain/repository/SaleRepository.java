@@ -2,24 +2,86 @@ package com.precificapro.domain.repository;
 
 import com.precificapro.domain.model.Sale;
 import com.precificapro.domain.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface SaleRepository extends JpaRepository<Sale, UUID> {
+    @EntityGraph(attributePaths = {"customer", "items", "items.product"})
     List<Sale> findAllByOwnerOrderBySaleDateDesc(User owner);
-    
+
+    // === LISTAGEM PAGINADA (keyset em sale_date DESC, id DESC) ===
+
+    @Query(value = """
+            SELECT s.id FROM sales s
+            WHERE s.owner_id = :ownerId
+            ORDER BY s.sale_date DESC, s.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<UUID> findFirstPageIds(@Param("ownerId") UUID ownerId, @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT s.id FROM sales s
+            WHERE s.owner_id = :ownerId
+              AND (s.sale_date, s.id) < (:afterDate, :afterId)
+            ORDER BY s.sale_date DESC, s.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<UUID> findPageIdsAfter(@Param("ownerId") UUID ownerId,
+                                @Param("afterDate") OffsetDateTime afterDate,
+                                @Param("afterId") UUID afterId,
+                                @Param("limit") int limit);
+
+    /**
+     * Vendas da página com cliente, itens e produtos em uma única consulta (sem N+1).
+     */
+    @Query("""
+            SELECT DISTINCT s FROM Sale s
+            JOIN FETCH s.customer
+            LEFT JOIN FETCH s.items i
+            LEFT JOIN FETCH i.product
+            WHERE s.id IN :ids
+            ORDER BY s.saleDate DESC, s.id DESC
+            """)
+    List<Sale> findWithItemsByIdIn(@Param("ids") List<UUID> ids);
+
     /**
-     * Query otimizada que faz agregação no banco ao invés de carregar todas as sales em memória.
-     * Retorna [totalRevenue, totalNetProfit]
+     * Métricas do dashboard em uma única ida ao banco: totais gerais, recortes por período
+     * e contagem de produtos/clientes. Retorna sempre uma linha:
+     * [0] receita total, [1] lucro total, [2] nº de vendas,
+     * [3..5] receita/lucro/vendas de hoje,
+     * [6..8] receita/lucro/vendas do mês até agora,
+     * [9..11] receita/lucro/vendas do período anterior,
+     * [12] nº de produtos, [13] nº de clientes.
      */
-    @Query("SELECT COALESCE(SUM(s.totalAmount), 0), COALESCE(SUM(s.totalNetProfit), 0) " +
-           "FROM Sale s WHERE s.owner = :owner")
-    Object[] getSalesAggregates(@Param("owner") User owner);
+    @Query(value = """
+            SELECT COALESCE(SUM(s.total_amount), 0),
+                   COALESCE(SUM(s.total_net_profit), 0),
+                   COUNT(s.id),
+                   COALESCE(SUM(s.total_amount) FILTER (WHERE s.sale_date >= :todayStart), 0),
+                   COALESCE(SUM(s.total_net_profit) FILTER (WHERE s.sale_date >= :todayStart), 0),
+                   COUNT(s.id) FILTER (WHERE s.sale_date >= :todayStart),
+                   COALESCE(SUM(s.total_amount) FILTER (WHERE s.sale_date >= :monthStart), 0),
+                   COALESCE(SUM(s.total_net_profit) FILTER (WHERE s.sale_date >= :monthStart), 0),
+                   COUNT(s.id) FILTER (WHERE s.sale_date >= :monthStart),
+                   COALESCE(SUM(s.total_amount) FILTER (WHERE s.sale_date >= :previousStart AND s.sale_date < :previousEnd), 0),
+                   COALESCE(SUM(s.total_net_profit) FILTER (WHERE s.sale_date >= :previousStart AND s.sale_date < :previousEnd), 0),
+                   COUNT(s.id) FILTER (WHERE s.sale_date >= :previousStart AND s.sale_date < :previousEnd),
+                   (SELECT COUNT(*) FROM products p WHERE p.owner_id = :ownerId),
+                   (SELECT COUNT(*) FROM customers c WHERE c.owner_id = :ownerId)
+            FROM sales s
+            WHERE s.owner_id = :ownerId
+            """, nativeQuery = true)
+    List<Object[]> getDashboardAggregates(@Param("ownerId") UUID ownerId,
+                                          @Param("todayStart") OffsetDateTime todayStart,
+                                          @Param("monthStart") OffsetDateTime monthStart,
+                                          @Param("previousStart") OffsetDateTime previousStart,
+                                          @Param("previousEnd") OffsetDateTime previousEnd);
 }
\ No newline at end of file
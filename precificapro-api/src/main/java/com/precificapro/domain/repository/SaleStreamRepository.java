@@ -0,0 +1,106 @@
+package com.precificapro.domain.repository;
+
+import com.precificapro.controller.dto.CustomerResponseDTO;
+import com.precificapro.controller.dto.SaleItemResponseDTO;
+import com.precificapro.controller.dto.SaleResponseDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Leitura das vendas de um owner por cursor JDBC, sem passar pelo contexto de persistência.
+ * As linhas (uma por item) chegam ordenadas por venda e cada venda é entregue assim que
+ * a próxima começa: a memória usada é a de uma venda, não a do histórico inteiro.
+ *
+ * No PostgreSQL o driver só usa cursor com fetch size definido e auto-commit desligado,
+ * então o chamador precisa estar em uma transação.
+ */
+@Repository
+public class SaleStreamRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String SQL = """
+            SELECT s.id, s.sale_date, s.total_amount, s.total_net_profit,
+                   c.id, c.name, c.phone_number, c.email,
+                   si.id, si.product_id, p.name, si.quantity, si.unit_price, si.unit_cost_at_sale, si.net_profit
+            FROM sales s
+            JOIN customers c ON c.id = s.customer_id
+            LEFT JOIN sale_items si ON si.sale_id = s.id
+            LEFT JOIN products p ON p.id = si.product_id
+            WHERE s.owner_id = ?
+            ORDER BY s.sale_date DESC, s.id DESC, si.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SaleStreamRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    public void streamByOwner(UUID ownerId, Consumer<SaleResponseDTO> consumer) {
+        SaleAccumulator accumulator = new SaleAccumulator(consumer);
+        jdbcTemplate.query(SQL, accumulator, ownerId);
+        accumulator.flush();
+    }
+
+    private static final class SaleAccumulator implements RowCallbackHandler {
+
+        private final Consumer<SaleResponseDTO> consumer;
+        private UUID saleId;
+        private OffsetDateTime saleDate;
+        private BigDecimal totalAmount;
+        private BigDecimal totalNetProfit;
+        private CustomerResponseDTO customer;
+        private List<SaleItemResponseDTO> items = new ArrayList<>();
+
+        SaleAccumulator(Consumer<SaleResponseDTO> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            UUID id = rs.getObject(1, UUID.class);
+            if (!id.equals(saleId)) {
+                flush();
+                saleId = id;
+                saleDate = rs.getObject(2, OffsetDateTime.class);
+                totalAmount = rs.getBigDecimal(3);
+                totalNetProfit = rs.getBigDecimal(4);
+                customer = new CustomerResponseDTO(
+                        rs.getObject(5, UUID.class), rs.getString(6), rs.getString(7), rs.getString(8));
+            }
+            UUID itemId = rs.getObject(9, UUID.class);
+            if (itemId != null) {
+                items.add(new SaleItemResponseDTO(
+                        itemId,
+                        rs.getObject(10, UUID.class),
+                        rs.getString(11),
+                        rs.getInt(12),
+                        rs.getBigDecimal(13),
+                        rs.getBigDecimal(14),
+                        rs.getBigDecimal(15)));
+            }
+        }
+
+        void flush() {
+            if (saleId == null) {
+                return;
+            }
+            consumer.accept(new SaleResponseDTO(saleId, saleDate, totalAmount, totalNetProfit, customer, items));
+            saleId = null;
+            items = new ArrayList<>();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.precificapro.domain.repository;
+
+import com.precificapro.domain.model.SalesDailyRollup;
+import com.precificapro.domain.model.SalesDailyRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SalesDailyRollupRepository extends JpaRepository<SalesDailyRollup, SalesDailyRollupId> {
+
+    /**
+     * Soma uma venda ao rollup do dia em um único comando, uma linha por produto
+     * (arrays paralelos, produtos já agrupados). A ordem por product_id fixa a
+     * sequência de locks entre vendas concorrentes.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO sales_daily_rollup (owner_id, product_id, sale_day, quantity, revenue, net_profit, sale_count, updated_at)
+            SELECT :ownerId, r.product_id, :saleDay, r.quantity, r.revenue, r.net_profit, 1, NOW()
+            FROM unnest(CAST(:productIds AS uuid[]), CAST(:quantities AS bigint[]),
+                        CAST(:revenues AS numeric[]), CAST(:netProfits AS numeric[]))
+                 AS r(product_id, quantity, revenue, net_profit)
+            ORDER BY r.product_id
+            ON CONFLICT (owner_id, product_id, sale_day) DO UPDATE SET
+                quantity   = sales_daily_rollup.quantity + EXCLUDED.quantity,
+                revenue    = sales_daily_rollup.revenue + EXCLUDED.revenue,
+                net_profit = sales_daily_rollup.net_profit + EXCLUDED.net_profit,
+                sale_count = sales_daily_rollup.sale_count + 1,
+                updated_at = NOW()
+            """, nativeQuery = true)
+    void increment(@Param("ownerId") UUID ownerId,
+                   @Param("saleDay") LocalDate saleDay,
+                   @Param("productIds") UUID[] productIds,
+                   @Param("quantities") Long[] quantities,
+                   @Param("revenues") BigDecimal[] revenues,
+                   @Param("netProfits") BigDecimal[] netProfits);
+
+    /**
+     * Totais do owner por dia (todos os produtos): [0] dia, [1] receita, [2] lucro.
+     */
+    @Query("""
+            SELECT r.id.saleDay, SUM(r.revenue), SUM(r.netProfit)
+            FROM SalesDailyRollup r
+            WHERE r.id.ownerId = :ownerId AND r.id.saleDay >= :from
+            GROUP BY r.id.saleDay
+            """)
+    List<Object[]> sumByDay(@Param("ownerId") UUID ownerId, @Param("from") LocalDate from);
+
+    @Query("""
+            SELECT r FROM SalesDailyRollup r
+            WHERE r.id.ownerId = :ownerId AND r.id.productId = :productId AND r.id.saleDay >= :from
+            ORDER BY r.id.saleDay ASC
+            """)
+    List<SalesDailyRollup> findProductDays(@Param("ownerId") UUID ownerId,
+                                           @Param("productId") UUID productId,
+                                           @Param("from") LocalDate from);
+
+    // === REBUILD (job de backfill / reconciliação) ===
+
+    /**
+     * Rebuild e vendas de um mesmo owner se excluem por um advisory lock do owner (até o fim
+     * da transação): o rebuild pega o lock exclusivo, cada venda o compartilhado antes do
+     * upsert. Vendas de um owner não esperam umas pelas outras, e o rebuild de um owner não
+     * bloqueia as vendas dos demais. Vendas já gravadas ficam visíveis para o INSERT ... SELECT
+     * do rebuild; as seguintes somam depois dele.
+     */
+    @Query(value = """
+            SELECT 1 FROM (SELECT pg_advisory_xact_lock(hashtext('sales_daily_rollup'), hashtext(CAST(:ownerId AS text)))) l
+            """, nativeQuery = true)
+    Integer lockOwnerForRebuild(@Param("ownerId") UUID ownerId);
+
+    @Query(value = """
+            SELECT 1 FROM (SELECT pg_advisory_xact_lock_shared(hashtext('sales_daily_rollup'), hashtext(CAST(:ownerId AS text)))) l
+            """, nativeQuery = true)
+    Integer lockOwnerForIncrement(@Param("ownerId") UUID ownerId);
+
+    @Modifying
+    @Query(value = "DELETE FROM sales_daily_rollup WHERE owner_id = :ownerId AND sale_day >= :from", nativeQuery = true)
+    int deleteFrom(@Param("ownerId") UUID ownerId, @Param("from") LocalDate from);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO sales_daily_rollup (owner_id, product_id, sale_day, quantity, revenue, net_profit, sale_count, updated_at)
+            SELECT s.owner_id,
+                   si.product_id,
+                   CAST(s.sale_date AT TIME ZONE :zone AS DATE),
+                   SUM(si.quantity),
+                   SUM(si.quantity * si.unit_price),
+                   SUM(si.net_profit),
+                   COUNT(DISTINCT s.id),
+                   NOW()
+            FROM sales s
+            JOIN sale_items si ON si.sale_id = s.id
+            WHERE s.owner_id = :ownerId AND s.sale_date >= :fromInstant
+            GROUP BY 1, 2, 3
+            """, nativeQuery = true)
+    int rebuildFrom(@Param("ownerId") UUID ownerId,
+                    @Param("zone") String zone,
+                    @Param("fromInstant") OffsetDateTime fromInstant);
+
+    @Query(value = """
+            SELECT DISTINCT s.owner_id FROM sales s
+            WHERE NOT EXISTS (SELECT 1 FROM sales_daily_rollup r WHERE r.owner_id = s.owner_id)
+            """, nativeQuery = true)
+    List<UUID> findOwnerIdsWithoutRollup();
+
+    @Query(value = "SELECT DISTINCT s.owner_id FROM sales s WHERE s.sale_date >= :since", nativeQuery = true)
+    List<UUID> findOwnerIdsWithSalesSince(@Param("since") OffsetDateTime since);
+}
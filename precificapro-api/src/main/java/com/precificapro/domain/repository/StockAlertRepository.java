@@ -0,0 +1,84 @@
+package com.precificapro.domain.repository;
+
+import com.precificapro.domain.model.StockAlert;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface StockAlertRepository extends JpaRepository<StockAlert, UUID> {
+
+    /**
+     * Grava o alerta no outbox, a menos que o último alerta do produto criado depois de
+     * {@code since} já seja deste nível. Só o mais recente conta: LOW → IN → LOW dentro da
+     * janela gera os três alertas, senão quem recebe fica com o produto "em estoque".
+     *
+     * @return 1 se gravou, 0 se era duplicado
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO stock_alerts (id, owner_id, product_id, product_name, alert_type, previous_level,
+                                      available_stock, min_stock, status, attempts, created_at)
+            SELECT gen_random_uuid(), :ownerId, :productId, :productName, :level, :previousLevel,
+                   :availableStock, :minStock, 'PENDING', 0, now()
+            WHERE (
+                SELECT a.alert_type FROM stock_alerts a
+                WHERE a.owner_id = :ownerId AND a.product_id = :productId AND a.created_at > :since
+                ORDER BY a.created_at DESC
+                LIMIT 1
+            ) IS DISTINCT FROM :level
+            """, nativeQuery = true)
+    int insertIfNew(UUID ownerId, UUID productId, String productName, String level, String previousLevel,
+                    int availableStock, int minStock, OffsetDateTime since);
+
+    /**
+     * Reserva o próximo lote de alertas pendentes para este nó por {@code leaseSeconds} e já
+     * conta a tentativa. Outras instâncias pulam as linhas travadas (SKIP LOCKED) e, depois do
+     * commit, as reservadas; o lock dura só este comando, não a entrega. Se o nó cair no
+     * meio da entrega, os alertas voltam para a fila quando o prazo vence.
+     */
+    @Query(value = """
+            UPDATE stock_alerts
+            SET attempts = attempts + 1,
+                claimed_until = now() + make_interval(secs => :leaseSeconds)
+            WHERE id IN (
+                SELECT id FROM stock_alerts
+                WHERE status = 'PENDING' AND (claimed_until IS NULL OR claimed_until < now())
+                ORDER BY created_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING *
+            """, nativeQuery = true)
+    List<StockAlert> claimPending(int limit, long leaseSeconds);
+
+    /**
+     * Grava o resultado da entrega e libera a reserva: entregue se todos os notificadores já
+     * entregaram, FAILED se esgotou as tentativas, senão volta a pendente.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE stock_alerts
+            SET delivered_to = :deliveredTo,
+                last_error = CAST(:lastError AS varchar),
+                status = CASE WHEN :complete THEN 'DELIVERED'
+                              WHEN attempts >= :maxAttempts THEN 'FAILED'
+                              ELSE 'PENDING' END,
+                delivered_at = CASE WHEN :complete THEN now() ELSE delivered_at END,
+                claimed_until = NULL
+            WHERE id IN (:ids)
+            """, nativeQuery = true)
+    int recordDelivery(Collection<UUID> ids, String deliveredTo, String lastError, boolean complete, int maxAttempts);
+
+    List<StockAlert> findTop50ByOwnerIdOrderByCreatedAtDesc(UUID ownerId);
+
+    @Modifying
+    @Query("DELETE FROM StockAlert a WHERE a.status <> com.precificapro.domain.enums.StockAlertStatus.PENDING AND a.createdAt < :before")
+    int deleteProcessedBefore(OffsetDateTime before);
+}
@@ -0,0 +1,103 @@
+package com.precificapro.domain.repository;
+
+import com.precificapro.domain.model.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, UUID> {
+
+    @Query("SELECT r FROM StockReservation r JOIN FETCH r.product WHERE r.id = :id AND r.owner.id = :ownerId")
+    Optional<StockReservation> findByIdAndOwnerId(UUID id, UUID ownerId);
+
+    @Query("""
+            SELECT r FROM StockReservation r JOIN FETCH r.product
+            WHERE r.owner.id = :ownerId AND r.product.id = :productId
+              AND r.status = com.precificapro.domain.enums.StockReservationStatus.ACTIVE
+            ORDER BY r.expiresAt
+            """)
+    List<StockReservation> findActiveByOwnerIdAndProductId(UUID ownerId, UUID productId);
+
+    /**
+     * Encerra a reserva se ainda estiver ativa e devolve as unidades ao disponível, em um comando.
+     * Retorna [available_stock, min_stock, quantidade liberada], ou nada se a reserva já tinha
+     * sido consumida, liberada ou expirada (inclusive por um processo concorrente).
+     */
+    @Query(value = """
+            WITH released AS (
+                UPDATE stock_reservations s
+                SET status = 'RELEASED', resolved_at = now()
+                WHERE s.id = :id AND s.owner_id = :ownerId AND s.status = 'ACTIVE'
+                RETURNING s.product_id, s.quantity
+            )
+            UPDATE inventory i
+            SET reserved_stock = GREATEST(0, i.reserved_stock - r.quantity)
+            FROM released r
+            WHERE i.product_id = r.product_id
+            RETURNING i.available_stock, i.min_stock, r.quantity
+            """, nativeQuery = true)
+    List<Object[]> releaseActive(UUID id, UUID ownerId);
+
+    /**
+     * Expira até {@code limit} reservas vencidas e devolve as unidades ao disponível, em um
+     * comando: as vencidas saem de uma varredura do índice parcial (expires_at) das ativas,
+     * são somadas por produto e cada inventário é atualizado uma vez. SKIP LOCKED deixa de fora
+     * as reservas que uma venda está consumindo (e deixa várias réplicas varrerem juntas); os
+     * inventários são travados em ordem de product_id, como na baixa de vendas.
+     *
+     * Retorna uma linha por produto: [owner_id, product_id, nome, available_stock, min_stock,
+     * unidades liberadas, reservas expiradas].
+     */
+    @Query(value = """
+            WITH due AS (
+                SELECT s.id
+                FROM stock_reservations s
+                WHERE s.status = 'ACTIVE' AND s.expires_at <= now()
+                ORDER BY s.expires_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            ),
+            expired AS (
+                UPDATE stock_reservations s
+                SET status = 'EXPIRED', resolved_at = now()
+                FROM due d
+                WHERE s.id = d.id
+                RETURNING s.product_id, s.quantity
+            ),
+            per_product AS (
+                SELECT product_id, SUM(quantity) AS qty, COUNT(*) AS reservations
+                FROM expired
+                GROUP BY product_id
+            ),
+            locked AS (
+                SELECT i.id
+                FROM inventory i
+                JOIN per_product p ON p.product_id = i.product_id
+                ORDER BY i.product_id
+                FOR UPDATE OF i
+            ),
+            upd AS (
+                UPDATE inventory i
+                SET reserved_stock = GREATEST(0, i.reserved_stock - p.qty)
+                FROM per_product p
+                WHERE i.id IN (SELECT l.id FROM locked l)
+                  AND i.product_id = p.product_id
+                RETURNING i.owner_id, i.product_id, i.available_stock, i.min_stock, p.qty, p.reservations
+            )
+            SELECT u.owner_id, u.product_id, pr.name, u.available_stock, u.min_stock, u.qty, u.reservations
+            FROM upd u
+            JOIN products pr ON pr.id = u.product_id
+            """, nativeQuery = true)
+    List<Object[]> expireDue(int limit);
+
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.status <> com.precificapro.domain.enums.StockReservationStatus.ACTIVE AND r.resolvedAt < :before")
+    int deleteResolvedBefore(OffsetDateTime before);
+}
@@ -193,6 +193,21 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<StockErrorResponse> handleInsufficientStockException(
+            InsufficientStockException ex, WebRequest request) {
+        log.warn("Insufficient stock: {}", ex.getMessage());
+        StockErrorResponse error = StockErrorResponse.builder()
+                .timestamp(OffsetDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error("Estoque insuficiente")
+                .message(ex.getMessage())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .shortages(ex.getShortages())
+                .build();
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
     @ExceptionHandler(RateLimitExceededException.class)
     public ResponseEntity<ErrorResponse> handleRateLimitExceededException(
             RateLimitExceededException ex, WebRequest request) {
@@ -0,0 +1,34 @@
+package com.precificapro.exception;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Um ou mais produtos sem estoque disponível para a baixa solicitada.
+ * Nenhuma baixa é aplicada: a transação inteira é desfeita.
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    private final List<Shortage> shortages;
+
+    public InsufficientStockException(List<Shortage> shortages) {
+        super("Estoque insuficiente para: " + shortages.stream()
+                .map(s -> (s.productName() != null ? s.productName() : s.productId().toString())
+                        + " (disponível: " + s.available() + ", solicitado: " + s.requested() + ")")
+                .collect(Collectors.joining(", ")));
+        this.shortages = List.copyOf(shortages);
+    }
+
+    public List<Shortage> getShortages() {
+        return shortages;
+    }
+
+    public record Shortage(
+            UUID productId,
+            String productName,
+            String productSku,
+            int requested,
+            int available
+    ) {}
+}
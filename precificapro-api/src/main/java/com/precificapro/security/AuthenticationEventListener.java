@@ -16,6 +16,9 @@ public class AuthenticationEventListener {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private JwtAuthenticationCache authenticationCache;
+
     @EventListener
     public void onAuthenticationSuccess(AuthenticationSuccessEvent event) {
         String username = event.getAuthentication().getName();
@@ -24,6 +27,7 @@ public class AuthenticationEventListener {
             if (user.getFailedLoginAttempts() != null && user.getFailedLoginAttempts() > 0) {
                 user.resetFailedLoginAttempts();
                 userRepository.save(user);
+                authenticationCache.evictPrincipal(username);
                 log.info("Login bem-sucedido para o usuário: {}. Tentativas falhadas resetadas.", username);
             }
         });
@@ -38,6 +42,8 @@ public class AuthenticationEventListener {
             userRepository.save(user);
             
             if (!user.isAccountNonLocked()) {
+                // Bloqueio vale já na próxima requisição, não só quando o principal em cache expirar
+                authenticationCache.evictPrincipal(username);
                 log.warn("Conta bloqueada após {} tentativas falhadas: {}", 
                     user.getFailedLoginAttempts(), username);
             } else {
@@ -0,0 +1,102 @@
+package com.precificapro.security;
+
+import com.precificapro.security.JwtTokenProvider.VerifiedToken;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Caches do caminho de autenticação por JWT (caches "jwtTokens" e "principals" do
+ * CacheManager, com estatísticas no actuator como os demais).
+ *
+ * <ul>
+ *   <li>Tokens verificados, com chave SHA-256 do token (o token em si não fica em memória).
+ *       Cada entrada expira junto com o token (ver CacheConfig), então um token vencido
+ *       nunca é aceito pelo cache. Tokens inválidos não são guardados.</li>
+ *   <li>Principal (usuário + roles) por email, com TTL curto. Quem bloqueia, desbloqueia ou
+ *       altera roles de um usuário chama {@link #evictPrincipal(String)}; o TTL cobre só
+ *       alterações feitas fora da aplicação.</li>
+ * </ul>
+ */
+@Component
+public class JwtAuthenticationCache {
+
+    public static final String TOKENS_CACHE = "jwtTokens";
+    public static final String PRINCIPALS_CACHE = "principals";
+
+    private final JwtTokenProvider tokenProvider;
+    private final UserDetailsService userDetailsService;
+    private final Cache tokens;
+    private final Cache principals;
+
+    public JwtAuthenticationCache(JwtTokenProvider tokenProvider,
+                                  UserDetailsService userDetailsService,
+                                  CacheManager cacheManager) {
+        this.tokenProvider = tokenProvider;
+        this.userDetailsService = userDetailsService;
+        this.tokens = cacheManager.getCache(TOKENS_CACHE);
+        this.principals = cacheManager.getCache(PRINCIPALS_CACHE);
+    }
+
+    /**
+     * @return o token verificado, ou {@code null} se for inválido ou estiver vencido
+     */
+    public VerifiedToken verify(String jwt) {
+        String key = sha256(jwt);
+        VerifiedToken token = tokens.get(key, VerifiedToken.class);
+        if (token == null) {
+            token = tokenProvider.verify(jwt);
+            if (token == null) {
+                return null;
+            }
+            tokens.put(key, token);
+        }
+        if (token.expiresAt() != null && !token.expiresAt().isAfter(Instant.now())) {
+            return null;
+        }
+        return token;
+    }
+
+    /**
+     * Só o cache, sem verificar o token: usado antes da autenticação (rate limiting), onde
+     * um token ainda não visto conta como anônimo.
+     */
+    public VerifiedToken peek(String jwt) {
+        VerifiedToken token = tokens.get(sha256(jwt), VerifiedToken.class);
+        if (token == null || (token.expiresAt() != null && !token.expiresAt().isAfter(Instant.now()))) {
+            return null;
+        }
+        return token;
+    }
+
+    /** Carregado fora do cache.get(key, loader) (regra de pinning em AsyncConfig). */
+    public UserDetails loadPrincipal(String username) {
+        UserDetails principal = principals.get(username, UserDetails.class);
+        if (principal == null) {
+            principal = userDetailsService.loadUserByUsername(username);
+            principals.put(username, principal);
+        }
+        return principal;
+    }
+
+    public void evictPrincipal(String username) {
+        principals.evict(username);
+    }
+
+    private static String sha256(String jwt) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(jwt.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.precificapro.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
@@ -11,21 +12,32 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Date;
 
+/**
+ * Emissão e verificação dos tokens JWT.
+ *
+ * A chave HMAC e o parser são montados uma vez na construção (ambos imutáveis e thread-safe),
+ * não a cada token.
+ */
 @Component
 public class JwtTokenProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
 
-    @Value("${jwt.secret.key}")
-    private String jwtSecret;
+    /** Token com assinatura e expiração já verificadas. */
+    public record VerifiedToken(String subject, Instant expiresAt) {}
 
-    @Value("${jwt.expiration.ms}")
-    private long jwtExpirationInMs;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final long jwtExpirationInMs;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    public JwtTokenProvider(@Value("${jwt.secret.key}") String jwtSecret,
+                            @Value("${jwt.expiration.ms}") long jwtExpirationInMs) {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.jwtExpirationInMs = jwtExpirationInMs;
     }
 
     public String generateToken(Authentication authentication) {
@@ -37,7 +49,7 @@ public class JwtTokenProvider {
                 .subject(username)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -49,26 +61,31 @@ public class JwtTokenProvider {
                 .subject(user.getEmail())
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String getUsernameFromJWT(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.getSubject();
-    }
-
-    public boolean validateToken(String authToken) {
+    /**
+     * Verifica assinatura e expiração em um único parse.
+     *
+     * @return subject e expiração do token, ou {@code null} se o token for inválido
+     */
+    public VerifiedToken verify(String token) {
         try {
-            Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(authToken);
-            return true;
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            Date expiration = claims.getExpiration();
+            return new VerifiedToken(claims.getSubject(), (expiration != null) ? expiration.toInstant() : null);
         } catch (Exception ex) {
             logger.error("Falha na validação do token JWT: {}", ex.getMessage());
+            return null;
         }
-        return false;
     }
-}
\ No newline at end of file
+
+    public String getUsernameFromJWT(String token) {
+        return parser.parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    public boolean validateToken(String authToken) {
+        return verify(authToken) != null;
+    }
+}
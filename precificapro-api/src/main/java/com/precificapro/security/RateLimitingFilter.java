@@ -1,51 +1,64 @@
 package com.precificapro.security;
 
-import com.precificapro.exception.RateLimitExceededException;
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
+import com.precificapro.security.JwtTokenProvider.VerifiedToken;
+import com.precificapro.security.ratelimit.RateLimitPolicy;
+import com.precificapro.security.ratelimit.RateLimiter;
+import com.precificapro.security.ratelimit.RouteRateLimit;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
 
+/**
+ * Rate limiting antes da autenticação.
+ *
+ * Cada requisição consome do limite do cliente: o usuário (subject de um JWT já verificado
+ * e em cache, ver {@link JwtAuthenticationCache#peek}) ou, sem token conhecido, o IP. Rotas
+ * de security.rate-limit.routes têm ainda um limite próprio por cliente. A contagem fica no
+ * {@link RateLimiter} (memória limitada, backend local ou compartilhado).
+ */
 @Component
 public class RateLimitingFilter extends OncePerRequestFilter {
 
-    @Value("${security.rate-limit.enabled:true}")
-    private boolean rateLimitEnabled;
+    private final RateLimiter rateLimiter;
+    private final JwtAuthenticationCache authenticationCache;
+    private final MeterRegistry meterRegistry;
+    private final boolean rateLimitEnabled;
+    private final RateLimitPolicy ipPolicy;
+    private final RateLimitPolicy userPolicy;
+    private final List<RouteRateLimit> routes;
 
-    @Value("${security.rate-limit.max-requests:100}")
-    private int maxRequests;
-
-    @Value("${security.rate-limit.duration-seconds:60}")
-    private int durationSeconds;
-
-    private final Map<String, Bucket> cache = new ConcurrentHashMap<>();
-
-    private Bucket createNewBucket() {
-        Bandwidth limit = Bandwidth.classic(maxRequests, Refill.intervally(maxRequests, Duration.ofSeconds(durationSeconds)));
-        return Bucket.builder()
-                .addLimit(limit)
-                .build();
-    }
-
-    private Bucket resolveBucket(String key) {
-        return cache.computeIfAbsent(key, k -> createNewBucket());
+    public RateLimitingFilter(RateLimiter rateLimiter,
+                              JwtAuthenticationCache authenticationCache,
+                              MeterRegistry meterRegistry,
+                              @Value("${security.rate-limit.enabled:true}") boolean rateLimitEnabled,
+                              @Value("${security.rate-limit.max-requests:100}") int maxRequests,
+                              @Value("${security.rate-limit.duration-seconds:60}") int durationSeconds,
+                              @Value("${security.rate-limit.user.max-requests:300}") int userMaxRequests,
+                              @Value("${security.rate-limit.user.duration-seconds:60}") int userDurationSeconds,
+                              @Value("${security.rate-limit.routes:}") String routes) {
+        this.rateLimiter = rateLimiter;
+        this.authenticationCache = authenticationCache;
+        this.meterRegistry = meterRegistry;
+        this.rateLimitEnabled = rateLimitEnabled;
+        this.ipPolicy = RateLimitPolicy.perSeconds("ip", maxRequests, durationSeconds);
+        this.userPolicy = RateLimitPolicy.perSeconds("user", userMaxRequests, userDurationSeconds);
+        this.routes = RouteRateLimit.parseAll(routes);
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        
+
         if (!rateLimitEnabled) {
             filterChain.doFilter(request, response);
             return;
@@ -58,16 +71,41 @@ public class RateLimitingFilter extends OncePerRequestFilter {
             return;
         }
 
-        String key = getClientIP(request);
-        Bucket bucket = resolveBucket(key);
+        VerifiedToken token = cachedToken(request);
+        String client = (token != null) ? "user:" + token.subject() : "ip:" + getClientIP(request);
+        RateLimitPolicy policy = (token != null) ? userPolicy : ipPolicy;
+        if (!rateLimiter.tryAcquire(client, policy)) {
+            reject(response, policy);
+            return;
+        }
 
-        if (bucket.tryConsume(1)) {
-            filterChain.doFilter(request, response);
-        } else {
-            response.setStatus(429);
-            response.setContentType("application/json");
-            response.getWriter().write("{\"error\":\"Limite de requisições excedido. Tente novamente mais tarde.\"}");
+        for (RouteRateLimit route : routes) {
+            if (route.matches(requestURI)) {
+                if (!rateLimiter.tryAcquire(route.policy().name() + "|" + client, route.policy())) {
+                    reject(response, route.policy());
+                    return;
+                }
+                break;
+            }
         }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private VerifiedToken cachedToken(HttpServletRequest request) {
+        String bearerToken = request.getHeader("Authorization");
+        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+            return authenticationCache.peek(bearerToken.substring(7));
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response, RateLimitPolicy policy) throws IOException {
+        meterRegistry.counter("http.server.requests.rate-limited", "policy", policy.name()).increment();
+        response.setStatus(429);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(rateLimiter.retryAfterSeconds(policy)));
+        response.setContentType("application/json");
+        response.getWriter().write("{\"error\":\"Limite de requisições excedido. Tente novamente mais tarde.\"}");
     }
 
     private String getClientIP(HttpServletRequest request) {
@@ -0,0 +1,61 @@
+package com.precificapro.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores na própria JVM (security.rate-limit.backend=memory, o padrão): para uma única
+ * instância, desenvolvimento e testes. Limitado a security.rate-limit.max-keys janelas, e
+ * cada contador expira junto com a sua janela.
+ */
+@Component
+@ConditionalOnProperty(name = "security.rate-limit.backend", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimitBackend implements RateLimitBackend {
+
+    private record WindowKey(String key, long windowStartMillis) {}
+
+    private record Counter(AtomicLong used, Duration ttl) {}
+
+    private final Cache<WindowKey, Counter> counters;
+
+    public InMemoryRateLimitBackend(@Value("${security.rate-limit.max-keys:100000}") long maxKeys) {
+        this.counters = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfter(new Expiry<WindowKey, Counter>() {
+                    @Override
+                    public long expireAfterCreate(WindowKey key, Counter counter, long currentTime) {
+                        return counter.ttl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(WindowKey key, Counter counter, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(WindowKey key, Counter counter, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public long acquire(String key, long windowStartMillis, long windowMillis, long limit, long requested) {
+        Counter counter = counters.get(new WindowKey(key, windowStartMillis),
+                k -> new Counter(new AtomicLong(), Duration.ofMillis(windowMillis)));
+        return RateLimitBackend.granted(counter.used().addAndGet(requested), limit, requested);
+    }
+
+    @Override
+    public boolean shared() {
+        return false;
+    }
+}
@@ -0,0 +1,57 @@
+package com.precificapro.security.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+
+/**
+ * Contadores compartilhados no PostgreSQL (security.rate-limit.backend=jdbc), para várias
+ * réplicas atrás do mesmo balanceador: a cota passa a ser global, não por JVM.
+ *
+ * Cada reserva é um único UPSERT atômico em rate_limit_counters (tabela UNLOGGED, ver V21).
+ * Como o {@link RateLimiter} reserva em lotes, o banco vê uma fração pequena das requisições.
+ */
+@Component
+@ConditionalOnProperty(name = "security.rate-limit.backend", havingValue = "jdbc")
+@Slf4j
+public class JdbcRateLimitBackend implements RateLimitBackend {
+
+    private static final String ACQUIRE_SQL = """
+            INSERT INTO rate_limit_counters (bucket_key, window_start, used, expires_at)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (bucket_key, window_start)
+            DO UPDATE SET used = rate_limit_counters.used + EXCLUDED.used
+            RETURNING used
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcRateLimitBackend(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public long acquire(String key, long windowStartMillis, long windowMillis, long limit, long requested) {
+        Long usedAfter = jdbcTemplate.queryForObject(ACQUIRE_SQL, Long.class,
+                key, windowStartMillis, requested, new Timestamp(windowStartMillis + windowMillis));
+        return RateLimitBackend.granted(usedAfter == null ? requested : usedAfter, limit, requested);
+    }
+
+    @Override
+    public boolean shared() {
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${security.rate-limit.jdbc.cleanup-interval-ms:60000}")
+    public void deleteExpiredWindows() {
+        int deleted = jdbcTemplate.update("DELETE FROM rate_limit_counters WHERE expires_at < now()");
+        if (deleted > 0) {
+            log.debug("Rate limit: {} janelas expiradas removidas", deleted);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.precificapro.security.ratelimit;
+
+/**
+ * Contadores por chave e janela, a fonte de verdade da cota.
+ *
+ * O {@link RateLimiter} não consulta o backend a cada requisição: ele reserva lotes de
+ * permissões ({@code requested}) e as consome localmente. Um backend compartilhado
+ * ({@link #shared()}) faz a cota valer para todos os nós somados.
+ */
+public interface RateLimitBackend {
+
+    /**
+     * Reserva até {@code requested} permissões da janela que começa em
+     * {@code windowStartMillis}, sem passar de {@code limit} na janela.
+     *
+     * @return permissões concedidas, entre 0 e {@code requested}
+     */
+    long acquire(String key, long windowStartMillis, long windowMillis, long limit, long requested);
+
+    /** true se os contadores são vistos por todos os nós (e não só por esta JVM). */
+    boolean shared();
+
+    /** Permissões concedidas dado o total da janela depois de somar {@code requested}. */
+    static long granted(long usedAfter, long limit, long requested) {
+        long usedBefore = usedAfter - requested;
+        return Math.max(0, Math.min(requested, limit - usedBefore));
+    }
+}
@@ -0,0 +1,25 @@
+package com.precificapro.security.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Limite de {@code limit} requisições por janela fixa de {@code window}. As janelas são
+ * alinhadas à época (não ao primeiro acesso), então todos os nós concordam sobre onde cada
+ * janela começa.
+ */
+public record RateLimitPolicy(String name, long limit, Duration window) {
+
+    public RateLimitPolicy {
+        if (limit < 1 || window.toMillis() < 1) {
+            throw new IllegalArgumentException("Política de rate limit inválida: " + name);
+        }
+    }
+
+    public static RateLimitPolicy perSeconds(String name, long limit, long seconds) {
+        return new RateLimitPolicy(name, limit, Duration.ofSeconds(seconds));
+    }
+
+    long windowMillis() {
+        return window.toMillis();
+    }
+}
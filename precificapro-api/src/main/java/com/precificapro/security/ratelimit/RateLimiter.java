@@ -0,0 +1,182 @@
+package com.precificapro.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Rate limiting por chave com janelas fixas.
+ *
+ * Cada chave tem uma cota local: um lote de permissões reservado no {@link RateLimitBackend}
+ * e consumido com um decremento atômico, sem lock e sem ir ao backend. Só quando o lote acaba
+ * (ou a janela vira) uma thread reserva o próximo lote. Com backend local o lote é a janela
+ * inteira; com backend compartilhado é security.rate-limit.lease-fraction do limite, para que
+ * permissões reservadas e não usadas por um nó não façam falta aos outros.
+ *
+ * As cotas locais ficam em um Caffeine limitado a security.rate-limit.max-keys chaves, e
+ * cada uma expira depois de uma janela sem acesso: uma varredura de muitos IPs não faz o
+ * heap crescer.
+ *
+ * Se o backend falhar, a requisição passa (fail-open): rate limiting não derruba a API.
+ */
+@Component
+@Slf4j
+public class RateLimiter {
+
+    private final RateLimitBackend backend;
+    private final double leaseFraction;
+    private final LongSupplier clock;
+    private final Cache<String, LocalQuota> quotas;
+
+    @Autowired
+    public RateLimiter(RateLimitBackend backend,
+                       @Value("${security.rate-limit.max-keys:100000}") long maxKeys,
+                       @Value("${security.rate-limit.lease-fraction:0.1}") double leaseFraction) {
+        this(backend, maxKeys, leaseFraction, System::currentTimeMillis);
+    }
+
+    RateLimiter(RateLimitBackend backend, long maxKeys, double leaseFraction, LongSupplier clock) {
+        this.backend = backend;
+        this.leaseFraction = Math.min(1.0, Math.max(0.0, leaseFraction));
+        this.clock = clock;
+        this.quotas = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfter(new Expiry<String, LocalQuota>() {
+                    @Override
+                    public long expireAfterCreate(String key, LocalQuota quota, long currentTime) {
+                        return quota.policy.window().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, LocalQuota quota, long currentTime, long currentDuration) {
+                        return quota.policy.window().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, LocalQuota quota, long currentTime, long currentDuration) {
+                        return quota.policy.window().toNanos();
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Consome uma permissão de {@code key} sob {@code policy}.
+     *
+     * @return true se a requisição está dentro do limite
+     */
+    public boolean tryAcquire(String key, RateLimitPolicy policy) {
+        LocalQuota quota = quotas.get(key, k -> new LocalQuota(k, policy));
+        return quota.tryAcquire(clock.getAsLong());
+    }
+
+    /** Segundos até a próxima janela de {@code policy} (para o header Retry-After). */
+    public long retryAfterSeconds(RateLimitPolicy policy) {
+        long windowMillis = policy.windowMillis();
+        long now = clock.getAsLong();
+        long remaining = windowMillis - Math.floorMod(now, windowMillis);
+        return Math.max(1, (remaining + 999) / 1000);
+    }
+
+    long leaseSize(RateLimitPolicy policy) {
+        if (!backend.shared()) {
+            return policy.limit();
+        }
+        return Math.max(1, (long) Math.ceil(policy.limit() * leaseFraction));
+    }
+
+    /** Permissões reservadas para uma janela. */
+    private static final class Lease {
+        final long windowStart;
+        final AtomicLong remaining = new AtomicLong();
+        /** O backend não tem mais permissões nesta janela: recusa sem consultá-lo. */
+        volatile boolean exhausted;
+
+        Lease(long windowStart) {
+            this.windowStart = windowStart;
+        }
+
+        /** Caminho rápido; o contador pode ficar negativo, quem falha vai para o refill. */
+        boolean tryTake() {
+            return remaining.getAndDecrement() > 0;
+        }
+    }
+
+    private final class LocalQuota {
+        final String key;
+        final RateLimitPolicy policy;
+        // ReentrantLock: o refill pode ir ao banco (regra de pinning em AsyncConfig)
+        final ReentrantLock refillLock = new ReentrantLock();
+        volatile Lease lease = new Lease(Long.MIN_VALUE);
+
+        LocalQuota(String key, RateLimitPolicy policy) {
+            this.key = key;
+            this.policy = policy;
+        }
+
+        boolean tryAcquire(long now) {
+            long windowStart = now - Math.floorMod(now, policy.windowMillis());
+            Lease current = lease;
+            if (current.windowStart == windowStart) {
+                if (current.tryTake()) {
+                    return true;
+                }
+                if (current.exhausted) {
+                    return false;
+                }
+            }
+            return refill(windowStart);
+        }
+
+        private boolean refill(long windowStart) {
+            refillLock.lock();
+            try {
+                Lease current = lease;
+                if (current.windowStart >= windowStart) {
+                    // Outra thread pode ter reservado o próximo lote (ou aberto a janela seguinte,
+                    // na virada) enquanto esperávamos: vale a janela mais nova
+                    if (current.tryTake()) {
+                        return true;
+                    }
+                    if (current.exhausted) {
+                        return false;
+                    }
+                } else {
+                    current = new Lease(windowStart);
+                    lease = current;
+                }
+
+                long requested = leaseSize(policy);
+                long granted = reserve(current.windowStart, requested);
+                if (granted < requested) {
+                    current.exhausted = true;
+                }
+                if (granted == 0) {
+                    current.remaining.set(0);
+                    return false;
+                }
+                current.remaining.set(granted - 1);
+                return true;
+            } finally {
+                refillLock.unlock();
+            }
+        }
+
+        private long reserve(long windowStart, long requested) {
+            try {
+                return backend.acquire(key, windowStart, policy.windowMillis(), policy.limit(), requested);
+            } catch (RuntimeException e) {
+                log.warn("Rate limit: backend indisponível, liberando requisições de {}: {}", key, e.getMessage());
+                return requested;
+            }
+        }
+    }
+}
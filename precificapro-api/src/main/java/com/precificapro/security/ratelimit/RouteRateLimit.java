@@ -0,0 +1,47 @@
+package com.precificapro.security.ratelimit;
+
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Limite adicional para as rotas que casam com {@code pattern} (Ant, ex.: /auth/**), contado
+ * por cliente e por rota, além do limite geral do cliente.
+ */
+public record RouteRateLimit(String pattern, RateLimitPolicy policy) {
+
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+    public boolean matches(String path) {
+        return MATCHER.match(pattern, path);
+    }
+
+    /**
+     * Lê security.rate-limit.routes: entradas "padrão=limite/segundos" separadas por vírgula,
+     * ex.: {@code /auth/**=20/60,/api/backups/**=30/60}.
+     */
+    public static List<RouteRateLimit> parseAll(String spec) {
+        List<RouteRateLimit> routes = new ArrayList<>();
+        if (!StringUtils.hasText(spec)) {
+            return routes;
+        }
+        for (String entry : spec.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int eq = trimmed.lastIndexOf('=');
+            int slash = trimmed.lastIndexOf('/');
+            if (eq <= 0 || slash < eq) {
+                throw new IllegalArgumentException("Rota de rate limit inválida (esperado padrão=limite/segundos): " + trimmed);
+            }
+            String pattern = trimmed.substring(0, eq).trim();
+            long limit = Long.parseLong(trimmed.substring(eq + 1, slash).trim());
+            long seconds = Long.parseLong(trimmed.substring(slash + 1).trim());
+            routes.add(new RouteRateLimit(pattern, RateLimitPolicy.perSeconds("route:" + pattern, limit, seconds)));
+        }
+        return List.copyOf(routes);
+    }
+}
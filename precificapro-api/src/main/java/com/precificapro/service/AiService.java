@@ -1,104 +1,145 @@
 package com.precificapro.service;
 
+import com.precificapro.controller.dto.DashboardMetricsDTO;
 import com.precificapro.domain.model.User;
+import com.precificapro.service.ai.GeminiClient;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
-import java.util.Map;
+import java.io.IOException;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Assistente do PrecificaPro sobre a Gemini API.
+ *
+ * As chamadas são assíncronas ({@link GeminiClient}): o thread da requisição é liberado
+ * durante a ida ao modelo. As respostas ficam no cache "aiResponses", com chave
+ * pergunta normalizada + resumo das métricas usado no prompt: a mesma pergunta (variando só
+ * maiúsculas, acentos, pontuação ou espaços) com os mesmos números não vai de novo ao modelo,
+ * e qualquer mudança nas métricas gera uma chave nova.
+ */
 @Service
 @Slf4j
 public class AiService {
 
-    private final RestTemplate restTemplate;
-    private final String geminiApiKey;
+    public static final String CACHE_NAME = "aiResponses";
 
-    @Autowired
-    private DashboardService dashboardService;
+    private static final String NOT_CONFIGURED = "Chatbot não configurado. Por favor, configure a GEMINI_API_KEY.";
+    private static final String FAILED = "Desculpe, não consegui processar sua pergunta. Verifique se a API Key do Gemini está configurada corretamente.";
+    private static final String EMPTY = "Não recebi uma resposta válida da IA.";
 
-    public AiService(@Value("${gemini.api.key}") String geminiApiKey) {
-        this.restTemplate = new RestTemplate();
-        this.geminiApiKey = geminiApiKey;
+    private final GeminiClient geminiClient;
+    private final DashboardService dashboardService;
+    private final Cache responseCache;
+
+    record ResponseKey(String question, String context) {}
+
+    public AiService(GeminiClient geminiClient, DashboardService dashboardService, CacheManager cacheManager) {
+        this.geminiClient = geminiClient;
+        this.dashboardService = dashboardService;
+        this.responseCache = cacheManager.getCache(CACHE_NAME);
     }
 
-    public String askGemini(String question, User owner) {
-        if (geminiApiKey == null || geminiApiKey.isEmpty()) {
-            return "Chatbot não configurado. Por favor, configure a GEMINI_API_KEY.";
+    public CompletableFuture<String> askGemini(String question, User owner) {
+        if (!geminiClient.isConfigured()) {
+            return CompletableFuture.completedFuture(NOT_CONFIGURED);
         }
 
-        try {
-            var metrics = dashboardService.getMetrics(owner);
-            
-            String context = String.format(
+        String context = context(owner);
+        ResponseKey key = new ResponseKey(normalize(question), context);
+        String cached = responseCache.get(key, String.class);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        return geminiClient.generate(prompt(context, question))
+                .thenApply(answer -> {
+                    if (answer.isBlank()) {
+                        return EMPTY;
+                    }
+                    responseCache.put(key, answer);
+                    return answer;
+                })
+                .exceptionally(e -> {
+                    log.error("Erro ao comunicar com Gemini API: {}", e.getMessage(), e);
+                    return FAILED;
+                });
+    }
+
+    /**
+     * Mesma pergunta com a resposta entregue em partes (SSE): eventos "chunk" com trechos do
+     * texto, e "done" no final. Uma resposta em cache sai inteira em um único "chunk".
+     */
+    public SseEmitter askGeminiStreaming(String question, User owner, long timeoutMs) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        if (!geminiClient.isConfigured()) {
+            sendAndComplete(emitter, NOT_CONFIGURED);
+            return emitter;
+        }
+
+        String context = context(owner);
+        ResponseKey key = new ResponseKey(normalize(question), context);
+        String cached = responseCache.get(key, String.class);
+        if (cached != null) {
+            sendAndComplete(emitter, cached);
+            return emitter;
+        }
+
+        geminiClient.stream(prompt(context, question), chunk -> send(emitter, "chunk", chunk))
+                .whenComplete((answer, error) -> {
+                    if (error != null) {
+                        log.error("Erro no streaming da Gemini API: {}", error.getMessage(), error);
+                        send(emitter, "error", FAILED);
+                    } else if (!answer.isBlank()) {
+                        responseCache.put(key, answer);
+                    }
+                    send(emitter, "done", "");
+                    emitter.complete();
+                });
+        return emitter;
+    }
+
+    private String context(User owner) {
+        // Métricas vêm do cache dashboardMetrics; a string também é parte da chave do cache de respostas
+        DashboardMetricsDTO metrics = dashboardService.getMetrics(owner);
+        return String.format(Locale.ROOT,
                 "Dados do negócio: Faturamento: R$%.2f, Lucro: R$%.2f, Produtos: %d, Clientes: %d.",
                 metrics.totalRevenue(), metrics.totalNetProfit(), metrics.productCount(), metrics.customerCount()
-            );
-
-            String prompt = "Você é o PrecificaPro, assistente financeiro especializado em pequenos negócios. " +
-                           "Seja breve, amigável e prático. " + context + " Pergunta: " + question;
-
-            // Request body no formato correto do Gemini API
-            Map<String, Object> requestBody = Map.of(
-                "contents", List.of(
-                    Map.of("parts", List.of(
-                        Map.of("text", prompt)
-                    ))
-                )
-            );
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
-
-            // Usando gemini-2.5-flash - modelo estável e moderno
-            String url = String.format(
-                "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.5-flash:generateContent?key=%s",
-                geminiApiKey
-            );
-
-            @SuppressWarnings("rawtypes")
-            ResponseEntity<Map> response = restTemplate.postForEntity(url, request, Map.class);
-            
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> body = (Map<String, Object>) response.getBody();
-                return extractTextFromResponse(body);
-            } else {
-                log.error("Gemini API retornou status: {}", response.getStatusCode());
-                return "Erro ao processar sua pergunta. Tente novamente.";
-            }
-
-        } catch (Exception e) {
-            log.error("Erro ao comunicar com Gemini API: {}", e.getMessage(), e);
-            return "Desculpe, não consegui processar sua pergunta. Verifique se a API Key do Gemini está configurada corretamente.";
-        }
+        );
+    }
+
+    private static String prompt(String context, String question) {
+        return "Você é o PrecificaPro, assistente financeiro especializado em pequenos negócios. " +
+               "Seja breve, amigável e prático. " + context + " Pergunta: " + question;
+    }
+
+    /** Minúsculas, sem acentos, sem pontuação e com espaços simples. */
+    static String normalize(String question) {
+        String text = Normalizer.normalize(question == null ? "" : question, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}]+", " ");
+        return text.trim();
+    }
+
+    private static void sendAndComplete(SseEmitter emitter, String text) {
+        send(emitter, "chunk", text);
+        send(emitter, "done", "");
+        emitter.complete();
     }
 
-    @SuppressWarnings("unchecked")
-    private String extractTextFromResponse(Map<String, Object> responseBody) {
+    private static void send(SseEmitter emitter, String event, String data) {
         try {
-            List<Map<String, Object>> candidates = (List<Map<String, Object>>) responseBody.get("candidates");
-            if (candidates == null || candidates.isEmpty()) {
-                return "Não recebi uma resposta válida da IA.";
-            }
-            
-            Map<String, Object> content = (Map<String, Object>) candidates.get(0).get("content");
-            List<Map<String, Object>> parts = (List<Map<String, Object>>) content.get("parts");
-            
-            if (parts == null || parts.isEmpty()) {
-                return "Resposta da IA está vazia.";
-            }
-            
-            return (String) parts.get(0).get("text");
-        } catch (Exception e) {
-            log.error("Erro ao extrair texto da resposta: {}", e.getMessage());
-            return "Erro ao processar a resposta da IA.";
+            emitter.send(SseEmitter.event().name(event).data(data, MediaType.TEXT_PLAIN));
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectou: o restante da resposta é descartado
+            log.debug("Falha ao enviar evento SSE {}: {}", event, e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
@@ -1,43 +1,47 @@
 package com.precificapro.service;
 
-import com.precificapro.domain.model.AuditLog;
 import com.precificapro.domain.model.User;
-import com.precificapro.domain.repository.AuditLogRepository;
+import com.precificapro.service.audit.AuditEvent;
+import com.precificapro.service.audit.AuditLogWriter;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.time.OffsetDateTime;
+
+/**
+ * Registro de auditoria das ações dos usuários. A montagem do evento acontece no thread da
+ * requisição (onde IP e User-Agent estão disponíveis); a gravação fica com o
+ * {@link AuditLogWriter}, em lote e fora do caminho da requisição.
+ */
 @Service
 @Slf4j
 public class AuditLogService {
 
     @Autowired
-    private AuditLogRepository auditLogRepository;
+    private AuditLogWriter auditLogWriter;
 
-    @Async
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logAction(User user, String action, String entityType, String entityId, String details) {
         try {
             HttpServletRequest request = getCurrentRequest();
-            
-            AuditLog auditLog = AuditLog.builder()
-                    .user(user)
-                    .action(action)
-                    .entityType(entityType)
-                    .entityId(entityId)
-                    .details(details)
-                    .ipAddress(request != null ? getClientIP(request) : "UNKNOWN")
-                    .userAgent(request != null ? request.getHeader("User-Agent") : "UNKNOWN")
-                    .build();
-
-            auditLogRepository.save(auditLog);
-            log.debug("Audit log criado: {} - {} - {}", user.getEmail(), action, entityType);
+
+            AuditEvent event = new AuditEvent(
+                    user != null ? user.getId() : null,
+                    action,
+                    entityType,
+                    entityId,
+                    details,
+                    request != null ? getClientIP(request) : "UNKNOWN",
+                    request != null ? request.getHeader("User-Agent") : "UNKNOWN",
+                    OffsetDateTime.now()
+            );
+
+            if (!auditLogWriter.submit(event)) {
+                log.warn("Audit log descartado (buffer cheio): {} - {} - {}", entityType, action, entityId);
+            }
         } catch (Exception e) {
             log.error("Erro ao criar audit log", e);
         }
@@ -1,14 +1,19 @@
 package com.precificapro.service;
 
-import com.google.api.client.http.FileContent;
-import com.google.api.services.drive.Drive;
-import com.google.api.services.drive.model.File;
-import com.google.api.services.drive.model.FileList;
 import com.precificapro.domain.model.BackupMetadata;
+import com.precificapro.domain.model.BackupMetadata.BackupFormat;
 import com.precificapro.domain.model.BackupMetadata.BackupStatus;
 import com.precificapro.domain.model.BackupMetadata.BackupType;
 import com.precificapro.domain.model.User;
 import com.precificapro.domain.repository.BackupMetadataRepository;
+import com.precificapro.exception.BusinessException;
+import com.precificapro.service.backup.BackupDestination;
+import com.precificapro.service.backup.BackupRestoreRunner;
+import com.precificapro.service.backup.ChecksumInputStream;
+import com.precificapro.service.backup.PostgresConnection;
+import com.precificapro.service.backup.ProcessLogDrain;
+import com.precificapro.service.backup.RestoreJob;
+import com.precificapro.service.backup.SelectiveRestoreScript;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -16,29 +21,38 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.BufferedReader;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
-
+import java.util.UUID;
+
+/**
+ * Backup e restore do banco com pg_dump / psql / pg_restore.
+ *
+ * No modo streaming (backup.streaming.enabled, padrão) a saída do pg_dump vai direto para o
+ * upload em chunks do {@link BackupDestination}, sem arquivo temporário: o disco não precisa
+ * ter espaço para o dump e o arquivo não é lido duas vezes. Tamanho e SHA-256 são calculados
+ * durante o upload e gravados no BackupMetadata; o restore confere o checksum antes de aplicar.
+ * Com backup.streaming.enabled=false o dump ainda passa por um arquivo temporário.
+ * Restores rodam em segundo plano no {@link BackupRestoreRunner}.
+ */
 @Service
 @Slf4j
 public class BackupService {
 
-    @Autowired(required = false)
-    private Drive driveService;
+    @Autowired
+    private BackupDestination backupDestination;
 
     @Autowired
     private BackupMetadataRepository backupMetadataRepository;
 
+    @Autowired
+    private BackupRestoreRunner backupRestoreRunner;
+
     @Value("${spring.datasource.url}")
     private String dbUrl;
 
@@ -48,19 +62,33 @@ public class BackupService {
     @Value("${spring.datasource.password}")
     private String dbPassword;
 
-    @Value("${google.drive.backup.folder.id:}")
-    private String backupFolderId;
-
     @Value("${backup.retention.days:30}")
     private int retentionDays;
 
+    @Value("${backup.streaming.enabled:true}")
+    private boolean streamingEnabled;
+
+    @Value("${backup.format:CUSTOM}")
+    private BackupFormat backupFormat;
+
+    @Value("${backup.compression-level:6}")
+    private int compressionLevel;
+
+    @Value("${backup.restore.jobs:4}")
+    private int restoreJobs;
+
     private static final String BACKUP_FILE_PREFIX = "precificapro_backup_";
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final int MAX_RESTORE_JOBS = 16;
+
+    /** Arquivo já gravado no destino. */
+    private record StoredBackup(String key, long size, String sha256) {}
 
     /**
-     * Cria backup manual do banco de dados
+     * Cria backup manual do banco de dados.
+     * Sem @Transactional: o dump pode levar minutos e não deve segurar uma conexão do pool,
+     * e o status FAILED precisa ser gravado mesmo quando o backup lança exceção.
      */
-    @Transactional
     public BackupMetadata createManualBackup(User user) {
         log.info("Creating manual backup requested by user: {}", user.getUsername());
         return performBackup(BackupType.MANUAL, user);
@@ -70,7 +98,6 @@ public class BackupService {
      * Cria backup automático (chamado pelo scheduler)
      */
     @Async
-    @Transactional
     public void createAutomaticBackup() {
         log.info("Starting automatic backup...");
         performBackup(BackupType.AUTOMATIC, null);
@@ -80,41 +107,39 @@ public class BackupService {
      * Realiza o backup do banco de dados
      */
     private BackupMetadata performBackup(BackupType type, User user) {
-        if (driveService == null) {
-            log.error("Google Drive service not configured. Cannot perform backup.");
+        if (!backupDestination.isAvailable()) {
+            log.error("Backup destination '{}' not configured. Cannot perform backup.", backupDestination.name());
             throw new IllegalStateException("Backup service not configured");
         }
 
         String timestamp = LocalDateTime.now().format(DATE_FORMATTER);
-        String filename = BACKUP_FILE_PREFIX + timestamp + ".sql";
-        Path tempFile = null;
+        String filename = BACKUP_FILE_PREFIX + timestamp + extension(backupFormat);
 
         BackupMetadata metadata = BackupMetadata.builder()
                 .filename(filename)
                 .status(BackupStatus.IN_PROGRESS)
                 .type(type)
+                .format(backupFormat)
                 .createdBy(user)
                 .build();
 
         metadata = backupMetadataRepository.save(metadata);
 
         try {
-            // 1. Exportar banco de dados PostgreSQL para arquivo
-            tempFile = exportDatabase(filename);
-            long fileSize = Files.size(tempFile);
+            // 1. Exportar e enviar para o destino (direto ou via arquivo temporário)
+            StoredBackup stored = streamingEnabled ? streamBackup(filename) : uploadFromTempFile(filename);
 
-            // 2. Upload para Google Drive
-            String driveFileId = uploadToGoogleDrive(tempFile.toFile(), filename);
-
-            // 3. Atualizar metadata
-            metadata.setS3Key(driveFileId);
-            metadata.setFileSize(fileSize);
+            // 2. Atualizar metadata
+            metadata.setS3Key(stored.key());
+            metadata.setFileSize(stored.size());
+            metadata.setChecksumSha256(stored.sha256());
             metadata.setStatus(BackupStatus.COMPLETED);
             backupMetadataRepository.save(metadata);
 
-            log.info("Backup completed successfully: {} ({}MB)", filename, fileSize / 1024 / 1024);
+            log.info("Backup completed successfully: {} ({}MB, sha256 {})",
+                    filename, stored.size() / 1024 / 1024, stored.sha256());
 
-            // 4. Limpar backups antigos
+            // 3. Limpar backups antigos
             cleanOldBackups();
 
             return metadata;
@@ -122,161 +147,178 @@ public class BackupService {
         } catch (Exception e) {
             log.error("Backup failed: {}", e.getMessage(), e);
             metadata.setStatus(BackupStatus.FAILED);
-            metadata.setErrorMessage(e.getMessage());
+            metadata.setErrorMessage(truncate(e.getMessage()));
             backupMetadataRepository.save(metadata);
             throw new RuntimeException("Backup failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * pg_dump escrevendo no stdout, lido pelo upload do destino. O pg_dump só avança quando
+     * o upload consome o pipe, então a memória usada é a de um chunk.
+     */
+    private StoredBackup streamBackup(String filename) throws IOException, InterruptedException {
+        Process process = connection().command("pg_dump", dumpArgs()).start();
+        ProcessLogDrain stderr = ProcessLogDrain.start("pg_dump", process.getErrorStream());
+
+        String key = null;
+        try (ChecksumInputStream dump = new ChecksumInputStream(process.getInputStream())) {
+            key = backupDestination.upload(filename, contentType(backupFormat), dump);
+
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                // O destino recebeu um dump truncado
+                deleteQuietly(key);
+                throw new IOException("pg_dump failed with exit code " + exitCode + ": " + stderr.tail());
+            }
+            return new StoredBackup(key, dump.size(), dump.sha256Hex());
+
+        } finally {
+            // Upload falhou no meio: sem leitor, o pg_dump ficaria bloqueado no pipe
+            if (process.isAlive()) {
+                process.destroyForcibly();
+            }
+        }
+    }
 
+    /**
+     * Modo antigo: dump completo em arquivo temporário e depois upload do arquivo.
+     */
+    private StoredBackup uploadFromTempFile(String filename) throws IOException, InterruptedException {
+        Path tempFile = Files.createTempFile("backup_", extension(backupFormat));
+        try {
+            exportDatabase(tempFile);
+            try (ChecksumInputStream dump = new ChecksumInputStream(Files.newInputStream(tempFile))) {
+                String key = backupDestination.upload(filename, contentType(backupFormat), dump);
+                return new StoredBackup(key, dump.size(), dump.sha256Hex());
+            }
         } finally {
             // Limpar arquivo temporário
-            if (tempFile != null) {
-                try {
-                    Files.deleteIfExists(tempFile);
-                } catch (IOException e) {
-                    log.warn("Failed to delete temporary backup file: {}", e.getMessage());
-                }
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException e) {
+                log.warn("Failed to delete temporary backup file: {}", e.getMessage());
             }
         }
     }
 
     /**
-     * Exporta o banco de dados PostgreSQL usando pg_dump
+     * Exporta o banco de dados PostgreSQL para o arquivo usando pg_dump
      */
-    private Path exportDatabase(String filename) throws IOException, InterruptedException {
-        Path tempFile = Files.createTempFile("backup_", ".sql");
-
-        // Extrair informações de conexão da URL
-        String[] urlParts = dbUrl.split("//")[1].split("/");
-        String[] hostPort = urlParts[0].split(":");
-        String host = hostPort[0];
-        String port = hostPort.length > 1 ? hostPort[1] : "5432";
-        String dbName = urlParts[1].split("\\?")[0];
-
-        // Comando pg_dump
-        ProcessBuilder processBuilder = new ProcessBuilder(
-            "pg_dump",
-            "-h", host,
-            "-p", port,
-            "-U", dbUsername,
-            "-d", dbName,
-            "-F", "p",  // Plain text format
-            "-f", tempFile.toString()
-        );
+    private void exportDatabase(Path tempFile) throws IOException, InterruptedException {
+        String[] args = dumpArgs();
+        String[] withFile = Arrays.copyOf(args, args.length + 2);
+        withFile[args.length] = "-f";
+        withFile[args.length + 1] = tempFile.toString();
 
-        // Configurar senha via variável de ambiente
-        processBuilder.environment().put("PGPASSWORD", dbPassword);
+        ProcessBuilder processBuilder = connection().command("pg_dump", withFile);
         processBuilder.redirectErrorStream(true);
 
         Process process = processBuilder.start();
-
-        // Capturar output
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                log.debug("pg_dump: {}", line);
-            }
-        }
+        ProcessLogDrain output = ProcessLogDrain.start("pg_dump", process.getInputStream());
 
         int exitCode = process.waitFor();
         if (exitCode != 0) {
-            throw new IOException("pg_dump failed with exit code: " + exitCode);
+            throw new IOException("pg_dump failed with exit code " + exitCode + ": " + output.tail());
         }
 
         log.info("Database exported to temporary file: {}", tempFile);
-        return tempFile;
     }
 
     /**
-     * Faz upload do arquivo para Google Drive
+     * Formato e compressão do pg_dump. No formato plain, -Z comprime a saída inteira com gzip.
      */
-    private String uploadToGoogleDrive(java.io.File file, String filename) throws IOException {
-        File fileMetadata = new File();
-        fileMetadata.setName(filename);
-        fileMetadata.setMimeType("application/sql");
-
-        // Se tiver pasta específica configurada, usar ela
-        if (backupFolderId != null && !backupFolderId.isEmpty()) {
-            fileMetadata.setParents(Collections.singletonList(backupFolderId));
-        }
-
-        FileContent mediaContent = new FileContent("application/sql", file);
-
-        File uploadedFile = driveService.files().create(fileMetadata, mediaContent)
-                .setFields("id, name, size, createdTime")
-                .execute();
-
-        log.info("File uploaded to Google Drive with ID: {}", uploadedFile.getId());
-        return uploadedFile.getId();
+    private String[] dumpArgs() {
+        String level = String.valueOf(compressionLevel);
+        return switch (backupFormat) {
+            case CUSTOM -> new String[] {"-F", "c", "-Z", level};
+            case PLAIN_GZIP -> new String[] {"-F", "p", "-Z", level};
+            case PLAIN -> new String[] {"-F", "p"};
+        };
     }
 
-    /**
-     * Restaura um backup do Google Drive
-     */
-    @Transactional
-    public void restoreBackup(Long backupId) throws IOException, InterruptedException {
-        BackupMetadata backup = backupMetadataRepository.findById(backupId)
-                .orElseThrow(() -> new IllegalArgumentException("Backup not found: " + backupId));
+    private static String extension(BackupFormat format) {
+        return switch (format) {
+            case CUSTOM -> ".dump";
+            case PLAIN_GZIP -> ".sql.gz";
+            case PLAIN -> ".sql";
+        };
+    }
 
-        if (driveService == null) {
-            throw new IllegalStateException("Google Drive service not configured");
-        }
+    private static String contentType(BackupFormat format) {
+        return switch (format) {
+            case CUSTOM -> "application/octet-stream";
+            case PLAIN_GZIP -> "application/gzip";
+            case PLAIN -> "application/sql";
+        };
+    }
 
-        log.info("Starting restore of backup: {}", backup.getFilename());
+    private PostgresConnection connection() {
+        return PostgresConnection.fromJdbcUrl(dbUrl, dbUsername, dbPassword);
+    }
 
-        // 1. Download do Google Drive
-        Path tempFile = Files.createTempFile("restore_", ".sql");
-        try (FileOutputStream fos = new FileOutputStream(tempFile.toFile())) {
-            driveService.files().get(backup.getS3Key()).executeMediaAndDownloadTo(fos);
+    private void deleteQuietly(String key) {
+        try {
+            backupDestination.delete(key);
+        } catch (IOException e) {
+            log.warn("Failed to delete incomplete backup {}: {}", key, e.getMessage());
         }
+    }
 
-        // 2. Restaurar no banco
-        restoreDatabase(tempFile);
-
-        // 3. Atualizar metadata
-        backup.setRestoredAt(LocalDateTime.now());
-        backup.setStatus(BackupStatus.RESTORED);
-        backupMetadataRepository.save(backup);
-
-        // 4. Limpar arquivo temporário
-        Files.deleteIfExists(tempFile);
-
-        log.info("Backup restored successfully: {}", backup.getFilename());
+    private static String truncate(String message) {
+        return (message != null && message.length() > 1000) ? message.substring(0, 1000) : message;
     }
 
     /**
-     * Restaura o banco de dados usando psql
+     * Inicia o restore em segundo plano ({@link BackupRestoreRunner}) e retorna o backup já
+     * marcado como QUEUED. Sem tabelas, restaura o banco inteiro; com tabelas (só formato
+     * CUSTOM), mescla as linhas delas, opcionalmente só as de um owner.
      */
-    private void restoreDatabase(Path backupFile) throws IOException, InterruptedException {
-        String[] urlParts = dbUrl.split("//")[1].split("/");
-        String[] hostPort = urlParts[0].split(":");
-        String host = hostPort[0];
-        String port = hostPort.length > 1 ? hostPort[1] : "5432";
-        String dbName = urlParts[1].split("\\?")[0];
-
-        ProcessBuilder processBuilder = new ProcessBuilder(
-            "psql",
-            "-h", host,
-            "-p", port,
-            "-U", dbUsername,
-            "-d", dbName,
-            "-f", backupFile.toString()
-        );
+    public BackupMetadata startRestore(Long backupId, List<String> tables, UUID ownerId, Integer jobs) {
+        BackupMetadata backup = getBackup(backupId);
 
-        processBuilder.environment().put("PGPASSWORD", dbPassword);
-        processBuilder.redirectErrorStream(true);
-
-        Process process = processBuilder.start();
+        if (!backupDestination.isAvailable()) {
+            throw new IllegalStateException("Backup destination not configured");
+        }
+        if (backup.getS3Key() == null
+                || (backup.getStatus() != BackupStatus.COMPLETED && backup.getStatus() != BackupStatus.RESTORED)) {
+            throw new BusinessException("Backup não está completo e não pode ser restaurado");
+        }
 
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                log.debug("psql: {}", line);
+        BackupFormat format = backup.getFormat() != null ? backup.getFormat() : BackupFormat.PLAIN;
+        SelectiveRestoreScript script = null;
+        if (tables != null && !tables.isEmpty()) {
+            if (format != BackupFormat.CUSTOM) {
+                throw new BusinessException("Restore de tabelas selecionadas exige backup no formato CUSTOM");
             }
+            script = backupRestoreRunner.prepareSelective(tables, ownerId);
+        } else if (ownerId != null) {
+            throw new BusinessException("Restore por owner exige a lista de tabelas");
         }
 
-        int exitCode = process.waitFor();
-        if (exitCode != 0) {
-            throw new IOException("Database restore failed with exit code: " + exitCode);
+        String restoreTables = (script != null) ? String.join(",", script.tableNames()) : null;
+        if (!backupRestoreRunner.claim(backupId, restoreTables)) {
+            throw new IllegalStateException("Já existe um restore em andamento");
         }
+
+        int parallelJobs = Math.max(1, Math.min(MAX_RESTORE_JOBS, jobs != null ? jobs : restoreJobs));
+        backupRestoreRunner.run(new RestoreJob(
+                backup.getId(),
+                backup.getFilename(),
+                backup.getS3Key(),
+                format,
+                backup.getFileSize(),
+                backup.getChecksumSha256(),
+                parallelJobs,
+                script
+        ));
+
+        return getBackup(backupId);
+    }
+
+    public BackupMetadata getBackup(Long backupId) {
+        return backupMetadataRepository.findById(backupId)
+                .orElseThrow(() -> new IllegalArgumentException("Backup not found: " + backupId));
     }
 
     /**
@@ -294,9 +336,9 @@ public class BackupService {
 
         for (BackupMetadata backup : oldBackups) {
             try {
-                // Deletar do Google Drive
-                if (driveService != null && backup.getS3Key() != null) {
-                    driveService.files().delete(backup.getS3Key()).execute();
+                // Deletar do destino
+                if (backup.getS3Key() != null) {
+                    backupDestination.delete(backup.getS3Key());
                 }
 
                 // Deletar metadata
@@ -317,30 +359,23 @@ public class BackupService {
     }
 
     /**
-     * Lista backups no Google Drive (caso metadata esteja dessincronizada)
+     * Lista os arquivos no destino (caso metadata esteja dessincronizada)
      */
-    public List<String> listGoogleDriveBackups() throws IOException {
-        if (driveService == null) {
-            return Collections.emptyList();
+    public List<String> listStoredBackups() throws IOException {
+        if (!backupDestination.isAvailable()) {
+            return List.of();
         }
+        return backupDestination.list(BACKUP_FILE_PREFIX);
+    }
 
-        String query = "name contains '" + BACKUP_FILE_PREFIX + "' and trashed = false";
-        FileList result = driveService.files().list()
-                .setQ(query)
-                .setFields("files(id, name, size, createdTime)")
-                .setOrderBy("createdTime desc")
-                .execute();
-
-        return result.getFiles().stream()
-                .map(file -> String.format("%s (ID: %s, Size: %d bytes)", 
-                    file.getName(), file.getId(), file.getSize()))
-                .collect(Collectors.toList());
+    public String destinationName() {
+        return backupDestination.name();
     }
 
     /**
      * Verifica se o serviço de backup está configurado
      */
     public boolean isBackupServiceEnabled() {
-        return driveService != null;
+        return backupDestination.isAvailable();
     }
 }
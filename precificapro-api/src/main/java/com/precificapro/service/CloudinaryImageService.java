@@ -2,6 +2,7 @@ package com.precificapro.service;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
+import com.precificapro.config.TenantCacheGenerations;
 import com.precificapro.controller.dto.ProductImageDTO;
 import com.precificapro.domain.model.Product;
 import com.precificapro.domain.model.ProductImage;
@@ -26,6 +27,7 @@ public class CloudinaryImageService {
     private final Cloudinary cloudinary;
     private final ProductImageRepository imageRepository;
     private final ProductRepository productRepository;
+    private final TenantCacheGenerations tenantCache;
     
     private static final Set<String> ALLOWED_TYPES = Set.of("image/jpeg", "image/png", "image/webp", "image/jpg");
     private static final long MAX_FILE_SIZE = 5 * 1024 * 1024; // 5MB
@@ -95,6 +97,7 @@ public class CloudinaryImageService {
                     .build();
             
             ProductImage saved = imageRepository.save(image);
+            invalidateProductListing(product);
             log.info("✅ Imagem salva com sucesso! ID: {} | Public ID: {}", saved.getId(), publicId);
             
             return toDTO(saved);
@@ -127,6 +130,7 @@ public class CloudinaryImageService {
             
             // Deletar do banco
             imageRepository.delete(image);
+            invalidateProductListing(image.getProduct());
             log.info("✅ Imagem removida do banco: {}", imageId);
             
         } catch (IOException e) {
@@ -157,11 +161,17 @@ public class CloudinaryImageService {
         
         image.setIsPrimary(true);
         ProductImage updated = imageRepository.save(image);
+        invalidateProductListing(product);
         
         log.info("⭐ Nova imagem primária definida: {} para produto: {}", imageId, productId);
         return toDTO(updated);
     }
     
+    /** A listagem de produtos em cache traz a miniatura da imagem primária. */
+    private void invalidateProductListing(Product product) {
+        tenantCache.invalidate("products", product.getOwner().getId());
+    }
+    
     private void validateFile(MultipartFile file) {
         // Validar se arquivo existe
         if (file == null || file.isEmpty()) {
@@ -6,6 +6,7 @@ import com.precificapro.domain.model.CostItem;
 import com.precificapro.domain.model.User;
 import com.precificapro.domain.repository.CostItemRepository;
 import com.precificapro.mapper.CostItemMapper;
+import com.precificapro.service.pricing.CostModelCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,12 +22,15 @@ public class CostItemService {
     private CostItemRepository costItemRepository;
     @Autowired
     private CostItemMapper costItemMapper;
+    @Autowired
+    private CostModelCache costModelCache;
 
     @Transactional
     public CostItemResponseDTO createCostItem(CostItemCreateDTO dto, User owner) {
         CostItem costItem = costItemMapper.toEntity(dto);
         costItem.setOwner(owner); // GARANTIA DE SEGURANÇA
         CostItem savedCostItem = costItemRepository.save(costItem);
+        costModelCache.evict(owner.getId());
         return costItemMapper.toResponseDTO(savedCostItem);
     }
     
@@ -56,6 +60,7 @@ public class CostItemService {
         costItem.setActive(dto.active());
         
         CostItem updatedCostItem = costItemRepository.save(costItem);
+        costModelCache.evict(owner.getId());
         return costItemMapper.toResponseDTO(updatedCostItem);
     }
     
@@ -64,5 +69,6 @@ public class CostItemService {
         CostItem costItem = costItemRepository.findByIdAndOwner(id, owner)
                 .orElseThrow(() -> new RuntimeException("Custo não encontrado."));
         costItemRepository.delete(costItem);
+        costModelCache.evict(owner.getId());
     }
 }
\ No newline at end of file
@@ -1,82 +1,92 @@
 package com.precificapro.service;
 
 import com.precificapro.controller.dto.DashboardMetricsDTO;
-import com.precificapro.domain.model.Sale;
 import com.precificapro.domain.model.User;
-import com.precificapro.domain.repository.CustomerRepository;
-import com.precificapro.domain.repository.ProductRepository;
 import com.precificapro.domain.repository.SaleRepository;
+import com.precificapro.domain.repository.SalesDailyRollupRepository;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 public class DashboardService {
 
     private final SaleRepository saleRepository;
-    private final ProductRepository productRepository;
-    private final CustomerRepository customerRepository;
+    private final SalesDailyRollupRepository rollupRepository;
 
-    public DashboardService(SaleRepository saleRepository,
-                            ProductRepository productRepository,
-                            CustomerRepository customerRepository) {
+    public DashboardService(SaleRepository saleRepository, SalesDailyRollupRepository rollupRepository) {
         this.saleRepository = saleRepository;
-        this.productRepository = productRepository;
-        this.customerRepository = customerRepository;
+        this.rollupRepository = rollupRepository;
     }
 
+    /**
+     * Métricas do dashboard calculadas no banco em uma única consulta agregada:
+     * nenhuma venda é carregada em memória, independente do volume do tenant.
+     */
     @Cacheable(value = "dashboardMetrics", key = "#owner.id")
     public DashboardMetricsDTO getMetrics(User owner) {
-        List<Sale> sales = saleRepository.findAllByOwnerOrderBySaleDateDesc(owner);
+        OffsetDateTime now = OffsetDateTime.now();
+        OffsetDateTime todayStart = now.toLocalDate().atStartOfDay(now.getOffset()).toOffsetDateTime();
+        OffsetDateTime monthStart = todayStart.withDayOfMonth(1);
+        OffsetDateTime previousStart = monthStart.minusMonths(1);
+        OffsetDateTime previousEnd = now.minusMonths(1);
 
-        BigDecimal totalRevenue = sales.stream()
-                .map(Sale::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Object[] row = saleRepository.getDashboardAggregates(
+                owner.getId(), todayStart, monthStart, previousStart, previousEnd).get(0);
 
-        BigDecimal totalNetProfit = sales.stream()
-                .map(Sale::getTotalNetProfit)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        long productCount = productRepository.countByOwner(owner);
-        long customerCount = customerRepository.countByOwner(owner);
+        return new DashboardMetricsDTO(
+                (BigDecimal) row[0],
+                (BigDecimal) row[1],
+                ((Number) row[12]).longValue(),
+                ((Number) row[13]).longValue(),
+                ((Number) row[2]).longValue(),
+                period(row, 3, todayStart, now),
+                period(row, 6, monthStart, now),
+                period(row, 9, previousStart, previousEnd)
+        );
+    }
 
-        return new DashboardMetricsDTO(totalRevenue, totalNetProfit, productCount, customerCount);
+    private static DashboardMetricsDTO.PeriodMetricsDTO period(Object[] row, int offset,
+                                                               OffsetDateTime from, OffsetDateTime to) {
+        return new DashboardMetricsDTO.PeriodMetricsDTO(
+                from,
+                to,
+                (BigDecimal) row[offset],
+                (BigDecimal) row[offset + 1],
+                ((Number) row[offset + 2]).longValue()
+        );
     }
 
+    /**
+     * Receita e lucro por dia a partir do rollup diário (no máximo uma linha por dia),
+     * preenchendo com zero os dias sem venda.
+     */
     public List<Map<String, Object>> getSalesChartData(User owner, int days) {
-        List<Sale> sales = saleRepository.findAllByOwnerOrderBySaleDateDesc(owner);
-        
-        // Agrupar vendas por data (Revenue)
-        Map<LocalDate, BigDecimal> revenueByDate = sales.stream()
-            .collect(Collectors.groupingBy(
-                sale -> sale.getSaleDate().toLocalDate(),
-                Collectors.reducing(BigDecimal.ZERO, Sale::getTotalAmount, BigDecimal::add)
-            ));
-
-        // Agrupar lucro por data (Profit)
-        Map<LocalDate, BigDecimal> profitByDate = sales.stream()
-            .collect(Collectors.groupingBy(
-                sale -> sale.getSaleDate().toLocalDate(),
-                Collectors.reducing(BigDecimal.ZERO, Sale::getTotalNetProfit, BigDecimal::add)
-            ));
+        LocalDate today = LocalDate.now(SalesRollupService.zone());
 
-        LocalDate today = LocalDate.now();
-        
-        List<Map<String, Object>> chartData = new ArrayList<>();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM");
-        
         // Criar dados para cada dia (limitado a 365 dias para performance)
         int maxDays = Math.min(days, 365);
         LocalDate startDate = today.minusDays(maxDays - 1);
-        
+
+        Map<LocalDate, BigDecimal> revenueByDate = new HashMap<>();
+        Map<LocalDate, BigDecimal> profitByDate = new HashMap<>();
+        for (Object[] row : rollupRepository.sumByDay(owner.getId(), startDate)) {
+            LocalDate date = (LocalDate) row[0];
+            revenueByDate.put(date, (BigDecimal) row[1]);
+            profitByDate.put(date, (BigDecimal) row[2]);
+        }
+
+        List<Map<String, Object>> chartData = new ArrayList<>();
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM");
+
         for (LocalDate date = startDate; !date.isAfter(today); date = date.plusDays(1)) {
             Map<String, Object> dataPoint = new HashMap<>();
             dataPoint.put("date", date.format(formatter));
@@ -84,7 +94,7 @@ public class DashboardService {
             dataPoint.put("profit", profitByDate.getOrDefault(date, BigDecimal.ZERO));
             chartData.add(dataPoint);
         }
-        
+
         return chartData;
     }
 }
@@ -8,6 +8,7 @@ import com.precificapro.domain.model.User;
 import com.precificapro.domain.repository.FreightBatchRepository;
 import com.precificapro.domain.repository.ProductRepository;
 import com.precificapro.mapper.FreightBatchMapper;
+import com.precificapro.service.pricing.CostModelCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,6 +22,8 @@ public class FreightBatchService {
     private ProductRepository productRepository; // Precisamos para verificar a posse do produto
     @Autowired
     private FreightBatchMapper freightBatchMapper;
+    @Autowired
+    private CostModelCache costModelCache;
 
     @Transactional
     public FreightBatchResponseDTO createFreightBatch(FreightBatchCreateDTO dto, User owner) {
@@ -35,6 +38,7 @@ public class FreightBatchService {
         freightBatch.setProduct(product); // Associa ao produto já verificado
 
         FreightBatch savedFreightBatch = freightBatchRepository.save(freightBatch);
+        costModelCache.evict(owner.getId()); // novo lote passa a ser o frete vigente do produto
         return freightBatchMapper.toResponseDTO(savedFreightBatch);
     }
     
@@ -1,18 +1,34 @@
 package com.precificapro.service;
 
+import com.precificapro.config.TenantCacheGenerations;
 import com.precificapro.controller.dto.*;
+import com.precificapro.domain.enums.StockReservationStatus;
 import com.precificapro.domain.enums.StockStatus;
 import com.precificapro.domain.model.*;
 import com.precificapro.domain.repository.*;
+import com.precificapro.exception.BusinessException;
+import com.precificapro.exception.InsufficientStockException;
 import com.precificapro.exception.ResourceNotFoundException;
+import com.precificapro.service.stockalert.StockLevelChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -21,9 +37,21 @@ import java.util.stream.Collectors;
 @Slf4j
 public class InventoryService {
     
+    /** Resumo por owner; invalidado (depois do commit) por toda escrita que muda estoque ou custo. */
+    public static final String SUMMARY_CACHE = "inventorySummary";
+    
     private final InventoryRepository inventoryRepository;
     private final StockMovementRepository stockMovementRepository;
     private final ProductRepository productRepository;
+    private final TenantCacheGenerations tenantCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockReservationRepository stockReservationRepository;
+    
+    @Value("${inventory.reservations.default-ttl:PT15M}")
+    private Duration defaultReservationTtl = Duration.ofMinutes(15);
+    
+    @Value("${inventory.reservations.max-ttl:P7D}")
+    private Duration maxReservationTtl = Duration.ofDays(7);
     
     @Transactional(readOnly = true)
     public List<InventoryDTO> findAllByOwner(User owner) {
@@ -62,20 +90,28 @@ public class InventoryService {
         Product product = productRepository.findByIdAndOwner(productId, owner)
                 .orElseThrow(() -> new ResourceNotFoundException("Produto", productId));
         
-        Inventory inventory = inventoryRepository.findByProduct(product)
-                .orElseThrow(() -> new ResourceNotFoundException("Inventário não encontrado para o produto: " + productId));
-        
-        int oldStock = inventory.getCurrentStock();
         int adjustment = "IN".equals(dto.type()) ? dto.quantity() : -dto.quantity();
-        int newStock = Math.max(0, oldStock + adjustment);
+        List<Object[]> adjusted = inventoryRepository.adjustCurrentStock(productId, adjustment);
+        if (adjusted.isEmpty()) {
+            Inventory current = inventoryRepository.findByProduct(product)
+                    .orElseThrow(() -> new ResourceNotFoundException("Inventário não encontrado para o produto: " + productId));
+            throw new BusinessException("Saída maior que o estoque atual (atual: " + current.getCurrentStock()
+                    + ", solicitado: " + dto.quantity() + ").");
+        }
+        Object[] row = adjusted.get(0);
+        int newStock = ((Number) row[0]).intValue();
+        int oldStock = newStock - adjustment;
+        int previousAvailable = ((Number) row[1]).intValue() - adjustment;
         
-        inventory.setCurrentStock(newStock);
-        Inventory savedInventory = inventoryRepository.save(inventory);
+        // Carregada depois do UPDATE, já com os valores gravados por ele e pelo trigger
+        Inventory inventory = inventoryRepository.findByProduct(product)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventário não encontrado para o produto: " + productId));
         
         // Registrar movimentação
         StockMovement movement = StockMovement.builder()
                 .inventory(inventory)
                 .product(product)
+                .owner(owner)
                 .type(dto.type())
                 .quantity(dto.quantity())
                 .reason(dto.reason())
@@ -83,11 +119,13 @@ public class InventoryService {
                 .performedBy(owner)
                 .build();
         stockMovementRepository.save(movement);
+        evictSummary(owner.getId());
+        publishLevelChange(product, previousAvailable, inventory.getMinStock(), inventory, "ADJUST_" + dto.type());
         
         log.info("✅ Estoque ajustado: {} → {} ({}{})", 
                  oldStock, newStock, adjustment > 0 ? "+" : "", adjustment);
         
-        return toDTO(savedInventory);
+        return toDTO(inventory);
     }
     
     @Transactional
@@ -100,51 +138,129 @@ public class InventoryService {
         Inventory inventory = inventoryRepository.findByProduct(product)
                 .orElseThrow(() -> new ResourceNotFoundException("Inventário não encontrado"));
         
+        int previousMinStock = inventory.getMinStock();
         inventory.setMinStock(minStock);
         Inventory saved = inventoryRepository.save(inventory);
+        evictSummary(owner.getId());
+        publishLevelChange(product, available(saved), previousMinStock, saved, "MIN_STOCK");
         
         log.info("✅ Estoque mínimo atualizado para: {}", minStock);
         return toDTO(saved);
     }
     
+    /**
+     * Reserva unidades por um prazo (ttl; padrão inventory.reservations.default-ttl, no máximo
+     * inventory.reservations.max-ttl). A reserva é liberada por {@link #releaseReservation},
+     * consumida pela venda que a informa ou expirada pelo StockReservationSweeper.
+     */
     @Transactional
-    public InventoryDTO reserveStock(UUID productId, Integer quantity, User owner) {
+    public StockReservationDTO reserveStock(UUID productId, Integer quantity, Duration ttl, User owner) {
         log.info("🔒 Reservando {} unidades do produto: {}", quantity, productId);
         
+        if (quantity == null || quantity <= 0) {
+            throw new BusinessException("A quantidade reservada deve ser maior que zero.");
+        }
+        Duration effectiveTtl = (ttl != null) ? ttl : defaultReservationTtl;
+        if (effectiveTtl.isNegative() || effectiveTtl.isZero() || effectiveTtl.compareTo(maxReservationTtl) > 0) {
+            throw new BusinessException("Prazo da reserva deve estar entre 1 segundo e " + maxReservationTtl + ".");
+        }
+        
         Product product = productRepository.findByIdAndOwner(productId, owner)
                 .orElseThrow(() -> new ResourceNotFoundException("Produto", productId));
         
-        Inventory inventory = inventoryRepository.findByProduct(product)
+        inventoryRepository.findByProduct(product)
                 .orElseThrow(() -> new ResourceNotFoundException("Inventário não encontrado"));
         
-        if (inventory.getAvailableStock() < quantity) {
+        // Checagem e reserva no mesmo UPDATE: reservas concorrentes não passam do disponível
+        List<Object[]> updated = inventoryRepository.reserveAvailable(productId, quantity);
+        if (updated.isEmpty()) {
             throw new IllegalStateException("Estoque disponível insuficiente. Disponível: " + 
-                                          inventory.getAvailableStock() + ", Solicitado: " + quantity);
+                                          getAvailableStock(productId) + ", Solicitado: " + quantity);
         }
+        int available = ((Number) updated.get(0)[0]).intValue();
+        int minStock = ((Number) updated.get(0)[1]).intValue();
         
-        inventory.setReservedStock(inventory.getReservedStock() + quantity);
-        Inventory saved = inventoryRepository.save(inventory);
-        
-        log.info("✅ {} unidades reservadas. Reservado total: {}", quantity, saved.getReservedStock());
-        return toDTO(saved);
+        StockReservation reservation = stockReservationRepository.save(StockReservation.builder()
+                .product(product)
+                .owner(owner)
+                .quantity(quantity)
+                .expiresAt(OffsetDateTime.now().plus(effectiveTtl))
+                .build());
+        evictSummary(owner.getId());
+        eventPublisher.publishEvent(new StockLevelChangedEvent(
+                owner.getId(), productId, product.getName(),
+                available + quantity, minStock, available, minStock, "RESERVE"));
+        
+        log.info("✅ {} unidades reservadas até {} (reserva {})",
+                 quantity, reservation.getExpiresAt(), reservation.getId());
+        return StockReservationDTO.from(reservation);
     }
     
     @Transactional
-    public InventoryDTO releaseStock(UUID productId, Integer quantity, User owner) {
-        log.info("🔓 Liberando {} unidades do produto: {}", quantity, productId);
+    public StockReservationDTO releaseReservation(UUID reservationId, User owner) {
+        log.info("🔓 Liberando reserva: {}", reservationId);
         
-        Product product = productRepository.findByIdAndOwner(productId, owner)
-                .orElseThrow(() -> new ResourceNotFoundException("Produto", productId));
+        StockReservation reservation = stockReservationRepository.findByIdAndOwnerId(reservationId, owner.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Reserva", reservationId));
         
-        Inventory inventory = inventoryRepository.findByProduct(product)
-                .orElseThrow(() -> new ResourceNotFoundException("Inventário não encontrado"));
+        if (reservation.getStatus() != StockReservationStatus.ACTIVE) {
+            throw new BusinessException("A reserva já foi encerrada (" + reservation.getStatus() + ").");
+        }
         
-        int newReserved = Math.max(0, inventory.getReservedStock() - quantity);
-        inventory.setReservedStock(newReserved);
-        Inventory saved = inventoryRepository.save(inventory);
+        // Condicional no banco: uma venda ou a expiração concorrente pode ter encerrado a reserva
+        List<Object[]> released = stockReservationRepository.releaseActive(reservationId, owner.getId());
+        if (released.isEmpty()) {
+            throw new BusinessException("A reserva já foi encerrada.");
+        }
+        int available = ((Number) released.get(0)[0]).intValue();
+        int minStock = ((Number) released.get(0)[1]).intValue();
+        int quantity = ((Number) released.get(0)[2]).intValue();
+        
+        // Mesmo estado que o UPDATE gravou, para a resposta
+        reservation.setStatus(StockReservationStatus.RELEASED);
+        reservation.setResolvedAt(OffsetDateTime.now());
+        evictSummary(owner.getId());
+        eventPublisher.publishEvent(new StockLevelChangedEvent(
+                owner.getId(), reservation.getProduct().getId(), reservation.getProduct().getName(),
+                available - quantity, minStock, available, minStock, "RELEASE"));
+        
+        log.info("✅ {} unidades liberadas (reserva {})", quantity, reservationId);
+        return StockReservationDTO.from(reservation);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<StockReservationDTO> findActiveReservations(UUID productId, User owner) {
+        productRepository.findByIdAndOwner(productId, owner)
+                .orElseThrow(() -> new ResourceNotFoundException("Produto", productId));
         
-        log.info("✅ {} unidades liberadas. Reservado total: {}", quantity, saved.getReservedStock());
-        return toDTO(saved);
+        return stockReservationRepository.findActiveByOwnerIdAndProductId(owner.getId(), productId).stream()
+                .map(StockReservationDTO::from)
+                .toList();
+    }
+    
+    /**
+     * Expira até {@code limit} reservas vencidas em um único comando e avisa (resumo e alertas)
+     * cada produto afetado.
+     *
+     * @return quantas reservas foram expiradas
+     */
+    @Transactional
+    public int expireDueReservations(int limit) {
+        int expired = 0;
+        Set<UUID> owners = new HashSet<>();
+        for (Object[] row : stockReservationRepository.expireDue(limit)) {
+            UUID ownerId = (UUID) row[0];
+            int available = ((Number) row[3]).intValue();
+            int minStock = ((Number) row[4]).intValue();
+            int released = ((Number) row[5]).intValue();
+            expired += ((Number) row[6]).intValue();
+            owners.add(ownerId);
+            eventPublisher.publishEvent(new StockLevelChangedEvent(
+                    ownerId, (UUID) row[1], (String) row[2],
+                    available - released, minStock, available, minStock, "RESERVATION_EXPIRED"));
+        }
+        owners.forEach(this::evictSummary);
+        return expired;
     }
     
     @Transactional(readOnly = true)
@@ -158,19 +274,31 @@ public class InventoryService {
                 .map(this::toMovementDTO);
     }
     
+    /**
+     * Contagens por status, valor em estoque (a custo de compra) e unidades reservadas em um
+     * único GROUP BY, guardado no cache "inventorySummary" até a próxima alteração de estoque.
+     */
     @Transactional(readOnly = true)
+    @Cacheable(value = SUMMARY_CACHE, key = "@tenantCache.key('inventorySummary', #owner.id)")
     public InventorySummaryDTO getSummary(User owner) {
         log.info("📊 Gerando resumo de inventário para usuário: {}", owner.getEmail());
         
-        List<Inventory> allInventory = inventoryRepository.findByOwnerId(owner.getId());
-        long total = allInventory.size();
-        
-        long inStock = allInventory.stream()
-                .filter(i -> i.getStockStatus() == StockStatus.IN_STOCK)
-                .count();
-        
-        long lowStock = inventoryRepository.countLowStockByOwnerId(owner.getId());
-        long outOfStock = inventoryRepository.countOutOfStockByOwnerId(owner.getId());
+        long inStock = 0;
+        long lowStock = 0;
+        long outOfStock = 0;
+        BigDecimal totalStockValue = BigDecimal.ZERO;
+        long reservedUnits = 0;
+        for (Object[] row : inventoryRepository.summarizeByStatus(owner.getId())) {
+            long count = ((Number) row[1]).longValue();
+            switch ((StockStatus) row[0]) {
+                case IN_STOCK -> inStock = count;
+                case LOW_STOCK -> lowStock = count;
+                case OUT_OF_STOCK -> outOfStock = count;
+            }
+            totalStockValue = totalStockValue.add((BigDecimal) row[2]);
+            reservedUnits += ((Number) row[3]).longValue();
+        }
+        long total = inStock + lowStock + outOfStock;
         
         double lowStockPercentage = total > 0 ? (lowStock * 100.0 / total) : 0;
         double outOfStockPercentage = total > 0 ? (outOfStock * 100.0 / total) : 0;
@@ -182,9 +310,30 @@ public class InventoryService {
                 .outOfStock(outOfStock)
                 .lowStockPercentage(lowStockPercentage)
                 .outOfStockPercentage(outOfStockPercentage)
+                .totalStockValue(totalStockValue)
+                .reservedUnits(reservedUnits)
                 .build();
     }
     
+    public void evictSummary(UUID ownerId) {
+        tenantCache.invalidate(SUMMARY_CACHE, ownerId);
+    }
+    
+    /**
+     * Disponível calculado aqui: available_stock é mantido pelo trigger do banco e fica
+     * desatualizado na entidade depois do save.
+     */
+    private static int available(Inventory inventory) {
+        return inventory.getCurrentStock() - inventory.getReservedStock();
+    }
+    
+    private void publishLevelChange(Product product, int previousAvailable, int previousMinStock,
+                                    Inventory inventory, String cause) {
+        eventPublisher.publishEvent(new StockLevelChangedEvent(
+                product.getOwner().getId(), product.getId(), product.getName(),
+                previousAvailable, previousMinStock, available(inventory), inventory.getMinStock(), cause));
+    }
+    
     // ✅ MÉTODOS AUXILIARES PARA VALIDAÇÃO DE ESTOQUE (USADO EM VENDAS)
     
     @Transactional(readOnly = true)
@@ -202,37 +351,69 @@ public class InventoryService {
                 .orElse(0);
     }
     
-    // ✅ MÉTODO PÚBLICO PARA DAR BAIXA NO ESTOQUE (CHAMADO PELO SALESERVICE)
+    // ✅ BAIXA ATÔMICA DE ESTOQUE (CHAMADA PELO SALESERVICE)
     
+    /**
+     * Dá baixa em todos os produtos de uma venda em um único comando condicional.
+     * Se algum produto não tiver estoque disponível, lança {@link InsufficientStockException}
+     * com todos os produtos em falta e a transação do chamador é desfeita por inteiro.
+     *
+     * Reservas ativas do owner em {@code reservationIds} são consumidas na mesma baixa: as
+     * unidades delas cobrem a venda em vez de ficarem presas até expirar.
+     *
+     * @param quantities quantidade por produto (produtos já agrupados)
+     * @param reservationIds reservas a consumir (pode ser vazio)
+     */
     @Transactional
-    public void adjustStock(UUID productId, int quantity, String type, String reason, String notes) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Produto", productId));
-        
-        Inventory inventory = inventoryRepository.findByProduct(product)
-                .orElseThrow(() -> new ResourceNotFoundException("Inventário não encontrado para produto: " + productId));
-        
-        int oldStock = inventory.getCurrentStock();
-        int adjustment = "IN".equals(type) ? quantity : -quantity;
-        int newStock = Math.max(0, oldStock + adjustment);
-        
-        inventory.setCurrentStock(newStock);
-        inventoryRepository.save(inventory);
-        
-        // Registrar movimentação
-        StockMovement movement = StockMovement.builder()
-                .inventory(inventory)
-                .product(product)
-                .type(type)
-                .quantity(quantity)
-                .reason(reason)
-                .notes(notes)
-                .performedBy(product.getOwner())
-                .build();
-        stockMovementRepository.save(movement);
+    public void decrementStock(Map<UUID, Integer> quantities, Collection<UUID> reservationIds,
+                               String reason, String notes, User performedBy) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        UUID[] productIds = quantities.keySet().toArray(new UUID[0]);
+        Integer[] amounts = quantities.values().toArray(new Integer[0]);
+        
+        UUID[] reservations = (reservationIds != null) ? reservationIds.toArray(new UUID[0]) : new UUID[0];
+        
+        List<Object[]> decremented = inventoryRepository.decrementAvailable(
+                productIds, amounts, reservations, reason, notes, performedBy.getId());
+        
+        if (decremented.size() == quantities.size()) {
+            evictSummary(performedBy.getId());
+            for (Object[] row : decremented) {
+                int available = ((Number) row[2]).intValue();
+                int minStock = ((Number) row[3]).intValue();
+                int quantity = ((Number) row[4]).intValue();
+                int reservedConsumed = ((Number) row[5]).intValue();
+                eventPublisher.publishEvent(new StockLevelChangedEvent(
+                        performedBy.getId(), (UUID) row[0], (String) row[1],
+                        available + quantity - reservedConsumed, minStock, available, minStock, "SALE"));
+            }
+            log.info("✅ Baixa de estoque aplicada em {} produto(s)", decremented.size());
+            return;
+        }
         
-        log.info("✅ Estoque ajustado automaticamente: {} → {} (produto: {})", 
-                 oldStock, newStock, product.getName());
+        Set<UUID> missing = new HashSet<>(quantities.keySet());
+        decremented.forEach(row -> missing.remove((UUID) row[0]));
+        throw new InsufficientStockException(shortages(missing, quantities));
+    }
+    
+    private List<InsufficientStockException.Shortage> shortages(Set<UUID> productIds, Map<UUID, Integer> quantities) {
+        Map<UUID, Inventory> inventories = inventoryRepository.findByProductIdIn(productIds).stream()
+                .collect(Collectors.toMap(i -> i.getProduct().getId(), i -> i));
+        
+        List<InsufficientStockException.Shortage> shortages = new ArrayList<>();
+        for (UUID productId : productIds) {
+            Inventory inventory = inventories.get(productId);
+            shortages.add(new InsufficientStockException.Shortage(
+                    productId,
+                    inventory != null ? inventory.getProduct().getName() : null,
+                    inventory != null ? inventory.getProduct().getSku() : null,
+                    quantities.get(productId),
+                    inventory != null ? inventory.getAvailableStock() : 0
+            ));
+        }
+        return shortages;
     }
     
     @Transactional
@@ -241,12 +422,15 @@ public class InventoryService {
         
         Inventory inventory = Inventory.builder()
                 .product(product)
+                .owner(product.getOwner())
                 .currentStock(0)
                 .minStock(5)
                 .reservedStock(0)
                 .build();
         
-        return inventoryRepository.save(inventory);
+        Inventory saved = inventoryRepository.save(inventory);
+        evictSummary(product.getOwner().getId());
+        return saved;
     }
     
     private InventoryDTO toDTO(Inventory inventory) {
@@ -7,6 +7,7 @@ import com.precificapro.domain.model.PricingProfile;
 import com.precificapro.domain.model.User;
 import com.precificapro.domain.repository.PricingProfileRepository;
 import com.precificapro.mapper.PricingProfileMapper;
+import com.precificapro.service.pricing.CostModelCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,6 +25,9 @@ public class PricingProfileService {
     @Autowired
     private PricingProfileMapper profileMapper;
 
+    @Autowired
+    private CostModelCache costModelCache;
+
     @Transactional
     public PricingProfileResponseDTO createProfile(PricingProfileCreateDTO dto, User owner) {
         // Regra de negócio: Valida se os campos de método são consistentes
@@ -38,6 +42,7 @@ public class PricingProfileService {
         profile.setOwner(owner); // Associação de segurança com o usuário logado
 
         PricingProfile savedProfile = profileRepository.save(profile);
+        costModelCache.evict(owner.getId());
         return profileMapper.toResponseDTO(savedProfile);
     }
 
@@ -81,6 +86,7 @@ public class PricingProfileService {
         existingProfile.setRoundingRule(dto.roundingRule());
 
         PricingProfile updatedProfile = profileRepository.save(existingProfile);
+        costModelCache.evict(owner.getId());
         return profileMapper.toResponseDTO(updatedProfile);
     }
 
@@ -91,5 +97,6 @@ public class PricingProfileService {
              throw new RuntimeException("Perfil de precificação não encontrado.");
         }
         profileRepository.deleteById(id);
+        costModelCache.evict(owner.getId());
     }
 }
\ No newline at end of file
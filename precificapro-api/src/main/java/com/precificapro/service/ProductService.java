@@ -1,8 +1,11 @@
 package com.precificapro.service;
 
+import com.precificapro.config.TenantCacheGenerations;
 import com.precificapro.controller.dto.ProductCreateDTO;
+import com.precificapro.controller.dto.ProductPageDTO;
 import com.precificapro.controller.dto.ProductResponseDTO;
 import com.precificapro.controller.dto.ProductUpdateDTO;
+import com.precificapro.domain.enums.ProductSort;
 import com.precificapro.domain.model.Inventory;
 import com.precificapro.domain.model.Product;
 import com.precificapro.domain.model.ProductImage;
@@ -10,6 +13,8 @@ import com.precificapro.domain.model.User;
 import com.precificapro.domain.repository.InventoryRepository;
 import com.precificapro.domain.repository.ProductImageRepository;
 import com.precificapro.domain.repository.ProductRepository;
+import com.precificapro.domain.repository.ProductSearchRepository;
+import com.precificapro.exception.BusinessException;
 import com.precificapro.mapper.ProductMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,9 +25,13 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -33,9 +42,15 @@ public class ProductService {
     @Autowired private ProductImageRepository productImageRepository;
     @Autowired private InventoryRepository inventoryRepository;
     @Autowired private AuditLogService auditLogService;
+    @Autowired private ProductSearchRepository productSearchRepository;
+    @Autowired private TenantCacheGenerations tenantCache;
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final String PRODUCTS_CACHE = "products";
 
     @Transactional
-    @CacheEvict(value = {"products", "dashboardMetrics"}, key = "#owner.id")
+    @CacheEvict(value = "dashboardMetrics", key = "#owner.id")
     public ProductResponseDTO createProduct(ProductCreateDTO dto, User owner) {
         if (productRepository.existsBySkuAndOwner(dto.sku(), owner)) {
             throw new com.precificapro.exception.ResourceAlreadyExistsException("SKU já cadastrado para este usuário.");
@@ -47,12 +62,15 @@ public class ProductService {
         // ✅ CRIAR INVENTORY AUTOMATICAMENTE AO CRIAR PRODUTO
         Inventory inventory = Inventory.builder()
                 .product(savedProduct)
+                .owner(owner)
                 .currentStock(0)
                 .minStock(5)
                 .reservedStock(0)
                 .availableStock(0)
                 .build();
         inventoryRepository.save(inventory);
+        tenantCache.invalidate(PRODUCTS_CACHE, owner.getId());
+        tenantCache.invalidate(InventoryService.SUMMARY_CACHE, owner.getId());
         log.info("Inventory criado automaticamente para produto: {} (SKU: {})", savedProduct.getName(), savedProduct.getSku());
         
         // Auditoria
@@ -71,21 +89,70 @@ public class ProductService {
 
     @Transactional(readOnly = true)
     public List<ProductResponseDTO> findAllProductsByOwner(User owner) {
-        return productRepository.findByOwner(owner).stream()
-                .map(this::toResponseDTOWithImage)
-                .collect(Collectors.toList());
+        return productRepository.findListingByOwner(owner);
     }
     
     // NOVO: Método paginado (recomendado para produção)
     @Transactional(readOnly = true)
-    @Cacheable(value = "products", key = "#owner.id + '-' + #pageable.pageNumber + '-' + #pageable.pageSize")
+    @Cacheable(value = "products",
+               key = "@tenantCache.key('products', #owner.id, #pageable.pageNumber, #pageable.pageSize, #pageable.sort.toString())")
     public Page<ProductResponseDTO> findAllProductsByOwnerPaginated(User owner, Pageable pageable) {
-        return productRepository.findByOwner(owner, pageable)
-                .map(this::toResponseDTOWithImage);
+        return productRepository.findListingByOwner(owner, pageable);
+    }
+
+    /**
+     * Busca por prefixo/similaridade de nome ou SKU, categoria e faixa de custo de compra,
+     * paginada por keyset na ordenação escolhida (custo independente da profundidade).
+     */
+    @Transactional(readOnly = true)
+    public ProductPageDTO searchProducts(User owner, ProductSearchRepository.Criteria criteria, String cursor, int limit) {
+        if (criteria.minCost() != null && criteria.maxCost() != null && criteria.minCost().compareTo(criteria.maxCost()) > 0) {
+            throw new BusinessException("minCost não pode ser maior que maxCost.");
+        }
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        ProductSearchRepository.After after = (cursor == null || cursor.isBlank())
+                ? null : decodeCursor(cursor, criteria.sort());
+
+        // Busca um a mais para saber se existe próxima página
+        List<ProductResponseDTO> items = productSearchRepository.search(owner.getId(), criteria, after, size + 1);
+        String nextCursor = null;
+        if (items.size() > size) {
+            items = items.subList(0, size);
+            nextCursor = encodeCursor(items.get(size - 1), criteria.sort());
+        }
+        return new ProductPageDTO(items, nextCursor);
+    }
+
+    private static String encodeCursor(ProductResponseDTO last, ProductSort sort) {
+        String value = switch (sort) {
+            case NAME -> last.name();
+            case SKU -> last.sku();
+            case NEWEST -> last.createdAt().toString();
+            case PURCHASE_COST -> last.defaultPurchaseCost().toPlainString();
+        };
+        String raw = sort + "|" + last.id() + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ProductSearchRepository.After decodeCursor(String cursor, ProductSort sort) {
+        try {
+            // O valor vem por último: nomes e SKUs podem conter '|'
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+            if (position.length != 3 || !position[0].equals(sort.name())) {
+                throw new IllegalArgumentException();
+            }
+            Object value = switch (sort) {
+                case NAME, SKU -> position[2];
+                case NEWEST -> OffsetDateTime.parse(position[2]);
+                case PURCHASE_COST -> new BigDecimal(position[2]);
+            };
+            return new ProductSearchRepository.After(value, UUID.fromString(position[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException("Cursor de paginação inválido.");
+        }
     }
 
     @Transactional
-    @CacheEvict(value = "products", key = "#owner.id")
     public ProductResponseDTO updateProduct(UUID productId, ProductUpdateDTO dto, User owner) {
         Product product = productRepository.findByIdAndOwner(productId, owner)
                 .orElseThrow(() -> new com.precificapro.exception.ResourceNotFoundException("Produto não encontrado."));
@@ -99,6 +166,8 @@ public class ProductService {
 
         productMapper.updateEntityFromDto(dto, product);
         Product updatedProduct = productRepository.save(product);
+        tenantCache.invalidate(PRODUCTS_CACHE, owner.getId());
+        tenantCache.invalidate(InventoryService.SUMMARY_CACHE, owner.getId());
         
         // Auditoria
         auditLogService.logAction(owner, "PRODUCT_UPDATED", "Product", updatedProduct.getId().toString(),
@@ -108,7 +177,7 @@ public class ProductService {
     }
 
     @Transactional
-    @CacheEvict(value = {"products", "dashboardMetrics"}, key = "#owner.id")
+    @CacheEvict(value = "dashboardMetrics", key = "#owner.id")
     public void deleteProduct(UUID productId, User owner) {
         Product product = productRepository.findByIdAndOwner(productId, owner)
                 .orElseThrow(() -> new com.precificapro.exception.ResourceNotFoundException("Produto não encontrado."));
@@ -117,6 +186,8 @@ public class ProductService {
         String sku = product.getSku();
         
         productRepository.deleteById(productId);
+        tenantCache.invalidate(PRODUCTS_CACHE, owner.getId());
+        tenantCache.invalidate(InventoryService.SUMMARY_CACHE, owner.getId());
         
         // Auditoria
         auditLogService.logAction(owner, "PRODUCT_DELETED", "Product", productId.toString(),
@@ -125,9 +196,7 @@ public class ProductService {
     
     @Transactional(readOnly = true)
     public List<ProductResponseDTO> findProductsByCategory(UUID categoryId, User owner) {
-        return productRepository.findByOwnerAndCategoryId(owner, categoryId).stream()
-                .map(this::toResponseDTOWithImage)
-                .collect(Collectors.toList());
+        return productRepository.findListingByOwnerAndCategoryId(owner, categoryId);
     }
     
     private ProductResponseDTO toResponseDTOWithImage(Product product) {
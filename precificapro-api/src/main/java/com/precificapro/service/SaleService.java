@@ -3,8 +3,15 @@ package com.precificapro.service;
 import com.precificapro.controller.dto.ProductRankingDTO;
 import com.precificapro.controller.dto.ProductSalesChartDTO;
 import com.precificapro.controller.dto.SaleCreateDTO;
+import com.precificapro.controller.dto.SalePageDTO;
+import com.precificapro.controller.dto.SaleResponseDTO;
 import com.precificapro.domain.model.*;
 import com.precificapro.domain.repository.*;
+import com.precificapro.exception.BusinessException;
+import com.precificapro.exception.ResourceNotFoundException;
+import com.precificapro.mapper.SaleMapper;
+import com.precificapro.service.pricing.CostModel;
+import com.precificapro.service.pricing.CostModelCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
@@ -12,12 +19,21 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
-import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,17 +43,80 @@ public class SaleService {
     @Autowired private SaleItemRepository saleItemRepository;
     @Autowired private CustomerRepository customerRepository;
     @Autowired private ProductRepository productRepository;
-    @Autowired private CostItemRepository costItemRepository;
-    @Autowired private FreightBatchRepository freightBatchRepository;
+    @Autowired private CostModelCache costModelCache;
     @Autowired private InventoryService inventoryService;
+    @Autowired private SalesRollupService salesRollupService;
+    @Autowired private SalesDailyRollupRepository salesDailyRollupRepository;
+    @Autowired private SaleStreamRepository saleStreamRepository;
+    @Autowired private SaleMapper saleMapper;
     
-    private static final MathContext MC = new MathContext(10, RoundingMode.HALF_UP);
+    public static final int MAX_PAGE_SIZE = 200;
     
     @Transactional(readOnly = true)
     public List<Sale> findAllByOwner(User owner) {
         return saleRepository.findAllByOwnerOrderBySaleDateDesc(owner);
     }
 
+    /**
+     * Página de vendas (mais recentes primeiro) por keyset em (sale_date, id): o custo
+     * não cresce com a profundidade da página, ao contrário de OFFSET.
+     */
+    @Transactional(readOnly = true)
+    public SalePageDTO findPage(User owner, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Busca um a mais para saber se existe próxima página
+        List<UUID> ids;
+        if (cursor == null || cursor.isBlank()) {
+            ids = saleRepository.findFirstPageIds(owner.getId(), size + 1);
+        } else {
+            String[] position = decodeCursor(cursor);
+            ids = saleRepository.findPageIdsAfter(owner.getId(),
+                    OffsetDateTime.parse(position[0]), UUID.fromString(position[1]), size + 1);
+        }
+
+        boolean hasMore = ids.size() > size;
+        if (hasMore) {
+            ids = ids.subList(0, size);
+        }
+        List<SaleResponseDTO> items = ids.isEmpty()
+                ? List.of()
+                : saleRepository.findWithItemsByIdIn(ids).stream().map(saleMapper::toResponseDTO).toList();
+
+        String nextCursor = null;
+        if (hasMore) {
+            SaleResponseDTO last = items.get(items.size() - 1);
+            nextCursor = encodeCursor(last.saleDate(), last.id());
+        }
+        return new SalePageDTO(items, nextCursor);
+    }
+
+    /**
+     * Entrega todas as vendas do owner, uma a uma, lidas por cursor JDBC.
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(User owner, Consumer<SaleResponseDTO> consumer) {
+        saleStreamRepository.streamByOwner(owner.getId(), consumer);
+    }
+
+    private static String encodeCursor(OffsetDateTime saleDate, UUID id) {
+        String raw = saleDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            OffsetDateTime.parse(position[0]);
+            UUID.fromString(position[1]);
+            return position;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException("Cursor de paginação inválido.");
+        }
+    }
+
     @Transactional
     @CacheEvict(value = "dashboardMetrics", key = "#owner.id")
     public Sale recordSale(SaleCreateDTO dto, User owner) {
@@ -59,76 +138,98 @@ public class SaleService {
                 .build();
 
         List<SaleItem> saleItems = new ArrayList<>();
+        Map<UUID, Integer> quantitiesByProduct = new LinkedHashMap<>();
         BigDecimal totalAmount = BigDecimal.ZERO;
         BigDecimal totalNetProfit = BigDecimal.ZERO;
 
-        // 2. VERIFICAR ESTOQUE ANTES DE PROCESSAR A VENDA
-        for (SaleCreateDTO.SaleItemCreateDTO itemDto : dto.items()) {
-            Product product = productRepository.findByIdAndOwner(itemDto.productId(), owner)
-                    .orElseThrow(() -> new RuntimeException("Produto não encontrado."));
-            
-            // ✅ VERIFICAR SE HÁ ESTOQUE DISPONÍVEL
-            if (!inventoryService.hasAvailableStock(itemDto.productId(), itemDto.quantity())) {
-                throw new RuntimeException("Estoque insuficiente para o produto: " + product.getName() + 
-                    ". Disponível: " + inventoryService.getAvailableStock(itemDto.productId()) + 
-                    ", Solicitado: " + itemDto.quantity());
+        // 2. Carrega os produtos do pedido inteiro (1 consulta, não 1 por item); o frete vem do modelo de custos
+        Set<UUID> productIds = dto.items().stream()
+                .map(SaleCreateDTO.SaleItemCreateDTO::productId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<UUID, Product> products = productRepository.findByOwnerAndIdIn(owner, productIds).stream()
+                .collect(Collectors.toMap(Product::getId, p -> p));
+        for (UUID productId : productIds) {
+            if (!products.containsKey(productId)) {
+                throw new ResourceNotFoundException("Produto", productId);
             }
         }
-        
-        // 3. Processa cada item da venda
+        Map<UUID, BigDecimal> freightUnitByProduct = latestFreightUnitCosts(owner, productIds);
+
+        // 3. Processa cada item da venda (custo do produto no momento da venda)
         for (SaleCreateDTO.SaleItemCreateDTO itemDto : dto.items()) {
-            Product product = productRepository.findByIdAndOwner(itemDto.productId(), owner)
-                    .orElseThrow(() -> new RuntimeException("Produto não encontrado."));
-
-            // 4. CALCULA O CUSTO DO PRODUTO NO MOMENTO DA VENDA (SNAPSHOT)
-            // Esta lógica é uma simplificação do PricingSimulationService
-            BigDecimal freightCostUnit = freightBatchRepository.findFirstByProductOrderByCreatedAtDesc(product)
-                .map(batch -> batch.getFreightTotal().divide(BigDecimal.valueOf(batch.getBatchSize()), MC))
-                .orElse(BigDecimal.ZERO);
-            BigDecimal directCostUnit = product.getDefaultPurchaseCost()
-                .add(product.getDefaultPackagingCost())
-                .add(product.getDefaultOtherVariableCost())
-                .add(freightCostUnit);
-
-            // Custo total unitário (sem rateio de fixos para o lucro da venda)
-            BigDecimal unitCostAtSale = directCostUnit; // Decisão: lucro da venda não considera custo fixo
-            BigDecimal itemProfit = itemDto.unitPrice().subtract(unitCostAtSale);
-            BigDecimal totalItemProfit = itemProfit.multiply(BigDecimal.valueOf(itemDto.quantity()));
-
-            SaleItem saleItem = SaleItem.builder()
-                    .sale(sale)
-                    .product(product)
-                    .quantity(itemDto.quantity())
-                    .unitPrice(itemDto.unitPrice())
-                    .unitCostAtSale(unitCostAtSale)
-                    .netProfit(totalItemProfit)
-                    .build();
+            Product product = products.get(itemDto.productId());
+            SaleItem saleItem = buildItem(sale, product, itemDto.quantity(), itemDto.unitPrice(),
+                    freightUnitByProduct.getOrDefault(product.getId(), BigDecimal.ZERO));
             
             saleItems.add(saleItem);
+            quantitiesByProduct.merge(product.getId(), itemDto.quantity(), Integer::sum);
             totalAmount = totalAmount.add(itemDto.unitPrice().multiply(BigDecimal.valueOf(itemDto.quantity())));
-            totalNetProfit = totalNetProfit.add(totalItemProfit);
+            totalNetProfit = totalNetProfit.add(saleItem.getNetProfit());
         }
 
         sale.setItems(saleItems);
         sale.setTotalAmount(totalAmount);
         sale.setTotalNetProfit(totalNetProfit);
 
+        // Itens inseridos em lote pelo Hibernate (hibernate.jdbc.batch_size; ids UUID gerados na aplicação)
         Sale savedSale = saleRepository.save(sale);
+        salesRollupService.record(savedSale);
         
-        // 5. ✅ DAR BAIXA NO ESTOQUE APÓS SALVAR A VENDA
-        for (SaleCreateDTO.SaleItemCreateDTO itemDto : dto.items()) {
-            inventoryService.adjustStock(
-                itemDto.productId(), 
-                itemDto.quantity(), 
-                "OUT", 
-                "Venda registrada - ID: " + savedSale.getId(),
-                "Baixa automática de estoque pela venda"
-            );
-        }
+        // 4. ✅ BAIXA ATÔMICA DO ESTOQUE: um único UPDATE condicional para todos os itens.
+        // Sem estoque em algum produto, lança InsufficientStockException e nada é gravado.
+        // Reservas informadas são consumidas no mesmo comando
+        inventoryService.decrementStock(
+            quantitiesByProduct,
+            dto.reservationIds(),
+            "Venda registrada - ID: " + savedSale.getId(),
+            "Baixa automática de estoque pela venda",
+            owner
+        );
         
         return savedSale;
     }
     
+    /**
+     * Frete unitário (último lote) de cada produto, lido do modelo de custos em cache do owner.
+     */
+    public Map<UUID, BigDecimal> latestFreightUnitCosts(User owner, Collection<UUID> productIds) {
+        Map<UUID, BigDecimal> freightUnitByProduct = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return freightUnitByProduct;
+        }
+        CostModel costModel = costModelCache.get(owner);
+        for (UUID productId : productIds) {
+            freightUnitByProduct.put(productId, costModel.freightUnitCost(productId));
+        }
+        return freightUnitByProduct;
+    }
+
+    /**
+     * Item de venda com o custo do produto no momento da venda (snapshot).
+     * Esta lógica é uma simplificação do PricingSimulationService.
+     */
+    public static SaleItem buildItem(Sale sale, Product product, int quantity, BigDecimal unitPrice,
+                                     BigDecimal freightCostUnit) {
+        BigDecimal directCostUnit = product.getDefaultPurchaseCost()
+            .add(product.getDefaultPackagingCost())
+            .add(product.getDefaultOtherVariableCost())
+            .add(freightCostUnit);
+
+        // Custo total unitário (sem rateio de fixos para o lucro da venda)
+        BigDecimal unitCostAtSale = directCostUnit; // Decisão: lucro da venda não considera custo fixo
+        BigDecimal itemProfit = unitPrice.subtract(unitCostAtSale);
+        BigDecimal totalItemProfit = itemProfit.multiply(BigDecimal.valueOf(quantity));
+
+        return SaleItem.builder()
+                .sale(sale)
+                .product(product)
+                .quantity(quantity)
+                .unitPrice(unitPrice)
+                .unitCostAtSale(unitCostAtSale)
+                .netProfit(totalItemProfit)
+                .build();
+    }
+    
     @Transactional(readOnly = true)
     public List<ProductRankingDTO> getProductRanking(User owner) {
         List<Object[]> results = saleItemRepository.findProductRankingByOwner(owner);
@@ -152,16 +253,16 @@ public class SaleService {
         Product product = productRepository.findByIdAndOwner(productId, owner)
             .orElseThrow(() -> new RuntimeException("Produto não encontrado."));
         
-        OffsetDateTime startDate = OffsetDateTime.now().minusDays(days);
-        List<Object[]> results = saleItemRepository.findProductSalesChart(owner, productId, startDate);
-        
-        List<ProductSalesChartDTO.DataPoint> dataPoints = results.stream()
-            .map(row -> new ProductSalesChartDTO.DataPoint(
-                (LocalDate) row[0],
-                ((Number) row[1]).longValue(),
-                (BigDecimal) row[2],
-                (BigDecimal) row[3],
-                ((Number) row[4]).intValue()
+        // Lê do rollup diário: custo proporcional ao número de dias, não ao de vendas
+        LocalDate startDate = LocalDate.now(SalesRollupService.zone()).minusDays(days);
+        List<ProductSalesChartDTO.DataPoint> dataPoints = salesDailyRollupRepository
+            .findProductDays(owner.getId(), productId, startDate).stream()
+            .map(day -> new ProductSalesChartDTO.DataPoint(
+                day.getId().getSaleDay(),
+                day.getQuantity(),
+                day.getRevenue(),
+                day.getNetProfit(),
+                day.getSaleCount()
             ))
             .collect(Collectors.toList());
         
@@ -0,0 +1,163 @@
+package com.precificapro.service;
+
+import com.precificapro.domain.model.Sale;
+import com.precificapro.domain.model.SaleItem;
+import com.precificapro.domain.repository.SalesDailyRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Mantém a tabela sales_daily_rollup (totais por owner/produto/dia) usada pelos gráficos.
+ *
+ * - Incremental: cada venda soma seus itens no dia corrente, na mesma transação da venda.
+ * - Rebuild: recalcula um owner a partir de sales/sale_items (backfill e reconciliação).
+ *
+ * O "dia" é a data da venda no fuso da JVM, o mesmo usado pelos gráficos.
+ */
+@Service
+@Slf4j
+public class SalesRollupService {
+
+    /** Data inicial do rebuild completo (anterior a qualquer venda). */
+    public static final LocalDate FULL_REBUILD_FROM = LocalDate.of(2000, 1, 1);
+
+    private final SalesDailyRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${sales.rollup.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Value("${sales.rollup.reconcile-days:2}")
+    private int reconcileDays;
+
+    public SalesRollupService(SalesDailyRollupRepository rollupRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public static ZoneId zone() {
+        return ZoneId.systemDefault();
+    }
+
+    public static LocalDate saleDay(OffsetDateTime saleDate) {
+        return saleDate.atZoneSameInstant(zone()).toLocalDate();
+    }
+
+    /**
+     * Soma a venda ao rollup em um único comando. Deve rodar dentro da transação que grava
+     * a venda. Itens repetidos do mesmo produto contam como uma única venda daquele produto.
+     */
+    public void record(Sale sale) {
+        Map<UUID, ProductTotals> byProduct = new LinkedHashMap<>();
+        for (SaleItem item : sale.getItems()) {
+            byProduct.computeIfAbsent(item.getProduct().getId(), id -> new ProductTotals())
+                    .add(item);
+        }
+
+        int size = byProduct.size();
+        UUID[] productIds = new UUID[size];
+        Long[] quantities = new Long[size];
+        BigDecimal[] revenues = new BigDecimal[size];
+        BigDecimal[] netProfits = new BigDecimal[size];
+        int i = 0;
+        for (Map.Entry<UUID, ProductTotals> entry : byProduct.entrySet()) {
+            productIds[i] = entry.getKey();
+            quantities[i] = entry.getValue().quantity;
+            revenues[i] = entry.getValue().revenue;
+            netProfits[i] = entry.getValue().netProfit;
+            i++;
+        }
+        rollupRepository.lockOwnerForIncrement(sale.getOwner().getId());
+        rollupRepository.increment(sale.getOwner().getId(), saleDay(sale.getSaleDate()),
+                productIds, quantities, revenues, netProfits);
+    }
+
+    /**
+     * Recalcula o rollup de um owner a partir de {@code from} (inclusive) em uma transação.
+     *
+     * @return quantidade de linhas (produto/dia) geradas
+     */
+    public int rebuild(UUID ownerId, LocalDate from) {
+        Integer rows = transactionTemplate.execute(status -> {
+            rollupRepository.lockOwnerForRebuild(ownerId);
+            rollupRepository.deleteFrom(ownerId, from);
+            return rollupRepository.rebuildFrom(ownerId, zone().getId(), from.atStartOfDay(zone()).toOffsetDateTime());
+        });
+        return rows != null ? rows : 0;
+    }
+
+    /**
+     * Backfill na subida: só owners com vendas e sem nenhuma linha no rollup (primeiro deploy,
+     * ou rebuild interrompido — cada owner é reconstruído em sua própria transação).
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        List<UUID> owners = rollupRepository.findOwnerIdsWithoutRollup();
+        if (owners.isEmpty()) {
+            return;
+        }
+        log.info("Backfill do rollup diário de vendas: {} usuário(s)", owners.size());
+        long start = System.currentTimeMillis();
+        for (UUID ownerId : owners) {
+            try {
+                rebuild(ownerId, FULL_REBUILD_FROM);
+            } catch (Exception e) {
+                log.error("Falha no backfill do rollup do usuário {}: {}", ownerId, e.getMessage());
+            }
+        }
+        log.info("Backfill do rollup concluído em {} ms", System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Reconciliação diária dos últimos dias: corrige eventuais divergências do incremental.
+     */
+    @Scheduled(cron = "${sales.rollup.reconcile-cron:0 30 2 * * *}")
+    public void reconcileRecentDays() {
+        LocalDate from = LocalDate.now(zone()).minusDays(reconcileDays);
+        List<UUID> owners = rollupRepository.findOwnerIdsWithSalesSince(from.atStartOfDay(zone()).toOffsetDateTime());
+        for (UUID ownerId : owners) {
+            try {
+                rebuild(ownerId, from);
+            } catch (Exception e) {
+                log.error("Falha na reconciliação do rollup do usuário {}: {}", ownerId, e.getMessage());
+            }
+        }
+        log.info("Rollup diário reconciliado desde {} para {} usuário(s)", from, owners.size());
+    }
+
+    /** Totais de um produto dentro de uma venda, na mesma escala gravada em sale_items. */
+    private static final class ProductTotals {
+        private long quantity;
+        private BigDecimal revenue = BigDecimal.ZERO;
+        private BigDecimal netProfit = BigDecimal.ZERO;
+
+        void add(SaleItem item) {
+            quantity += item.getQuantity();
+            revenue = revenue.add(item.getUnitPrice().setScale(2, RoundingMode.HALF_UP)
+                    .multiply(BigDecimal.valueOf(item.getQuantity())));
+            netProfit = netProfit.add(item.getNetProfit().setScale(2, RoundingMode.HALF_UP));
+        }
+    }
+}
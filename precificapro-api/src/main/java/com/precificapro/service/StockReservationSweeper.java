@@ -0,0 +1,64 @@
+package com.precificapro.service;
+
+import com.precificapro.domain.repository.StockReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Libera as reservas de estoque vencidas (carrinhos abandonados).
+ *
+ * A cada inventory.reservations.sweep-interval-ms expira as vencidas em comandos de até
+ * inventory.reservations.sweep-batch-size reservas (ver StockReservationRepository#expireDue);
+ * com o padrão, 100 mil reservas vencidas saem em uma única passada pelo índice.
+ */
+@Component
+@Slf4j
+public class StockReservationSweeper {
+
+    private final InventoryService inventoryService;
+    private final StockReservationRepository reservationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int retentionDays;
+
+    public StockReservationSweeper(InventoryService inventoryService,
+                                   StockReservationRepository reservationRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${inventory.reservations.sweep-batch-size:100000}") int batchSize,
+                                   @Value("${inventory.reservations.retention-days:30}") int retentionDays) {
+        this.inventoryService = inventoryService;
+        this.reservationRepository = reservationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.retentionDays = retentionDays;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservations.sweep-interval-ms:30000}")
+    public void expireDueReservations() {
+        long start = System.currentTimeMillis();
+        int total = 0;
+        int expired;
+        do {
+            expired = inventoryService.expireDueReservations(batchSize);
+            total += expired;
+        } while (expired == batchSize);
+        if (total > 0) {
+            log.info("⏰ {} reserva(s) de estoque expirada(s) em {} ms", total, System.currentTimeMillis() - start);
+        }
+    }
+
+    @Scheduled(cron = "${inventory.reservations.cleanup-cron:0 45 4 * * *}")
+    public void deleteOldReservations() {
+        Integer deleted = transactionTemplate.execute(status ->
+                reservationRepository.deleteResolvedBefore(OffsetDateTime.now().minusDays(retentionDays)));
+        if (deleted != null && deleted > 0) {
+            log.info("🧹 {} reserva(s) de estoque encerrada(s) removida(s)", deleted);
+        }
+    }
+}
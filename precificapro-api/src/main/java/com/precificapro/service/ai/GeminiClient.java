@@ -0,0 +1,195 @@
+package com.precificapro.service.ai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Cliente HTTP assíncrono da API do Gemini.
+ *
+ * Um único {@link HttpClient} (pool de conexões HTTP/2 reaproveitado entre chamadas), com
+ * timeout de conexão e de requisição, e nova tentativa com espera para 429/5xx. Nenhum
+ * método bloqueia o thread chamador: as respostas chegam por {@link CompletableFuture}.
+ * A chave vai no header x-goog-api-key, não na URL, para não aparecer em logs.
+ */
+@Component
+@Slf4j
+public class GeminiClient {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String apiKey;
+    private final String baseUrl;
+    private final String model;
+    private final Duration requestTimeout;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+
+    public GeminiClient(ObjectMapper objectMapper,
+                        @Value("${gemini.api.key:}") String apiKey,
+                        @Value("${gemini.api.base-url:https://generativelanguage.googleapis.com/v1beta}") String baseUrl,
+                        @Value("${gemini.model:gemini-2.5-flash}") String model,
+                        @Value("${gemini.timeout.connect-ms:3000}") long connectTimeoutMs,
+                        @Value("${gemini.timeout.request-ms:30000}") long requestTimeoutMs,
+                        @Value("${gemini.retry.max-attempts:2}") int maxAttempts,
+                        @Value("${gemini.retry.backoff-ms:500}") long retryBackoffMs) {
+        this.objectMapper = objectMapper;
+        this.apiKey = apiKey;
+        this.baseUrl = baseUrl;
+        this.model = model;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMs = retryBackoffMs;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+    }
+
+    public boolean isConfigured() {
+        return apiKey != null && !apiKey.isBlank();
+    }
+
+    /**
+     * Resposta completa do modelo para o prompt.
+     */
+    public CompletableFuture<String> generate(String prompt) {
+        HttpRequest request = request(":generateContent", prompt);
+        return send(request, 1).thenApply(response -> extractText(readTree(response.body())));
+    }
+
+    /**
+     * Resposta em partes (streamGenerateContent com SSE): cada trecho de texto é entregue a
+     * {@code onChunk} assim que chega. O future completa com o texto inteiro.
+     */
+    public CompletableFuture<String> stream(String prompt, Consumer<String> onChunk) {
+        HttpRequest request = request(":streamGenerateContent?alt=sse", prompt);
+        SseTextSubscriber subscriber = new SseTextSubscriber(onChunk);
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(subscriber))
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new GeminiException("Gemini API retornou status " + response.statusCode());
+                    }
+                    return subscriber.text();
+                });
+    }
+
+    private HttpRequest request(String method, String prompt) {
+        Map<String, Object> body = Map.of(
+                "contents", List.of(Map.of("parts", List.of(Map.of("text", prompt))))
+        );
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/models/" + model + method))
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .header("x-goog-api-key", apiKey)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(HttpRequest request, int attempt) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    boolean retryable = (error != null) || response.statusCode() == 429 || response.statusCode() >= 500;
+                    if (retryable && attempt < maxAttempts) {
+                        log.warn("Gemini API falhou (tentativa {}/{}): {}", attempt, maxAttempts,
+                                (error != null) ? error.getMessage() : "status " + response.statusCode());
+                        return CompletableFuture.supplyAsync(() -> null,
+                                        CompletableFuture.delayedExecutor(retryBackoffMs * attempt, TimeUnit.MILLISECONDS))
+                                .thenCompose(ignored -> send(request, attempt + 1));
+                    }
+                    if (error != null) {
+                        return CompletableFuture.<HttpResponse<String>>failedFuture(unwrap(error));
+                    }
+                    if (response.statusCode() != 200) {
+                        return CompletableFuture.<HttpResponse<String>>failedFuture(
+                                new GeminiException("Gemini API retornou status " + response.statusCode()));
+                    }
+                    return CompletableFuture.completedFuture(response);
+                })
+                .thenCompose(future -> future);
+    }
+
+    private JsonNode readTree(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (IOException e) {
+            throw new GeminiException("Resposta inválida da Gemini API", e);
+        }
+    }
+
+    /** Concatena o texto das partes do primeiro candidato (vazio se não houver). */
+    static String extractText(JsonNode response) {
+        StringBuilder text = new StringBuilder();
+        for (JsonNode part : response.path("candidates").path(0).path("content").path("parts")) {
+            text.append(part.path("text").asText(""));
+        }
+        return text.toString();
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return (error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error;
+    }
+
+    /**
+     * Lê as linhas do SSE ("data: {json}") à medida que chegam e repassa o texto de cada evento.
+     */
+    private final class SseTextSubscriber implements Flow.Subscriber<String> {
+
+        private final Consumer<String> onChunk;
+        private final StringBuilder text = new StringBuilder();
+
+        SseTextSubscriber(Consumer<String> onChunk) {
+            this.onChunk = onChunk;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (!line.startsWith("data:")) {
+                return;
+            }
+            String chunk = extractText(readTree(line.substring(5).trim()));
+            if (!chunk.isEmpty()) {
+                text.append(chunk);
+                onChunk.accept(chunk);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            log.error("Erro no streaming da Gemini API: {}", throwable.getMessage());
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        String text() {
+            return text.toString();
+        }
+    }
+}
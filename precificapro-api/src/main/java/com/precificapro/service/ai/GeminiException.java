@@ -0,0 +1,15 @@
+package com.precificapro.service.ai;
+
+/**
+ * Falha ao chamar a Gemini API (status de erro, resposta inválida ou tentativas esgotadas).
+ */
+public class GeminiException extends RuntimeException {
+
+    public GeminiException(String message) {
+        super(message);
+    }
+
+    public GeminiException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
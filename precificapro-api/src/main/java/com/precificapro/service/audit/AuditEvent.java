@@ -0,0 +1,35 @@
+package com.precificapro.service.audit;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Registro de auditoria já montado no thread da requisição (IP e User-Agent só existem lá),
+ * pronto para ser gravado em lote pelo {@link AuditLogWriter}.
+ *
+ * Os textos são cortados na largura das colunas de audit_logs (V11): um User-Agent enorme
+ * enviado pelo cliente não pode fazer o INSERT falhar.
+ */
+public record AuditEvent(
+        UUID userId,
+        String action,
+        String entityType,
+        String entityId,
+        String details,
+        String ipAddress,
+        String userAgent,
+        OffsetDateTime timestamp
+) {
+
+    public AuditEvent {
+        action = truncate(action, 100);
+        entityType = truncate(entityType, 100);
+        entityId = truncate(entityId, 100);
+        ipAddress = truncate(ipAddress, 100);
+        userAgent = truncate(userAgent, 500);
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return (value != null && value.length() > maxLength) ? value.substring(0, maxLength) : value;
+    }
+}
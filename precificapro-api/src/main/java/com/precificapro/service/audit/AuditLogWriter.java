@@ -0,0 +1,257 @@
+package com.precificapro.service.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gravação assíncrona e em lote dos registros de auditoria.
+ *
+ * Os eventos entram em um buffer circular limitado e sem locks ({@link BoundedMpmcQueue});
+ * um único thread dedicado ("audit-writer") os grava com INSERT em lote (JDBC batch) a cada
+ * audit.flush.max-batch eventos ou audit.flush.interval-ms, o que vier primeiro. Com o
+ * buffer cheio vale audit.buffer.overflow-policy, e o chamador nunca recebe exceção.
+ * No desligamento o buffer é esvaziado antes de o DataSource ser fechado e depois de o
+ * servidor web parar de atender (ver {@link #getPhase()}).
+ *
+ * Métricas: audit.queue.depth, audit.flush.latency, audit.events.written,
+ * audit.events.dropped{reason=overflow|shutdown|error}.
+ */
+@Component
+@Slf4j
+public class AuditLogWriter implements SmartLifecycle {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO audit_logs (user_id, action, entity_type, entity_id, details, ip_address, user_agent, timestamp)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BoundedMpmcQueue<AuditEvent> queue;
+    private final int maxBatch;
+    private final long flushIntervalNanos;
+    private final AuditOverflowPolicy overflowPolicy;
+    private final long offerTimeoutNanos;
+
+    private final Timer flushLatency;
+    private final Counter written;
+    private final Counter droppedOverflow;
+    private final Counter droppedShutdown;
+    private final Counter droppedError;
+
+    private volatile boolean running;
+    private volatile Thread writerThread;
+
+    public AuditLogWriter(DataSource dataSource,
+                          MeterRegistry meterRegistry,
+                          @Value("${audit.buffer.capacity:8192}") int capacity,
+                          @Value("${audit.flush.max-batch:500}") int maxBatch,
+                          @Value("${audit.flush.interval-ms:200}") long flushIntervalMs,
+                          @Value("${audit.buffer.overflow-policy:DROP_NEWEST}") AuditOverflowPolicy overflowPolicy,
+                          @Value("${audit.buffer.offer-timeout-ms:50}") long offerTimeoutMs) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.queue = new BoundedMpmcQueue<>(capacity);
+        this.maxBatch = Math.max(1, maxBatch);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushIntervalMs));
+        this.overflowPolicy = overflowPolicy;
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, offerTimeoutMs));
+
+        Gauge.builder("audit.queue.depth", queue, BoundedMpmcQueue::size)
+                .description("Eventos de auditoria aguardando gravação")
+                .register(meterRegistry);
+        this.flushLatency = Timer.builder("audit.flush.latency")
+                .description("Tempo de cada INSERT em lote de auditoria")
+                .register(meterRegistry);
+        this.written = Counter.builder("audit.events.written").register(meterRegistry);
+        this.droppedOverflow = dropped(meterRegistry, "overflow");
+        this.droppedShutdown = dropped(meterRegistry, "shutdown");
+        this.droppedError = dropped(meterRegistry, "error");
+    }
+
+    private static Counter dropped(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("audit.events.dropped")
+                .description("Eventos de auditoria descartados")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Enfileira o evento sem bloquear (exceto na política BLOCK, por tempo limitado).
+     * Retorna false se o evento foi descartado.
+     */
+    public boolean submit(AuditEvent event) {
+        if (!running) {
+            droppedShutdown.increment();
+            return false;
+        }
+        boolean accepted = queue.offer(event) || handleOverflow(event);
+        if (!accepted) {
+            droppedOverflow.increment();
+        } else if (queue.size() >= maxBatch) {
+            LockSupport.unpark(writerThread); // lote cheio: não espera o intervalo
+        }
+        return accepted;
+    }
+
+    private boolean handleOverflow(AuditEvent event) {
+        switch (overflowPolicy) {
+            case DROP_OLDEST -> {
+                // Abre espaço descartando o mais antigo; com concorrência pode ainda não caber
+                for (int attempt = 0; attempt < 3; attempt++) {
+                    if (queue.poll() != null) {
+                        droppedOverflow.increment();
+                    }
+                    if (queue.offer(event)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            case BLOCK -> {
+                LockSupport.unpark(writerThread);
+                long deadline = System.nanoTime() + offerTimeoutNanos;
+                while (System.nanoTime() < deadline) {
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(200));
+                    if (queue.offer(event)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            default -> {
+                return false;
+            }
+        }
+    }
+
+    private void runLoop() {
+        List<AuditEvent> batch = new ArrayList<>(maxBatch);
+        long batchStarted = 0;
+        while (running || queue.size() > 0) {
+            AuditEvent event = queue.poll();
+            if (event != null) {
+                if (batch.isEmpty()) {
+                    batchStarted = System.nanoTime();
+                }
+                batch.add(event);
+                if (batch.size() >= maxBatch) {
+                    flush(batch);
+                }
+                continue;
+            }
+            if (!batch.isEmpty() && (!running || System.nanoTime() - batchStarted >= flushIntervalNanos)) {
+                flush(batch);
+                continue;
+            }
+            // Buffer vazio: dorme até o prazo do lote atual (ou um intervalo inteiro)
+            long waitNanos = batch.isEmpty()
+                    ? flushIntervalNanos
+                    : flushIntervalNanos - (System.nanoTime() - batchStarted);
+            if (running && waitNanos > 0) {
+                LockSupport.parkNanos(this, waitNanos);
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<AuditEvent> batch) {
+        long start = System.nanoTime();
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> bind(ps, event));
+            written.increment(batch.size());
+            log.debug("Audit logs gravados em lote: {}", batch.size());
+        } catch (Exception e) {
+            // O lote é desfeito por inteiro; grava um a um para só o evento problemático se perder
+            log.warn("Falha no lote de {} audit logs, gravando individualmente: {}", batch.size(), e.getMessage());
+            flushOneByOne(batch);
+        } finally {
+            flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batch.clear();
+        }
+    }
+
+    private void flushOneByOne(List<AuditEvent> batch) {
+        for (AuditEvent event : batch) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, event));
+                written.increment();
+            } catch (Exception e) {
+                droppedError.increment();
+                log.error("Erro ao gravar audit log {} - {} - {}", event.entityType(), event.action(), event.entityId(), e);
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement ps, AuditEvent event) throws SQLException {
+        ps.setObject(1, event.userId());
+        ps.setString(2, event.action());
+        ps.setString(3, event.entityType());
+        ps.setString(4, event.entityId());
+        ps.setString(5, event.details());
+        ps.setString(6, event.ipAddress());
+        ps.setString(7, event.userAgent());
+        ps.setTimestamp(8, Timestamp.from(event.timestamp().toInstant()));
+    }
+
+    // === CICLO DE VIDA ===
+
+    @Override
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::runLoop, "audit-writer");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+        log.info("Gravação de auditoria em lote iniciada (buffer: {}, lote: {}, política: {})",
+                queue.capacity(), maxBatch, overflowPolicy);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = writerThread;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(20));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int pending = queue.size();
+        if (pending > 0) {
+            droppedShutdown.increment(pending);
+            log.warn("⚠️ {} audit logs não gravados no desligamento", pending);
+        }
+        log.info("Gravação de auditoria em lote encerrada");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Fase abaixo da do servidor web (DEFAULT_PHASE - 2048): sobe antes dele e para depois,
+     * então eventos de requisições ainda em andamento no desligamento entram no buffer.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
@@ -0,0 +1,11 @@
+package com.precificapro.service.audit;
+
+/**
+ * O que fazer quando o buffer de auditoria está cheio. Nenhuma política lança exceção
+ * para o chamador: auditoria nunca derruba a operação de negócio.
+ */
+public enum AuditOverflowPolicy {
+    DROP_NEWEST,   // descarta o evento que está chegando
+    DROP_OLDEST,   // descarta o evento mais antigo do buffer para abrir espaço
+    BLOCK          // espera até audit.buffer.offer-timeout-ms por espaço; depois descarta o novo
+}
@@ -0,0 +1,35 @@
+package com.precificapro.service.backup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Onde os arquivos de backup ficam guardados.
+ *
+ * O destino é escolhido por backup.destination (google-drive ou local). O conteúdo chega
+ * como stream de tamanho desconhecido (a saída do pg_dump), então as implementações não
+ * podem depender de Content-Length nem reler o arquivo.
+ */
+public interface BackupDestination {
+
+    /** Nome curto do destino, exibido no status do serviço. */
+    String name();
+
+    /** false quando o destino não está configurado (ex.: sem credenciais do Google Drive). */
+    boolean isAvailable();
+
+    /**
+     * Grava o conteúdo até o fim do stream e retorna a chave do arquivo no destino
+     * (guardada em BackupMetadata.s3Key).
+     */
+    String upload(String filename, String contentType, InputStream content) throws IOException;
+
+    void download(String key, OutputStream out) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /** Descrição dos arquivos cujo nome começa com o prefixo (para conferir com os metadados). */
+    List<String> list(String prefix) throws IOException;
+}
@@ -0,0 +1,433 @@
+package com.precificapro.service.backup;
+
+import com.precificapro.domain.model.BackupMetadata.BackupFormat;
+import com.precificapro.domain.model.BackupMetadata.BackupStatus;
+import com.precificapro.domain.model.BackupMetadata.RestoreStatus;
+import com.precificapro.domain.repository.BackupMetadataRepository;
+import com.precificapro.exception.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Executa restores em segundo plano (@Async), gravando fase e progresso no BackupMetadata
+ * (consultados em GET /api/backups/{id}/restore).
+ *
+ * - Completo, formato custom: download para arquivo temporário (pg_restore -j precisa de um
+ *   arquivo, não de pipe) e pg_restore -j N --clean. O catálogo de backups (backup_metadata)
+ *   fica fora da lista do pg_restore, então o progresso continua sendo gravado e os backups
+ *   feitos depois do restaurado não somem.
+ * - Seletivo (só algumas tabelas, opcionalmente de um owner): download em streaming direto no
+ *   pg_restore --data-only, cuja saída vai para o psql via {@link SelectiveRestoreScript}.
+ *   Nada toca o disco e nada é confirmado antes do checksum ser conferido.
+ * - Backups PLAIN / PLAIN_GZIP antigos: psql, como antes.
+ */
+@Component
+@Slf4j
+public class BackupRestoreRunner {
+
+    // Entradas do TOC do catálogo de backups: tabela, sequence, constraints, comentários e índices
+    private static final Pattern CATALOG_TOC_ENTRY = Pattern.compile("\\b(backup_metadata|idx_backup_)");
+    // Linhas do pg_restore --verbose que marcam um item concluído (serial e paralelo)
+    private static final Pattern RESTORE_STEP = Pattern.compile("pg_restore: (creating |processing data |finished item )");
+    private static final Pattern TABLE_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final Set<String> PROTECTED_TABLES = Set.of("backup_metadata", "flyway_schema_history");
+    private static final List<RestoreStatus> ACTIVE = List.of(RestoreStatus.QUEUED, RestoreStatus.DOWNLOADING, RestoreStatus.RESTORING);
+    private static final long PROGRESS_INTERVAL_MS = 2_000;
+
+    private final BackupDestination backupDestination;
+    private final BackupMetadataRepository backupMetadataRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PostgresConnection connection;
+
+    public BackupRestoreRunner(BackupDestination backupDestination,
+                               BackupMetadataRepository backupMetadataRepository,
+                               DataSource dataSource,
+                               @Value("${spring.datasource.url}") String dbUrl,
+                               @Value("${spring.datasource.username}") String dbUsername,
+                               @Value("${spring.datasource.password}") String dbPassword) {
+        this.backupDestination = backupDestination;
+        this.backupMetadataRepository = backupMetadataRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.connection = PostgresConnection.fromJdbcUrl(dbUrl, dbUsername, dbPassword);
+    }
+
+    /** Restores que estavam rodando quando a aplicação parou não vão terminar. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedRestores() {
+        int interrupted = backupMetadataRepository.failActiveRestores(
+                ACTIVE, RestoreStatus.FAILED, "Restore interrompido pelo reinício da aplicação");
+        if (interrupted > 0) {
+            log.warn("⚠️ {} restore(s) interrompido(s) marcado(s) como FAILED", interrupted);
+        }
+    }
+
+    /**
+     * Marca o backup como QUEUED se nenhum outro restore estiver ativo.
+     *
+     * @return false se já houver um restore em andamento
+     */
+    public boolean claim(Long backupId, String tables) {
+        return backupMetadataRepository.claimRestore(
+                backupId, RestoreStatus.QUEUED, ACTIVE, LocalDateTime.now(), tables) > 0;
+    }
+
+    /**
+     * Valida as tabelas pedidas e lê colunas, chave primária e dependências no catálogo.
+     */
+    public SelectiveRestoreScript prepareSelective(List<String> requested, UUID ownerId) {
+        Map<String, SelectiveRestoreScript.Table> tables = new LinkedHashMap<>();
+        for (String name : new LinkedHashSet<>(requested)) {
+            if (name == null || !TABLE_NAME.matcher(name).matches() || PROTECTED_TABLES.contains(name)) {
+                throw new BusinessException("Tabela inválida para restore: " + name);
+            }
+            List<String> columns = jdbcTemplate.queryForList("""
+                    SELECT column_name FROM information_schema.columns
+                    WHERE table_schema = 'public' AND table_name = ? AND is_generated = 'NEVER'
+                    ORDER BY ordinal_position
+                    """, String.class, name);
+            if (columns.isEmpty()) {
+                throw new BusinessException("Tabela não encontrada: " + name);
+            }
+            List<String> primaryKey = jdbcTemplate.queryForList("""
+                    SELECT a.attname FROM pg_index i
+                    JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = ANY(i.indkey)
+                    WHERE i.indrelid = CAST(? AS regclass) AND i.indisprimary
+                    """, String.class, "public." + name);
+            if (primaryKey.isEmpty()) {
+                throw new BusinessException("Tabela sem chave primária não pode ser restaurada seletivamente: " + name);
+            }
+            SelectiveRestoreScript.Table table = new SelectiveRestoreScript.Table(name, columns, primaryKey);
+            if (ownerId != null && !table.hasOwner()) {
+                throw new BusinessException("Tabela sem owner_id não pode ser filtrada por owner: " + name);
+            }
+            tables.put(name, table);
+        }
+        if (tables.isEmpty()) {
+            throw new BusinessException("Informe ao menos uma tabela");
+        }
+        return new SelectiveRestoreScript(referencedFirst(tables), ownerId);
+    }
+
+    /**
+     * Ordena as tabelas para que as referenciadas por FK sejam mescladas antes das que as
+     * referenciam (ex.: products antes de sales/sale_items). Mantém a ordem pedida entre as demais.
+     */
+    private List<SelectiveRestoreScript.Table> referencedFirst(Map<String, SelectiveRestoreScript.Table> tables) {
+        Map<String, Set<String>> parents = new LinkedHashMap<>();
+        tables.keySet().forEach(name -> parents.put(name, new LinkedHashSet<>()));
+        jdbcTemplate.query("""
+                SELECT child.relname AS child, parent.relname AS parent
+                FROM pg_constraint c
+                JOIN pg_class child ON child.oid = c.conrelid
+                JOIN pg_class parent ON parent.oid = c.confrelid
+                WHERE c.contype = 'f' AND c.connamespace = 'public'::regnamespace
+                """, rs -> {
+            String child = rs.getString("child");
+            String parent = rs.getString("parent");
+            if (!child.equals(parent) && parents.containsKey(child) && parents.containsKey(parent)) {
+                parents.get(child).add(parent);
+            }
+        });
+
+        List<SelectiveRestoreScript.Table> ordered = new ArrayList<>();
+        Set<String> placed = new LinkedHashSet<>();
+        while (placed.size() < tables.size()) {
+            String next = parents.entrySet().stream()
+                    .filter(e -> !placed.contains(e.getKey()) && placed.containsAll(e.getValue()))
+                    .map(Map.Entry::getKey)
+                    .findFirst()
+                    // Ciclo de FKs: segue a ordem pedida
+                    .orElseGet(() -> parents.keySet().stream().filter(n -> !placed.contains(n)).findFirst().orElseThrow());
+            placed.add(next);
+            ordered.add(tables.get(next));
+        }
+        return ordered;
+    }
+
+    @Async
+    public void run(RestoreJob job) {
+        Progress progress = new Progress(job.backupId());
+        log.info("Starting restore of backup: {} ({})", job.filename(),
+                job.script() == null ? "completo" : "tabelas " + job.script().tableNames());
+        try {
+            if (job.script() != null) {
+                restoreSelected(job, progress);
+            } else if (job.format() == BackupFormat.CUSTOM) {
+                restoreFull(job, progress);
+            } else {
+                restorePlain(job, progress);
+            }
+            backupMetadataRepository.finishRestore(job.backupId(), RestoreStatus.COMPLETED,
+                    BackupStatus.RESTORED, LocalDateTime.now());
+            log.info("Backup restored successfully: {}", job.filename());
+
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("Restore of backup {} failed: {}", job.filename(), e.getMessage(), e);
+            backupMetadataRepository.failRestore(job.backupId(), RestoreStatus.FAILED, truncate(e.getMessage()));
+        }
+    }
+
+    private void restoreFull(RestoreJob job, Progress progress) throws IOException, InterruptedException {
+        Path archive = Files.createTempFile("restore_", ".dump");
+        Path list = Files.createTempFile("restore_", ".list");
+        try {
+            try (OutputStream out = Files.newOutputStream(archive)) {
+                download(job, out, progress, RestoreStatus.DOWNLOADING);
+            }
+
+            int entries = writeRestoreList(archive, list);
+            progress.report(RestoreStatus.RESTORING, 0);
+
+            // Dumps gravados por pipe (modo streaming) não têm offsets dos blocos de dados; o
+            // pg_restore localiza os blocos lendo o arquivo, e o -j continua valendo.
+            ProcessBuilder processBuilder = connection.command("pg_restore",
+                    "--clean", "--if-exists", "--verbose",
+                    "-j", String.valueOf(job.jobs()),
+                    "-L", list.toString(),
+                    archive.toString());
+            processBuilder.redirectErrorStream(true);
+
+            Process process = processBuilder.start();
+            AtomicInteger done = new AtomicInteger();
+            ProcessLogDrain output = ProcessLogDrain.start("pg_restore", process.getInputStream(), line -> {
+                if (RESTORE_STEP.matcher(line).find()) {
+                    progress.report(RestoreStatus.RESTORING, done.incrementAndGet() * 100 / Math.max(1, entries));
+                }
+            });
+
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new IOException("pg_restore failed with exit code " + exitCode + ": " + output.tail());
+            }
+        } finally {
+            Files.deleteIfExists(archive);
+            Files.deleteIfExists(list);
+        }
+    }
+
+    /**
+     * TOC do arquivo (pg_restore -l) sem as entradas do catálogo de backups.
+     *
+     * @return número de entradas restauradas
+     */
+    private int writeRestoreList(Path archive, Path list) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder("pg_restore", "-l", archive.toString()).start();
+        ProcessLogDrain stderr = ProcessLogDrain.start("pg_restore", process.getErrorStream());
+
+        List<String> entries = new ArrayList<>();
+        try (BufferedReader toc = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = toc.readLine()) != null) {
+                if (!line.startsWith(";") && !line.isBlank() && !CATALOG_TOC_ENTRY.matcher(line).find()) {
+                    entries.add(line);
+                }
+            }
+        }
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IOException("pg_restore -l failed with exit code " + exitCode + ": " + stderr.tail());
+        }
+        Files.write(list, entries, StandardCharsets.UTF_8);
+        return entries.size();
+    }
+
+    /**
+     * download → pg_restore --data-only (stdin) → reescrita dos COPY → psql, em streaming. O COMMIT
+     * só é enviado depois que o download terminou com o checksum certo e o pg_restore saiu com 0.
+     */
+    private void restoreSelected(RestoreJob job, Progress progress) throws IOException, InterruptedException {
+        SelectiveRestoreScript script = job.script();
+
+        List<String> restoreCommand = new ArrayList<>(List.of("pg_restore", "--data-only"));
+        for (String table : script.tableNames()) {
+            restoreCommand.add("-t");
+            restoreCommand.add(table);
+        }
+        Process pgRestore = new ProcessBuilder(restoreCommand).start();
+        ProcessLogDrain restoreLog = ProcessLogDrain.start("pg_restore", pgRestore.getErrorStream());
+
+        ProcessBuilder psqlBuilder = connection.command("psql", "-q", "-v", "ON_ERROR_STOP=1");
+        psqlBuilder.redirectErrorStream(true);
+        Process psql = psqlBuilder.start();
+        ProcessLogDrain psqlLog = ProcessLogDrain.start("psql", psql.getInputStream());
+
+        // ISO-8859-1 mapeia byte a byte: os dados do COPY passam sem reinterpretar o encoding
+        Writer sql = new BufferedWriter(new OutputStreamWriter(psql.getOutputStream(), StandardCharsets.ISO_8859_1));
+        AtomicReference<IOException> copyError = new AtomicReference<>();
+        try {
+            sql.write(script.preamble());
+
+            Thread copier = Thread.ofVirtual().name("restore-copy").start(() -> {
+                try (BufferedReader dump = new BufferedReader(
+                        new InputStreamReader(pgRestore.getInputStream(), StandardCharsets.ISO_8859_1))) {
+                    script.rewrite(dump, sql);
+                } catch (IOException | RuntimeException e) {
+                    copyError.set(e instanceof IOException io ? io : new IOException(e.getMessage(), e));
+                    // psql parou: sem leitor, o pg_restore e o download ficariam bloqueados
+                    pgRestore.destroyForcibly();
+                }
+            });
+
+            try (OutputStream archive = pgRestore.getOutputStream()) {
+                download(job, archive, progress, RestoreStatus.RESTORING);
+            } catch (IOException e) {
+                copier.join();
+                throw failure("restore", copyError.get() != null ? copyError.get() : e, psqlLog);
+            }
+
+            int restoreExit = pgRestore.waitFor();
+            copier.join();
+            if (copyError.get() != null) {
+                throw failure("restore", copyError.get(), psqlLog);
+            }
+            if (restoreExit != 0) {
+                throw new IOException("pg_restore failed with exit code " + restoreExit + ": " + restoreLog.tail());
+            }
+
+            sql.write(script.epilogue());
+            sql.close();
+            int psqlExit = psql.waitFor();
+            if (psqlExit != 0) {
+                throw new IOException("psql failed with exit code " + psqlExit + ": " + psqlLog.tail());
+            }
+        } finally {
+            // Sem COMMIT enviado, matar o psql desfaz a transação
+            pgRestore.destroyForcibly();
+            if (psql.isAlive()) {
+                psql.destroyForcibly();
+            }
+        }
+    }
+
+    private void restorePlain(RestoreJob job, Progress progress) throws IOException, InterruptedException {
+        Path backupFile = Files.createTempFile("restore_", ".sql");
+        try {
+            try (OutputStream out = Files.newOutputStream(backupFile)) {
+                download(job, out, progress, RestoreStatus.DOWNLOADING);
+            }
+            progress.report(RestoreStatus.RESTORING, 0);
+
+            // SQL puro é restaurado com psql (descomprimido em streaming no stdin quando é .sql.gz)
+            ProcessBuilder processBuilder = (job.format() == BackupFormat.PLAIN_GZIP)
+                    ? connection.command("psql")
+                    : connection.command("psql", "-f", backupFile.toString());
+            processBuilder.redirectErrorStream(true);
+
+            Process process = processBuilder.start();
+            ProcessLogDrain output = ProcessLogDrain.start("psql", process.getInputStream());
+
+            if (job.format() == BackupFormat.PLAIN_GZIP) {
+                try (InputStream sql = new GZIPInputStream(Files.newInputStream(backupFile));
+                     OutputStream stdin = process.getOutputStream()) {
+                    sql.transferTo(stdin);
+                }
+            }
+
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new IOException("Database restore failed with exit code " + exitCode + ": " + output.tail());
+            }
+        } finally {
+            Files.deleteIfExists(backupFile);
+        }
+    }
+
+    /**
+     * Baixa o arquivo do destino conferindo tamanho e SHA-256 gravados no backup.
+     */
+    private void download(RestoreJob job, OutputStream target, Progress progress, RestoreStatus phase) throws IOException {
+        progress.report(phase, 0);
+        long expected = job.fileSize() != null ? job.fileSize() : 0;
+        ChecksumOutputStream out = new ChecksumOutputStream(target, bytes ->
+                progress.report(phase, expected > 0 ? (int) (bytes * 100 / expected) : 0));
+        backupDestination.download(job.key(), out);
+        out.flush();
+
+        String checksum = out.sha256Hex();
+        if (job.checksumSha256() != null && !job.checksumSha256().equals(checksum)) {
+            throw new IOException("Backup checksum mismatch for " + job.filename()
+                    + ": expected " + job.checksumSha256() + ", got " + checksum);
+        }
+    }
+
+    private static IOException failure(String step, IOException cause, ProcessLogDrain psqlLog) {
+        return new IOException(step + " failed: " + cause.getMessage() + ": " + psqlLog.tail(), cause);
+    }
+
+    private static String truncate(String message) {
+        return (message != null && message.length() > 1000) ? message.substring(0, 1000) : message;
+    }
+
+    /**
+     * Grava fase e percentual no BackupMetadata, no máximo a cada 2s por fase (o download
+     * avisa a cada bloco escrito).
+     */
+    private final class Progress {
+
+        private final Long backupId;
+        // ReentrantLock: o UPDATE roda com o lock (regra de pinning em AsyncConfig)
+        private final ReentrantLock lock = new ReentrantLock();
+        private RestoreStatus status;
+        private int percent = -1;
+        private long lastWrite;
+
+        Progress(Long backupId) {
+            this.backupId = backupId;
+        }
+
+        void report(RestoreStatus status, int percent) {
+            int clamped = Math.max(0, Math.min(99, percent)); // 100 só quando termina
+            lock.lock();
+            try {
+                long now = System.currentTimeMillis();
+                if (status == this.status && (clamped == this.percent || now - lastWrite < PROGRESS_INTERVAL_MS)) {
+                    return;
+                }
+                this.status = status;
+                this.percent = clamped;
+                this.lastWrite = now;
+                // Ainda com o lock: duas gravações fora de ordem poderiam fazer o progresso voltar
+                backupMetadataRepository.updateRestoreProgress(backupId, status, clamped);
+            } catch (RuntimeException e) {
+                // Progresso é informativo: não interrompe o restore
+                log.warn("Falha ao gravar progresso do restore {}: {}", backupId, e.getMessage());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.precificapro.service.backup;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Conta os bytes e calcula o SHA-256 do que passa pelo stream, para registrar tamanho e
+ * checksum do backup sem reler o arquivo depois do upload.
+ */
+public class ChecksumInputStream extends FilterInputStream {
+
+    private final MessageDigest digest;
+    private long size;
+
+    public ChecksumInputStream(InputStream in) {
+        super(in);
+        this.digest = sha256();
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = in.read();
+        if (b >= 0) {
+            digest.update((byte) b);
+            size++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int n = in.read(buffer, offset, length);
+        if (n > 0) {
+            digest.update(buffer, offset, n);
+            size += n;
+        }
+        return n;
+    }
+
+    /** Bytes pulados também entram no checksum. */
+    @Override
+    public long skip(long n) throws IOException {
+        byte[] buffer = new byte[8192];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (read < 0) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /** SHA-256 em hexadecimal; chamar só depois de ler o stream até o fim. */
+    public String sha256Hex() {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
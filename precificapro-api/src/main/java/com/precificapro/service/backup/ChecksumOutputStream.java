@@ -0,0 +1,49 @@
+package com.precificapro.service.backup;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.function.LongConsumer;
+
+/**
+ * Lado de escrita do {@link ChecksumInputStream}: conta os bytes e calcula o SHA-256 do que é
+ * gravado, avisando o total a cada escrita (progresso do download de um backup).
+ */
+public class ChecksumOutputStream extends FilterOutputStream {
+
+    private final MessageDigest digest = ChecksumInputStream.sha256();
+    private final LongConsumer onProgress;
+    private long size;
+
+    public ChecksumOutputStream(OutputStream out, LongConsumer onProgress) {
+        super(out);
+        this.onProgress = onProgress;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        digest.update((byte) b);
+        size++;
+        onProgress.accept(size);
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) throws IOException {
+        out.write(buffer, offset, length);
+        digest.update(buffer, offset, length);
+        size += length;
+        onProgress.accept(size);
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /** SHA-256 em hexadecimal; chamar só depois da última escrita. */
+    public String sha256Hex() {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,111 @@
+package com.precificapro.service.backup;
+
+import com.google.api.client.googleapis.media.MediaHttpUploader;
+import com.google.api.client.http.InputStreamContent;
+import com.google.api.services.drive.Drive;
+import com.google.api.services.drive.model.File;
+import com.google.api.services.drive.model.FileList;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Backups no Google Drive com upload resumable em chunks: o uploader mantém em memória
+ * só o chunk atual (backup.upload.chunk-size-mb) e, se um chunk falhar, retoma a partir do
+ * último byte confirmado pelo Drive em vez de reenviar o arquivo inteiro.
+ */
+@Component
+@ConditionalOnProperty(name = "backup.destination", havingValue = "google-drive", matchIfMissing = true)
+@Slf4j
+public class GoogleDriveBackupDestination implements BackupDestination {
+
+    private static final int BYTES_PER_MB = 1024 * 1024;
+
+    private final Drive driveService;
+    private final String backupFolderId;
+    private final int chunkSize;
+
+    public GoogleDriveBackupDestination(ObjectProvider<Drive> driveService,
+                                        @Value("${google.drive.backup.folder.id:}") String backupFolderId,
+                                        @Value("${backup.upload.chunk-size-mb:8}") int chunkSizeMb) {
+        this.driveService = driveService.getIfAvailable();
+        this.backupFolderId = backupFolderId;
+        // O Drive exige chunks múltiplos de 256 KB
+        int requested = Math.max(1, chunkSizeMb) * BYTES_PER_MB;
+        this.chunkSize = requested - (requested % MediaHttpUploader.MINIMUM_CHUNK_SIZE);
+    }
+
+    @Override
+    public String name() {
+        return "google-drive";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return driveService != null;
+    }
+
+    @Override
+    public String upload(String filename, String contentType, InputStream content) throws IOException {
+        File fileMetadata = new File();
+        fileMetadata.setName(filename);
+        fileMetadata.setMimeType(contentType);
+
+        // Se tiver pasta específica configurada, usar ela
+        if (backupFolderId != null && !backupFolderId.isEmpty()) {
+            fileMetadata.setParents(Collections.singletonList(backupFolderId));
+        }
+
+        // Sem setLength: tamanho desconhecido, o uploader lê o stream chunk a chunk até o fim
+        InputStreamContent mediaContent = new InputStreamContent(contentType, content);
+
+        Drive.Files.Create create = driveService.files().create(fileMetadata, mediaContent)
+                .setFields("id, name, size, createdTime");
+        MediaHttpUploader uploader = create.getMediaHttpUploader();
+        uploader.setDirectUploadEnabled(false);
+        uploader.setChunkSize(chunkSize);
+        uploader.setProgressListener(progress ->
+                log.debug("Upload de {}: {} bytes enviados", filename, progress.getNumBytesUploaded()));
+
+        File uploadedFile = create.execute();
+        log.info("File uploaded to Google Drive with ID: {}", uploadedFile.getId());
+        return uploadedFile.getId();
+    }
+
+    @Override
+    public void download(String key, OutputStream out) throws IOException {
+        driveService.files().get(key).executeMediaAndDownloadTo(out);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        driveService.files().delete(key).execute();
+    }
+
+    @Override
+    public List<String> list(String prefix) throws IOException {
+        if (driveService == null) {
+            return Collections.emptyList();
+        }
+
+        String query = "name contains '" + prefix + "' and trashed = false";
+        FileList result = driveService.files().list()
+                .setQ(query)
+                .setFields("files(id, name, size, createdTime)")
+                .setOrderBy("createdTime desc")
+                .execute();
+
+        return result.getFiles().stream()
+                .map(file -> String.format("%s (ID: %s, Size: %d bytes)",
+                    file.getName(), file.getId(), file.getSize()))
+                .toList();
+    }
+}
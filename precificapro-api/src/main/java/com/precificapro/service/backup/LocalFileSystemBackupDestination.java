@@ -0,0 +1,97 @@
+package com.precificapro.service.backup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Backups em um diretório local (backup.local.directory). Usado em desenvolvimento e
+ * testes, ou com um volume montado. O arquivo é gravado como .part e só ganha o nome final
+ * quando o stream termina, então um backup interrompido nunca parece completo.
+ */
+@Component
+@ConditionalOnProperty(name = "backup.destination", havingValue = "local")
+@Slf4j
+public class LocalFileSystemBackupDestination implements BackupDestination {
+
+    private static final String PARTIAL_SUFFIX = ".part";
+
+    private final Path directory;
+
+    public LocalFileSystemBackupDestination(@Value("${backup.local.directory:./backups}") String directory) {
+        this.directory = Path.of(directory).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public String name() {
+        return "local";
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public String upload(String filename, String contentType, InputStream content) throws IOException {
+        Files.createDirectories(directory);
+        Path target = resolve(filename);
+        Path partial = target.resolveSibling(filename + PARTIAL_SUFFIX);
+        try {
+            Files.copy(content, partial, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        log.info("Backup gravado em {}", target);
+        return filename;
+    }
+
+    @Override
+    public void download(String key, OutputStream out) throws IOException {
+        Files.copy(resolve(key), out);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public List<String> list(String prefix) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(prefix) && !name.endsWith(PARTIAL_SUFFIX);
+                    })
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .map(path -> String.format("%s (Size: %d bytes)", path.getFileName(), path.toFile().length()))
+                    .toList();
+        }
+    }
+
+    /** A chave é só o nome do arquivo: nada fora do diretório configurado. */
+    private Path resolve(String key) throws IOException {
+        Path path = directory.resolve(key).normalize();
+        if (!directory.equals(path.getParent())) {
+            throw new IOException("Chave de backup inválida: " + key);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,45 @@
+package com.precificapro.service.backup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dados de conexão extraídos da URL JDBC, no formato que pg_dump, pg_restore e psql esperam.
+ * A senha vai por PGPASSWORD, nunca na linha de comando.
+ */
+public record PostgresConnection(String host, String port, String database, String username, String password) {
+
+    public static PostgresConnection fromJdbcUrl(String jdbcUrl, String username, String password) {
+        // jdbc:postgresql://host:port/database?params
+        String[] urlParts = jdbcUrl.split("//")[1].split("/");
+        String[] hostPort = urlParts[0].split(":");
+        String host = hostPort[0];
+        String port = hostPort.length > 1 ? hostPort[1] : "5432";
+        String database = urlParts[1].split("\\?")[0];
+        return new PostgresConnection(host, port, database, username, password);
+    }
+
+    /**
+     * Comando da ferramenta com host, porta, usuário e banco já preenchidos, seguido dos
+     * argumentos dados.
+     */
+    public ProcessBuilder command(String tool, String... args) {
+        List<String> command = new ArrayList<>(List.of(
+            tool,
+            "-h", host,
+            "-p", port,
+            "-U", username,
+            "-d", database
+        ));
+        command.addAll(List.of(args));
+
+        ProcessBuilder processBuilder = new ProcessBuilder(command);
+        processBuilder.environment().put("PGPASSWORD", password);
+        return processBuilder;
+    }
+
+    @Override
+    public String toString() {
+        return "PostgresConnection[" + host + ":" + port + "/" + database + "]";
+    }
+}
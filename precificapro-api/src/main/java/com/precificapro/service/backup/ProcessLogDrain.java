@@ -0,0 +1,74 @@
+package com.precificapro.service.backup;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Consumer;
+
+/**
+ * Lê em paralelo a saída de log de um processo (stderr do pg_dump, saída do psql) para que
+ * ele nunca bloqueie com o pipe cheio, mantendo as últimas linhas para a mensagem de erro.
+ * Não pode ser o stdout do pg_dump no modo streaming: lá o stdout é o próprio backup.
+ */
+@Slf4j
+public final class ProcessLogDrain {
+
+    private static final int TAIL_LINES = 20;
+    private static final long JOIN_TIMEOUT_MS = 2_000;
+
+    private final String tool;
+    private final Consumer<String> onLine;
+    private final Deque<String> tail = new ArrayDeque<>();
+    private final Thread reader;
+
+    private ProcessLogDrain(String tool, InputStream output, Consumer<String> onLine) {
+        this.tool = tool;
+        this.onLine = onLine;
+        this.reader = Thread.ofVirtual().name(tool + "-log").start(() -> read(output));
+    }
+
+    public static ProcessLogDrain start(String tool, InputStream output) {
+        return new ProcessLogDrain(tool, output, line -> { });
+    }
+
+    /** Também repassa cada linha a {@code onLine} (ex.: progresso do pg_restore --verbose). */
+    public static ProcessLogDrain start(String tool, InputStream output, Consumer<String> onLine) {
+        return new ProcessLogDrain(tool, output, onLine);
+    }
+
+    private void read(InputStream output) {
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(output, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                log.debug("{}: {}", tool, line);
+                onLine.accept(line);
+                synchronized (tail) {
+                    if (tail.size() == TAIL_LINES) {
+                        tail.removeFirst();
+                    }
+                    tail.addLast(line);
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Saída de {} encerrada: {}", tool, e.getMessage());
+        }
+    }
+
+    /** Últimas linhas da saída; espera o processo fechar o stream por até 2s. */
+    public String tail() {
+        try {
+            reader.join(JOIN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (tail) {
+            return String.join("\n", tail);
+        }
+    }
+}
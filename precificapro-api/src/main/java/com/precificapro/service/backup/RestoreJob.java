@@ -0,0 +1,20 @@
+package com.precificapro.service.backup;
+
+import com.precificapro.domain.model.BackupMetadata.BackupFormat;
+
+/**
+ * Dados de um restore em segundo plano, copiados do BackupMetadata no momento do pedido.
+ *
+ * @param jobs   conexões paralelas do pg_restore (-j) no restore completo
+ * @param script restore seletivo; null para restaurar o banco inteiro
+ */
+public record RestoreJob(
+        Long backupId,
+        String filename,
+        String key,
+        BackupFormat format,
+        Long fileSize,
+        String checksumSha256,
+        int jobs,
+        SelectiveRestoreScript script
+) {}
@@ -0,0 +1,124 @@
+package com.precificapro.service.backup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Script do psql para restaurar só algumas tabelas de um backup, sem recarregar o banco.
+ *
+ * A saída de "pg_restore --data-only -t ..." é redirecionada: cada COPY public.tabela vai para
+ * uma tabela temporária pg_temp.restore_tabela, e no final as linhas são mescladas na tabela
+ * real com INSERT ... ON CONFLICT (pk) DO UPDATE, opcionalmente só as de um owner. Linhas
+ * criadas depois do backup são mantidas; as que existem nos dois lados voltam ao estado do
+ * backup. Tudo roda em uma transação, confirmada só pelo {@link #epilogue()}.
+ */
+public final class SelectiveRestoreScript {
+
+    /** Colunas (sem as geradas) e chave primária de uma tabela, na ordem do catálogo. */
+    public record Table(String name, List<String> columns, List<String> primaryKey) {
+
+        boolean hasOwner() {
+            return columns.contains("owner_id");
+        }
+    }
+
+    private static final String END_OF_COPY = "\\.";
+
+    private final List<Table> tables;
+    private final UUID ownerId;
+
+    /**
+     * @param tables  tabelas já ordenadas com as referenciadas antes das que as referenciam
+     * @param ownerId se informado, só as linhas desse owner são restauradas
+     */
+    public SelectiveRestoreScript(List<Table> tables, UUID ownerId) {
+        this.tables = List.copyOf(tables);
+        this.ownerId = ownerId;
+    }
+
+    public List<String> tableNames() {
+        return tables.stream().map(Table::name).toList();
+    }
+
+    public UUID ownerId() {
+        return ownerId;
+    }
+
+    /** Abre a transação e cria as tabelas temporárias com a mesma estrutura das reais. */
+    public String preamble() {
+        StringBuilder sql = new StringBuilder("BEGIN;\n");
+        for (Table table : tables) {
+            sql.append("CREATE TEMP TABLE ").append(staging(table))
+               .append(" (LIKE public.").append(quote(table.name())).append(") ON COMMIT DROP;\n");
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Copia o script do pg_restore para o psql trocando o destino dos COPY. As linhas de dados
+     * passam sem alteração (a leitura/escrita deve ser byte a byte, ex.: ISO-8859-1).
+     */
+    public void rewrite(BufferedReader pgRestoreOutput, Writer psqlInput) throws IOException {
+        boolean inCopyData = false;
+        String line;
+        while ((line = pgRestoreOutput.readLine()) != null) {
+            if (inCopyData) {
+                inCopyData = !line.equals(END_OF_COPY);
+            } else if (line.startsWith("COPY ")) {
+                line = redirectCopy(line);
+                inCopyData = true;
+            }
+            psqlInput.write(line);
+            psqlInput.write('\n');
+        }
+        psqlInput.flush();
+    }
+
+    /** Mescla as tabelas temporárias nas reais e confirma a transação. */
+    public String epilogue() {
+        StringBuilder sql = new StringBuilder();
+        for (Table table : tables) {
+            String columns = table.columns().stream().map(SelectiveRestoreScript::quote).collect(Collectors.joining(", "));
+            sql.append("INSERT INTO public.").append(quote(table.name())).append(" (").append(columns).append(")\n")
+               .append("SELECT ").append(columns).append(" FROM ").append(staging(table));
+            if (ownerId != null) {
+                sql.append(" WHERE owner_id = '").append(ownerId).append("'");
+            }
+            sql.append("\nON CONFLICT (")
+               .append(table.primaryKey().stream().map(SelectiveRestoreScript::quote).collect(Collectors.joining(", ")))
+               .append(") DO ");
+
+            List<String> updatable = table.columns().stream().filter(c -> !table.primaryKey().contains(c)).toList();
+            if (updatable.isEmpty()) {
+                sql.append("NOTHING;\n");
+            } else {
+                sql.append("UPDATE SET ")
+                   .append(updatable.stream().map(c -> quote(c) + " = EXCLUDED." + quote(c)).collect(Collectors.joining(", ")))
+                   .append(";\n");
+            }
+        }
+        return sql.append("COMMIT;\n").toString();
+    }
+
+    private String redirectCopy(String copy) {
+        for (Table table : tables) {
+            String prefix = "COPY public." + table.name() + " ";
+            if (copy.startsWith(prefix)) {
+                return "COPY " + staging(table) + " " + copy.substring(prefix.length());
+            }
+        }
+        throw new IllegalStateException("COPY inesperado na saída do pg_restore: " + copy);
+    }
+
+    private static String staging(Table table) {
+        return "pg_temp." + quote("restore_" + table.name());
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,167 @@
+package com.precificapro.service.pricing;
+
+import com.precificapro.controller.dto.SimulationResponseDTO;
+import com.precificapro.domain.enums.PricingMethod;
+import com.precificapro.domain.enums.RoundingRule;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * Cálculo de referência com BigDecimal e MathContext(10, HALF_UP).
+ * Qualquer outro kernel deve reproduzir exatamente estes resultados.
+ */
+@Component
+public class BigDecimalPricingKernel implements PricingKernel {
+
+    public static final MathContext MC = new MathContext(10, RoundingMode.HALF_UP);
+
+    @Override
+    public SimulationResponseDTO calculate(CostInputs costs, ProfileInputs profile) {
+
+        BigDecimal purchaseCost = costs.purchaseCost();
+        BigDecimal packagingCost = costs.packagingCost();
+        BigDecimal otherVariableCost = costs.otherVariableCost();
+        BigDecimal freightCostUnit = costs.freightCostUnit();
+        BigDecimal totalFixedCosts = profile.totalFixedCosts();
+        int salesTarget = profile.salesTarget();
+
+        // 3) CUSTO DIRETO UNITÁRIO (inclui último frete rateado se houver)
+        BigDecimal directCostUnit = purchaseCost
+                .add(packagingCost)
+                .add(otherVariableCost)
+                .add(freightCostUnit);
+
+        // 4) CUSTO INDIRETO UNITÁRIO (rateio dos fixos)
+        BigDecimal indirectCostUnit = (salesTarget > 0)
+                ? safeDivide(totalFixedCosts, BigDecimal.valueOf(salesTarget), MC)
+                : BigDecimal.ZERO;
+
+        // 5) CUSTO TOTAL UNITÁRIO
+        BigDecimal totalCostUnit = directCostUnit.add(indirectCostUnit);
+
+        // 6) PREÇO DE VENDA (considerando método: MARKUP vs MARGIN)
+        BigDecimal totalFeesPct = profile.machineFeePct().add(profile.marketplaceFeePct()).add(profile.otherFeesPct());
+
+        BigDecimal price;
+        if (profile.method() == PricingMethod.MARKUP) {
+            BigDecimal markupValue = profile.markup(); // Ex.: 0.50 = 50%
+            // preço = custo_total * (1 + markup) / (1 - taxas)
+            price = safeDivide(
+                    totalCostUnit.multiply(BigDecimal.ONE.add(markupValue), MC),
+                    BigDecimal.ONE.subtract(totalFeesPct, MC),
+                    MC
+            );
+        } else { // MARGIN (marginOnPrice = % do preço que deve ser lucro líquido)
+            BigDecimal marginValue = profile.marginOnPrice(); // Ex.: 0.20 = 20%
+            // preço = custo_total / (1 - taxas - margem)
+            price = safeDivide(
+                    totalCostUnit,
+                    BigDecimal.ONE.subtract(totalFeesPct, MC).subtract(marginValue, MC),
+                    MC
+            );
+        }
+
+        BigDecimal suggestedPrice = applyRounding(price, profile.roundingRule());
+
+        // 7) MÉTRICAS FINAIS
+        BigDecimal feesValue = suggestedPrice.multiply(totalFeesPct, MC);
+        BigDecimal costPlusFees = totalCostUnit.add(feesValue, MC);
+        BigDecimal netProfitPerUnit = suggestedPrice.subtract(costPlusFees, MC);
+
+        // % lucro líquido sobre o preço (margem líquida)
+        BigDecimal netProfitPercentage = (suggestedPrice.compareTo(BigDecimal.ZERO) > 0)
+                ? safeDivide(netProfitPerUnit, suggestedPrice, MC).multiply(BigDecimal.valueOf(100), MC)
+                : BigDecimal.ZERO;
+
+        // % markup sobre custo total
+        BigDecimal markupOnTotalCost = (totalCostUnit.compareTo(BigDecimal.ZERO) > 0)
+                ? (safeDivide(suggestedPrice, totalCostUnit, MC).subtract(BigDecimal.ONE, MC)).multiply(BigDecimal.valueOf(100), MC)
+                : BigDecimal.ZERO;
+
+        // === NOVO CAMPO: MARGEM DE LUCRO (BRUTA) = (Preço - Custo Direto) / Preço ===
+        BigDecimal lucroBruto = suggestedPrice.subtract(directCostUnit, MC);
+        BigDecimal margemDeLucro = (suggestedPrice.compareTo(BigDecimal.ZERO) > 0)
+                ? safeDivide(lucroBruto, suggestedPrice, MC).multiply(BigDecimal.valueOf(100), MC)
+                : BigDecimal.ZERO;
+
+        // Contribuição e Ponto de Equilíbrio
+        BigDecimal contributionMarginUnit = suggestedPrice.multiply(BigDecimal.ONE.subtract(totalFeesPct, MC), MC)
+                .subtract(directCostUnit, MC);
+        Integer breakEvenUnits = (contributionMarginUnit.compareTo(BigDecimal.ZERO) > 0)
+                ? safeDivide(totalFixedCosts, contributionMarginUnit, MC).setScale(0, RoundingMode.CEILING).intValue()
+                : null;
+
+        // 8) SUB-DTOs
+        SimulationResponseDTO.CostBreakdownDTO costBreakdown = new SimulationResponseDTO.CostBreakdownDTO(
+                purchaseCost.setScale(2, RoundingMode.HALF_UP),
+                packagingCost.setScale(2, RoundingMode.HALF_UP),
+                otherVariableCost.setScale(2, RoundingMode.HALF_UP),
+                freightCostUnit.setScale(2, RoundingMode.HALF_UP),
+                directCostUnit.setScale(2, RoundingMode.HALF_UP),
+                indirectCostUnit.setScale(2, RoundingMode.HALF_UP),
+                totalCostUnit.setScale(2, RoundingMode.HALF_UP),
+                feesValue.setScale(2, RoundingMode.HALF_UP),
+                costPlusFees.setScale(2, RoundingMode.HALF_UP)
+        );
+
+        SimulationResponseDTO.ProfitDetailsDTO profitDetails = new SimulationResponseDTO.ProfitDetailsDTO(
+                netProfitPerUnit.setScale(2, RoundingMode.HALF_UP),
+                netProfitPercentage.setScale(2, RoundingMode.HALF_UP),   // margem líquida (% sobre preço)
+                markupOnTotalCost.setScale(2, RoundingMode.HALF_UP),
+                margemDeLucro.setScale(2, RoundingMode.HALF_UP)          // NOVO: margem bruta (% sobre preço)
+        );
+
+        BigDecimal revenue = suggestedPrice.multiply(BigDecimal.valueOf(salesTarget), MC);
+        BigDecimal totalDirectCost = directCostUnit.multiply(BigDecimal.valueOf(salesTarget), MC);
+        BigDecimal totalFees = feesValue.multiply(BigDecimal.valueOf(salesTarget), MC);
+        BigDecimal totalNetProfit = netProfitPerUnit.multiply(BigDecimal.valueOf(salesTarget), MC);
+
+        SimulationResponseDTO.MonthlyProjectionDTO monthlyProjection = new SimulationResponseDTO.MonthlyProjectionDTO(
+                revenue.setScale(2, RoundingMode.HALF_UP),
+                totalDirectCost.setScale(2, RoundingMode.HALF_UP),
+                totalFixedCosts.setScale(2, RoundingMode.HALF_UP),
+                totalFees.setScale(2, RoundingMode.HALF_UP),
+                totalNetProfit.setScale(2, RoundingMode.HALF_UP)
+        );
+
+        // 9) RESPOSTA FINAL
+        return new SimulationResponseDTO(
+                suggestedPrice.setScale(2, RoundingMode.HALF_UP),
+                breakEvenUnits,
+                costBreakdown,
+                profitDetails,
+                monthlyProjection
+        );
+    }
+
+    // === ARREDONDAMENTO ESPECÍFICO ===
+    public static BigDecimal applyRounding(BigDecimal price, RoundingRule rule) {
+        if (rule == null || rule == RoundingRule.NONE) {
+            return price.setScale(2, RoundingMode.HALF_UP);
+        }
+
+        long integerPart = price.longValue();
+        BigDecimal decimalPart = price.subtract(BigDecimal.valueOf(integerPart));
+
+        return switch (rule) {
+            case UP_TO_0_90 -> (decimalPart.compareTo(BigDecimal.valueOf(0.90)) <= 0)
+                    ? BigDecimal.valueOf(integerPart).add(BigDecimal.valueOf(0.90))
+                    : BigDecimal.valueOf(integerPart + 1).add(BigDecimal.valueOf(0.90));
+            case UP_TO_0_99 -> (decimalPart.compareTo(BigDecimal.valueOf(0.99)) <= 0)
+                    ? BigDecimal.valueOf(integerPart).add(BigDecimal.valueOf(0.99))
+                    : BigDecimal.valueOf(integerPart + 1).add(BigDecimal.valueOf(0.99));
+            case UP_TO_0_50 -> (decimalPart.compareTo(BigDecimal.valueOf(0.50)) <= 0)
+                    ? BigDecimal.valueOf(integerPart).add(BigDecimal.valueOf(0.50))
+                    : BigDecimal.valueOf(integerPart + 1).add(BigDecimal.valueOf(0.50));
+            default -> price.setScale(2, RoundingMode.HALF_UP);
+        };
+    }
+
+    public static BigDecimal safeDivide(BigDecimal a, BigDecimal b, MathContext mc) {
+        if (b == null || b.compareTo(BigDecimal.ZERO) == 0) return BigDecimal.ZERO;
+        return a.divide(b, mc);
+    }
+}
@@ -0,0 +1,32 @@
+package com.precificapro.service.pricing;
+
+import com.precificapro.controller.dto.SimulationRequestDTO;
+import com.precificapro.domain.model.Product;
+
+import java.math.BigDecimal;
+
+/**
+ * Custos unitários de um produto já com overrides e frete rateado aplicados.
+ */
+public record CostInputs(
+        BigDecimal purchaseCost,
+        BigDecimal packagingCost,
+        BigDecimal otherVariableCost,
+        BigDecimal freightCostUnit
+) {
+    public static CostInputs of(Product product, SimulationRequestDTO.OverrideDTO override, BigDecimal freightCostUnit) {
+        return new CostInputs(
+                (override != null && override.purchaseCost() != null)
+                        ? override.purchaseCost() : nvl(product.getDefaultPurchaseCost()),
+                (override != null && override.packagingCost() != null)
+                        ? override.packagingCost() : nvl(product.getDefaultPackagingCost()),
+                (override != null && override.otherVariableCost() != null)
+                        ? override.otherVariableCost() : nvl(product.getDefaultOtherVariableCost()),
+                nvl(freightCostUnit)
+        );
+    }
+
+    private static BigDecimal nvl(BigDecimal v) {
+        return (v == null) ? BigDecimal.ZERO : v;
+    }
+}
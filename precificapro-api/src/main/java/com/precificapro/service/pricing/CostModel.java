@@ -0,0 +1,27 @@
+package com.precificapro.service.pricing;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Modelo de custos de um owner, montado uma vez e reaproveitado por simulações e vendas:
+ * total de custos fixos ativos, frete unitário do último lote de cada produto e perfis
+ * de precificação já convertidos em {@link ProfileInputs} (sem override).
+ */
+public record CostModel(
+        BigDecimal totalFixedCosts,
+        Map<UUID, BigDecimal> freightUnitByProduct,
+        Map<UUID, Profile> profiles
+) {
+    public record Profile(UUID id, String name, ProfileInputs inputs) {}
+
+    public BigDecimal freightUnitCost(UUID productId) {
+        return freightUnitByProduct.getOrDefault(productId, BigDecimal.ZERO);
+    }
+
+    public Optional<Profile> profile(UUID profileId) {
+        return Optional.ofNullable(profiles.get(profileId));
+    }
+}
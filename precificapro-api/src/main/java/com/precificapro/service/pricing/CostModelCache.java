@@ -0,0 +1,100 @@
+package com.precificapro.service.pricing;
+
+import com.precificapro.config.TenantCacheGenerations;
+import com.precificapro.domain.model.FreightBatch;
+import com.precificapro.domain.model.PricingProfile;
+import com.precificapro.domain.model.User;
+import com.precificapro.domain.repository.CostItemRepository;
+import com.precificapro.domain.repository.FreightBatchRepository;
+import com.precificapro.domain.repository.PricingProfileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Cache por owner do {@link CostModel} (cache "costModels" do CacheManager, com estatísticas
+ * de hit/miss expostas pelo actuator como as demais).
+ *
+ * Quem altera custos fixos, perfis ou lotes de frete chama {@link #evict(UUID)}: só o modelo
+ * daquele owner é descartado, e só depois do commit. A chave leva a geração do owner
+ * ({@link TenantCacheGenerations}), então um modelo carregado antes da alteração e gravado
+ * depois dela fica sob a chave antiga e nunca é lido.
+ *
+ * O carregamento acontece fora do cache.get(key, loader) (regra de pinning em AsyncConfig).
+ */
+@Component
+@Slf4j
+public class CostModelCache {
+
+    public static final String CACHE_NAME = "costModels";
+
+    private final Cache cache;
+    private final TenantCacheGenerations tenantCache;
+    private final CostItemRepository costItemRepository;
+    private final PricingProfileRepository profileRepository;
+    private final FreightBatchRepository freightBatchRepository;
+
+    public CostModelCache(CacheManager cacheManager,
+                          TenantCacheGenerations tenantCache,
+                          CostItemRepository costItemRepository,
+                          PricingProfileRepository profileRepository,
+                          FreightBatchRepository freightBatchRepository) {
+        this.cache = cacheManager.getCache(CACHE_NAME);
+        this.tenantCache = tenantCache;
+        this.costItemRepository = costItemRepository;
+        this.profileRepository = profileRepository;
+        this.freightBatchRepository = freightBatchRepository;
+    }
+
+    public CostModel get(User owner) {
+        Object key = tenantCache.key(CACHE_NAME, owner.getId());
+        CostModel costModel = cache.get(key, CostModel.class);
+        if (costModel == null) {
+            costModel = load(owner);
+            cache.put(key, costModel);
+        }
+        return costModel;
+    }
+
+    public void evict(UUID ownerId) {
+        tenantCache.invalidate(CACHE_NAME, ownerId);
+    }
+
+    private CostModel load(User owner) {
+        BigDecimal totalFixedCosts = nvl(costItemRepository.sumActiveAmountMonthlyByOwner(owner));
+
+        Map<UUID, BigDecimal> freightByProduct = new HashMap<>();
+        for (FreightBatch batch : freightBatchRepository.findLatestPerProductByOwnerId(owner.getId())) {
+            freightByProduct.put(batch.getProduct().getId(), freightUnitCost(batch));
+        }
+
+        Map<UUID, CostModel.Profile> profiles = new HashMap<>();
+        for (PricingProfile profile : profileRepository.findByOwner(owner)) {
+            profiles.put(profile.getId(), new CostModel.Profile(
+                    profile.getId(), profile.getName(), ProfileInputs.of(profile, null, totalFixedCosts)));
+        }
+
+        log.debug("Modelo de custos carregado para o usuário {}: {} fretes, {} perfis",
+                owner.getId(), freightByProduct.size(), profiles.size());
+        return new CostModel(totalFixedCosts, Map.copyOf(freightByProduct), Map.copyOf(profiles));
+    }
+
+    private static BigDecimal freightUnitCost(FreightBatch batch) {
+        return BigDecimalPricingKernel.safeDivide(
+                batch.getFreightTotal(), BigDecimal.valueOf(nz(batch.getBatchSize())), BigDecimalPricingKernel.MC);
+    }
+
+    private static BigDecimal nvl(BigDecimal v) {
+        return (v == null) ? BigDecimal.ZERO : v;
+    }
+
+    private static int nz(Integer i) {
+        return (i == null) ? 0 : i;
+    }
+}
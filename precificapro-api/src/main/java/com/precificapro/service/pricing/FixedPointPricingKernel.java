@@ -0,0 +1,614 @@
+package com.precificapro.service.pricing;
+
+import com.precificapro.controller.dto.SimulationResponseDTO;
+import com.precificapro.domain.enums.PricingMethod;
+import com.precificapro.domain.enums.RoundingRule;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Kernel de simulação em ponto fixo: cada valor é um par (long não escalado, escala),
+ * o mesmo modelo do BigDecimal, mas sem alocar objetos durante o cálculo.
+ *
+ * Regras de arredondamento (idênticas ao {@link BigDecimalPricingKernel}):
+ * - somas e subtrações sem MathContext são exatas;
+ * - operações com MathContext(10) arredondam o resultado exato para 10 dígitos
+ *   significativos, HALF_UP (empate se afasta do zero);
+ * - divisões usam quociente de 128/64 bits, então o resto decide o HALF_UP sem aproximação;
+ * - saídas são levadas para 2 casas com HALF_UP; o ponto de equilíbrio usa CEILING.
+ *
+ * Se algum valor intermediário não couber em um long, o cálculo daquela simulação
+ * é refeito pelo kernel BigDecimal. Assim o resultado é sempre igual ao de referência.
+ */
+@Component
+public class FixedPointPricingKernel implements PricingKernel {
+
+    private final BigDecimalPricingKernel fallback;
+    private final ThreadLocal<Calculator> calculators = ThreadLocal.withInitial(Calculator::new);
+
+    public FixedPointPricingKernel(BigDecimalPricingKernel fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public SimulationResponseDTO calculate(CostInputs costs, ProfileInputs profile) {
+        PreparedCosts c = PreparedCosts.of(costs);
+        PreparedProfile p = PreparedProfile.of(profile);
+        Result result = new Result();
+        if (c != null && p != null && compute(c, p, result)) {
+            return result.toResponse();
+        }
+        return fallback.calculate(costs, profile);
+    }
+
+    @Override
+    public void calculateMatrix(List<CostInputs> costs, List<ProfileInputs> profiles, MatrixConsumer consumer) {
+        // Converte cada produto e cada perfil uma única vez; o laço interno não aloca
+        PreparedCosts[] preparedCosts = new PreparedCosts[costs.size()];
+        for (int i = 0; i < preparedCosts.length; i++) {
+            preparedCosts[i] = PreparedCosts.of(costs.get(i));
+        }
+        PreparedProfile[] preparedProfiles = new PreparedProfile[profiles.size()];
+        for (int j = 0; j < preparedProfiles.length; j++) {
+            preparedProfiles[j] = PreparedProfile.of(profiles.get(j));
+        }
+
+        Calculator calculator = calculators.get();
+        Result result = new Result();
+        for (int i = 0; i < preparedCosts.length; i++) {
+            for (int j = 0; j < preparedProfiles.length; j++) {
+                PreparedCosts c = preparedCosts[i];
+                PreparedProfile p = preparedProfiles[j];
+                if (c != null && p != null && calculator.compute(c, p, result)) {
+                    consumer.accept(i, j, result.toResponse());
+                } else {
+                    consumer.accept(i, j, fallback.calculate(costs.get(i), profiles.get(j)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Calcula sem nenhuma alocação, gravando em {@code out}.
+     * Retorna false quando algum valor não cabe em long; nesse caso use o kernel BigDecimal.
+     */
+    public boolean compute(PreparedCosts costs, PreparedProfile profile, Result out) {
+        return calculators.get().compute(costs, profile, out);
+    }
+
+    // === ENTRADAS PREPARADAS ===
+
+    public static final class PreparedCosts {
+        private final long purchase, packaging, other, freight;
+        private final int purchaseScale, packagingScale, otherScale, freightScale;
+
+        private PreparedCosts(CostInputs in) {
+            purchase = unscaled(in.purchaseCost());
+            purchaseScale = in.purchaseCost().scale();
+            packaging = unscaled(in.packagingCost());
+            packagingScale = in.packagingCost().scale();
+            other = unscaled(in.otherVariableCost());
+            otherScale = in.otherVariableCost().scale();
+            freight = unscaled(in.freightCostUnit());
+            freightScale = in.freightCostUnit().scale();
+        }
+
+        /** Retorna null se algum valor não for representável em long. */
+        public static PreparedCosts of(CostInputs in) {
+            if (!fits(in.purchaseCost()) || !fits(in.packagingCost())
+                    || !fits(in.otherVariableCost()) || !fits(in.freightCostUnit())) {
+                return null;
+            }
+            return new PreparedCosts(in);
+        }
+    }
+
+    public static final class PreparedProfile {
+        private final PricingMethod method;
+        private final RoundingRule roundingRule;
+        private final int salesTarget;
+        private final long markup, margin, machineFee, marketplaceFee, otherFees, fixed;
+        private final int markupScale, marginScale, machineFeeScale, marketplaceFeeScale, otherFeesScale, fixedScale;
+
+        private PreparedProfile(ProfileInputs in) {
+            method = in.method();
+            roundingRule = in.roundingRule();
+            salesTarget = in.salesTarget();
+            markup = unscaled(in.markup());
+            markupScale = in.markup().scale();
+            margin = unscaled(in.marginOnPrice());
+            marginScale = in.marginOnPrice().scale();
+            machineFee = unscaled(in.machineFeePct());
+            machineFeeScale = in.machineFeePct().scale();
+            marketplaceFee = unscaled(in.marketplaceFeePct());
+            marketplaceFeeScale = in.marketplaceFeePct().scale();
+            otherFees = unscaled(in.otherFeesPct());
+            otherFeesScale = in.otherFeesPct().scale();
+            fixed = unscaled(in.totalFixedCosts());
+            fixedScale = in.totalFixedCosts().scale();
+        }
+
+        /** Retorna null se algum valor não for representável em long. */
+        public static PreparedProfile of(ProfileInputs in) {
+            if (!fits(in.markup()) || !fits(in.marginOnPrice()) || !fits(in.machineFeePct())
+                    || !fits(in.marketplaceFeePct()) || !fits(in.otherFeesPct()) || !fits(in.totalFixedCosts())) {
+                return null;
+            }
+            return new PreparedProfile(in);
+        }
+    }
+
+    private static boolean fits(BigDecimal v) {
+        return v.unscaledValue().bitLength() < 64;
+    }
+
+    private static long unscaled(BigDecimal v) {
+        return v.unscaledValue().longValue();
+    }
+
+    // === RESULTADO (valores em centavos / centésimos de %) ===
+
+    public static final class Result {
+        private long suggestedPrice;
+        private boolean hasBreakEven;
+        private int breakEvenUnits;
+        private long purchaseCost, packagingCost, otherVariableCost, freightCostUnit, directCostUnit,
+                indirectCostUnit, totalCostUnit, feesValue, costPlusFees;
+        private long netProfitPerUnit, netProfitPercentage, markupOnTotalCost, margemDeLucro;
+        private long revenue, totalDirectCost, totalIndirectCost, totalFees, netProfit;
+
+        public long suggestedPriceCents() {
+            return suggestedPrice;
+        }
+
+        public SimulationResponseDTO toResponse() {
+            return new SimulationResponseDTO(
+                    cents(suggestedPrice),
+                    hasBreakEven ? breakEvenUnits : null,
+                    new SimulationResponseDTO.CostBreakdownDTO(
+                            cents(purchaseCost), cents(packagingCost), cents(otherVariableCost),
+                            cents(freightCostUnit), cents(directCostUnit), cents(indirectCostUnit),
+                            cents(totalCostUnit), cents(feesValue), cents(costPlusFees)
+                    ),
+                    new SimulationResponseDTO.ProfitDetailsDTO(
+                            cents(netProfitPerUnit), cents(netProfitPercentage),
+                            cents(markupOnTotalCost), cents(margemDeLucro)
+                    ),
+                    new SimulationResponseDTO.MonthlyProjectionDTO(
+                            cents(revenue), cents(totalDirectCost), cents(totalIndirectCost),
+                            cents(totalFees), cents(netProfit)
+                    )
+            );
+        }
+
+        private static BigDecimal cents(long value) {
+            return BigDecimal.valueOf(value, 2);
+        }
+    }
+
+    // === ARITMÉTICA ===
+
+    /**
+     * Não é thread-safe: guarda a escala do último resultado em {@code s}
+     * para que cada operação devolva o valor não escalado sem alocar um par.
+     */
+    private static final class Calculator {
+
+        private static final long[] POW10 = new long[19];
+        static {
+            POW10[0] = 1;
+            for (int i = 1; i < POW10.length; i++) POW10[i] = POW10[i - 1] * 10;
+        }
+
+        private static final long MAX_PRECISE = 10_000_000_000L; // 10^10 -> MathContext(10)
+        private static final long MIN_PRECISE = 1_000_000_000L;
+
+        private int s;          // escala do último resultado
+        private long rem;       // resto da última divisão
+        private long divisor;   // divisor efetivo da última divisão
+
+        boolean compute(PreparedCosts c, PreparedProfile p, Result out) {
+            try {
+                run(c, p, out);
+                return true;
+            } catch (ArithmeticException overflow) {
+                return false;
+            }
+        }
+
+        private void run(PreparedCosts c, PreparedProfile p, Result out) {
+            // 3) CUSTO DIRETO UNITÁRIO (soma exata)
+            long direct = add(c.purchase, c.purchaseScale, c.packaging, c.packagingScale);
+            int directS = s;
+            direct = add(direct, directS, c.other, c.otherScale);
+            directS = s;
+            direct = add(direct, directS, c.freight, c.freightScale);
+            directS = s;
+
+            // 4) CUSTO INDIRETO UNITÁRIO
+            long indirect = 0;
+            int indirectS = 0;
+            if (p.salesTarget > 0) {
+                indirect = divMc(p.fixed, p.fixedScale, p.salesTarget, 0);
+                indirectS = s;
+            }
+
+            // 5) CUSTO TOTAL UNITÁRIO (soma exata)
+            long total = add(direct, directS, indirect, indirectS);
+            int totalS = s;
+
+            // 6) PREÇO DE VENDA
+            long fees = add(p.machineFee, p.machineFeeScale, p.marketplaceFee, p.marketplaceFeeScale);
+            int feesS = s;
+            fees = add(fees, feesS, p.otherFees, p.otherFeesScale);
+            feesS = s;
+            long oneMinusFees = subMc(1, 0, fees, feesS);
+            int oneMinusFeesS = s;
+
+            long price;
+            int priceS;
+            if (p.method == PricingMethod.MARKUP) {
+                long onePlusMarkup = add(1, 0, p.markup, p.markupScale);
+                int onePlusMarkupS = s;
+                long numerator = mulMc(total, totalS, onePlusMarkup, onePlusMarkupS);
+                int numeratorS = s;
+                price = divMc(numerator, numeratorS, oneMinusFees, oneMinusFeesS);
+                priceS = s;
+            } else {
+                long denominator = subMc(oneMinusFees, oneMinusFeesS, p.margin, p.marginScale);
+                int denominatorS = s;
+                price = divMc(total, totalS, denominator, denominatorS);
+                priceS = s;
+            }
+
+            long suggested = applyRounding(price, priceS, p.roundingRule); // escala 2
+
+            // 7) MÉTRICAS FINAIS
+            long feesValue = mulMc(suggested, 2, fees, feesS);
+            int feesValueS = s;
+            long costPlusFees = addMc(total, totalS, feesValue, feesValueS);
+            int costPlusFeesS = s;
+            long netProfit = subMc(suggested, 2, costPlusFees, costPlusFeesS);
+            int netProfitS = s;
+
+            long netProfitPct = 0;
+            int netProfitPctS = 0;
+            if (suggested > 0) {
+                long ratio = divMc(netProfit, netProfitS, suggested, 2);
+                netProfitPct = mulMc(ratio, s, 100, 0);
+                netProfitPctS = s;
+            }
+
+            long markupOnTotal = 0;
+            int markupOnTotalS = 0;
+            if (total > 0) {
+                long ratio = divMc(suggested, 2, total, totalS);
+                ratio = subMc(ratio, s, 1, 0);
+                markupOnTotal = mulMc(ratio, s, 100, 0);
+                markupOnTotalS = s;
+            }
+
+            long grossProfit = subMc(suggested, 2, direct, directS);
+            int grossProfitS = s;
+            long grossMargin = 0;
+            int grossMarginS = 0;
+            if (suggested > 0) {
+                long ratio = divMc(grossProfit, grossProfitS, suggested, 2);
+                grossMargin = mulMc(ratio, s, 100, 0);
+                grossMarginS = s;
+            }
+
+            long contribution = mulMc(suggested, 2, oneMinusFees, oneMinusFeesS);
+            contribution = subMc(contribution, s, direct, directS);
+            int contributionS = s;
+            int breakEven = 0;
+            if (contribution > 0) {
+                long units = divMc(p.fixed, p.fixedScale, contribution, contributionS);
+                breakEven = (int) ceiling(units, s);
+            }
+
+            long revenue = mulMc(suggested, 2, p.salesTarget, 0);
+            int revenueS = s;
+            long totalDirect = mulMc(direct, directS, p.salesTarget, 0);
+            int totalDirectS = s;
+            long totalFees = mulMc(feesValue, feesValueS, p.salesTarget, 0);
+            int totalFeesS = s;
+            long totalNetProfit = mulMc(netProfit, netProfitS, p.salesTarget, 0);
+            int totalNetProfitS = s;
+
+            // 8) SAÍDAS EM 2 CASAS (só grava depois de tudo calculado sem overflow)
+            long purchaseCents = toCents(c.purchase, c.purchaseScale);
+            long packagingCents = toCents(c.packaging, c.packagingScale);
+            long otherCents = toCents(c.other, c.otherScale);
+            long freightCents = toCents(c.freight, c.freightScale);
+            long directCents = toCents(direct, directS);
+            long indirectCents = toCents(indirect, indirectS);
+            long totalCents = toCents(total, totalS);
+            long feesValueCents = toCents(feesValue, feesValueS);
+            long costPlusFeesCents = toCents(costPlusFees, costPlusFeesS);
+            long netProfitCents = toCents(netProfit, netProfitS);
+            long netProfitPctCents = toCents(netProfitPct, netProfitPctS);
+            long markupOnTotalCents = toCents(markupOnTotal, markupOnTotalS);
+            long grossMarginCents = toCents(grossMargin, grossMarginS);
+            long revenueCents = toCents(revenue, revenueS);
+            long totalDirectCents = toCents(totalDirect, totalDirectS);
+            long fixedCents = toCents(p.fixed, p.fixedScale);
+            long totalFeesCents = toCents(totalFees, totalFeesS);
+            long totalNetProfitCents = toCents(totalNetProfit, totalNetProfitS);
+
+            out.suggestedPrice = suggested;
+            out.hasBreakEven = contribution > 0;
+            out.breakEvenUnits = breakEven;
+            out.purchaseCost = purchaseCents;
+            out.packagingCost = packagingCents;
+            out.otherVariableCost = otherCents;
+            out.freightCostUnit = freightCents;
+            out.directCostUnit = directCents;
+            out.indirectCostUnit = indirectCents;
+            out.totalCostUnit = totalCents;
+            out.feesValue = feesValueCents;
+            out.costPlusFees = costPlusFeesCents;
+            out.netProfitPerUnit = netProfitCents;
+            out.netProfitPercentage = netProfitPctCents;
+            out.markupOnTotalCost = markupOnTotalCents;
+            out.margemDeLucro = grossMarginCents;
+            out.revenue = revenueCents;
+            out.totalDirectCost = totalDirectCents;
+            out.totalIndirectCost = fixedCents;
+            out.totalFees = totalFeesCents;
+            out.netProfit = totalNetProfitCents;
+        }
+
+        // --- operações (resultado não escalado no retorno, escala em s) ---
+
+        /** Soma exata, como BigDecimal.add sem MathContext. */
+        private long add(long a, int as, long b, int bs) {
+            if (as == bs) {
+                s = as;
+                return Math.addExact(a, b);
+            }
+            if (as < bs) {
+                s = bs;
+                return Math.addExact(scaleUp(a, bs - as), b);
+            }
+            s = as;
+            return Math.addExact(a, scaleUp(b, as - bs));
+        }
+
+        private long addMc(long a, int as, long b, int bs) {
+            long sum = add(a, as, b, bs);
+            return round(sum, s);
+        }
+
+        private long subMc(long a, int as, long b, int bs) {
+            return addMc(a, as, Math.negateExact(b), bs);
+        }
+
+        private long mulMc(long a, int as, long b, int bs) {
+            long hi = Math.multiplyHigh(a, b);
+            long lo = a * b;
+            if ((hi == 0 && lo >= 0) || (hi == -1 && lo < 0)) {
+                return round(lo, as + bs);
+            }
+
+            // Produto exato não cabe em long: arredonda a partir dos 128 bits
+            if (a == Long.MIN_VALUE || b == Long.MIN_VALUE) throw new ArithmeticException("overflow");
+            boolean negative = (a < 0) != (b < 0);
+            long ua = Math.abs(a);
+            long ub = Math.abs(b);
+            hi = Math.multiplyHigh(ua, ub);
+            lo = ua * ub;
+
+            // O produto tem digits(ua) + digits(ub) (ou um a menos) dígitos
+            int drop = digits(ua) + digits(ub) - 11;
+            if (drop + 1 >= POW10.length) throw new ArithmeticException("overflow");
+            long q = divide128(hi, lo, POW10[drop]);
+            if (q >= MAX_PRECISE) {
+                drop++;
+                q = divide128(hi, lo, POW10[drop]);
+            }
+            long p = POW10[drop];
+            if (rem >= p - rem) q++;
+            if (q == MAX_PRECISE) {
+                q = MIN_PRECISE;
+                drop++;
+            }
+            s = as + bs - drop;
+            return negative ? -q : q;
+        }
+
+        /** a / b com MathContext(10, HALF_UP); divisor zero devolve zero (como safeDivide). */
+        private long divMc(long a, int as, long b, int bs) {
+            if (b == 0 || a == 0) {
+                s = 0;
+                return 0;
+            }
+            if (a == Long.MIN_VALUE || b == Long.MIN_VALUE) throw new ArithmeticException("overflow");
+            boolean negative = (a < 0) != (b < 0);
+            long ua = Math.abs(a);
+            long ub = Math.abs(b);
+
+            // Escolhe k para que floor(ua * 10^k / ub) tenha exatamente 10 dígitos
+            int k = 9 - digits(ua) + digits(ub);
+            long q = scaledQuotient(ua, ub, k);
+            if (q < MIN_PRECISE) {
+                k++;
+                q = scaledQuotient(ua, ub, k);
+            }
+            if (rem >= divisor - rem) q++; // HALF_UP pelo resto exato
+            if (q == MAX_PRECISE) {
+                q = MIN_PRECISE;
+                k--;
+            }
+            s = k + as - bs;
+            return negative ? -q : q;
+        }
+
+        /** Arredonda para 10 dígitos significativos, HALF_UP. */
+        private long round(long v, int vs) {
+            s = vs;
+            if (v > -MAX_PRECISE && v < MAX_PRECISE) return v;
+            if (v == Long.MIN_VALUE) throw new ArithmeticException("overflow");
+            long abs = Math.abs(v);
+            int drop = digits(abs) - 10;
+            long p = POW10[drop];
+            long q = abs / p;
+            long r = abs - q * p;
+            if (r >= p - r) q++;
+            if (q == MAX_PRECISE) {
+                q = MIN_PRECISE;
+                drop++;
+            }
+            s = vs - drop;
+            return v < 0 ? -q : q;
+        }
+
+        /** floor(a * 10^k / b) para a, b positivos; guarda o resto em rem e o divisor em divisor. */
+        private long scaledQuotient(long a, long b, int k) {
+            if (k >= 0) {
+                long hi;
+                long lo;
+                if (k < POW10.length) {
+                    hi = Math.multiplyHigh(a, POW10[k]);
+                    lo = a * POW10[k];
+                } else {
+                    // a * 10^18 * 10^(k-18); o resultado ainda cabe em 127 bits porque o quociente tem 10 dígitos
+                    if (k - 18 >= POW10.length) throw new ArithmeticException("overflow");
+                    long h1 = Math.multiplyHigh(a, POW10[18]);
+                    long l1 = a * POW10[18];
+                    long m = POW10[k - 18];
+                    lo = l1 * m;
+                    hi = Math.addExact(Math.multiplyExact(h1, m), unsignedMultiplyHigh(l1, m));
+                }
+                divisor = b;
+                if (hi == 0 && lo >= 0) {
+                    long q = lo / b;
+                    rem = lo - q * b;
+                    return q;
+                }
+                return divide128(hi, lo, b);
+            }
+            if (-k >= POW10.length) throw new ArithmeticException("overflow");
+            long d = Math.multiplyExact(b, POW10[-k]);
+            divisor = d;
+            long q = a / d;
+            rem = a - q * d;
+            return q;
+        }
+
+        /**
+         * Divide o valor sem sinal de 128 bits (u1:u0) por v, com u1 < v.
+         * Algoritmo de divisão longa em dígitos de 32 bits (Hacker's Delight, divlu).
+         */
+        private long divide128(long u1, long u0, long v) {
+            final long b = 1L << 32;
+            int shift = Long.numberOfLeadingZeros(v);
+            v <<= shift;
+            long vn1 = v >>> 32;
+            long vn0 = v & 0xFFFFFFFFL;
+            long un32 = (u1 << shift) | (shift == 0 ? 0 : u0 >>> (64 - shift));
+            long un10 = u0 << shift;
+            long un1 = un10 >>> 32;
+            long un0 = un10 & 0xFFFFFFFFL;
+
+            long q1 = Long.divideUnsigned(un32, vn1);
+            long rhat = un32 - q1 * vn1;
+            while (Long.compareUnsigned(q1, b) >= 0
+                    || Long.compareUnsigned(q1 * vn0, (rhat << 32) | un1) > 0) {
+                q1--;
+                rhat += vn1;
+                if (Long.compareUnsigned(rhat, b) >= 0) break;
+            }
+
+            long un21 = (un32 << 32) + un1 - q1 * v;
+            long q0 = Long.divideUnsigned(un21, vn1);
+            rhat = un21 - q0 * vn1;
+            while (Long.compareUnsigned(q0, b) >= 0
+                    || Long.compareUnsigned(q0 * vn0, (rhat << 32) | un0) > 0) {
+                q0--;
+                rhat += vn1;
+                if (Long.compareUnsigned(rhat, b) >= 0) break;
+            }
+
+            rem = ((un21 << 32) + un0 - q0 * v) >>> shift;
+            return (q1 << 32) | q0;
+        }
+
+        /** Equivalente a applyRounding do kernel BigDecimal; devolve centavos. */
+        private static long applyRounding(long v, int vs, RoundingRule rule) {
+            if (rule == null || rule == RoundingRule.NONE) {
+                return toCents(v, vs);
+            }
+            long ending = switch (rule) {
+                case UP_TO_0_90 -> 90;
+                case UP_TO_0_99 -> 99;
+                case UP_TO_0_50 -> 50;
+                default -> -1;
+            };
+            if (ending < 0) return toCents(v, vs);
+
+            // Parte inteira truncada em direção ao zero (BigDecimal.longValue) e fração com sinal
+            long integerPart;
+            long fraction;
+            if (vs <= 0) {
+                integerPart = scaleUp(v, -vs);
+                fraction = 0;
+            } else if (vs >= POW10.length) {
+                integerPart = 0;
+                fraction = v;
+            } else {
+                integerPart = v / POW10[vs];
+                fraction = v - integerPart * POW10[vs];
+            }
+
+            int cmp = (vs >= 2)
+                    ? Long.compare(fraction, scaleUp(ending, vs - 2))
+                    : Long.compare(scaleUp(fraction, 2 - vs), ending);
+            long base = (cmp <= 0) ? integerPart : Math.addExact(integerPart, 1);
+            return Math.addExact(Math.multiplyExact(base, 100), ending);
+        }
+
+        /** setScale(2, HALF_UP). */
+        private static long toCents(long v, int vs) {
+            if (vs <= 2) return scaleUp(v, 2 - vs);
+            if (v == 0) return 0;
+            int drop = vs - 2;
+            if (drop >= POW10.length || v == Long.MIN_VALUE) throw new ArithmeticException("overflow");
+            long p = POW10[drop];
+            long abs = Math.abs(v);
+            long q = abs / p;
+            long r = abs - q * p;
+            if (r >= p - r) q++;
+            return v < 0 ? -q : q;
+        }
+
+        /** setScale(0, CEILING). */
+        private static long ceiling(long v, int vs) {
+            if (vs <= 0) return scaleUp(v, -vs);
+            if (vs >= POW10.length) throw new ArithmeticException("overflow");
+            long p = POW10[vs];
+            long q = v / p;
+            if (v - q * p > 0) q++;
+            return q;
+        }
+
+        private static long scaleUp(long v, int n) {
+            if (v == 0 || n == 0) return v;
+            if (n >= POW10.length) throw new ArithmeticException("overflow");
+            return Math.multiplyExact(v, POW10[n]);
+        }
+
+        /** Parte alta do produto sem sinal de x por m (m positivo). */
+        private static long unsignedMultiplyHigh(long x, long m) {
+            return Math.multiplyHigh(x, m) + ((x >> 63) & m);
+        }
+
+        private static int digits(long abs) {
+            int d = 1;
+            while (d < POW10.length && abs >= POW10[d]) d++;
+            return d;
+        }
+    }
+}
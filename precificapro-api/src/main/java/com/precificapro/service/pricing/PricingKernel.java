@@ -0,0 +1,31 @@
+package com.precificapro.service.pricing;
+
+import com.precificapro.controller.dto.SimulationResponseDTO;
+
+import java.util.List;
+
+/**
+ * Núcleo de cálculo da simulação de preço. As implementações devem produzir
+ * exatamente o mesmo {@link SimulationResponseDTO} para as mesmas entradas.
+ */
+public interface PricingKernel {
+
+    SimulationResponseDTO calculate(CostInputs costs, ProfileInputs profile);
+
+    /**
+     * Calcula todas as combinações produto x perfil, na ordem produto → perfil.
+     * Implementações podem sobrescrever para preparar as entradas uma única vez.
+     */
+    default void calculateMatrix(List<CostInputs> costs, List<ProfileInputs> profiles, MatrixConsumer consumer) {
+        for (int i = 0; i < costs.size(); i++) {
+            for (int j = 0; j < profiles.size(); j++) {
+                consumer.accept(i, j, calculate(costs.get(i), profiles.get(j)));
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface MatrixConsumer {
+        void accept(int costIndex, int profileIndex, SimulationResponseDTO result);
+    }
+}
@@ -0,0 +1,6 @@
+package com.precificapro.service.pricing;
+
+public enum PricingKernelType {
+    BIG_DECIMAL, // Cálculo original com BigDecimal/MathContext(10)
+    FIXED_POINT  // Cálculo com long (mesmo resultado, sem alocação no caminho quente)
+}
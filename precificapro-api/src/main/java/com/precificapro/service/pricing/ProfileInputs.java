@@ -0,0 +1,67 @@
+package com.precificapro.service.pricing;
+
+import com.precificapro.controller.dto.SimulationRequestDTO;
+import com.precificapro.domain.enums.PricingMethod;
+import com.precificapro.domain.enums.RoundingRule;
+import com.precificapro.domain.model.PricingProfile;
+
+import java.math.BigDecimal;
+
+/**
+ * Parâmetros de um perfil de precificação já com overrides aplicados,
+ * junto com o total de custos fixos mensais do dono.
+ */
+public record ProfileInputs(
+        PricingMethod method,
+        BigDecimal markup,
+        BigDecimal marginOnPrice,
+        BigDecimal machineFeePct,
+        BigDecimal marketplaceFeePct,
+        BigDecimal otherFeesPct,
+        int salesTarget,
+        RoundingRule roundingRule,
+        BigDecimal totalFixedCosts
+) {
+    public static ProfileInputs of(PricingProfile profile, SimulationRequestDTO.OverrideDTO override,
+                                   BigDecimal totalFixedCosts) {
+        Integer optSalesTarget = (override != null) ? override.monthlySalesTarget() : null;
+        return new ProfileInputs(
+                profile.getMethod(),
+                nvl(profile.getMarkup()),
+                nvl(profile.getMarginOnPrice()),
+                (override != null && override.machineFeePct() != null)
+                        ? override.machineFeePct() : nvl(profile.getMachineFeePct()),
+                (override != null && override.marketplaceFeePct() != null)
+                        ? override.marketplaceFeePct() : nvl(profile.getMarketplaceFeePct()),
+                (override != null && override.otherFeesPct() != null)
+                        ? override.otherFeesPct() : nvl(profile.getOtherFeesPct()),
+                (optSalesTarget != null) ? optSalesTarget : profile.getMonthlySalesTarget(),
+                profile.getRoundingRule(),
+                nvl(totalFixedCosts)
+        );
+    }
+
+    /**
+     * Mesmo resultado de {@link #of} com o override, partindo de entradas já montadas sem override.
+     */
+    public ProfileInputs withOverride(SimulationRequestDTO.OverrideDTO override) {
+        if (override == null) {
+            return this;
+        }
+        return new ProfileInputs(
+                method,
+                markup,
+                marginOnPrice,
+                (override.machineFeePct() != null) ? override.machineFeePct() : machineFeePct,
+                (override.marketplaceFeePct() != null) ? override.marketplaceFeePct() : marketplaceFeePct,
+                (override.otherFeesPct() != null) ? override.otherFeesPct() : otherFeesPct,
+                (override.monthlySalesTarget() != null) ? override.monthlySalesTarget() : salesTarget,
+                roundingRule,
+                totalFixedCosts
+        );
+    }
+
+    private static BigDecimal nvl(BigDecimal v) {
+        return (v == null) ? BigDecimal.ZERO : v;
+    }
+}
@@ -0,0 +1,198 @@
+package com.precificapro.service.saleimport;
+
+import com.precificapro.exception.BusinessException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * CSV com cabeçalho, uma linha por item. Linhas consecutivas com o mesmo sale_ref formam uma venda;
+ * sem sale_ref, cada linha é uma venda.
+ *
+ * Colunas: sale_ref, sale_date, customer_phone, customer_name, product_id | product_sku, quantity, unit_price.
+ * O separador (vírgula ou ponto e vírgula) é detectado pelo cabeçalho; valores aceitam "10.50" ou "1.234,50".
+ */
+class CsvSaleImportReader implements SaleImportReader {
+
+    private final BufferedReader reader;
+    private final char delimiter;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long lineNumber;
+    private Row pending;
+
+    CsvSaleImportReader(BufferedReader reader) {
+        this.reader = reader;
+        try {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new BusinessException("Arquivo CSV vazio.");
+            }
+            lineNumber = 1;
+            if (!header.isEmpty() && header.charAt(0) == '\uFEFF') {
+                header = header.substring(1);
+            }
+            delimiter = header.indexOf(';') >= 0 ? ';' : ',';
+            List<String> names = split(header);
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(normalize(names.get(i)), i);
+            }
+        } catch (IOException e) {
+            throw new BusinessException("Falha ao ler o cabeçalho do CSV.", e);
+        }
+        if (!columns.containsKey("customerphone") || !columns.containsKey("quantity") || !columns.containsKey("unitprice")
+                || !(columns.containsKey("productid") || columns.containsKey("productsku"))) {
+            throw new BusinessException("Cabeçalho do CSV deve ter customer_phone, product_id ou product_sku, "
+                    + "quantity e unit_price.");
+        }
+    }
+
+    @Override
+    public SaleImportRecord next() throws IOException {
+        Row first = pending != null ? pending : readRow();
+        pending = null;
+        if (first == null) {
+            return null;
+        }
+
+        String ref = first.get("saleref");
+        List<SaleImportRecord.Item> items = new ArrayList<>();
+        String error = null;
+        Row row = first;
+        while (row != null) {
+            try {
+                items.add(row.item());
+            } catch (RuntimeException e) {
+                if (error == null) {
+                    error = "linha " + row.line + ": " + e.getMessage();
+                }
+            }
+            if (ref == null) {
+                break;
+            }
+            row = readRow();
+            if (row != null && !ref.equals(row.get("saleref"))) {
+                pending = row;
+                break;
+            }
+        }
+
+        if (error != null) {
+            throw new SaleImportException(first.line, ref, error);
+        }
+        try {
+            return new SaleImportRecord(
+                    first.line,
+                    ref,
+                    SaleImportRecord.parseDate(first.get("saledate")),
+                    SaleImportRecord.requirePhone(first.get("customerphone")),
+                    first.get("customername"),
+                    items);
+        } catch (IllegalArgumentException e) {
+            throw new SaleImportException(first.line, ref, "linha " + first.line + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Row readRow() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            lineNumber++;
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+        return new Row(lineNumber, split(line));
+    }
+
+    /** Divide uma linha respeitando aspas ("a;b" e "" como aspas literais). */
+    private List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static String normalize(String column) {
+        return column.trim().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+    }
+
+    private final class Row {
+        private final long line;
+        private final List<String> values;
+
+        Row(long line, List<String> values) {
+            this.line = line;
+            this.values = values;
+        }
+
+        String get(String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= values.size()) {
+                return null;
+            }
+            String value = values.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        SaleImportRecord.Item item() {
+            String productId = get("productid");
+            String quantity = get("quantity");
+            UUID id;
+            try {
+                id = productId != null ? UUID.fromString(productId) : null;
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("product_id inválido: " + productId);
+            }
+            try {
+                return SaleImportRecord.item(
+                        id,
+                        get("productsku"),
+                        quantity != null ? Integer.valueOf(quantity) : null,
+                        decimal(get("unitprice")));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("quantidade ou preço em formato inválido");
+            }
+        }
+
+        private BigDecimal decimal(String value) {
+            if (value == null) {
+                return null;
+            }
+            String normalized = value.indexOf(',') >= 0 ? value.replace(".", "").replace(',', '.') : value;
+            return new BigDecimal(normalized);
+        }
+    }
+}
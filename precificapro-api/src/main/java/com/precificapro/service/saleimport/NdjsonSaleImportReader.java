@@ -0,0 +1,74 @@
+package com.precificapro.service.saleimport;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * NDJSON: uma venda por linha, no formato
+ * {"saleRef": "...", "saleDate": "...", "customerPhone": "...", "customerName": "...",
+ *  "items": [{"productId" | "productSku": "...", "quantity": 1, "unitPrice": 10.5}]}
+ */
+class NdjsonSaleImportReader implements SaleImportReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long lineNumber;
+
+    NdjsonSaleImportReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public SaleImportRecord next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            lineNumber++;
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        Line sale;
+        try {
+            sale = objectMapper.readValue(line, Line.class);
+        } catch (JsonProcessingException e) {
+            throw new SaleImportException(lineNumber, null, "linha " + lineNumber + ": JSON inválido");
+        }
+        try {
+            if (sale.items() == null || sale.items().isEmpty()) {
+                throw new IllegalArgumentException("venda sem itens");
+            }
+            List<SaleImportRecord.Item> items = new ArrayList<>(sale.items().size());
+            for (LineItem item : sale.items()) {
+                items.add(SaleImportRecord.item(item.productId(), item.productSku(), item.quantity(), item.unitPrice()));
+            }
+            return new SaleImportRecord(
+                    lineNumber,
+                    sale.saleRef(),
+                    SaleImportRecord.parseDate(sale.saleDate()),
+                    SaleImportRecord.requirePhone(sale.customerPhone()),
+                    sale.customerName(),
+                    items);
+        } catch (IllegalArgumentException e) {
+            throw new SaleImportException(lineNumber, sale.saleRef(), "linha " + lineNumber + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private record Line(String saleRef, String saleDate, String customerPhone, String customerName, List<LineItem> items) {}
+
+    private record LineItem(UUID productId, String productSku, Integer quantity, BigDecimal unitPrice) {}
+}
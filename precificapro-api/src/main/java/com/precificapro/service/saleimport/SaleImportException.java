@@ -0,0 +1,24 @@
+package com.precificapro.service.saleimport;
+
+/**
+ * Venda rejeitada na leitura do arquivo. A leitura continua na venda seguinte.
+ */
+public class SaleImportException extends RuntimeException {
+
+    private final long line;
+    private final String saleRef;
+
+    public SaleImportException(long line, String saleRef, String message) {
+        super(message);
+        this.line = line;
+        this.saleRef = saleRef;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public String getSaleRef() {
+        return saleRef;
+    }
+}
@@ -0,0 +1,37 @@
+package com.precificapro.service.saleimport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.precificapro.exception.BusinessException;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lê vendas de um arquivo de importação uma a uma, sem carregar o arquivo em memória.
+ */
+public interface SaleImportReader extends Closeable {
+
+    /**
+     * Próxima venda, ou {@code null} no fim do arquivo.
+     *
+     * @throws SaleImportException se a venda estiver malformada (a leitura pode continuar)
+     */
+    SaleImportRecord next() throws IOException;
+
+    static SaleImportReader of(String contentType, InputStream input, ObjectMapper objectMapper) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+        String type = contentType == null ? "" : contentType.toLowerCase();
+        if (type.startsWith("text/csv")) {
+            return new CsvSaleImportReader(reader);
+        }
+        if (type.startsWith("application/x-ndjson")) {
+            return new NdjsonSaleImportReader(reader, objectMapper);
+        }
+        throw new BusinessException("Formato de importação não suportado: " + contentType
+                + ". Use text/csv ou application/x-ndjson.");
+    }
+}
@@ -0,0 +1,76 @@
+package com.precificapro.service.saleimport;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Uma venda lida do arquivo de importação (já validada quanto ao formato).
+ * O produto é identificado por id ou por SKU.
+ */
+public record SaleImportRecord(
+        long line,
+        String saleRef,
+        OffsetDateTime saleDate,
+        String customerPhone,
+        String customerName,
+        List<Item> items
+) {
+    public record Item(
+            UUID productId,
+            String productSku,
+            int quantity,
+            BigDecimal unitPrice
+    ) {}
+
+    /**
+     * Aceita data/hora com offset (ISO-8601), data/hora local ou só a data (fuso da JVM).
+     * Vazio = agora.
+     */
+    static OffsetDateTime parseDate(String value) {
+        if (value == null || value.isBlank()) {
+            return OffsetDateTime.now();
+        }
+        String v = value.trim();
+        try {
+            if (v.length() == 10) {
+                return LocalDate.parse(v).atStartOfDay(ZoneId.systemDefault()).toOffsetDateTime();
+            }
+            if (v.endsWith("Z") || v.matches(".*[+-]\\d{2}:?\\d{2}$")) {
+                return OffsetDateTime.parse(v);
+            }
+            return LocalDateTime.parse(v).atZone(ZoneId.systemDefault()).toOffsetDateTime();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("data inválida: " + value);
+        }
+    }
+
+    static Item item(UUID productId, String productSku, Integer quantity, BigDecimal unitPrice) {
+        if (productId == null && (productSku == null || productSku.isBlank())) {
+            throw new IllegalArgumentException("produto não informado (product_id ou product_sku)");
+        }
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("quantidade deve ser maior que zero");
+        }
+        if (unitPrice == null || unitPrice.signum() < 0) {
+            throw new IllegalArgumentException("preço unitário inválido");
+        }
+        return new Item(productId, productSku != null ? productSku.trim() : null, quantity, unitPrice);
+    }
+
+    static String requirePhone(String phone) {
+        if (phone == null || phone.isBlank()) {
+            throw new IllegalArgumentException("telefone do cliente não informado");
+        }
+        String trimmed = phone.trim();
+        if (trimmed.length() > 20) {
+            throw new IllegalArgumentException("telefone do cliente com mais de 20 caracteres");
+        }
+        return trimmed;
+    }
+}
@@ -0,0 +1,293 @@
+package com.precificapro.service.saleimport;
+
+import com.precificapro.controller.dto.SaleImportEventDTO;
+import com.precificapro.domain.model.Customer;
+import com.precificapro.domain.model.Product;
+import com.precificapro.domain.model.Sale;
+import com.precificapro.domain.model.SaleItem;
+import com.precificapro.domain.model.User;
+import com.precificapro.domain.repository.CustomerRepository;
+import com.precificapro.domain.repository.ProductRepository;
+import com.precificapro.domain.repository.SaleRepository;
+import com.precificapro.service.SaleService;
+import com.precificapro.service.SalesRollupService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Importação em massa de vendas (histórico de PDV, pedidos de marketplace).
+ *
+ * O arquivo é lido venda a venda e gravado em lotes: para cada lote, produtos, fretes e clientes
+ * que ainda não estão no cache da importação são buscados em uma consulta cada, e as vendas são
+ * inseridas em uma transação com JDBC batch. Um lote com erro de banco é desfeito sozinho; os
+ * anteriores continuam gravados. O custo unitário é o mesmo snapshot de recordSale.
+ *
+ * Depois de cada lote o contexto de persistência é limpo: com open-in-view a importação inteira
+ * usaria o mesmo EntityManager, e cada flush verificaria todas as vendas já gravadas (memória
+ * e tempo crescendo com o arquivo). Produtos e clientes em cache entram nas vendas seguintes
+ * como referência (getReference), sem nova consulta.
+ *
+ * Vendas importadas são históricas: não dão baixa no estoque. O rollup diário é recalculado
+ * a partir da venda mais antiga importada, ao final.
+ */
+@Service
+@Slf4j
+public class SaleImportService {
+
+    private final SaleRepository saleRepository;
+    private final CustomerRepository customerRepository;
+    private final ProductRepository productRepository;
+    private final SaleService saleService;
+    private final SalesRollupService salesRollupService;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${sales.import.chunk-size:500}")
+    private int chunkSize;
+
+    public SaleImportService(SaleRepository saleRepository,
+                             CustomerRepository customerRepository,
+                             ProductRepository productRepository,
+                             SaleService saleService,
+                             SalesRollupService salesRollupService,
+                             PlatformTransactionManager transactionManager) {
+        this.saleRepository = saleRepository;
+        this.customerRepository = customerRepository;
+        this.productRepository = productRepository;
+        this.saleService = saleService;
+        this.salesRollupService = salesRollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @CacheEvict(value = "dashboardMetrics", key = "#owner.id")
+    public SaleImportEventDTO importSales(User owner, SaleImportReader reader, Consumer<SaleImportEventDTO> events)
+            throws IOException {
+        log.info("📥 Importação de vendas iniciada para o usuário: {}", owner.getEmail());
+        long start = System.currentTimeMillis();
+        ImportState state = new ImportState(owner, events);
+        List<SaleImportRecord> chunk = new ArrayList<>(chunkSize);
+
+        while (true) {
+            SaleImportRecord record;
+            try {
+                record = reader.next();
+            } catch (SaleImportException e) {
+                state.reject(e.getLine(), e.getSaleRef(), e.getMessage());
+                continue;
+            }
+            if (record == null) {
+                break;
+            }
+            chunk.add(record);
+            if (chunk.size() >= chunkSize) {
+                writeChunk(state, chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(state, chunk);
+        }
+
+        if (state.oldestDay != null) {
+            salesRollupService.rebuild(owner.getId(), state.oldestDay);
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        log.info("✅ Importação concluída: {} vendas importadas, {} rejeitadas em {} ms",
+                state.imported, state.failed, elapsed);
+        SaleImportEventDTO summary = SaleImportEventDTO.summary(state.processed, state.imported, state.failed,
+                "Importação concluída em " + elapsed + " ms");
+        events.accept(summary);
+        return summary;
+    }
+
+    private void writeChunk(ImportState state, List<SaleImportRecord> chunk) {
+        resolveProducts(state, chunk);
+        Map<String, Customer> newCustomers = resolveCustomers(state, chunk);
+
+        List<SaleImportRecord> valid = new ArrayList<>(chunk.size());
+        for (SaleImportRecord record : chunk) {
+            String missing = missingProduct(state, record);
+            if (missing != null) {
+                state.reject(record.line(), record.saleRef(), "linha " + record.line() + ": produto não encontrado: " + missing);
+            } else {
+                valid.add(record);
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                customerRepository.saveAll(newCustomers.values());
+                List<Sale> sales = new ArrayList<>(valid.size());
+                for (SaleImportRecord record : valid) {
+                    sales.add(toSale(state, record, newCustomers));
+                }
+                saleRepository.saveAll(sales);
+                // Grava o lote e solta as entidades: o próximo lote começa com o contexto vazio
+                entityManager.flush();
+                entityManager.clear();
+            });
+            state.customersByPhone.putAll(newCustomers);
+            state.processed += valid.size();
+            state.imported += valid.size();
+            for (SaleImportRecord record : valid) {
+                LocalDate day = SalesRollupService.saleDay(record.saleDate());
+                if (state.oldestDay == null || day.isBefore(state.oldestDay)) {
+                    state.oldestDay = day;
+                }
+            }
+        } catch (RuntimeException e) {
+            entityManager.clear();
+            log.warn("Lote de importação desfeito ({} vendas): {}", valid.size(), e.getMessage());
+            for (SaleImportRecord record : valid) {
+                state.reject(record.line(), record.saleRef(), "linha " + record.line() + ": lote não gravado: " + e.getMessage());
+            }
+        }
+        state.events.accept(SaleImportEventDTO.progress(state.processed, state.imported, state.failed));
+    }
+
+    private Sale toSale(ImportState state, SaleImportRecord record, Map<String, Customer> newCustomers) {
+        // Cliente novo é gerenciado nesta transação; os do cache foram soltos em lotes anteriores
+        Customer customer = newCustomers.get(record.customerPhone());
+        if (customer == null) {
+            customer = entityManager.getReference(Customer.class, state.customersByPhone.get(record.customerPhone()).getId());
+        }
+        Sale sale = Sale.builder()
+                .owner(state.owner)
+                .customer(customer)
+                .saleDate(record.saleDate())
+                .build();
+
+        List<SaleItem> items = new ArrayList<>(record.items().size());
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        BigDecimal totalNetProfit = BigDecimal.ZERO;
+        for (SaleImportRecord.Item item : record.items()) {
+            Product product = state.product(item);
+            SaleItem saleItem = SaleService.buildItem(sale, product, item.quantity(), item.unitPrice(),
+                    state.freightUnitByProduct.getOrDefault(product.getId(), BigDecimal.ZERO));
+            saleItem.setProduct(entityManager.getReference(Product.class, product.getId()));
+            items.add(saleItem);
+            totalAmount = totalAmount.add(item.unitPrice().multiply(BigDecimal.valueOf(item.quantity())));
+            totalNetProfit = totalNetProfit.add(saleItem.getNetProfit());
+        }
+        sale.setItems(items);
+        sale.setTotalAmount(totalAmount);
+        sale.setTotalNetProfit(totalNetProfit);
+        return sale;
+    }
+
+    /** Busca (uma consulta por tipo de chave) os produtos do lote que ainda não estão em cache. */
+    private void resolveProducts(ImportState state, List<SaleImportRecord> chunk) {
+        Set<UUID> ids = new HashSet<>();
+        Set<String> skus = new HashSet<>();
+        for (SaleImportRecord record : chunk) {
+            for (SaleImportRecord.Item item : record.items()) {
+                if (item.productId() != null) {
+                    if (!state.productsById.containsKey(item.productId())) ids.add(item.productId());
+                } else if (!state.productsBySku.containsKey(item.productSku())) {
+                    skus.add(item.productSku());
+                }
+            }
+        }
+
+        List<Product> loaded = new ArrayList<>();
+        if (!ids.isEmpty()) loaded.addAll(productRepository.findByOwnerAndIdIn(state.owner, ids));
+        if (!skus.isEmpty()) loaded.addAll(productRepository.findByOwnerAndSkuIn(state.owner, skus));
+
+        Set<UUID> newIds = new HashSet<>();
+        for (Product product : loaded) {
+            if (state.productsById.putIfAbsent(product.getId(), product) == null) {
+                newIds.add(product.getId());
+            }
+            state.productsBySku.putIfAbsent(product.getSku(), product);
+        }
+        state.freightUnitByProduct.putAll(saleService.latestFreightUnitCosts(state.owner, newIds));
+    }
+
+    /**
+     * Clientes do lote pelo telefone (mesma regra de recordSale). Os que não existem são
+     * montados aqui e gravados na transação do lote.
+     */
+    private Map<String, Customer> resolveCustomers(ImportState state, List<SaleImportRecord> chunk) {
+        Map<String, String> missing = new LinkedHashMap<>();
+        for (SaleImportRecord record : chunk) {
+            if (!state.customersByPhone.containsKey(record.customerPhone())) {
+                missing.putIfAbsent(record.customerPhone(), record.customerName());
+            }
+        }
+        if (missing.isEmpty()) {
+            return Map.of();
+        }
+        for (Customer customer : customerRepository.findByOwnerAndPhoneNumberIn(state.owner, missing.keySet())) {
+            state.customersByPhone.put(customer.getPhoneNumber(), customer);
+            missing.remove(customer.getPhoneNumber());
+        }
+
+        Map<String, Customer> created = new HashMap<>();
+        missing.forEach((phone, name) -> created.put(phone, Customer.builder()
+                .owner(state.owner)
+                .phoneNumber(phone)
+                .name(name != null && !name.isBlank() ? name.trim() : "Cliente - " + phone) // Nome padrão
+                .build()));
+        return created;
+    }
+
+    private static String missingProduct(ImportState state, SaleImportRecord record) {
+        for (SaleImportRecord.Item item : record.items()) {
+            if (state.product(item) == null) {
+                return item.productId() != null ? item.productId().toString() : "SKU " + item.productSku();
+            }
+        }
+        return null;
+    }
+
+    /** Caches e contadores de uma importação (vive só durante a requisição). */
+    private static final class ImportState {
+        private final User owner;
+        private final Consumer<SaleImportEventDTO> events;
+        private final Map<UUID, Product> productsById = new HashMap<>();
+        private final Map<String, Product> productsBySku = new HashMap<>();
+        private final Map<UUID, BigDecimal> freightUnitByProduct = new HashMap<>();
+        private final Map<String, Customer> customersByPhone = new HashMap<>();
+        private long processed;
+        private long imported;
+        private long failed;
+        private LocalDate oldestDay;
+
+        ImportState(User owner, Consumer<SaleImportEventDTO> events) {
+            this.owner = owner;
+            this.events = events;
+        }
+
+        Product product(SaleImportRecord.Item item) {
+            return item.productId() != null ? productsById.get(item.productId()) : productsBySku.get(item.productSku());
+        }
+
+        void reject(long line, String saleRef, String message) {
+            processed++;
+            failed++;
+            events.accept(SaleImportEventDTO.error(line, saleRef, message));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.precificapro.service.stockalert;
+
+import com.precificapro.controller.dto.StockAlertDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Entrega os alertas por SSE aos clientes conectados (GET /inventory/alerts/stream).
+ *
+ * Cada alerta é um evento "stock-alert" com id = id do alerta, para o cliente descartar
+ * repetições (um lote pode ser reenviado se outro notificador falhar). Cliente desconectado
+ * não recebe: a lista recente continua em GET /inventory/alerts. As conexões são por
+ * instância; com várias réplicas, o cliente recebe os lotes entregues pela réplica em que
+ * está conectado e a lista recente cobre o restante.
+ */
+@Component
+@Slf4j
+public class SseStockAlertNotifier implements StockAlertNotifier {
+
+    public static final String EVENT_NAME = "stock-alert";
+
+    private final Map<UUID, List<SseEmitter>> emittersByOwner = new ConcurrentHashMap<>();
+    private final long timeoutMs;
+    private final int maxConnectionsPerOwner;
+
+    public SseStockAlertNotifier(@Value("${inventory.alerts.sse.timeout-ms:1800000}") long timeoutMs,
+                                 @Value("${inventory.alerts.sse.max-connections-per-owner:5}") int maxConnectionsPerOwner) {
+        this.timeoutMs = timeoutMs;
+        this.maxConnectionsPerOwner = Math.max(1, maxConnectionsPerOwner);
+    }
+
+    @Override
+    public String name() {
+        return "sse";
+    }
+
+    /**
+     * Nova conexão do owner. Acima de inventory.alerts.sse.max-connections-per-owner a mais
+     * antiga é encerrada, então abas esquecidas não acumulam conexões.
+     */
+    public SseEmitter subscribe(UUID ownerId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        List<SseEmitter> evicted = new ArrayList<>();
+        // Inclusão e limite dentro do compute: uma remoção concorrente não descarta a lista nova
+        emittersByOwner.compute(ownerId, (id, emitters) -> {
+            List<SseEmitter> list = (emitters != null) ? emitters : new CopyOnWriteArrayList<>();
+            list.add(emitter);
+            while (list.size() > maxConnectionsPerOwner) {
+                evicted.add(list.remove(0));
+            }
+            return list;
+        });
+        evicted.forEach(SseEmitter::complete);
+
+        Runnable remove = () -> remove(ownerId, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+        return emitter;
+    }
+
+    @Override
+    public void deliver(UUID ownerId, List<StockAlertDTO> alerts) {
+        List<SseEmitter> emitters = emittersByOwner.get(ownerId);
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            try {
+                for (StockAlertDTO alert : alerts) {
+                    emitter.send(SseEmitter.event()
+                            .id(alert.id().toString())
+                            .name(EVENT_NAME)
+                            .data(alert, MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectou
+                log.debug("Falha ao enviar alerta SSE para {}: {}", ownerId, e.getMessage());
+                remove(ownerId, emitter);
+            }
+        }
+    }
+
+    private void remove(UUID ownerId, SseEmitter emitter) {
+        emittersByOwner.computeIfPresent(ownerId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
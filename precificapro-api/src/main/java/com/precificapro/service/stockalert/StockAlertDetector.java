@@ -0,0 +1,54 @@
+package com.precificapro.service.stockalert;
+
+import com.precificapro.domain.repository.StockAlertRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+/**
+ * Transforma mudanças de nível de estoque em alertas no outbox (stock_alerts).
+ *
+ * Roda de forma síncrona na transação de quem publicou o evento: o alerta só existe se a
+ * alteração de estoque for confirmada, e nunca se perde entre o commit e a entrega. Cada
+ * troca de nível (IN_STOCK, LOW_STOCK, OUT_OF_STOCK, inclusive a volta ao normal) é um
+ * alerta; dentro de inventory.alerts.dedup-window só é descartado o que repete o nível do
+ * último alerta do produto. Alterações concorrentes do mesmo produto já se serializam no
+ * lock da linha de inventory, então a checagem do insert não corre contra outro insert.
+ */
+@Component
+@Slf4j
+public class StockAlertDetector {
+
+    private final StockAlertRepository alertRepository;
+    private final boolean enabled;
+    private final Duration dedupWindow;
+
+    public StockAlertDetector(StockAlertRepository alertRepository,
+                              @Value("${inventory.alerts.enabled:true}") boolean enabled,
+                              @Value("${inventory.alerts.dedup-window:PT1H}") Duration dedupWindow) {
+        this.alertRepository = alertRepository;
+        this.enabled = enabled;
+        this.dedupWindow = dedupWindow;
+    }
+
+    @EventListener
+    public void onStockLevelChanged(StockLevelChangedEvent event) {
+        if (!enabled || !event.levelChanged()) {
+            return;
+        }
+        int inserted = alertRepository.insertIfNew(
+                event.ownerId(), event.productId(), event.productName(),
+                event.level().name(), event.previousLevel().name(),
+                event.available(), event.minStock(),
+                OffsetDateTime.now().minus(dedupWindow));
+        if (inserted > 0) {
+            log.info("🔔 Alerta de estoque: {} {} → {} (disponível {}, mínimo {}, {})",
+                    event.productName(), event.previousLevel(), event.level(),
+                    event.available(), event.minStock(), event.cause());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.precificapro.service.stockalert;
+
+import com.precificapro.controller.dto.StockAlertDTO;
+import com.precificapro.domain.model.StockAlert;
+import com.precificapro.domain.repository.StockAlertRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Entrega os alertas do outbox (stock_alerts) em lotes.
+ *
+ * A cada inventory.alerts.dispatch-interval-ms reserva até inventory.alerts.batch-size alertas
+ * pendentes em uma transação curta (SKIP LOCKED + claimed_until: várias réplicas dividem a
+ * fila sem pegar o mesmo alerta), entrega fora da transação, sem segurar conexão do pool
+ * durante o webhook, e grava o resultado em outra transação curta. Cada alerta guarda os
+ * notificadores que já entregaram (delivered_to): se o webhook falhar, a nova tentativa vai
+ * só para ele, sem repetir o SSE. Depois de inventory.alerts.max-attempts fica como FAILED.
+ */
+@Component
+@Slf4j
+public class StockAlertDispatcher {
+
+    private final StockAlertRepository alertRepository;
+    private final List<StockAlertNotifier> notifiers;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final int retentionDays;
+    private final Duration claimLease;
+
+    public StockAlertDispatcher(StockAlertRepository alertRepository,
+                                List<StockAlertNotifier> notifiers,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${inventory.alerts.batch-size:200}") int batchSize,
+                                @Value("${inventory.alerts.max-attempts:5}") int maxAttempts,
+                                @Value("${inventory.alerts.retention-days:30}") int retentionDays,
+                                @Value("${inventory.alerts.claim-lease:PT5M}") Duration claimLease) {
+        this.alertRepository = alertRepository;
+        this.notifiers = notifiers;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retentionDays = retentionDays;
+        this.claimLease = claimLease;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.alerts.dispatch-interval-ms:2000}")
+    public void dispatchPending() {
+        int delivered;
+        do {
+            delivered = dispatchBatch();
+        } while (delivered == batchSize);
+    }
+
+    /**
+     * @return quantos alertas foram entregues; lote cheio entregue = pode haver mais. Com falha
+     * o laço para, e a nova tentativa fica para o próximo ciclo em vez de gastar as tentativas
+     * em sequência.
+     */
+    private int dispatchBatch() {
+        Instant leaseEnd = Instant.now().plus(claimLease);
+        List<StockAlert> claimed = transactionTemplate.execute(status ->
+                alertRepository.claimPending(batchSize, claimLease.toSeconds()));
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+        // Mesmo owner e mesmos notificadores já entregues = mesma entrega e mesmo resultado
+        Map<List<Object>, List<StockAlert>> groups = claimed.stream()
+                .collect(Collectors.groupingBy(alert -> List.of(alert.getOwnerId(), alert.getDeliveredTo()),
+                        LinkedHashMap::new, Collectors.toList()));
+
+        int delivered = 0;
+        for (List<StockAlert> alerts : groups.values()) {
+            if (Instant.now().isAfter(leaseEnd)) {
+                // O prazo venceu (webhook lento): o resto do lote já pode estar com outro nó
+                log.warn("Prazo de entrega dos alertas de estoque vencido; o restante do lote volta para a fila");
+                break;
+            }
+            UUID ownerId = alerts.get(0).getOwnerId();
+            Set<String> deliveredTo = parseNames(alerts.get(0).getDeliveredTo());
+            String error = deliver(ownerId, alerts.stream().map(StockAlertDTO::from).toList(), deliveredTo);
+            boolean complete = error == null;
+            List<UUID> ids = alerts.stream().map(StockAlert::getId).toList();
+            transactionTemplate.executeWithoutResult(status -> alertRepository.recordDelivery(
+                    ids, String.join(",", deliveredTo), error, complete, maxAttempts));
+            if (complete) {
+                delivered += alerts.size();
+            }
+        }
+        return delivered;
+    }
+
+    /**
+     * Chama os notificadores que ainda não entregaram estes alertas e acrescenta a
+     * {@code deliveredTo} os que entregarem agora.
+     *
+     * @return null se todos já entregaram, ou a primeira falha
+     */
+    private String deliver(UUID ownerId, List<StockAlertDTO> alerts, Set<String> deliveredTo) {
+        String error = null;
+        for (StockAlertNotifier notifier : notifiers) {
+            if (deliveredTo.contains(notifier.name())) {
+                continue;
+            }
+            try {
+                notifier.deliver(ownerId, alerts);
+                deliveredTo.add(notifier.name());
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                log.warn("Falha ao entregar {} alerta(s) de estoque via {}: {}", alerts.size(), notifier.name(), e.getMessage());
+                if (error == null) {
+                    error = truncate(notifier.name() + ": " + e.getMessage());
+                }
+            }
+        }
+        return error;
+    }
+
+    @Scheduled(cron = "${inventory.alerts.cleanup-cron:0 15 4 * * *}")
+    public void deleteOldAlerts() {
+        Integer deleted = transactionTemplate.execute(status ->
+                alertRepository.deleteProcessedBefore(OffsetDateTime.now().minusDays(retentionDays)));
+        if (deleted != null && deleted > 0) {
+            log.info("🧹 {} alerta(s) de estoque antigos removidos", deleted);
+        }
+    }
+
+    private static String truncate(String message) {
+        return (message.length() > 500) ? message.substring(0, 500) : message;
+    }
+
+    private static Set<String> parseNames(String deliveredTo) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : deliveredTo.split(",")) {
+            if (!name.isBlank()) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,20 @@
+package com.precificapro.service.stockalert;
+
+import com.precificapro.controller.dto.StockAlertDTO;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Canal de entrega dos alertas de estoque. O StockAlertDispatcher chama todos os beans que
+ * implementam esta interface, uma vez por owner e lote, fora de transação. Uma exceção mantém
+ * o lote pendente para nova tentativa só neste notificador (o nome fica em delivered_to
+ * quando entrega). Se o nó cair no meio da entrega o lote volta para a fila, então a entrega
+ * ainda deve tolerar repetições.
+ */
+public interface StockAlertNotifier {
+
+    String name();
+
+    void deliver(UUID ownerId, List<StockAlertDTO> alerts) throws Exception;
+}
@@ -0,0 +1,31 @@
+package com.precificapro.service.stockalert;
+
+import com.precificapro.controller.dto.StockAlertDTO;
+import com.precificapro.domain.model.User;
+import com.precificapro.domain.repository.StockAlertRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class StockAlertService {
+
+    private final StockAlertRepository alertRepository;
+    private final SseStockAlertNotifier sseNotifier;
+
+    /** Últimos 50 alertas do owner, entregues ou não. */
+    @Transactional(readOnly = true)
+    public List<StockAlertDTO> findRecent(User owner) {
+        return alertRepository.findTop50ByOwnerIdOrderByCreatedAtDesc(owner.getId()).stream()
+                .map(StockAlertDTO::from)
+                .toList();
+    }
+
+    public SseEmitter subscribe(User owner) {
+        return sseNotifier.subscribe(owner.getId());
+    }
+}
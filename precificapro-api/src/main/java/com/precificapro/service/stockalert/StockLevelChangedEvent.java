@@ -0,0 +1,37 @@
+package com.precificapro.service.stockalert;
+
+import com.precificapro.domain.enums.StockStatus;
+
+import java.util.UUID;
+
+/**
+ * Estoque disponível (atual - reservado) ou mínimo de um produto mudou. Publicado pelo
+ * InventoryService dentro da transação da alteração.
+ *
+ * O nível considera o estoque disponível, não o atual: unidades reservadas não podem ser
+ * vendidas, então uma reserva também pode deixar o produto abaixo do mínimo. É o mesmo
+ * critério de inventory.stock_status (trigger da V26).
+ */
+public record StockLevelChangedEvent(
+        UUID ownerId,
+        UUID productId,
+        String productName,
+        int previousAvailable,
+        int previousMinStock,
+        int available,
+        int minStock,
+        String cause
+) {
+
+    public StockStatus previousLevel() {
+        return StockStatus.of(previousAvailable, previousMinStock);
+    }
+
+    public StockStatus level() {
+        return StockStatus.of(available, minStock);
+    }
+
+    public boolean levelChanged() {
+        return previousLevel() != level();
+    }
+}
@@ -0,0 +1,60 @@
+package com.precificapro.service.stockalert;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.precificapro.controller.dto.StockAlertDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Entrega os alertas com um POST JSON por owner e lote em inventory.alerts.webhook.url
+ * (ex.: integração com e-mail, WhatsApp ou Slack). Só existe se a URL estiver configurada.
+ * Resposta diferente de 2xx mantém o lote pendente para nova tentativa.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.alerts.webhook.url")
+public class WebhookStockAlertNotifier implements StockAlertNotifier {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI url;
+    private final Duration timeout;
+
+    public WebhookStockAlertNotifier(ObjectMapper objectMapper,
+                                     @Value("${inventory.alerts.webhook.url}") String url,
+                                     @Value("${inventory.alerts.webhook.timeout-ms:5000}") long timeoutMs) {
+        this.objectMapper = objectMapper;
+        this.url = URI.create(url);
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public String name() {
+        return "webhook";
+    }
+
+    @Override
+    public void deliver(UUID ownerId, List<StockAlertDTO> alerts) throws IOException, InterruptedException {
+        byte[] body = objectMapper.writeValueAsBytes(Map.of("ownerId", ownerId, "alerts", alerts));
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Webhook de alertas retornou status " + response.statusCode());
+        }
+    }
+}
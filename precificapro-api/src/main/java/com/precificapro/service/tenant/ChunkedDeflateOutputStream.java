@@ -0,0 +1,91 @@
+package com.precificapro.service.tenant;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Corta o que é escrito em chunks de tamanho fixo, cada um comprimido com deflate e gravado
+ * com tamanho e CRC32 (formato em {@link TenantArchive}). {@link #finish()} grava o último
+ * chunk e o marcador de fim; o stream de baixo nunca é fechado.
+ */
+class ChunkedDeflateOutputStream extends OutputStream {
+
+    private final DataOutputStream out;
+    private final Deflater deflater;
+    private final byte[] chunk;
+    private final byte[] deflateBuffer = new byte[64 * 1024];
+    private final ByteArrayOutputStream compressed;
+    private final CRC32 crc = new CRC32();
+    private int length;
+    private boolean finished;
+
+    ChunkedDeflateOutputStream(DataOutputStream out, Deflater deflater, int chunkSize) {
+        this.out = out;
+        this.deflater = deflater;
+        this.chunk = new byte[chunkSize];
+        this.compressed = new ByteArrayOutputStream(chunkSize / 2);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (length == chunk.length) {
+            writeChunk();
+        }
+        chunk[length++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int count) throws IOException {
+        while (count > 0) {
+            if (length == chunk.length) {
+                writeChunk();
+            }
+            int n = Math.min(count, chunk.length - length);
+            System.arraycopy(buffer, offset, chunk, length, n);
+            length += n;
+            offset += n;
+            count -= n;
+        }
+    }
+
+    /** Grava o chunk pendente e o fim da seção. */
+    void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        if (length > 0) {
+            writeChunk();
+        }
+        out.writeInt(0);
+        finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+    }
+
+    private void writeChunk() throws IOException {
+        crc.reset();
+        crc.update(chunk, 0, length);
+
+        deflater.reset();
+        deflater.setInput(chunk, 0, length);
+        deflater.finish();
+        compressed.reset();
+        while (!deflater.finished()) {
+            int n = deflater.deflate(deflateBuffer);
+            compressed.write(deflateBuffer, 0, n);
+        }
+
+        out.writeInt(length);
+        out.writeInt(compressed.size());
+        out.writeInt((int) crc.getValue());
+        compressed.writeTo(out);
+        length = 0;
+    }
+}
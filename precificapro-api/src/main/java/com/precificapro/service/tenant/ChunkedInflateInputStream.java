@@ -0,0 +1,118 @@
+package com.precificapro.service.tenant;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Lado de leitura do {@link ChunkedDeflateOutputStream}: devolve o conteúdo de uma seção,
+ * um chunk por vez, e termina no marcador de fim. {@link #close()} consome o que faltar da
+ * seção para o próximo cabeçalho ficar alinhado; o stream de baixo nunca é fechado.
+ */
+class ChunkedInflateInputStream extends InputStream {
+
+    private final DataInputStream in;
+    private final Inflater inflater;
+    private final CRC32 crc = new CRC32();
+    private byte[] compressed = new byte[0];
+    private byte[] chunk = new byte[0];
+    private int length;
+    private int position;
+    private boolean ended;
+
+    ChunkedInflateInputStream(DataInputStream in, Inflater inflater) {
+        this.in = in;
+        this.inflater = inflater;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureData()) {
+            return -1;
+        }
+        return chunk[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int count) throws IOException {
+        if (count == 0) {
+            return 0;
+        }
+        if (!ensureData()) {
+            return -1;
+        }
+        int n = Math.min(count, length - position);
+        System.arraycopy(chunk, position, buffer, offset, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        while (ensureData()) {
+            position = length;
+        }
+    }
+
+    private boolean ensureData() throws IOException {
+        while (position == length) {
+            if (ended) {
+                return false;
+            }
+            readChunk();
+        }
+        return true;
+    }
+
+    private void readChunk() throws IOException {
+        int rawLength = in.readInt();
+        if (rawLength == 0) {
+            ended = true;
+            length = 0;
+            position = 0;
+            return;
+        }
+        int compressedLength = in.readInt();
+        int expectedCrc = in.readInt();
+        if (rawLength < 0 || rawLength > TenantArchive.MAX_CHUNK_BYTES
+                || compressedLength < 0 || compressedLength > TenantArchive.MAX_CHUNK_BYTES) {
+            throw new IOException("Chunk inválido no arquivo de exportação");
+        }
+        if (compressed.length < compressedLength) {
+            compressed = new byte[compressedLength];
+        }
+        if (chunk.length < rawLength) {
+            chunk = new byte[rawLength];
+        }
+        in.readFully(compressed, 0, compressedLength);
+
+        inflater.reset();
+        inflater.setInput(compressed, 0, compressedLength);
+        try {
+            int inflated = 0;
+            while (inflated < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(chunk, inflated, rawLength - inflated);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += n;
+            }
+            if (inflated != rawLength) {
+                throw new IOException("Chunk truncado no arquivo de exportação");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Chunk corrompido no arquivo de exportação", e);
+        }
+
+        crc.reset();
+        crc.update(chunk, 0, rawLength);
+        if ((int) crc.getValue() != expectedCrc) {
+            throw new IOException("CRC inválido no arquivo de exportação");
+        }
+        length = rawLength;
+        position = 0;
+    }
+}
@@ -0,0 +1,37 @@
+package com.precificapro.service.tenant;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Formato do arquivo de exportação de um owner (.ppta).
+ *
+ * <pre>
+ * "PPTA" | versão (short) | versão do schema (Flyway) | owner de origem | exportado em (epoch ms) | nº de tabelas
+ * para cada tabela:
+ *   nome | nº de colunas | (nome, tipo)... | chunks | nº de linhas (long)
+ * chunk: tamanho original (int, 0 = fim da tabela) | tamanho comprimido (int) | CRC32 (int) | bytes (deflate)
+ * </pre>
+ *
+ * O conteúdo de cada tabela é a saída de COPY ... (FORMAT binary) do PostgreSQL, cortada em
+ * chunks comprimidos independentes: exportação e importação só guardam um chunk em memória.
+ */
+public final class TenantArchive {
+
+    public static final byte[] MAGIC = {'P', 'P', 'T', 'A'};
+    public static final short FORMAT_VERSION = 1;
+    public static final String FILE_EXTENSION = ".ppta";
+    public static final String CONTENT_TYPE = "application/vnd.precificapro.tenant-archive";
+
+    /** Limite de leitura: um arquivo corrompido não pode pedir um buffer arbitrário. */
+    static final int MAX_CHUNK_BYTES = 64 * 1024 * 1024;
+
+    /** Coluna exportada: o tipo (udt_name) precisa ser o mesmo no banco de destino. */
+    public record Column(String name, String type) {}
+
+    public record Header(String schemaVersion, UUID sourceOwnerId, Instant exportedAt, int tableCount) {}
+
+    private TenantArchive() {
+    }
+}
@@ -0,0 +1,73 @@
+package com.precificapro.service.tenant;
+
+import com.precificapro.service.tenant.TenantArchive.Column;
+import com.precificapro.service.tenant.TenantArchive.Header;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.Inflater;
+
+/**
+ * Lê um {@link TenantArchive} na ordem em que foi gravado: cabeçalho, e então cada tabela
+ * com {@link #nextTable()} → conteúdo → {@link #endTable()}.
+ */
+public class TenantArchiveReader implements AutoCloseable {
+
+    /** Seção de uma tabela; {@code data} termina no fim da seção. */
+    public record TableSection(String table, List<Column> columns, InputStream data) {}
+
+    private final DataInputStream in;
+    private final Inflater inflater = new Inflater();
+    private ChunkedInflateInputStream section;
+
+    public TenantArchiveReader(InputStream in) {
+        this.in = new DataInputStream(new BufferedInputStream(in, 64 * 1024));
+    }
+
+    public Header readHeader() throws IOException {
+        byte[] magic = new byte[TenantArchive.MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, TenantArchive.MAGIC)) {
+            throw new IOException("Arquivo não é uma exportação do PrecificaPro");
+        }
+        short version = in.readShort();
+        if (version != TenantArchive.FORMAT_VERSION) {
+            throw new IOException("Versão de arquivo não suportada: " + version);
+        }
+        String schemaVersion = in.readUTF();
+        UUID sourceOwnerId = UUID.fromString(in.readUTF());
+        Instant exportedAt = Instant.ofEpochMilli(in.readLong());
+        int tableCount = in.readShort();
+        return new Header(schemaVersion, sourceOwnerId, exportedAt, tableCount);
+    }
+
+    public TableSection nextTable() throws IOException {
+        String table = in.readUTF();
+        int columnCount = in.readShort();
+        List<Column> columns = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            columns.add(new Column(in.readUTF(), in.readUTF()));
+        }
+        section = new ChunkedInflateInputStream(in, inflater);
+        return new TableSection(table, columns, section);
+    }
+
+    /** Consome o que sobrou da seção e retorna o número de linhas gravado na exportação. */
+    public long endTable() throws IOException {
+        section.close();
+        section = null;
+        return in.readLong();
+    }
+
+    @Override
+    public void close() {
+        inflater.end();
+    }
+}
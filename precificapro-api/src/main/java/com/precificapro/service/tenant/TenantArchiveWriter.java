@@ -0,0 +1,65 @@
+package com.precificapro.service.tenant;
+
+import com.precificapro.service.tenant.TenantArchive.Column;
+import com.precificapro.service.tenant.TenantArchive.Header;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Grava um {@link TenantArchive}: cabeçalho e, para cada tabela, as colunas, o conteúdo em
+ * chunks comprimidos e o número de linhas.
+ */
+public class TenantArchiveWriter implements AutoCloseable {
+
+    private final DataOutputStream out;
+    private final Deflater deflater;
+    private final int chunkSize;
+    private ChunkedDeflateOutputStream section;
+
+    public TenantArchiveWriter(OutputStream out, int compressionLevel, int chunkSize) {
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+        this.deflater = new Deflater(compressionLevel);
+        this.chunkSize = chunkSize;
+    }
+
+    public void writeHeader(Header header) throws IOException {
+        out.write(TenantArchive.MAGIC);
+        out.writeShort(TenantArchive.FORMAT_VERSION);
+        out.writeUTF(header.schemaVersion());
+        out.writeUTF(header.sourceOwnerId().toString());
+        out.writeLong(header.exportedAt().toEpochMilli());
+        out.writeShort(header.tableCount());
+    }
+
+    /** Abre a seção da tabela; o conteúdo é escrito no stream retornado. */
+    public OutputStream beginTable(String table, List<Column> columns) throws IOException {
+        out.writeUTF(table);
+        out.writeShort(columns.size());
+        for (Column column : columns) {
+            out.writeUTF(column.name());
+            out.writeUTF(column.type());
+        }
+        section = new ChunkedDeflateOutputStream(out, deflater, chunkSize);
+        return section;
+    }
+
+    public void endTable(long rows) throws IOException {
+        section.finish();
+        section = null;
+        out.writeLong(rows);
+    }
+
+    public void finish() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() {
+        deflater.end();
+    }
+}
@@ -0,0 +1,89 @@
+package com.precificapro.service.tenant;
+
+import com.precificapro.domain.repository.UserRepository;
+import com.precificapro.exception.ResourceNotFoundException;
+import com.precificapro.service.tenant.TenantArchive.Column;
+import com.precificapro.service.tenant.TenantArchive.Header;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Exporta os dados de um owner para um {@link TenantArchive}.
+ *
+ * Cada tabela sai por COPY (SELECT ... do owner) TO STDOUT (FORMAT binary): o servidor
+ * envia as linhas já serializadas e elas vão direto para os chunks comprimidos, sem virar
+ * objetos Java. A memória fica em um chunk, qualquer que seja o número de linhas. Todas as
+ * tabelas são lidas em uma transação REPEATABLE READ, então o arquivo é um snapshot consistente.
+ */
+@Service
+@Slf4j
+public class TenantExportService {
+
+    private final DataSource dataSource;
+    private final UserRepository userRepository;
+    private final int compressionLevel;
+    private final int chunkSize;
+
+    public TenantExportService(DataSource dataSource,
+                               UserRepository userRepository,
+                               @Value("${tenant.export.compression-level:1}") int compressionLevel,
+                               @Value("${tenant.export.chunk-size-kb:1024}") int chunkSizeKb) {
+        this.dataSource = dataSource;
+        this.userRepository = userRepository;
+        this.compressionLevel = compressionLevel;
+        this.chunkSize = Math.max(64, chunkSizeKb) * 1024;
+    }
+
+    /** Falha antes de começar a escrever a resposta se o owner não existir. */
+    public void requireOwner(UUID ownerId) {
+        if (!userRepository.existsById(ownerId)) {
+            throw new ResourceNotFoundException("Usuário", ownerId);
+        }
+    }
+
+    public void export(UUID ownerId, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        long totalRows = 0;
+
+        try (Connection connection = dataSource.getConnection();
+             TenantArchiveWriter writer = new TenantArchiveWriter(out, compressionLevel, chunkSize)) {
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            connection.setReadOnly(true);
+            try {
+                CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+                writer.writeHeader(new Header(TenantSchema.schemaVersion(connection), ownerId, Instant.now(),
+                        TenantTable.values().length));
+
+                for (TenantTable table : TenantTable.values()) {
+                    List<Column> columns = TenantSchema.columns(connection, table.tableName());
+                    OutputStream section = writer.beginTable(table.tableName(), columns);
+                    long rows = copy.copyOut(table.exportSql(columns, ownerId), section);
+                    writer.endTable(rows);
+                    totalRows += rows;
+                    log.debug("Exportação {}: {} linhas de {}", ownerId, rows, table.tableName());
+                }
+                writer.finish();
+            } finally {
+                connection.rollback(); // só leitura: encerra o snapshot
+            }
+        } catch (SQLException e) {
+            throw new IOException("Falha ao exportar dados do usuário " + ownerId + ": " + e.getMessage(), e);
+        }
+
+        log.info("📤 Exportação do usuário {} concluída: {} linhas em {} ms",
+                ownerId, totalRows, System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,138 @@
+package com.precificapro.service.tenant;
+
+import com.precificapro.config.TenantCacheGenerations;
+import com.precificapro.domain.repository.UserRepository;
+import com.precificapro.exception.BusinessException;
+import com.precificapro.exception.ResourceNotFoundException;
+import com.precificapro.service.InventoryService;
+import com.precificapro.service.SalesRollupService;
+import com.precificapro.service.pricing.CostModelCache;
+import com.precificapro.service.tenant.TenantArchive.Column;
+import com.precificapro.service.tenant.TenantArchive.Header;
+import com.precificapro.service.tenant.TenantArchiveReader.TableSection;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Importa um {@link TenantArchive} para um owner (o mesmo da exportação ou outro).
+ *
+ * Cada tabela entra por COPY ... FROM STDIN (FORMAT binary) em uma tabela temporária e
+ * depois por um único INSERT ... SELECT na tabela real, com owner_id trocado pelo destino.
+ * Tudo em uma transação: um conflito (ex.: ids que já existem no destino) desfaz a importação
+ * inteira. Os ids são preservados, então importar duas vezes no mesmo banco falha.
+ */
+@Service
+@Slf4j
+public class TenantImportService {
+
+    private static final String PRODUCTS_CACHE = "products";
+
+    private final DataSource dataSource;
+    private final UserRepository userRepository;
+    private final SalesRollupService salesRollupService;
+    private final TenantCacheGenerations tenantCache;
+    private final CostModelCache costModelCache;
+
+    public TenantImportService(DataSource dataSource,
+                               UserRepository userRepository,
+                               SalesRollupService salesRollupService,
+                               TenantCacheGenerations tenantCache,
+                               CostModelCache costModelCache) {
+        this.dataSource = dataSource;
+        this.userRepository = userRepository;
+        this.salesRollupService = salesRollupService;
+        this.tenantCache = tenantCache;
+        this.costModelCache = costModelCache;
+    }
+
+    /**
+     * @return linhas inseridas por tabela
+     */
+    @CacheEvict(value = "dashboardMetrics", key = "#targetOwnerId")
+    public Map<String, Long> importArchive(UUID targetOwnerId, InputStream in) {
+        if (!userRepository.existsById(targetOwnerId)) {
+            throw new ResourceNotFoundException("Usuário", targetOwnerId);
+        }
+        long start = System.currentTimeMillis();
+        Map<String, Long> inserted = new LinkedHashMap<>();
+
+        try (Connection connection = dataSource.getConnection();
+             TenantArchiveReader reader = new TenantArchiveReader(in)) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                Header header = reader.readHeader();
+                String schemaVersion = TenantSchema.schemaVersion(connection);
+                if (!schemaVersion.equals(header.schemaVersion())) {
+                    throw new BusinessException("Arquivo exportado no schema " + header.schemaVersion()
+                            + ", banco está no schema " + schemaVersion);
+                }
+                log.info("📥 Importando dados do usuário {} (exportados em {}) para {}",
+                        header.sourceOwnerId(), header.exportedAt(), targetOwnerId);
+
+                CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+                for (int i = 0; i < header.tableCount(); i++) {
+                    TableSection section = reader.nextTable();
+                    TenantTable table = TenantTable.byName(section.table())
+                            .orElseThrow(() -> new BusinessException("Tabela desconhecida no arquivo: " + section.table()));
+                    requireSameColumns(connection, table, section.columns());
+
+                    statement.execute(table.createStagingSql());
+                    long copied = copy.copyIn(table.importCopySql(section.columns()), section.data());
+                    long expected = reader.endTable();
+                    if (copied != expected) {
+                        throw new BusinessException("Arquivo incompleto: " + table.tableName() + " tem "
+                                + copied + " de " + expected + " linhas");
+                    }
+                    inserted.put(table.tableName(), (long) statement.executeUpdate(
+                            table.insertSql(section.columns(), targetOwnerId)));
+                }
+                connection.commit();
+
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException | IOException e) {
+            // Arquivo inválido ou conflito com dados existentes
+            throw new BusinessException("Importação falhou: " + e.getMessage(), e);
+        }
+
+        // Derivados dos dados importados: rollup de vendas e caches do owner
+        salesRollupService.rebuild(targetOwnerId, SalesRollupService.FULL_REBUILD_FROM);
+        tenantCache.invalidate(PRODUCTS_CACHE, targetOwnerId);
+        tenantCache.invalidate(InventoryService.SUMMARY_CACHE, targetOwnerId);
+        costModelCache.evict(targetOwnerId);
+
+        log.info("✅ Importação para {} concluída em {} ms: {}",
+                targetOwnerId, System.currentTimeMillis() - start, inserted);
+        return inserted;
+    }
+
+    /** O COPY binário exige os mesmos tipos: colunas faltando ou com tipo diferente abortam antes. */
+    private static void requireSameColumns(Connection connection, TenantTable table, List<Column> archived)
+            throws SQLException {
+        Map<String, String> target = TenantSchema.columns(connection, table.tableName()).stream()
+                .collect(Collectors.toMap(Column::name, Column::type));
+        for (Column column : archived) {
+            if (!column.type().equals(target.get(column.name()))) {
+                throw new BusinessException("Coluna " + table.tableName() + "." + column.name()
+                        + " (" + column.type() + ") não existe ou tem outro tipo no banco de destino");
+            }
+        }
+    }
+}
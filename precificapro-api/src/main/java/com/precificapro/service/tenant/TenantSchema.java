@@ -0,0 +1,45 @@
+package com.precificapro.service.tenant;
+
+import com.precificapro.service.tenant.TenantArchive.Column;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Consultas ao catálogo usadas pela exportação e pela importação. */
+final class TenantSchema {
+
+    private TenantSchema() {
+    }
+
+    /** Última migration aplicada: exportação e importação precisam estar no mesmo schema. */
+    static String schemaVersion(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT version FROM flyway_schema_history WHERE success AND version IS NOT NULL "
+                        + "ORDER BY installed_rank DESC LIMIT 1");
+             ResultSet rs = statement.executeQuery()) {
+            return rs.next() ? rs.getString(1) : "0";
+        }
+    }
+
+    /** Colunas da tabela (sem as geradas) com o tipo, na ordem do catálogo. */
+    static List<Column> columns(Connection connection, String table) throws SQLException {
+        List<Column> columns = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement("""
+                SELECT column_name, udt_name FROM information_schema.columns
+                WHERE table_schema = 'public' AND table_name = ? AND is_generated = 'NEVER'
+                ORDER BY ordinal_position
+                """)) {
+            statement.setString(1, table);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    columns.add(new Column(rs.getString(1), rs.getString(2)));
+                }
+            }
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,91 @@
+package com.precificapro.service.tenant;
+
+import com.precificapro.service.tenant.TenantArchive.Column;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Tabelas com dados de um owner, na ordem de importação (referenciadas antes de quem as
+ * referencia). As que não têm owner_id são filtradas pelo pai.
+ */
+public enum TenantTable {
+
+    CATEGORIES("categories", "t.owner_id", "", Set.of("owner_id")),
+    PRODUCTS("products", "t.owner_id", "", Set.of("owner_id")),
+    CUSTOMERS("customers", "t.owner_id", "", Set.of("owner_id")),
+    COST_ITEMS("cost_items", "t.owner_id", "", Set.of("owner_id")),
+    PRICING_PROFILES("pricing_profiles", "t.owner_id", "", Set.of("owner_id")),
+    FREIGHT_BATCHES("freight_batches", "t.owner_id", "", Set.of("owner_id")),
+    INVENTORY("inventory", "t.owner_id", "", Set.of("owner_id")),
+    // Reservas ativas seguem junto com reserved_stock; as vencidas expiram no destino
+    STOCK_RESERVATIONS("stock_reservations", "t.owner_id", "", Set.of("owner_id")),
+    // performed_by passa a ser o owner de destino: o usuário de origem pode não existir no destino
+    STOCK_MOVEMENTS("stock_movements", "t.owner_id", "", Set.of("owner_id", "performed_by")),
+    SALES("sales", "t.owner_id", "", Set.of("owner_id")),
+    SALE_ITEMS("sale_items", "s.owner_id", "JOIN public.sales s ON s.id = t.sale_id", Set.of());
+
+    private final String tableName;
+    private final String ownerExpression;
+    private final String join;
+    private final Set<String> ownerColumns;
+
+    TenantTable(String tableName, String ownerExpression, String join, Set<String> ownerColumns) {
+        this.tableName = tableName;
+        this.ownerExpression = ownerExpression;
+        this.join = join;
+        this.ownerColumns = ownerColumns;
+    }
+
+    public String tableName() {
+        return tableName;
+    }
+
+    public static Optional<TenantTable> byName(String tableName) {
+        for (TenantTable table : values()) {
+            if (table.tableName.equals(tableName)) {
+                return Optional.of(table);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /** COPY das linhas do owner em formato binário (o owner é um UUID, seguro como literal). */
+    String exportSql(List<Column> columns, UUID ownerId) {
+        String select = columns.stream().map(c -> "t." + quote(c.name())).collect(Collectors.joining(", "));
+        return "COPY (SELECT " + select + " FROM public." + tableName + " t " + join
+                + " WHERE " + ownerExpression + " = '" + ownerId + "'::uuid) TO STDOUT (FORMAT binary)";
+    }
+
+    String stagingTable() {
+        return "pg_temp.tenant_import_" + tableName;
+    }
+
+    String createStagingSql() {
+        return "CREATE TEMP TABLE tenant_import_" + tableName + " (LIKE public." + tableName + ") ON COMMIT DROP";
+    }
+
+    String importCopySql(List<Column> columns) {
+        return "COPY " + stagingTable() + " (" + columnList(columns) + ") FROM STDIN (FORMAT binary)";
+    }
+
+    /** Move as linhas da tabela temporária para a real, trocando as colunas de owner pelo destino. */
+    String insertSql(List<Column> columns, UUID targetOwnerId) {
+        String values = columns.stream()
+                .map(c -> ownerColumns.contains(c.name()) ? "'" + targetOwnerId + "'::uuid" : quote(c.name()))
+                .collect(Collectors.joining(", "));
+        return "INSERT INTO public." + tableName + " (" + columnList(columns) + ") SELECT " + values
+                + " FROM " + stagingTable();
+    }
+
+    private static String columnList(List<Column> columns) {
+        return columns.stream().map(c -> quote(c.name())).collect(Collectors.joining(", "));
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,13 @@
+-- =====================================================
+-- MIGRATION V14: Índice para o último frete por produto
+-- Atende a simulação em lote (DISTINCT ON product_id ORDER BY created_at DESC)
+-- e a busca unitária findFirstByProductOrderByCreatedAtDesc
+-- =====================================================
+
+CREATE INDEX IF NOT EXISTS idx_freight_batches_owner_product_created
+    ON freight_batches(owner_id, product_id, created_at DESC);
+
+CREATE INDEX IF NOT EXISTS idx_freight_batches_product_created
+    ON freight_batches(product_id, created_at DESC);
+
+ANALYZE freight_batches;
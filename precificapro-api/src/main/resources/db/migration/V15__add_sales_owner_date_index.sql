@@ -0,0 +1,10 @@
+-- =====================================================
+-- MIGRATION V15: Índice para as métricas do dashboard
+-- Agregação por owner e período (hoje, mês corrente, mês anterior).
+-- O INCLUDE permite somar os totais só pelo índice (index-only scan).
+-- =====================================================
+
+CREATE INDEX IF NOT EXISTS idx_sales_owner_date
+    ON sales(owner_id, sale_date) INCLUDE (total_amount, total_net_profit);
+
+ANALYZE sales;
@@ -0,0 +1,22 @@
+-- =====================================================
+-- MIGRATION V16: Rollup diário de vendas por owner/produto/dia
+-- Mantido incrementalmente pelo registro de vendas e reconstruído
+-- por job (SalesRollupService) a partir de sales/sale_items.
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS sales_daily_rollup (
+    owner_id    UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    product_id  UUID NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    sale_day    DATE NOT NULL,
+    quantity    BIGINT NOT NULL DEFAULT 0,
+    revenue     NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    net_profit  NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    sale_count  INT NOT NULL DEFAULT 0,
+    updated_at  TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (owner_id, product_id, sale_day)
+);
+
+-- Gráfico geral do owner (soma de todos os produtos por dia)
+CREATE INDEX IF NOT EXISTS idx_sales_daily_rollup_owner_day ON sales_daily_rollup(owner_id, sale_day);
+
+COMMENT ON TABLE sales_daily_rollup IS 'Totais diários de vendas por produto (quantidade, receita, lucro, nº de vendas)';
@@ -0,0 +1,14 @@
+-- =====================================================
+-- MIGRATION V17: Índices para a listagem paginada de vendas
+-- Keyset em (sale_date, id) por owner, mais recentes primeiro,
+-- e busca dos itens pelas vendas da página (sale_items não tinha
+-- índice em sale_id).
+-- =====================================================
+
+CREATE INDEX IF NOT EXISTS idx_sales_owner_date_id
+    ON sales(owner_id, sale_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_sale_items_sale_id ON sale_items(sale_id);
+
+ANALYZE sales;
+ANALYZE sale_items;
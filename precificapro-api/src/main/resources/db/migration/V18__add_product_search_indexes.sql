@@ -0,0 +1,23 @@
+-- =====================================================
+-- MIGRATION V18: Índices para a busca de produtos
+-- Trigram (pg_trgm) em nome e SKU para prefixo/substring/similaridade
+-- com ILIKE e <%, e índices compostos por owner na ordem de cada
+-- ordenação da busca, com id como desempate do keyset.
+-- (owner_id, sku) já é coberto pela UNIQUE de V1.
+-- =====================================================
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_products_name_trgm ON products USING gin (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_products_sku_trgm ON products USING gin (sku gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_products_owner_name_id
+    ON products(owner_id, name, id);
+
+CREATE INDEX IF NOT EXISTS idx_products_owner_created_id
+    ON products(owner_id, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_products_owner_purchase_cost_id
+    ON products(owner_id, default_purchase_cost, id);
+
+ANALYZE products;
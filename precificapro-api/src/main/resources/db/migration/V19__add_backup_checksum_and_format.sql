@@ -0,0 +1,20 @@
+-- =====================================================
+-- MIGRATION V19: Checksum e formato dos backups
+-- O backup em streaming só conhece o destino e o tamanho do arquivo
+-- no fim do upload, então s3_key e file_size deixam de ser NOT NULL
+-- (o registro é criado como IN_PROGRESS antes). checksum_sha256 é
+-- calculado durante o upload e conferido no restore; format diz se o
+-- arquivo é SQL puro, SQL com gzip ou formato custom do pg_dump.
+-- =====================================================
+
+ALTER TABLE backup_metadata ALTER COLUMN s3_key DROP NOT NULL;
+ALTER TABLE backup_metadata ALTER COLUMN file_size DROP NOT NULL;
+
+ALTER TABLE backup_metadata ADD COLUMN IF NOT EXISTS checksum_sha256 VARCHAR(64);
+ALTER TABLE backup_metadata ADD COLUMN IF NOT EXISTS format VARCHAR(20) NOT NULL DEFAULT 'PLAIN';
+
+COMMENT ON COLUMN backup_metadata.s3_key IS 'Chave do arquivo no destino (ID no Google Drive ou nome no diretório local)';
+COMMENT ON COLUMN backup_metadata.checksum_sha256 IS 'SHA-256 do arquivo enviado, em hexadecimal';
+COMMENT ON COLUMN backup_metadata.format IS 'Formato: PLAIN, PLAIN_GZIP ou CUSTOM (pg_dump -Fc)';
+
+ANALYZE backup_metadata;
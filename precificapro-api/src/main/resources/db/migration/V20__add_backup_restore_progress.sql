@@ -0,0 +1,22 @@
+-- =====================================================
+-- MIGRATION V20: Restore assíncrono de backups
+-- Fase, progresso e erro do restore ficam na própria linha do backup
+-- (consultados em GET /api/backups/{id}/restore).
+-- backup_metadata é o catálogo dos backups e fica fora do restore
+-- completo; a FK para users sai porque o pg_restore --clean precisa
+-- dropar e recriar users sem depender desta tabela.
+-- =====================================================
+
+ALTER TABLE backup_metadata DROP CONSTRAINT IF EXISTS fk_backup_created_by;
+
+ALTER TABLE backup_metadata ADD COLUMN IF NOT EXISTS restore_status VARCHAR(20);
+ALTER TABLE backup_metadata ADD COLUMN IF NOT EXISTS restore_progress INTEGER;
+ALTER TABLE backup_metadata ADD COLUMN IF NOT EXISTS restore_started_at TIMESTAMP;
+ALTER TABLE backup_metadata ADD COLUMN IF NOT EXISTS restore_tables VARCHAR(500);
+ALTER TABLE backup_metadata ADD COLUMN IF NOT EXISTS restore_error VARCHAR(1000);
+
+COMMENT ON COLUMN backup_metadata.restore_status IS 'Restore: QUEUED, DOWNLOADING, RESTORING, COMPLETED, FAILED';
+COMMENT ON COLUMN backup_metadata.restore_progress IS 'Percentual da fase atual do restore';
+COMMENT ON COLUMN backup_metadata.restore_tables IS 'Tabelas do restore seletivo (null = banco inteiro)';
+
+ANALYZE backup_metadata;
@@ -0,0 +1,22 @@
+-- =====================================================
+-- MIGRATION V21: Contadores de rate limiting compartilhados
+-- Usada só com security.rate-limit.backend=jdbc (várias réplicas):
+-- uma linha por chave (usuário, IP ou rota) e janela fixa.
+-- UNLOGGED: contadores são descartáveis, não precisam de WAL nem
+-- sobreviver a um crash; a limpeza periódica apaga janelas vencidas.
+-- =====================================================
+
+CREATE UNLOGGED TABLE IF NOT EXISTS rate_limit_counters (
+    bucket_key   VARCHAR(300) NOT NULL,
+    window_start BIGINT       NOT NULL,
+    used         BIGINT       NOT NULL,
+    expires_at   TIMESTAMPTZ  NOT NULL,
+    PRIMARY KEY (bucket_key, window_start)
+);
+
+CREATE INDEX IF NOT EXISTS idx_rate_limit_counters_expires_at ON rate_limit_counters (expires_at);
+
+COMMENT ON TABLE rate_limit_counters IS 'Rate limiting: permissões reservadas por chave e janela (ver JdbcRateLimitBackend)';
+COMMENT ON COLUMN rate_limit_counters.window_start IS 'Início da janela em epoch ms (alinhado à época)';
+
+ANALYZE rate_limit_counters;
@@ -0,0 +1,10 @@
+-- =====================================================
+-- MIGRATION V22: Remove índice duplicado de product_id no inventário
+-- idx_inventory_product_id duplicava o índice da UNIQUE de product_id.
+-- O índice de cobertura do resumo (GET /inventory/summary) vem com
+-- a coluna owner_id do inventário, na V23.
+-- =====================================================
+
+DROP INDEX IF EXISTS idx_inventory_product_id;
+
+ANALYZE inventory;
@@ -0,0 +1,65 @@
+-- =====================================================
+-- MIGRATION V23: owner_id em inventory e stock_movements
+-- As consultas por owner (lista, estoque baixo, contagens, resumo)
+-- filtravam por products.owner_id e precisavam de JOIN a cada
+-- chamada. O owner do produto passa a ser gravado na própria linha
+-- (a aplicação preenche em toda escrita; o trigger só cobre inserts
+-- sem owner_id, como restores de backups anteriores a esta versão).
+-- =====================================================
+
+ALTER TABLE inventory ADD COLUMN IF NOT EXISTS owner_id UUID;
+ALTER TABLE stock_movements ADD COLUMN IF NOT EXISTS owner_id UUID;
+
+UPDATE inventory i SET owner_id = p.owner_id
+FROM products p
+WHERE p.id = i.product_id AND i.owner_id IS NULL;
+
+UPDATE stock_movements m SET owner_id = p.owner_id
+FROM products p
+WHERE p.id = m.product_id AND m.owner_id IS NULL;
+
+ALTER TABLE inventory ALTER COLUMN owner_id SET NOT NULL;
+ALTER TABLE stock_movements ALTER COLUMN owner_id SET NOT NULL;
+
+ALTER TABLE inventory ADD CONSTRAINT fk_inventory_owner
+    FOREIGN KEY (owner_id) REFERENCES users(id) ON DELETE CASCADE;
+ALTER TABLE stock_movements ADD CONSTRAINT fk_stock_movements_owner
+    FOREIGN KEY (owner_id) REFERENCES users(id) ON DELETE CASCADE;
+
+-- Preenche owner_id a partir do produto quando o INSERT não informa
+CREATE OR REPLACE FUNCTION fill_owner_from_product()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF NEW.owner_id IS NULL THEN
+        SELECT p.owner_id INTO NEW.owner_id FROM products p WHERE p.id = NEW.product_id;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trigger_inventory_fill_owner
+BEFORE INSERT ON inventory
+FOR EACH ROW
+EXECUTE FUNCTION fill_owner_from_product();
+
+CREATE TRIGGER trigger_stock_movements_fill_owner
+BEFORE INSERT ON stock_movements
+FOR EACH ROW
+EXECUTE FUNCTION fill_owner_from_product();
+
+-- Lista, estoque baixo e contagens por status; o INCLUDE cobre o resumo e as contagens
+CREATE INDEX IF NOT EXISTS idx_inventory_owner_status
+    ON inventory(owner_id, stock_status) INCLUDE (product_id, current_stock, reserved_stock);
+
+-- Histórico de movimentações de um produto (mais recentes primeiro) e do owner
+CREATE INDEX IF NOT EXISTS idx_stock_movements_product_created
+    ON stock_movements(product_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_stock_movements_owner_created
+    ON stock_movements(owner_id, created_at DESC);
+
+-- Cobertos pelos índices acima
+DROP INDEX IF EXISTS idx_inventory_stock_status;
+DROP INDEX IF EXISTS idx_stock_movements_product_id;
+
+ANALYZE inventory;
+ANALYZE stock_movements;
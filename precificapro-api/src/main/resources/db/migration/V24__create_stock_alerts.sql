@@ -0,0 +1,41 @@
+-- =====================================================
+-- MIGRATION V24: alertas de estoque (outbox)
+-- Gravados na mesma transação da alteração de estoque quando o
+-- produto muda de nível (IN_STOCK / LOW_STOCK / OUT_OF_STOCK) e
+-- entregues depois, em lotes, pelo StockAlertDispatcher. delivered_to
+-- guarda os notificadores que já entregaram (nova tentativa só nos
+-- que falharam) e claimed_until o prazo do lote em entrega.
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS stock_alerts (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    owner_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    product_id UUID NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    product_name VARCHAR(255),
+    alert_type VARCHAR(20) NOT NULL,
+    previous_level VARCHAR(20) NOT NULL,
+    available_stock INTEGER NOT NULL,
+    min_stock INTEGER NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(500),
+    delivered_to VARCHAR(100) NOT NULL DEFAULT '',
+    claimed_until TIMESTAMP WITH TIME ZONE,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    delivered_at TIMESTAMP WITH TIME ZONE,
+    CONSTRAINT chk_stock_alerts_status CHECK (status IN ('PENDING', 'DELIVERED', 'FAILED'))
+);
+
+-- Deduplicação: último alerta do produto dentro da janela (subquery do insert)
+CREATE INDEX IF NOT EXISTS idx_stock_alerts_product_created
+    ON stock_alerts(owner_id, product_id, created_at DESC);
+
+-- Fila do dispatcher
+CREATE INDEX IF NOT EXISTS idx_stock_alerts_pending
+    ON stock_alerts(created_at) WHERE status = 'PENDING';
+
+-- Alertas recentes do owner
+CREATE INDEX IF NOT EXISTS idx_stock_alerts_owner_created
+    ON stock_alerts(owner_id, created_at DESC);
+
+ANALYZE stock_alerts;
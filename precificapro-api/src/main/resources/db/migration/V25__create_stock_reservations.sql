@@ -0,0 +1,41 @@
+-- =====================================================
+-- MIGRATION V25: reservas de estoque com prazo
+-- Cada reserva tem id, owner, quantidade e vencimento; as ativas
+-- somam inventory.reserved_stock. Vencidas são liberadas em lote
+-- pelo StockReservationSweeper, e a venda que informa a reserva a
+-- consome na mesma baixa de estoque.
+-- =====================================================
+
+CREATE TABLE IF NOT EXISTS stock_reservations (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    product_id UUID NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    owner_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    quantity INTEGER NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE',
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    resolved_at TIMESTAMP WITH TIME ZONE,
+    CONSTRAINT chk_stock_reservations_quantity CHECK (quantity > 0),
+    CONSTRAINT chk_stock_reservations_status CHECK (status IN ('ACTIVE', 'CONSUMED', 'RELEASED', 'EXPIRED'))
+);
+
+-- Varredura de expiração: só as ativas, em ordem de vencimento
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_active_expires
+    ON stock_reservations(expires_at) WHERE status = 'ACTIVE';
+
+-- Reservas ativas de um produto
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_active_product
+    ON stock_reservations(owner_id, product_id) WHERE status = 'ACTIVE';
+
+-- Limpeza das encerradas
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_resolved
+    ON stock_reservations(resolved_at) WHERE status <> 'ACTIVE';
+
+-- Unidades já reservadas (sem identidade) viram uma reserva por produto com 1 dia de
+-- prazo, para saírem de reserved_stock sozinhas em vez de ficarem presas
+INSERT INTO stock_reservations (product_id, owner_id, quantity, status, expires_at)
+SELECT i.product_id, i.owner_id, i.reserved_stock, 'ACTIVE', CURRENT_TIMESTAMP + INTERVAL '1 day'
+FROM inventory i
+WHERE i.reserved_stock > 0;
+
+ANALYZE stock_reservations;
@@ -0,0 +1,42 @@
+-- =====================================================
+-- MIGRATION V26: stock_status pelo estoque disponível
+-- O trigger da V4 classificava pelo estoque atual, enquanto os
+-- alertas (StockLevelChangedEvent) usam o disponível (atual -
+-- reservado). Com reservas, /inventory/low-stock, o resumo e os
+-- alertas discordavam do mesmo produto. Unidades reservadas não
+-- podem ser vendidas, então o disponível vale para os dois.
+-- =====================================================
+
+CREATE OR REPLACE FUNCTION update_available_stock()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.available_stock = NEW.current_stock - NEW.reserved_stock;
+    
+    -- Mesma regra de StockStatus.of: zerado, até o mínimo, acima dele
+    IF NEW.available_stock <= 0 THEN
+        NEW.stock_status = 'OUT_OF_STOCK';
+    ELSIF NEW.available_stock <= NEW.min_stock THEN
+        NEW.stock_status = 'LOW_STOCK';
+    ELSE
+        NEW.stock_status = 'IN_STOCK';
+    END IF;
+    
+    NEW.updated_at = CURRENT_TIMESTAMP;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Reclassifica só as linhas cujo status muda (as que têm unidades reservadas)
+UPDATE inventory
+SET stock_status = CASE
+        WHEN current_stock - reserved_stock <= 0 THEN 'OUT_OF_STOCK'
+        WHEN current_stock - reserved_stock <= min_stock THEN 'LOW_STOCK'
+        ELSE 'IN_STOCK'
+    END
+WHERE stock_status <> CASE
+        WHEN current_stock - reserved_stock <= 0 THEN 'OUT_OF_STOCK'
+        WHEN current_stock - reserved_stock <= min_stock THEN 'LOW_STOCK'
+        ELSE 'IN_STOCK'
+    END;
+
+COMMENT ON COLUMN inventory.stock_status IS 'Status do estoque disponível (atual - reservado): IN_STOCK, LOW_STOCK, OUT_OF_STOCK';
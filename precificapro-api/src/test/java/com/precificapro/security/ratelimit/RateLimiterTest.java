@@ -0,0 +1,117 @@
+package com.precificapro.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+	private static final RateLimitPolicy POLICY = RateLimitPolicy.perSeconds("test", 10, 60);
+
+	@Test
+	void limitsEachWindowAndResetsOnTheNext() {
+		AtomicLong now = new AtomicLong(120_000);
+		RateLimiter limiter = new RateLimiter(new InMemoryRateLimitBackend(1_000), 1_000, 0.1, now::get);
+
+		assertEquals(10, acquire(limiter, "ip:1", 15));
+		assertEquals(10, acquire(limiter, "ip:2", 15));
+		assertEquals(60, limiter.retryAfterSeconds(POLICY));
+
+		now.addAndGet(60_000);
+		assertEquals(10, acquire(limiter, "ip:1", 15));
+	}
+
+	@Test
+	void sharedBackendEnforcesOneQuotaAcrossNodes() {
+		AtomicLong now = new AtomicLong(0);
+		RateLimitBackend shared = sharedStandIn(new InMemoryRateLimitBackend(1_000));
+		RateLimiter nodeA = new RateLimiter(shared, 1_000, 0.1, now::get);
+		RateLimiter nodeB = new RateLimiter(shared, 1_000, 0.1, now::get);
+
+		int granted = 0;
+		for (int i = 0; i < 20; i++) {
+			granted += nodeA.tryAcquire("user:a", POLICY) ? 1 : 0;
+			granted += nodeB.tryAcquire("user:a", POLICY) ? 1 : 0;
+		}
+		assertEquals(10, granted);
+		assertFalse(nodeA.tryAcquire("user:a", POLICY));
+	}
+
+	@Test
+	void grantsExactlyTheLimitUnderContention() throws Exception {
+		RateLimitPolicy policy = RateLimitPolicy.perSeconds("test", 1_000, 3_600);
+		RateLimitBackend shared = sharedStandIn(new InMemoryRateLimitBackend(1_000));
+		RateLimiter limiter = new RateLimiter(shared, 1_000, 0.05, () -> 0L);
+		AtomicInteger granted = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		for (int t = 0; t < 8; t++) {
+			pool.execute(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int i = 0; i < 500; i++) {
+					if (limiter.tryAcquire("ip:hot", policy)) {
+						granted.incrementAndGet();
+					}
+				}
+			});
+		}
+		start.countDown();
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+		assertEquals(1_000, granted.get());
+	}
+
+	@Test
+	void failsOpenWhenBackendIsDown() {
+		RateLimitBackend down = new RateLimitBackend() {
+			@Override
+			public long acquire(String key, long windowStartMillis, long windowMillis, long limit, long requested) {
+				throw new IllegalStateException("down");
+			}
+
+			@Override
+			public boolean shared() {
+				return true;
+			}
+		};
+		RateLimiter limiter = new RateLimiter(down, 1_000, 0.1, () -> 0L);
+		assertTrue(limiter.tryAcquire("ip:1", POLICY));
+	}
+
+	private static int acquire(RateLimiter limiter, String key, int attempts) {
+		int granted = 0;
+		for (int i = 0; i < attempts; i++) {
+			granted += limiter.tryAcquire(key, POLICY) ? 1 : 0;
+		}
+		return granted;
+	}
+
+	/** Mesmo backend em memória, mas tratado como compartilhado: reservas em lotes pequenos. */
+	private static RateLimitBackend sharedStandIn(RateLimitBackend backend) {
+		return new RateLimitBackend() {
+			@Override
+			public long acquire(String key, long windowStartMillis, long windowMillis, long limit, long requested) {
+				return backend.acquire(key, windowStartMillis, windowMillis, limit, requested);
+			}
+
+			@Override
+			public boolean shared() {
+				return true;
+			}
+		};
+	}
+}
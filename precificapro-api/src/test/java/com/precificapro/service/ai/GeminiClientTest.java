@@ -0,0 +1,70 @@
+package com.precificapro.service.ai;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GeminiClientTest {
+
+	private GeminiStubServer stub;
+	private GeminiClient client;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		stub = new GeminiStubServer(0);
+		client = new GeminiClient(new ObjectMapper(), GeminiStubServer.API_KEY, stub.baseUrl(), "test-model",
+				1000, 5000, 2, 10);
+	}
+
+	@AfterEach
+	void tearDown() {
+		stub.close();
+	}
+
+	@Test
+	void generateReturnsTextAndSendsKeyInHeader() throws Exception {
+		stub.answering("Margem ", "saudável.");
+
+		assertEquals("Margem saudável.", client.generate("pergunta").get(5, TimeUnit.SECONDS));
+		assertEquals(GeminiStubServer.API_KEY, stub.lastApiKey());
+	}
+
+	@Test
+	void generateRetriesOnServerError() throws Exception {
+		stub.answering("ok").failing(1);
+
+		assertEquals("ok", client.generate("pergunta").get(5, TimeUnit.SECONDS));
+		assertEquals(2, stub.requestCount());
+	}
+
+	@Test
+	void generateFailsAfterLastAttempt() {
+		stub.failing(2);
+
+		ExecutionException e = assertThrows(ExecutionException.class,
+				() -> client.generate("pergunta").get(5, TimeUnit.SECONDS));
+		assertInstanceOf(GeminiException.class, e.getCause());
+		assertEquals(2, stub.requestCount());
+	}
+
+	@Test
+	void streamDeliversChunksInOrder() throws Exception {
+		stub.answering("Olá! ", "Seu lucro ", "está ótimo.");
+		List<String> received = new CopyOnWriteArrayList<>();
+
+		String full = client.stream("pergunta", received::add).get(5, TimeUnit.SECONDS);
+
+		assertEquals(List.of("Olá! ", "Seu lucro ", "está ótimo."), received);
+		assertEquals("Olá! Seu lucro está ótimo.", full);
+	}
+}
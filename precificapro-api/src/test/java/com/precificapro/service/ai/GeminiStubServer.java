@@ -0,0 +1,105 @@
+package com.precificapro.service.ai;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor local que imita os endpoints generateContent e streamGenerateContent (SSE) da
+ * Gemini API, para testar o {@link GeminiClient} sem rede.
+ *
+ * Também roda sozinho para desenvolvimento:
+ * GEMINI_BASE_URL=http://localhost:8089/v1beta GEMINI_API_KEY=stub
+ */
+public class GeminiStubServer implements AutoCloseable {
+
+    public static final String API_KEY = "stub-key";
+
+    private final HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile List<String> chunks = List.of("Olá! ", "Seu lucro ", "está ótimo.");
+    private volatile int failuresBeforeSuccess;
+    private volatile String lastApiKey;
+
+    public GeminiStubServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/v1beta/models/", this::handle);
+        server.start();
+    }
+
+    public static void main(String[] args) throws IOException {
+        new GeminiStubServer(args.length > 0 ? Integer.parseInt(args[0]) : 8089);
+        System.out.println("Gemini stub em http://localhost:8089/v1beta");
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/v1beta";
+    }
+
+    public GeminiStubServer answering(String... chunks) {
+        this.chunks = List.of(chunks);
+        return this;
+    }
+
+    /** As próximas {@code count} requisições respondem 503. */
+    public GeminiStubServer failing(int count) {
+        this.failuresBeforeSuccess = count;
+        return this;
+    }
+
+    public int requestCount() {
+        return requests.get();
+    }
+
+    public String lastApiKey() {
+        return lastApiKey;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        lastApiKey = exchange.getRequestHeaders().getFirst("x-goog-api-key");
+        exchange.getRequestBody().readAllBytes();
+
+        if (failuresBeforeSuccess > 0) {
+            failuresBeforeSuccess--;
+            respond(exchange, 503, "application/json", "{\"error\":{\"code\":503}}");
+            return;
+        }
+        if (exchange.getRequestURI().getPath().endsWith(":streamGenerateContent")) {
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (String chunk : chunks) {
+                    out.write(("data: " + response(chunk) + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                }
+            }
+        } else {
+            respond(exchange, 200, "application/json", response(String.join("", chunks)));
+        }
+    }
+
+    private static String response(String text) {
+        return "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + text.replace("\"", "\\\"") + "\"}],\"role\":\"model\"}}]}";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,234 @@
+package com.precificapro.service.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditLogWriterTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void failedBatchIsWrittenRowByRow() {
+		FakeDatabase database = new FakeDatabase();
+		AuditLogWriter writer = writer(database, 3, AuditOverflowPolicy.DROP_NEWEST, 0);
+		writer.start();
+
+		assertTrue(writer.submit(event("ok-1")));
+		assertTrue(writer.submit(event(FakeDatabase.BAD_ACTION)));
+		assertTrue(writer.submit(event("ok-2")));
+		writer.stop();
+
+		assertEquals(List.of("ok-1", "ok-2"), database.rows());
+		assertEquals(1, database.failedBatches);
+		assertEquals(2, counter("audit.events.written"));
+		assertEquals(1, dropped("error"));
+	}
+
+	@Test
+	void dropOldestMakesRoomForTheNewEvent() throws Exception {
+		FakeDatabase database = new FakeDatabase();
+		AuditLogWriter writer = fillWhileWriterIsBusy(database, AuditOverflowPolicy.DROP_OLDEST, 0);
+
+		assertTrue(writer.submit(event("e5")));
+		database.open();
+		writer.stop();
+
+		assertEquals(List.of("e0", "e2", "e3", "e4", "e5"), database.rows());
+		assertEquals(1, dropped("overflow"));
+	}
+
+	@Test
+	void blockGivesUpAfterTheOfferTimeout() throws Exception {
+		FakeDatabase database = new FakeDatabase();
+		AuditLogWriter writer = fillWhileWriterIsBusy(database, AuditOverflowPolicy.BLOCK, 50);
+
+		long start = System.nanoTime();
+		assertFalse(writer.submit(event("e5")));
+		assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+		database.open();
+		writer.stop();
+
+		assertEquals(List.of("e0", "e1", "e2", "e3", "e4"), database.rows());
+		assertEquals(1, dropped("overflow"));
+	}
+
+	@Test
+	void blockWaitsForTheWriterToFreeSpace() throws Exception {
+		FakeDatabase database = new FakeDatabase();
+		AuditLogWriter writer = fillWhileWriterIsBusy(database, AuditOverflowPolicy.BLOCK, 10_000);
+
+		Thread.ofPlatform().start(() -> {
+			try {
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			database.open();
+		});
+		assertTrue(writer.submit(event("e5")));
+		writer.stop();
+
+		assertEquals(List.of("e0", "e1", "e2", "e3", "e4", "e5"), database.rows());
+		assertEquals(0, dropped("overflow"));
+	}
+
+	/**
+	 * Buffer de 4 posições cheio: e0 está sendo gravado (o banco só responde depois de
+	 * {@link FakeDatabase#open()}) e e1..e4 aguardam no buffer.
+	 */
+	private AuditLogWriter fillWhileWriterIsBusy(FakeDatabase database, AuditOverflowPolicy policy,
+	                                             long offerTimeoutMs) throws InterruptedException {
+		database.close();
+		AuditLogWriter writer = writer(database, 1, policy, offerTimeoutMs);
+		writer.start();
+		assertTrue(writer.submit(event("e0")));
+		assertTrue(database.flushStarted.await(5, TimeUnit.SECONDS));
+		for (int i = 1; i <= 4; i++) {
+			assertTrue(writer.submit(event("e" + i)));
+		}
+		return writer;
+	}
+
+	private AuditLogWriter writer(FakeDatabase database, int maxBatch, AuditOverflowPolicy policy, long offerTimeoutMs) {
+		return new AuditLogWriter(database.dataSource(), meterRegistry, 4, maxBatch, 60_000, policy, offerTimeoutMs);
+	}
+
+	private double counter(String name) {
+		return meterRegistry.get(name).counter().count();
+	}
+
+	private double dropped(String reason) {
+		return meterRegistry.get("audit.events.dropped").tag("reason", reason).counter().count();
+	}
+
+	private static AuditEvent event(String action) {
+		return new AuditEvent(null, action, "TEST", "1", null, "127.0.0.1", "junit", OffsetDateTime.now());
+	}
+
+	/**
+	 * Banco falso no nível do JDBC: guarda a ação (parâmetro 2) de cada linha gravada e recusa a
+	 * ação {@link #BAD_ACTION}, derrubando o lote inteiro que a contiver, como o PostgreSQL.
+	 */
+	private static final class FakeDatabase {
+
+		static final String BAD_ACTION = "bad";
+
+		final CountDownLatch flushStarted = new CountDownLatch(1);
+		private final List<String> rows = Collections.synchronizedList(new ArrayList<>());
+		private volatile CountDownLatch gate = new CountDownLatch(0);
+		volatile int failedBatches;
+
+		List<String> rows() {
+			return List.copyOf(rows);
+		}
+
+		void close() {
+			gate = new CountDownLatch(1);
+		}
+
+		void open() {
+			gate.countDown();
+		}
+
+		DataSource dataSource() {
+			return proxy(DataSource.class, (method, args) ->
+					"getConnection".equals(method) ? connection() : null);
+		}
+
+		private Connection connection() {
+			DatabaseMetaData metaData = proxy(DatabaseMetaData.class, (method, args) ->
+					"supportsBatchUpdates".equals(method) ? Boolean.TRUE : null);
+			Connection[] connection = new Connection[1];
+			connection[0] = proxy(Connection.class, (method, args) -> switch (method) {
+				case "prepareStatement" -> statement(connection[0]);
+				case "getMetaData" -> metaData;
+				default -> null;
+			});
+			return connection[0];
+		}
+
+		private PreparedStatement statement(Connection connection) throws InterruptedException {
+			flushStarted.countDown();
+			gate.await();
+			List<String> batch = new ArrayList<>();
+			String[] action = new String[1];
+			return proxy(PreparedStatement.class, (method, args) -> switch (method) {
+				case "setString" -> {
+					if ((Integer) args[0] == 2) {
+						action[0] = (String) args[1];
+					}
+					yield null;
+				}
+				case "addBatch" -> batch.add(action[0]);
+				case "executeBatch" -> {
+					if (batch.contains(BAD_ACTION)) {
+						failedBatches++;
+						throw new BatchUpdateException("value too long", new int[0]);
+					}
+					rows.addAll(batch);
+					int[] counts = new int[batch.size()];
+					Arrays.fill(counts, 1);
+					batch.clear();
+					yield counts;
+				}
+				case "executeUpdate" -> {
+					if (BAD_ACTION.equals(action[0])) {
+						throw new SQLException("value too long");
+					}
+					rows.add(action[0]);
+					yield 1;
+				}
+				case "getConnection" -> connection;
+				default -> null;
+			});
+		}
+
+		@FunctionalInterface
+		private interface Handler {
+			Object handle(String method, Object[] args) throws Exception;
+		}
+
+		private static <T> T proxy(Class<T> type, Handler handler) {
+			Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+				Object result = handler.handle(method.getName(), args);
+				if (result == null && method.getReturnType().isPrimitive()) {
+					return defaultValue(method.getReturnType());
+				}
+				return result;
+			});
+			return type.cast(proxy);
+		}
+
+		private static Object defaultValue(Class<?> type) {
+			if (type == boolean.class) {
+				return false;
+			}
+			if (type == int.class) {
+				return 0;
+			}
+			if (type == long.class) {
+				return 0L;
+			}
+			return null;
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package com.precificapro.service.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedMpmcQueueTest {
+
+	@Test
+	void keepsFifoOrderAcrossWraparound() {
+		BoundedMpmcQueue<Integer> queue = new BoundedMpmcQueue<>(4);
+		assertEquals(4, queue.capacity());
+
+		int next = 0;
+		int expected = 0;
+		for (int round = 0; round < 10; round++) {
+			for (int i = 0; i < 3; i++) {
+				assertTrue(queue.offer(next++));
+			}
+			for (int i = 0; i < 3; i++) {
+				assertEquals(expected++, queue.poll());
+			}
+		}
+		assertNull(queue.poll());
+		assertEquals(0, queue.size());
+	}
+
+	@Test
+	void offerReturnsFalseWhenFull() {
+		BoundedMpmcQueue<String> queue = new BoundedMpmcQueue<>(4);
+		for (int i = 0; i < 4; i++) {
+			assertTrue(queue.offer("e" + i));
+		}
+		assertFalse(queue.offer("e4"));
+		assertEquals(4, queue.size());
+
+		assertEquals("e0", queue.poll());
+		assertTrue(queue.offer("e4"));
+		assertFalse(queue.offer("e5"));
+	}
+
+	@Test
+	void concurrentProducersNeitherLoseNorDuplicate() throws Exception {
+		int producers = 4;
+		int perProducer = 50_000;
+		int total = producers * perProducer;
+		BoundedMpmcQueue<Integer> queue = new BoundedMpmcQueue<>(1_024);
+		AtomicIntegerArray seen = new AtomicIntegerArray(total);
+		AtomicInteger consumed = new AtomicInteger();
+		AtomicBoolean producing = new AtomicBoolean(true);
+		CountDownLatch start = new CountDownLatch(1);
+
+		ExecutorService pool = Executors.newFixedThreadPool(producers + 2);
+		CountDownLatch produced = new CountDownLatch(producers);
+		for (int p = 0; p < producers; p++) {
+			int first = p * perProducer;
+			pool.execute(() -> {
+				try {
+					start.await();
+					for (int i = first; i < first + perProducer; i++) {
+						while (!queue.offer(i)) {
+							Thread.onSpinWait();
+						}
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					produced.countDown();
+				}
+			});
+		}
+		for (int c = 0; c < 2; c++) {
+			pool.execute(() -> {
+				while (producing.get() || queue.size() > 0) {
+					Integer element = queue.poll();
+					if (element == null) {
+						Thread.onSpinWait();
+						continue;
+					}
+					seen.incrementAndGet(element);
+					consumed.incrementAndGet();
+				}
+			});
+		}
+		start.countDown();
+		assertTrue(produced.await(30, TimeUnit.SECONDS));
+		producing.set(false);
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+		assertEquals(total, consumed.get());
+		for (int i = 0; i < total; i++) {
+			assertEquals(1, seen.get(i), "elemento " + i);
+		}
+		assertNull(queue.poll());
+	}
+}
@@ -0,0 +1,90 @@
+package com.precificapro.service.backup;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LocalFileSystemBackupDestinationTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void uploadStreamsContentAndComputesSizeAndChecksum() throws Exception {
+		byte[] dump = new byte[3 * 1024 * 1024 + 17];
+		new Random(42).nextBytes(dump);
+		LocalFileSystemBackupDestination destination = new LocalFileSystemBackupDestination(directory.toString());
+
+		String key;
+		ChecksumInputStream content = new ChecksumInputStream(new ByteArrayInputStream(dump));
+		try (content) {
+			key = destination.upload("precificapro_backup_1.dump", "application/octet-stream", content);
+		}
+
+		assertEquals(dump.length, content.size());
+		assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(dump)), content.sha256Hex());
+
+		ByteArrayOutputStream downloaded = new ByteArrayOutputStream();
+		destination.download(key, downloaded);
+		assertArrayEquals(dump, downloaded.toByteArray());
+		assertEquals(List.of("precificapro_backup_1.dump (Size: " + dump.length + " bytes)"),
+				destination.list("precificapro_backup_"));
+	}
+
+	@Test
+	void failedUploadLeavesNoFile() throws Exception {
+		LocalFileSystemBackupDestination destination = new LocalFileSystemBackupDestination(directory.toString());
+		InputStream broken = new InputStream() {
+			private int remaining = 1024;
+
+			@Override
+			public int read() throws IOException {
+				if (remaining <= 0) {
+					throw new IOException("pg_dump interrompido");
+				}
+				remaining--;
+				return 'x';
+			}
+
+			// O read(byte[], int, int) padrão engole a IOException depois do primeiro byte
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				if (remaining <= 0) {
+					throw new IOException("pg_dump interrompido");
+				}
+				int n = Math.min(len, remaining);
+				Arrays.fill(b, off, off + n, (byte) 'x');
+				remaining -= n;
+				return n;
+			}
+		};
+
+		assertThrows(IOException.class, () -> destination.upload("precificapro_backup_2.dump", "application/octet-stream", broken));
+		try (var files = Files.list(directory)) {
+			assertFalse(files.findAny().isPresent());
+		}
+	}
+
+	@Test
+	void rejectsKeysOutsideTheDirectory() {
+		LocalFileSystemBackupDestination destination = new LocalFileSystemBackupDestination(directory.toString());
+
+		assertThrows(IOException.class, () -> destination.delete("../outside.dump"));
+	}
+}
@@ -0,0 +1,59 @@
+package com.precificapro.service.backup;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SelectiveRestoreScriptTest {
+
+	private static final SelectiveRestoreScript.Table PRODUCTS = new SelectiveRestoreScript.Table(
+			"products", List.of("id", "owner_id", "name"), List.of("id"));
+
+	@Test
+	void redirectsCopyToStagingTableAndKeepsDataLines() throws Exception {
+		SelectiveRestoreScript script = new SelectiveRestoreScript(List.of(PRODUCTS), null);
+		String dump = """
+				SET client_encoding = 'UTF8';
+				COPY public.products (id, owner_id, name) FROM stdin;
+				1\tA\tCOPY public.products (x) FROM stdin;
+				\\.
+				""";
+
+		StringWriter sql = new StringWriter();
+		script.rewrite(new BufferedReader(new StringReader(dump)), sql);
+
+		assertEquals("""
+				SET client_encoding = 'UTF8';
+				COPY pg_temp."restore_products" (id, owner_id, name) FROM stdin;
+				1\tA\tCOPY public.products (x) FROM stdin;
+				\\.
+				""", sql.toString());
+	}
+
+	@Test
+	void rejectsCopyForTablesNotRequested() {
+		SelectiveRestoreScript script = new SelectiveRestoreScript(List.of(PRODUCTS), null);
+
+		assertThrows(IllegalStateException.class, () -> script.rewrite(
+				new BufferedReader(new StringReader("COPY public.sales (id) FROM stdin;\n")), new StringWriter()));
+	}
+
+	@Test
+	void epilogueMergesOnlyTheOwnerRowsAndCommits() {
+		UUID owner = UUID.randomUUID();
+		String epilogue = new SelectiveRestoreScript(List.of(PRODUCTS), owner).epilogue();
+
+		assertTrue(epilogue.contains("INSERT INTO public.\"products\" (\"id\", \"owner_id\", \"name\")"));
+		assertTrue(epilogue.contains("WHERE owner_id = '" + owner + "'"));
+		assertTrue(epilogue.contains("ON CONFLICT (\"id\") DO UPDATE SET \"owner_id\" = EXCLUDED.\"owner_id\", \"name\" = EXCLUDED.\"name\";"));
+		assertTrue(epilogue.endsWith("COMMIT;\n"));
+	}
+}
@@ -0,0 +1,77 @@
+package com.precificapro.service.pricing;
+
+import com.precificapro.domain.enums.PricingMethod;
+import com.precificapro.domain.enums.RoundingRule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FixedPointPricingKernelTest {
+
+	private final BigDecimalPricingKernel reference = new BigDecimalPricingKernel();
+	private final FixedPointPricingKernel fixedPoint = new FixedPointPricingKernel(reference);
+
+	@Test
+	void matchesBigDecimalKernelOnKnownCases() {
+		List<CostInputs> costs = List.of(
+				costs("10.00", "1.50", "0.00", "0"),
+				costs("33.33", "0.10", "0.05", "2.857142857"),
+				costs("0.00", "0.00", "0.00", "0"),
+				costs("1999.99", "12.00", "3.33", "0.1666666667")
+		);
+		List<ProfileInputs> profiles = List.of(
+				profile(PricingMethod.MARKUP, "0.8000", "0", "0.0499", "0.1600", "0", 100, RoundingRule.NONE, "3500.00"),
+				profile(PricingMethod.MARGIN, "0", "0.2500", "0.0299", "0", "0.0100", 30, RoundingRule.UP_TO_0_90, "1234.56"),
+				profile(PricingMethod.MARGIN, "0", "0.5000", "0.3000", "0.2000", "0", 0, RoundingRule.UP_TO_0_99, "0"),
+				profile(PricingMethod.MARKUP, "1.0000", "0", "1.0000", "0", "0", 7, RoundingRule.UP_TO_0_50, "999.99")
+		);
+		for (CostInputs c : costs) {
+			for (ProfileInputs p : profiles) {
+				assertEquals(reference.calculate(c, p), fixedPoint.calculate(c, p), c + " / " + p);
+			}
+		}
+	}
+
+	@Test
+	void matchesBigDecimalKernelOnRandomInputs() {
+		Random random = new Random(20240601L);
+		for (int i = 0; i < 50_000; i++) {
+			int batchSize = 1 + random.nextInt(500);
+			BigDecimal freight = BigDecimalPricingKernel.safeDivide(
+					money(random, 6), BigDecimal.valueOf(batchSize), BigDecimalPricingKernel.MC);
+			CostInputs c = new CostInputs(money(random, 7), money(random, 4), money(random, 4), freight);
+			ProfileInputs p = new ProfileInputs(
+					random.nextBoolean() ? PricingMethod.MARKUP : PricingMethod.MARGIN,
+					BigDecimal.valueOf(random.nextInt(30_000), 4),
+					BigDecimal.valueOf(random.nextInt(9_000), 4),
+					BigDecimal.valueOf(random.nextInt(2_000), 4),
+					BigDecimal.valueOf(random.nextInt(2_000), 4),
+					BigDecimal.valueOf(random.nextInt(1_000), 4),
+					random.nextInt(5_000),
+					RoundingRule.values()[random.nextInt(RoundingRule.values().length)],
+					money(random, 8)
+			);
+			assertEquals(reference.calculate(c, p), fixedPoint.calculate(c, p), c + " / " + p);
+		}
+	}
+
+	private static BigDecimal money(Random random, int maxDigits) {
+		long bound = (long) Math.pow(10, 1 + random.nextInt(maxDigits));
+		return BigDecimal.valueOf((long) (random.nextDouble() * bound), 2);
+	}
+
+	private static CostInputs costs(String purchase, String packaging, String other, String freight) {
+		return new CostInputs(new BigDecimal(purchase), new BigDecimal(packaging), new BigDecimal(other), new BigDecimal(freight));
+	}
+
+	private static ProfileInputs profile(PricingMethod method, String markup, String margin, String machineFee,
+										 String marketplaceFee, String otherFees, int salesTarget,
+										 RoundingRule rule, String fixedCosts) {
+		return new ProfileInputs(method, new BigDecimal(markup), new BigDecimal(margin), new BigDecimal(machineFee),
+				new BigDecimal(marketplaceFee), new BigDecimal(otherFees), salesTarget, rule, new BigDecimal(fixedCosts));
+	}
+}
@@ -0,0 +1,102 @@
+package com.precificapro.service.tenant;
+
+import com.precificapro.service.tenant.TenantArchive.Column;
+import com.precificapro.service.tenant.TenantArchive.Header;
+import com.precificapro.service.tenant.TenantArchiveReader.TableSection;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TenantArchiveTest {
+
+	private static final int CHUNK_SIZE = 64 * 1024;
+	private static final List<Column> COLUMNS = List.of(new Column("id", "uuid"), new Column("name", "varchar"));
+
+	@Test
+	void roundTripsTablesAcrossManyChunks() throws Exception {
+		UUID owner = UUID.randomUUID();
+		byte[] products = randomBytes(5 * CHUNK_SIZE + 123);
+		byte[] empty = new byte[0];
+
+		byte[] archive = write(owner, products, empty);
+
+		try (TenantArchiveReader reader = new TenantArchiveReader(new ByteArrayInputStream(archive))) {
+			Header header = reader.readHeader();
+			assertEquals("20", header.schemaVersion());
+			assertEquals(owner, header.sourceOwnerId());
+			assertEquals(2, header.tableCount());
+
+			TableSection first = reader.nextTable();
+			assertEquals("products", first.table());
+			assertEquals(COLUMNS, first.columns());
+			assertArrayEquals(products, first.data().readAllBytes());
+			assertEquals(10, reader.endTable());
+
+			TableSection second = reader.nextTable();
+			assertEquals("sales", second.table());
+			assertArrayEquals(empty, second.data().readAllBytes());
+			assertEquals(0, reader.endTable());
+		}
+	}
+
+	@Test
+	void endTableSkipsUnreadData() throws Exception {
+		byte[] archive = write(UUID.randomUUID(), randomBytes(3 * CHUNK_SIZE), new byte[] {1, 2, 3});
+
+		try (TenantArchiveReader reader = new TenantArchiveReader(new ByteArrayInputStream(archive))) {
+			reader.readHeader();
+			reader.nextTable().data().read();
+			assertEquals(10, reader.endTable());
+
+			assertArrayEquals(new byte[] {1, 2, 3}, reader.nextTable().data().readAllBytes());
+		}
+	}
+
+	@Test
+	void detectsCorruptedChunk() throws Exception {
+		byte[] archive = write(UUID.randomUUID(), randomBytes(CHUNK_SIZE), new byte[0]);
+		archive[archive.length / 2] ^= 0x55;
+
+		try (TenantArchiveReader reader = new TenantArchiveReader(new ByteArrayInputStream(archive))) {
+			reader.readHeader();
+			assertThrows(IOException.class, () -> reader.nextTable().data().readAllBytes());
+		}
+	}
+
+	private static byte[] write(UUID owner, byte[] products, byte[] sales) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (TenantArchiveWriter writer = new TenantArchiveWriter(out, Deflater.BEST_SPEED, CHUNK_SIZE)) {
+			writer.writeHeader(new Header("20", owner, Instant.now(), 2));
+			OutputStream section = writer.beginTable("products", COLUMNS);
+			section.write(products);
+			writer.endTable(10);
+			section = writer.beginTable("sales", COLUMNS);
+			section.write(sales);
+			writer.endTable(0);
+			writer.finish();
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] randomBytes(int size) {
+		// Metade aleatória, metade repetida: exercita chunks compressíveis e incompressíveis
+		byte[] bytes = new byte[size];
+		new Random(7).nextBytes(bytes);
+		for (int i = size / 2; i < size; i++) {
+			bytes[i] = (byte) (i % 16);
+		}
+		return bytes;
+	}
+}
@@ -1,5 +1,5 @@
 import api from './axios';
-import { Inventory, StockAdjustData, StockMovement, InventorySummary } from '../types';
+import { Inventory, StockAdjustData, StockMovement, StockReservation, InventorySummary } from '../types';
 
 export const inventoryService = {
   // Listar todo o inventário
@@ -40,19 +40,23 @@ export const inventoryService = {
     return response.data;
   },
 
-  // Reservar estoque
-  reserveStock: async (productId: string, quantity: number): Promise<Inventory> => {
+  // Reservar estoque (expira em ttlSeconds; padrão do servidor: 15 minutos)
+  reserveStock: async (productId: string, quantity: number, ttlSeconds?: number): Promise<StockReservation> => {
     const response = await api.post(`/inventory/product/${productId}/reserve`, null, {
-      params: { quantity }
+      params: { quantity, ttlSeconds }
     });
     return response.data;
   },
 
-  // Liberar estoque reservado
-  releaseStock: async (productId: string, quantity: number): Promise<Inventory> => {
-    const response = await api.post(`/inventory/product/${productId}/release`, null, {
-      params: { quantity }
-    });
+  // Reservas ativas de um produto
+  getReservations: async (productId: string): Promise<StockReservation[]> => {
+    const response = await api.get(`/inventory/product/${productId}/reservations`);
+    return response.data;
+  },
+
+  // Liberar uma reserva
+  releaseReservation: async (reservationId: string): Promise<StockReservation> => {
+    const response = await api.post(`/inventory/reservations/${reservationId}/release`);
     return response.data;
   },
 
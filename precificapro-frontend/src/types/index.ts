@@ -220,6 +220,17 @@ export interface Product {
     createdAt: string;
   }
 
+  export interface StockReservation {
+    id: string;
+    productId: string;
+    productName: string;
+    quantity: number;
+    status: 'ACTIVE' | 'CONSUMED' | 'RELEASED' | 'EXPIRED';
+    expiresAt: string;
+    createdAt: string;
+    resolvedAt?: string;
+  }
+
   export interface InventorySummary {
     totalProducts: number;
     inStock: number;